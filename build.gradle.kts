@@ -10,7 +10,8 @@ description = "Demo project for Spring Boot"
 
 java {
 	toolchain {
-		languageVersion = JavaLanguageVersion.of(17)
+		// 21: hilos virtuales (spring.threads.virtual.enabled)
+		languageVersion = JavaLanguageVersion.of(21)
 	}
 }
 
@@ -25,7 +26,23 @@ dependencies {
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 	implementation ("org.springframework.boot:spring-boot-starter-actuator")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
-    runtimeOnly("org.postgresql:postgresql")
+	// implementation (no runtimeOnly): CacheInvalidationBus usa PGConnection para LISTEN
+	implementation("org.postgresql:postgresql")
+
+	// Caché en memoria (@Cacheable) invalidada entre instancias por CacheInvalidationBus
+	implementation("org.springframework.boot:spring-boot-starter-cache")
+
+	// Migraciones versionadas del esquema (src/main/resources/db/migration)
+	implementation("org.springframework.boot:spring-boot-starter-flyway")
+	implementation("org.flywaydb:flyway-database-postgresql")
+
+	// Índice de búsqueda embebido (products.search.engine=lucene)
+	implementation("org.apache.lucene:lucene-core:9.12.1")
+	implementation("org.apache.lucene:lucene-analysis-common:9.12.1")
+	implementation("org.apache.lucene:lucene-queryparser:9.12.1")
+
+	// Bitmaps comprimidos para el índice de categorías en memoria
+	implementation("org.roaringbitmap:RoaringBitmap:1.3.0")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 
 	// ============== NUEVAS DEPENDENCIAS DE SEGURIDAD ==============
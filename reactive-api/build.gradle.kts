@@ -0,0 +1,39 @@
+// Las versiones de los plugins las fija el build raíz
+plugins {
+	java
+	id("org.springframework.boot")
+	id("io.spring.dependency-management")
+}
+
+group = "ec.edu.ups.icc"
+version = "0.0.1-SNAPSHOT"
+description = "API reactiva de lectura de productos (WebFlux + R2DBC)"
+
+java {
+	toolchain {
+		languageVersion = JavaLanguageVersion.of(21)
+	}
+}
+
+repositories {
+	mavenCentral()
+}
+
+dependencies {
+	implementation("org.springframework.boot:spring-boot-starter-webflux")
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+
+	// Acceso no bloqueante a PostgreSQL (DatabaseClient)
+	implementation("org.springframework.boot:spring-boot-starter-data-r2dbc")
+	runtimeOnly("org.postgresql:r2dbc-postgresql")
+
+	// Seguridad: mismos tokens que emite el API MVC (JwtUtil)
+	implementation("org.springframework.boot:spring-boot-starter-security")
+	implementation("io.jsonwebtoken:jjwt-api:0.12.3")
+	runtimeOnly("io.jsonwebtoken:jjwt-impl:0.12.3")
+	runtimeOnly("io.jsonwebtoken:jjwt-jackson:0.12.3")
+}
+
+tasks.withType<JavaCompile> {
+	options.compilerArgs.add("-parameters")
+}
@@ -0,0 +1,19 @@
+package ec.edu.ups.icc.fundamentos01.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * API reactiva de lectura de productos (WebFlux + R2DBC)
+ *
+ * Sirve /paginated, /slice, /search y /{id} con el mismo JSON que el API MVC
+ * sobre la misma base; crear, editar y borrar siguen en el API MVC (JPA)
+ */
+@SpringBootApplication
+public class ReactiveApiApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveApiApplication.class, args);
+	}
+
+}
@@ -0,0 +1,17 @@
+package ec.edu.ups.icc.fundamentos01.reactive.exceptions.base;
+
+import org.springframework.http.HttpStatus;
+
+public abstract class ApplicationException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    protected ApplicationException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,12 @@
+package ec.edu.ups.icc.fundamentos01.reactive.exceptions.domain;
+
+import org.springframework.http.HttpStatus;
+
+import ec.edu.ups.icc.fundamentos01.reactive.exceptions.base.ApplicationException;
+
+public class BadRequestException extends ApplicationException {
+
+    public BadRequestException(String message) {
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+}
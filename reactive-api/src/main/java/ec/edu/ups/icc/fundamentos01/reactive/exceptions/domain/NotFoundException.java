@@ -0,0 +1,12 @@
+package ec.edu.ups.icc.fundamentos01.reactive.exceptions.domain;
+
+import org.springframework.http.HttpStatus;
+
+import ec.edu.ups.icc.fundamentos01.reactive.exceptions.base.ApplicationException;
+
+public class NotFoundException extends ApplicationException {
+
+    public NotFoundException(String message) {
+        super(HttpStatus.NOT_FOUND, message);
+    }
+}
@@ -0,0 +1,47 @@
+package ec.edu.ups.icc.fundamentos01.reactive.exceptions.handler;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import ec.edu.ups.icc.fundamentos01.reactive.exceptions.base.ApplicationException;
+import ec.edu.ups.icc.fundamentos01.reactive.exceptions.response.ErrorResponse;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+        // ============== EXCEPCIONES DE NEGOCIO ==============
+
+        @ExceptionHandler(ApplicationException.class)
+        public ResponseEntity<ErrorResponse> handleApplicationException(
+                        ApplicationException ex,
+                        ServerWebExchange exchange) {
+                ErrorResponse response = new ErrorResponse(
+                                ex.getStatus(),
+                                ex.getMessage(),
+                                exchange.getRequest().getPath().value());
+
+                return ResponseEntity
+                                .status(ex.getStatus())
+                                .body(response);
+        }
+
+        // ============== PARÁMETROS INVÁLIDOS (page=abc, id no numérico...) ==============
+
+        @ExceptionHandler(ServerWebInputException.class)
+        public ResponseEntity<ErrorResponse> handleInputException(
+                        ServerWebInputException ex,
+                        ServerWebExchange exchange) {
+                ErrorResponse response = new ErrorResponse(
+                                HttpStatus.BAD_REQUEST,
+                                ex.getReason(),
+                                exchange.getRequest().getPath().value());
+
+                return ResponseEntity
+                                .badRequest()
+                                .body(response);
+        }
+}
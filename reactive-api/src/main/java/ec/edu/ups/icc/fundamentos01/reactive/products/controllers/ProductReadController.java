@@ -0,0 +1,90 @@
+package ec.edu.ups.icc.fundamentos01.reactive.products.controllers;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import ec.edu.ups.icc.fundamentos01.reactive.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.reactive.products.dtos.ProductSearchParams;
+import ec.edu.ups.icc.fundamentos01.reactive.products.services.ProductReadService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rutas de lectura del API MVC con el mismo JSON (Page, Slice, ProductResponseDto)
+ *
+ * Con Accept: application/x-ndjson, /paginated y /search responden un producto
+ * por línea a medida que salen de la BD, sin armar la página en memoria ni
+ * contar el total; el ritmo lo marca el cliente (backpressure hasta el cursor)
+ */
+@RestController
+@RequestMapping("/api/products")
+public class ProductReadController {
+
+    private final ProductReadService productService;
+
+    public ProductReadController(ProductReadService productService) {
+        this.productService = productService;
+    }
+
+    // ============== PAGINACIÓN ==============
+
+    @GetMapping(value = "/paginated", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Page<ProductResponseDto>> findAll(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String[] sort) {
+
+        return productService.findPage(productService.paginatedQuery(page, size, sort));
+    }
+
+    @GetMapping(value = "/paginated", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductResponseDto> streamAll(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String[] sort) {
+
+        return productService.stream(productService.paginatedQuery(page, size, sort));
+    }
+
+    @GetMapping("/slice")
+    public Mono<Slice<ProductResponseDto>> findAllSlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String[] sort) {
+
+        return productService.findSlice(page, size, sort);
+    }
+
+    // ============== BÚSQUEDA CON FILTROS ==============
+
+    /**
+     * Mismos parámetros que el API MVC (ProductSearchParams)
+     * Ejemplo: GET /api/products/search?name=laptop&minPrice=500&page=0&size=5
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Page<ProductResponseDto>> findWithFilters(ProductSearchParams params) {
+        return productService.findPage(productService.searchQuery(params));
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductResponseDto> streamWithFilters(ProductSearchParams params) {
+        return productService.stream(productService.searchQuery(params));
+    }
+
+    // ============== POR ID ==============
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponseDto>> findById(@PathVariable("id") Long id) {
+        return productService.findById(id)
+                .map(product -> ResponseEntity.ok()
+                        .eTag(String.valueOf(product.version))
+                        .body(product));
+    }
+}
@@ -0,0 +1,9 @@
+package ec.edu.ups.icc.fundamentos01.reactive.products.dtos;
+
+// Mismo JSON que categories.dtos.CategoryResponseDto del API MVC
+public class CategoryResponseDto {
+    public Long id;
+    public String name;
+    public String description;
+
+}
@@ -0,0 +1,52 @@
+package ec.edu.ups.icc.fundamentos01.reactive.products.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Mismo JSON que products.dtos.ProductResponseDto del API MVC
+ * (los clientes pueden apuntar a cualquiera de los dos)
+ */
+@JsonPropertyOrder({
+        "id",
+        "name",
+        "price",
+        "description",
+        "user",
+        "categories",
+        "createdAt",
+        "updatedAt"
+})
+public class ProductResponseDto {
+    public Long id;
+    public String name;
+    public Double price;
+    public String description;
+
+    // ============== OBJETOS ANIDADOS ==============
+
+    public UserSummaryDto user;
+
+    public List<CategoryResponseDto> categories;
+
+    // ============== AUDITORÍA ==============
+
+    public LocalDateTime createdAt;
+    public LocalDateTime updatedAt;
+
+    // Versión para bloqueo optimista: se envía en el header ETag, no en el cuerpo
+    @JsonIgnore
+    public Long version;
+
+    // ============== DTOs INTERNOS ==============
+
+    public static class UserSummaryDto {
+        public Long id;
+        public String name;
+        public String email;
+    }
+
+}
@@ -0,0 +1,124 @@
+package ec.edu.ups.icc.fundamentos01.reactive.products.dtos;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Parámetros de GET /api/products/search (mismos nombres y valores por defecto
+ * que ProductController del API MVC); los comparten la respuesta JSON y la NDJSON
+ */
+public class ProductSearchParams {
+
+    private String name;
+    private Double minPrice;
+    private Double maxPrice;
+    private Long categoryId;
+    private Set<Long> categoryIds;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+    private String categoryMatch = "any";
+    private String mode = "contains";
+    private int page = 0;
+    private int size = 10;
+    private String[] sort = { "createdAt" };
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public void setCategoryIds(Set<Long> categoryIds) {
+        this.categoryIds = categoryIds;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public String getCategoryMatch() {
+        return categoryMatch;
+    }
+
+    public void setCategoryMatch(String categoryMatch) {
+        this.categoryMatch = categoryMatch;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String[] getSort() {
+        return sort;
+    }
+
+    public void setSort(String[] sort) {
+        this.sort = sort;
+    }
+}
@@ -0,0 +1,41 @@
+package ec.edu.ups.icc.fundamentos01.reactive.products.repository;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Filtros de /search (todos opcionales; null = sin filtro)
+ *
+ * - contains: name como subcadena, precio, categoryId y rango [createdFrom, createdTo)
+ * - categoryIds: al menos una (matchAllCategories = false) o todas
+ * - fullText: websearch_to_tsquery sobre search_vector, ordenado por relevancia
+ */
+public record ProductFilter(
+        String name,
+        Double minPrice,
+        Double maxPrice,
+        Long categoryId,
+        Set<Long> categoryIds,
+        boolean matchAllCategories,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo,
+        String fullText) {
+
+    public static ProductFilter none() {
+        return new ProductFilter(null, null, null, null, null, false, null, null, null);
+    }
+
+    public static ProductFilter contains(String name, Double minPrice, Double maxPrice, Long categoryId,
+            LocalDateTime createdFrom, LocalDateTime createdTo) {
+        return new ProductFilter(name, minPrice, maxPrice, categoryId, null, false, createdFrom, createdTo, null);
+    }
+
+    public static ProductFilter categories(String name, Double minPrice, Double maxPrice,
+            Set<Long> categoryIds, boolean matchAll) {
+        return new ProductFilter(name, minPrice, maxPrice, null, categoryIds, matchAll, null, null, null);
+    }
+
+    public static ProductFilter fullText(String query, Double minPrice, Double maxPrice, Long categoryId) {
+        return new ProductFilter(null, minPrice, maxPrice, categoryId, null, false, null, null, query);
+    }
+}
@@ -0,0 +1,247 @@
+package ec.edu.ups.icc.fundamentos01.reactive.products.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import ec.edu.ups.icc.fundamentos01.reactive.products.dtos.CategoryResponseDto;
+import ec.edu.ups.icc.fundamentos01.reactive.products.dtos.ProductResponseDto;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lecturas de productos con DatabaseClient (R2DBC), mismas consultas que
+ * ProductRepository del API MVC
+ *
+ * Streaming con backpressure:
+ * - fetchSize: PostgreSQL entrega las filas por bloques de un cursor y el
+ *   siguiente bloque solo se pide cuando el suscriptor demanda más filas
+ * - las categorías se cargan por lotes (una consulta con ANY(ids) por lote);
+ *   concatMap con prefetch 1 mantiene como mucho un lote en espera, así un
+ *   cliente lento frena la lectura en la BD en lugar de acumular filas en memoria
+ */
+@Repository
+public class ProductReadRepository {
+
+    private static final String SELECT_PRODUCTS = "SELECT p.id, p.name, p.price, p.description, p.version, " +
+            "p.user_id, u.name AS owner_name FROM products p JOIN users u ON u.id = p.user_id";
+
+    private static final String SELECT_CATEGORIES = "SELECT pc.product_id, c.id AS category_id, " +
+            "c.name AS category_name FROM product_categories pc JOIN categories c ON c.id = pc.category_id " +
+            "WHERE pc.product_id = ANY(:ids) ORDER BY pc.product_id, c.id";
+
+    // Lista blanca de ordenamiento (propiedades del API MVC → columnas)
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "p.id",
+            "name", "p.name",
+            "price", "p.price",
+            "createdAt", "p.created_at",
+            "updatedAt", "p.updated_at",
+            "owner.name", "u.name",
+            "owner.email", "u.email");
+
+    private final DatabaseClient client;
+    private final int fetchSize;
+    private final int categoryBatch;
+
+    public ProductReadRepository(DatabaseClient client,
+            @Value("${products.stream.fetch-size:256}") int fetchSize,
+            @Value("${products.stream.category-batch:64}") int categoryBatch) {
+        this.client = client;
+        this.fetchSize = fetchSize;
+        this.categoryBatch = categoryBatch;
+    }
+
+    public static boolean isSortable(String property) {
+        return SORT_COLUMNS.containsKey(property);
+    }
+
+    /**
+     * Productos que cumplen el filtro, en el orden pedido, desde offset y como mucho limit
+     */
+    public Flux<ProductResponseDto> find(ProductFilter filter, Sort sort, long offset, int limit) {
+        Where where = where(filter);
+        String sql = SELECT_PRODUCTS + where.sql() + orderBy(filter, sort) + " LIMIT :limit OFFSET :offset";
+
+        GenericExecuteSpec spec = where.bind(client.sql(sql))
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .filter(statement -> statement.fetchSize(fetchSize));
+
+        return withCategories(spec.map(this::toResponseDto).all());
+    }
+
+    public Mono<Long> count(ProductFilter filter) {
+        Where where = where(filter);
+        return where.bind(client.sql("SELECT COUNT(*) AS total FROM products p" + where.sql()))
+                .map((row, metadata) -> row.get("total", Long.class))
+                .one();
+    }
+
+    public Mono<ProductResponseDto> findById(Long id) {
+        Flux<ProductResponseDto> product = client.sql(SELECT_PRODUCTS + " WHERE p.id = :id")
+                .bind("id", id)
+                .map(this::toResponseDto)
+                .all();
+        return withCategories(product).next();
+    }
+
+    // ============== CATEGORÍAS POR LOTES ==============
+
+    private Flux<ProductResponseDto> withCategories(Flux<ProductResponseDto> products) {
+        return products
+                .buffer(categoryBatch)
+                .concatMap(this::loadCategories, 1);
+    }
+
+    private Flux<ProductResponseDto> loadCategories(List<ProductResponseDto> batch) {
+        Long[] ids = batch.stream().map(product -> product.id).toArray(Long[]::new);
+
+        return client.sql(SELECT_CATEGORIES)
+                .bind("ids", ids)
+                .map((row, metadata) -> new CategoryRow(
+                        row.get("product_id", Long.class),
+                        row.get("category_id", Long.class),
+                        row.get("category_name", String.class)))
+                .all()
+                .collectMultimap(CategoryRow::productId)
+                .flatMapIterable(byProduct -> {
+                    for (ProductResponseDto product : batch) {
+                        product.categories = toCategoryDtos(byProduct.get(product.id));
+                    }
+                    return batch;
+                });
+    }
+
+    private List<CategoryResponseDto> toCategoryDtos(Collection<CategoryRow> rows) {
+        List<CategoryResponseDto> categories = new ArrayList<>();
+        if (rows == null) {
+            return categories;
+        }
+        for (CategoryRow row : rows) {
+            CategoryResponseDto category = new CategoryResponseDto();
+            category.id = row.categoryId();
+            category.name = row.name();
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    // ============== SQL DINÁMICO ==============
+
+    /**
+     * Solo se añaden las condiciones de los filtros presentes (sin ":x IS NULL OR ...")
+     * para que el planificador vea la consulta real y use los índices
+     */
+    private Where where(ProductFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new LinkedHashMap<>();
+
+        if (filter.fullText() != null) {
+            conditions.add("p.search_vector @@ websearch_to_tsquery('spanish', :query)");
+            params.put("query", filter.fullText());
+        }
+        // LIKE '%name%' → índice de trigramas idx_products_name_trgm
+        if (filter.name() != null && !filter.name().isEmpty()) {
+            conditions.add("LOWER(p.name) LIKE LOWER(:name)");
+            params.put("name", "%" + filter.name() + "%");
+        }
+        if (filter.minPrice() != null) {
+            conditions.add("p.price >= :minPrice");
+            params.put("minPrice", filter.minPrice());
+        }
+        if (filter.maxPrice() != null) {
+            conditions.add("p.price <= :maxPrice");
+            params.put("maxPrice", filter.maxPrice());
+        }
+        if (filter.categoryId() != null) {
+            conditions.add("EXISTS (SELECT 1 FROM product_categories pc " +
+                    "WHERE pc.product_id = p.id AND pc.category_id = :categoryId)");
+            params.put("categoryId", filter.categoryId());
+        }
+        if (filter.categoryIds() != null && !filter.categoryIds().isEmpty()) {
+            if (filter.matchAllCategories()) {
+                conditions.add("(SELECT COUNT(*) FROM product_categories pc " +
+                        "WHERE pc.product_id = p.id AND pc.category_id = ANY(:categoryIds)) = :categoryCount");
+                params.put("categoryCount", (long) filter.categoryIds().size());
+            } else {
+                conditions.add("EXISTS (SELECT 1 FROM product_categories pc " +
+                        "WHERE pc.product_id = p.id AND pc.category_id = ANY(:categoryIds))");
+            }
+            params.put("categoryIds", filter.categoryIds().toArray(Long[]::new));
+        }
+        // Rango semiabierto: con products particionada solo recorre las particiones del rango
+        if (filter.createdFrom() != null) {
+            conditions.add("p.created_at >= :createdFrom");
+            params.put("createdFrom", filter.createdFrom());
+        }
+        if (filter.createdTo() != null) {
+            conditions.add("p.created_at < :createdTo");
+            params.put("createdTo", filter.createdTo());
+        }
+
+        String sql = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        return new Where(sql, params);
+    }
+
+    private String orderBy(ProductFilter filter, Sort sort) {
+        // Full-text: por relevancia, igual que searchFullText (ignora sort)
+        if (filter.fullText() != null) {
+            return " ORDER BY ts_rank_cd(p.search_vector, websearch_to_tsquery('spanish', :query)) DESC, p.id";
+        }
+
+        List<String> orders = new ArrayList<>();
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Propiedad de ordenamiento no válida: " + order.getProperty());
+            }
+            orders.add(column + (order.isDescending() ? " DESC" : " ASC"));
+            byId |= "p.id".equals(column);
+        }
+        // Desempate por id: páginas estables aunque haya valores repetidos
+        if (!byId) {
+            orders.add("p.id");
+        }
+        return " ORDER BY " + String.join(", ", orders);
+    }
+
+    private ProductResponseDto toResponseDto(Row row, RowMetadata metadata) {
+        ProductResponseDto dto = new ProductResponseDto();
+        dto.id = row.get("id", Long.class);
+        dto.name = row.get("name", String.class);
+        dto.price = row.get("price", Double.class);
+        dto.description = row.get("description", String.class);
+        dto.version = row.get("version", Long.class);
+
+        ProductResponseDto.UserSummaryDto ownerDto = new ProductResponseDto.UserSummaryDto();
+        ownerDto.id = row.get("user_id", Long.class);
+        ownerDto.name = row.get("owner_name", String.class);
+        dto.user = ownerDto;
+        return dto;
+    }
+
+    private record CategoryRow(Long productId, Long categoryId, String name) {
+    }
+
+    private record Where(String sql, Map<String, Object> params) {
+
+        GenericExecuteSpec bind(GenericExecuteSpec spec) {
+            for (Map.Entry<String, Object> param : params.entrySet()) {
+                spec = spec.bind(param.getKey(), param.getValue());
+            }
+            return spec;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ec.edu.ups.icc.fundamentos01.reactive.products.services;
+
+import org.springframework.data.domain.Pageable;
+
+import ec.edu.ups.icc.fundamentos01.reactive.products.repository.ProductFilter;
+
+/**
+ * Consulta ya validada: la misma sirve para la página JSON y para el stream NDJSON
+ */
+public record ProductQuery(ProductFilter filter, Pageable pageable) {
+}
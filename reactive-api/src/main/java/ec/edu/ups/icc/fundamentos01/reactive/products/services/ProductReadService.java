@@ -0,0 +1,207 @@
+package ec.edu.ups.icc.fundamentos01.reactive.products.services;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import ec.edu.ups.icc.fundamentos01.reactive.exceptions.domain.BadRequestException;
+import ec.edu.ups.icc.fundamentos01.reactive.exceptions.domain.NotFoundException;
+import ec.edu.ups.icc.fundamentos01.reactive.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.reactive.products.dtos.ProductSearchParams;
+import ec.edu.ups.icc.fundamentos01.reactive.products.repository.ProductFilter;
+import ec.edu.ups.icc.fundamentos01.reactive.products.repository.ProductReadRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mismas reglas que ProductServiceImpl (validaciones, mensajes, paginación)
+ * sobre ProductReadRepository
+ */
+@Service
+public class ProductReadService {
+
+    private final ProductReadRepository productRepo;
+
+    public ProductReadService(ProductReadRepository productRepo) {
+        this.productRepo = productRepo;
+    }
+
+    // ============== CONSULTAS ==============
+
+    public ProductQuery paginatedQuery(int page, int size, String[] sort) {
+        return new ProductQuery(ProductFilter.none(), createPageable(page, size, sort));
+    }
+
+    /**
+     * Mismo reparto por modo que ProductController.findWithFilters del API MVC
+     */
+    public ProductQuery searchQuery(ProductSearchParams params) {
+        String mode = params.getMode();
+        Set<Long> categoryIds = params.getCategoryIds();
+        boolean withCategoryIds = categoryIds != null && !categoryIds.isEmpty();
+
+        boolean createdRange = params.getCreatedFrom() != null || params.getCreatedTo() != null;
+        if (createdRange && (!"contains".equalsIgnoreCase(mode) || withCategoryIds)) {
+            throw new BadRequestException("createdFrom/createdTo solo se admiten en modo contains sin categoryIds");
+        }
+
+        validateFilterParameters(params.getMinPrice(), params.getMaxPrice());
+
+        if (withCategoryIds) {
+            if (!"contains".equalsIgnoreCase(mode)) {
+                throw new BadRequestException("categoryIds solo se admite en modo contains");
+            }
+            Set<Long> allCategoryIds = new HashSet<>(categoryIds);
+            if (params.getCategoryId() != null) {
+                allCategoryIds.add(params.getCategoryId());
+            }
+            return new ProductQuery(
+                    ProductFilter.categories(params.getName(), params.getMinPrice(), params.getMaxPrice(),
+                            allCategoryIds, parseCategoryMatch(params.getCategoryMatch())),
+                    createPageable(params.getPage(), params.getSize(), params.getSort()));
+        }
+
+        return switch (mode.toLowerCase()) {
+            case "contains" -> {
+                validateCreatedRange(params.getCreatedFrom(), params.getCreatedTo());
+                yield new ProductQuery(
+                        ProductFilter.contains(params.getName(), params.getMinPrice(), params.getMaxPrice(),
+                                params.getCategoryId(), params.getCreatedFrom(), params.getCreatedTo()),
+                        createPageable(params.getPage(), params.getSize(), params.getSort()));
+            }
+            case "fulltext" -> {
+                String query = params.getName();
+                if (query == null || query.isBlank()) {
+                    throw new BadRequestException("El texto de búsqueda es obligatorio en modo fulltext");
+                }
+                // Sin Sort: el orden lo define la relevancia (ts_rank_cd)
+                validatePage(params.getPage(), params.getSize());
+                yield new ProductQuery(
+                        ProductFilter.fullText(query.trim(), params.getMinPrice(), params.getMaxPrice(),
+                                params.getCategoryId()),
+                        PageRequest.of(params.getPage(), params.getSize()));
+            }
+            default -> throw new BadRequestException("Modo de búsqueda no válido: " + mode);
+        };
+    }
+
+    // ============== EJECUCIÓN ==============
+
+    /**
+     * Página con total; como Spring Data, el COUNT se omite cuando la página
+     * no se llena (el total ya se conoce)
+     */
+    public Mono<Page<ProductResponseDto>> findPage(ProductQuery query) {
+        Pageable pageable = query.pageable();
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+
+        return productRepo.find(query.filter(), pageable.getSort(), offset, size)
+                .collectList()
+                .flatMap(content -> {
+                    if (content.size() < size && (offset == 0 || !content.isEmpty())) {
+                        return Mono.just(toPage(content, pageable, offset + content.size()));
+                    }
+                    return productRepo.count(query.filter())
+                            .map(total -> toPage(content, pageable, total));
+                });
+    }
+
+    /**
+     * Slice: pide size + 1 filas para saber si hay siguiente, sin COUNT
+     */
+    public Mono<Slice<ProductResponseDto>> findSlice(int page, int size, String[] sort) {
+        Pageable pageable = createPageable(page, size, sort);
+
+        return productRepo.find(ProductFilter.none(), pageable.getSort(), pageable.getOffset(), size + 1)
+                .collectList()
+                .map(rows -> {
+                    boolean hasNext = rows.size() > size;
+                    List<ProductResponseDto> content = hasNext ? rows.subList(0, size) : rows;
+                    return new SliceImpl<>(content, pageable, hasNext);
+                });
+    }
+
+    /**
+     * Las filas de la página una a una según las consume el cliente (NDJSON)
+     */
+    public Flux<ProductResponseDto> stream(ProductQuery query) {
+        Pageable pageable = query.pageable();
+        return productRepo.find(query.filter(), pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+    }
+
+    public Mono<ProductResponseDto> findById(Long id) {
+        return productRepo.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Producto no encontrado con ID: " + id)));
+    }
+
+    // ============== MÉTODOS HELPER ==============
+
+    private Page<ProductResponseDto> toPage(List<ProductResponseDto> content, Pageable pageable, long total) {
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Igual que ProductServiceImpl.createPageable: sort = [propiedad, dirección]
+     */
+    private Pageable createPageable(int page, int size, String[] sort) {
+        validatePage(page, size);
+
+        String sortField = sort.length > 0 ? sort[0] : "id";
+        if (!ProductReadRepository.isSortable(sortField)) {
+            throw new BadRequestException("Propiedad de ordenamiento no válida: " + sortField);
+        }
+        Sort.Direction sortDirection = sort.length > 1 && sort[1].equalsIgnoreCase("desc")
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+
+        return PageRequest.of(page, size, Sort.by(sortDirection, sortField));
+    }
+
+    private void validatePage(int page, int size) {
+        if (page < 0) {
+            throw new BadRequestException("La página debe ser mayor o igual a 0");
+        }
+        if (size < 1) {
+            throw new BadRequestException("El tamaño debe ser mayor a 0");
+        }
+    }
+
+    private void validateFilterParameters(Double minPrice, Double maxPrice) {
+        if (minPrice != null && minPrice < 0) {
+            throw new BadRequestException("El precio mínimo no puede ser negativo");
+        }
+
+        if (maxPrice != null && maxPrice < 0) {
+            throw new BadRequestException("El precio máximo no puede ser negativo");
+        }
+
+        if (minPrice != null && maxPrice != null && maxPrice < minPrice) {
+            throw new BadRequestException("El precio máximo debe ser mayor o igual al precio mínimo");
+        }
+    }
+
+    private void validateCreatedRange(LocalDateTime createdFrom, LocalDateTime createdTo) {
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new BadRequestException("createdFrom debe ser anterior a createdTo");
+        }
+    }
+
+    private boolean parseCategoryMatch(String categoryMatch) {
+        return switch (categoryMatch.toLowerCase()) {
+            case "any" -> false;
+            case "all" -> true;
+            default -> throw new BadRequestException("categoryMatch debe ser any o all: " + categoryMatch);
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package ec.edu.ups.icc.fundamentos01.reactive.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import ec.edu.ups.icc.fundamentos01.reactive.exceptions.response.ErrorResponse;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * 401 con el mismo ErrorResponse que el API MVC
+ */
+@Component
+public class JwtAuthenticationEntryPoint implements ServerAuthenticationEntryPoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationEntryPoint.class);
+
+    private final JsonMapper jsonMapper;
+
+    public JwtAuthenticationEntryPoint(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public Mono<Void> commence(ServerWebExchange exchange, AuthenticationException authException) {
+        logger.error("Error de autenticación: {}", authException.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.UNAUTHORIZED,
+                "Token de autenticación inválido o no proporcionado. " +
+                        "Debe incluir un token válido en el header Authorization: Bearer <token>",
+                exchange.getRequest().getPath().value());
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        DataBuffer body = response.bufferFactory().wrap(jsonMapper.writeValueAsBytes(errorResponse));
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -0,0 +1,75 @@
+package ec.edu.ups.icc.fundamentos01.reactive.security;
+
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Equivalente reactivo de JwtAuthenticationFilter
+ *
+ * 1. Extrae el token del header Authorization (Bearer)
+ * 2. Lo verifica (JwtVerifier) y carga el usuario con sus roles
+ * 3. Publica la autenticación en el contexto de Reactor
+ * Si algo falla no corta la petición: sigue sin autenticación y la cadena de
+ * seguridad responde 401 (JwtAuthenticationEntryPoint)
+ *
+ * No es un @Component: WebFlux añadiría cualquier WebFilter registrado como bean
+ * a todas las peticiones; solo se instala en SecurityConfig
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationWebFilter.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtVerifier jwtVerifier;
+    private final UserDetailsServiceImpl userDetailsService;
+
+    public JwtAuthenticationWebFilter(JwtVerifier jwtVerifier, UserDetailsServiceImpl userDetailsService) {
+        this.jwtVerifier = jwtVerifier;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String jwt = getJwtFromRequest(exchange.getRequest());
+        String email = StringUtils.hasText(jwt) ? jwtVerifier.getEmailIfValid(jwt) : null;
+        if (email == null) {
+            return chain.filter(exchange);
+        }
+
+        // Optional: un Mono vacío no debe confundirse con "usuario no encontrado"
+        return userDetailsService.findByUsername(email)
+                .map(user -> Optional.<Authentication>of(
+                        UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities())))
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(ex -> {
+                    logger.error("No se pudo establecer la autenticación del usuario", ex);
+                    return Mono.just(Optional.empty());
+                })
+                .flatMap(authentication -> authentication
+                        .map(auth -> chain.filter(exchange)
+                                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth)))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+
+    private String getJwtFromRequest(ServerHttpRequest request) {
+        String bearerToken = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
+            return bearerToken.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,60 @@
+package ec.edu.ups.icc.fundamentos01.reactive.security;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Verificación de tokens equivalente a JwtUtil.validateToken + getEmailFromToken
+ *
+ * Misma clave HS256 (jwt.secret) y mismos casos de rechazo: firma inválida,
+ * token malformado, expirado o no soportado. El parser es inmutable y se
+ * reutiliza; el token se parsea una sola vez por petición
+ */
+@Component
+public class JwtVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtVerifier.class);
+
+    private final JwtParser parser;
+
+    public JwtVerifier(JwtProperties jwtProperties) {
+        SecretKey key = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+    }
+
+    /**
+     * Email del token (claim "email") si es válido; null si no
+     */
+    public String getEmailIfValid(String token) {
+        try {
+            return parser.parseSignedClaims(token)
+                    .getPayload()
+                    .get("email", String.class);
+
+        } catch (SignatureException ex) {
+            logger.error("Firma JWT inválida: {}", ex.getMessage());
+        } catch (MalformedJwtException ex) {
+            logger.error("Token JWT malformado: {}", ex.getMessage());
+        } catch (ExpiredJwtException ex) {
+            logger.error("Token JWT expirado: {}", ex.getMessage());
+        } catch (UnsupportedJwtException ex) {
+            logger.error("Token JWT no soportado: {}", ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            logger.error("JWT claims string está vacío: {}", ex.getMessage());
+        }
+        return null;
+    }
+}
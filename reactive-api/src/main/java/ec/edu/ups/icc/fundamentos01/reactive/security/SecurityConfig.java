@@ -0,0 +1,39 @@
+package ec.edu.ups.icc.fundamentos01.reactive.security;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * Mismas reglas que el API MVC para las rutas de productos: todo requiere JWT
+ * Stateless: sin sesión, sin CSRF, sin login por formulario ni HTTP Basic
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+            JwtVerifier jwtVerifier,
+            UserDetailsServiceImpl userDetailsService,
+            JwtAuthenticationEntryPoint authenticationEntryPoint) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(authenticationEntryPoint))
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/actuator/health").permitAll()
+                        .anyExchange().authenticated())
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtVerifier, userDetailsService),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package ec.edu.ups.icc.fundamentos01.reactive.security;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Carga el usuario del token y sus roles en una sola consulta (R2DBC)
+ *
+ * Igual que el API MVC, cada petición lee los roles actuales de la BD: un
+ * usuario borrado o con roles cambiados no sigue entrando con un token viejo
+ */
+@Service
+public class UserDetailsServiceImpl implements ReactiveUserDetailsService {
+
+    private final DatabaseClient client;
+
+    public UserDetailsServiceImpl(DatabaseClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String email) {
+        return client.sql("SELECT r.name AS role FROM users u " +
+                "LEFT JOIN user_roles ur ON ur.user_id = u.id " +
+                "LEFT JOIN roles r ON r.id = ur.role_id " +
+                "WHERE u.email = :email")
+                .bind("email", email)
+                // LEFT JOIN: un usuario sin roles devuelve una fila con role NULL
+                .map((row, metadata) -> new RoleRow(row.get("role", String.class)))
+                .all()
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .map(rows -> toUserDetails(email, rows));
+    }
+
+    private UserDetails toUserDetails(String email, List<RoleRow> rows) {
+        String[] roles = rows.stream()
+                .map(RoleRow::role)
+                .filter(Objects::nonNull)
+                .toArray(String[]::new);
+
+        // Sin contraseña: la autenticación ya la hizo el token
+        return User.withUsername(email)
+                .password("")
+                .authorities(roles)
+                .build();
+    }
+
+    private record RoleRow(String role) {
+    }
+}
@@ -1 +1,4 @@
 rootProject.name = "fundamentos01"
+
+// API reactiva de solo lectura de productos (WebFlux + R2DBC)
+include("reactive-api")
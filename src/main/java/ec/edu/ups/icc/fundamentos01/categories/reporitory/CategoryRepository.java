@@ -1,14 +1,20 @@
 package ec.edu.ups.icc.fundamentos01.categories.reporitory;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
 
 @Repository
+@Transactional(readOnly = true)
 public interface CategoryRepository extends JpaRepository<CategoryEntity, Long> {
 
         /**
@@ -22,4 +28,20 @@ public interface CategoryRepository extends JpaRepository<CategoryEntity, Long>
          */
         Optional<CategoryEntity> findByNameIgnoreCase(String name);
 
+        /**
+         * Retorna cuáles de los IDs existen (una sola consulta con IN)
+         * Útil para validar varias categorías sin cargar las entidades
+         */
+        @Query("SELECT c.id FROM CategoryEntity c WHERE c.id IN :ids")
+        List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+        /**
+         * Pares [id, nombre] (tablas de dimensión del modelo de lectura de productos)
+         */
+        @Query("SELECT c.id, c.name FROM CategoryEntity c")
+        List<Object[]> findAllIdsAndNames();
+
+        @Query("SELECT c.id, c.name FROM CategoryEntity c WHERE c.id IN :ids")
+        List<Object[]> findIdsAndNamesByIdIn(@Param("ids") Collection<Long> ids);
+
 }
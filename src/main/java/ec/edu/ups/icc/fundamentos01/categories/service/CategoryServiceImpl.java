@@ -2,6 +2,8 @@ package ec.edu.ups.icc.fundamentos01.categories.service;
 
 import java.util.List;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryCreateDto;
@@ -9,22 +11,35 @@ import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
 import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
 import ec.edu.ups.icc.fundamentos01.categories.mappers.CategoryMapper;
 import ec.edu.ups.icc.fundamentos01.categories.reporitory.CategoryRepository;
+import ec.edu.ups.icc.fundamentos01.core.cache.CacheInvalidationBus;
+import ec.edu.ups.icc.fundamentos01.core.cache.CacheNames;
+import jakarta.transaction.Transactional;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
 
     private CategoryRepository categoryRepository;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    private final CacheInvalidationBus cacheBus;
+
+    public CategoryServiceImpl(CategoryRepository categoryRepository, CacheInvalidationBus cacheBus) {
         this.categoryRepository = categoryRepository;
+        this.cacheBus = cacheBus;
     }
 
+    /**
+     * Se cachea en memoria; la invalidan save() en esta instancia
+     * y CacheInvalidationBus cuando escribe otra instancia
+     */
     @Override
+    @Cacheable(CacheNames.CATEGORIES)
     public List<CategoryResponseDto> findAll() {
         return categoryRepository.findAll().stream().map(CategoryMapper::toResponseDto).toList();
     }
 
     @Override
+    @Transactional
+    @CacheEvict(value = CacheNames.CATEGORIES, allEntries = true)
     public CategoryResponseDto save(CategoryCreateDto createDto) {
 
         var categoryEntity = new CategoryEntity();
@@ -32,6 +47,7 @@ public class CategoryServiceImpl implements CategoryService {
         categoryEntity.setDescription(createDto.description);
 
         var saved = categoryRepository.save(categoryEntity);
+        cacheBus.record(CacheInvalidationBus.Entity.CATEGORY, saved.getId());
 
         return CategoryMapper.toResponseDto(saved);
     }
@@ -0,0 +1,126 @@
+package ec.edu.ups.icc.fundamentos01.core.bloom;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter concurrente sobre Strings
+ * 
+ * - mightContain() == false → el valor NUNCA fue agregado (respuesta segura)
+ * - mightContain() == true → el valor PROBABLEMENTE fue agregado (puede ser falso positivo)
+ * 
+ * Los bits se guardan en un AtomicLongArray: put() y mightContain() no usan locks
+ */
+public class BloomFilter {
+
+    private static final long SEED_1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    /**
+     * @param expectedInsertions cantidad esperada de valores
+     * @param falsePositiveProbability probabilidad de falso positivo deseada (ej: 0.01)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveProbability, 1e-9), 0.5);
+
+        // m = -n ln(p) / (ln 2)^2 ; k = m/n ln 2
+        long optimalBits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (optimalBits + 63) / 64));
+
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    public void put(String value) {
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        long h1 = hash(data, SEED_1);
+        long h2 = hash(data, SEED_2);
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            if (setBit(bit)) {
+                bitsSet.incrementAndGet();
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        long h1 = hash(data, SEED_1);
+        long h2 = hash(data, SEED_2);
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Probabilidad de falso positivo estimada según la proporción de bits encendidos
+     * (fill ratio ^ k)
+     */
+    public double expectedFalsePositiveRate() {
+        double fillRatio = (double) bitsSet.get() / bitSize;
+        return Math.pow(fillRatio, hashFunctions);
+    }
+
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * Enciende el bit con CAS; retorna true si antes estaba apagado
+     */
+    private boolean setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+
+        long current;
+        do {
+            current = words.get(index);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, current, current | mask));
+
+        return true;
+    }
+
+    /**
+     * Hash de 64 bits (mezcla tipo FNV + finalizador de MurmurHash3)
+     */
+    private static long hash(byte[] data, long seed) {
+        long h = seed ^ (data.length * 0xFF51AFD7ED558CCDL);
+        for (byte b : data) {
+            h ^= (b & 0xFF);
+            h *= 0x100000001B3L;
+        }
+
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
@@ -0,0 +1,104 @@
+package ec.edu.ups.icc.fundamentos01.core.bloom;
+
+import java.util.function.Predicate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Atajo para validaciones de unicidad ("¿este valor ya existe en BD?")
+ * 
+ * - Bloom filter responde "no existe" → se omite la consulta a BD
+ * - Bloom filter responde "tal vez" → se confirma con la consulta a BD
+ * 
+ * Mientras el filtro no termina de construirse, siempre se consulta la BD
+ */
+public class ExistenceFilter {
+
+    private final String name;
+    private final BloomFilter bloomFilter;
+    private volatile boolean ready;
+
+    private final Counter skippedProbes;
+    private final Counter confirmedProbes;
+    private final Counter falsePositives;
+
+    public ExistenceFilter(String name, long expectedInsertions, double falsePositiveProbability,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveProbability);
+
+        this.skippedProbes = Counter.builder("bloom.filter.probes")
+                .tag("filter", name).tag("result", "skipped")
+                .description("Consultas de unicidad evitadas por el bloom filter")
+                .register(meterRegistry);
+        this.confirmedProbes = Counter.builder("bloom.filter.probes")
+                .tag("filter", name).tag("result", "queried")
+                .description("Consultas de unicidad enviadas a la BD")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("bloom.filter.false.positives")
+                .tag("filter", name)
+                .description("Respuestas 'tal vez' que la BD desmintió")
+                .register(meterRegistry);
+
+        Gauge.builder("bloom.filter.expected.fpp", bloomFilter, BloomFilter::expectedFalsePositiveRate)
+                .tag("filter", name)
+                .description("Probabilidad de falso positivo estimada por ocupación de bits")
+                .register(meterRegistry);
+        Gauge.builder("bloom.filter.observed.fpp", this, ExistenceFilter::observedFalsePositiveRate)
+                .tag("filter", name)
+                .description("Falsos positivos / consultas enviadas a la BD")
+                .register(meterRegistry);
+        Gauge.builder("bloom.filter.memory", bloomFilter, BloomFilter::memoryBytes)
+                .tag("filter", name)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param value valor a verificar
+     * @param databaseProbe consulta real a BD (solo se ejecuta si el filtro dice "tal vez")
+     * @return true si el valor existe en BD
+     */
+    public boolean exists(String value, Predicate<String> databaseProbe) {
+        if (ready && !bloomFilter.mightContain(value)) {
+            skippedProbes.increment();
+            return false;
+        }
+
+        confirmedProbes.increment();
+        boolean exists = databaseProbe.test(value);
+        if (ready && !exists) {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    /**
+     * Registra un valor nuevo (después de persistirlo)
+     */
+    public void put(String value) {
+        if (value != null) {
+            bloomFilter.put(value);
+        }
+    }
+
+    public void markReady() {
+        this.ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private double observedFalsePositiveRate() {
+        double queried = confirmedProbes.count();
+        return queried == 0 ? 0.0 : falsePositives.count() / queried;
+    }
+
+}
@@ -0,0 +1,82 @@
+package ec.edu.ups.icc.fundamentos01.core.bloom;
+
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bloom filters de los valores únicos del sistema:
+ * - Nombres de productos (ProductServiceImpl.create)
+ * - Emails de usuarios (AuthService.register, UserServiceImpl.create)
+ * 
+ * Se construyen al arrancar con un recorrido en streaming de la BD
+ * y se actualizan en cada escritura. Las eliminaciones no se quitan del filtro:
+ * solo generan falsos positivos, que se resuelven consultando la BD
+ */
+@Component
+public class UniquenessFilters {
+
+    private static final Logger logger = LoggerFactory.getLogger(UniquenessFilters.class);
+
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+
+    private final ExistenceFilter productNames;
+    private final ExistenceFilter userEmails;
+
+    public UniquenessFilters(ProductRepository productRepository,
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${bloom.expected-insertions:100000}") long expectedInsertions,
+            @Value("${bloom.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.productNames = new ExistenceFilter("product-name", expectedInsertions, falsePositiveProbability,
+                meterRegistry);
+        this.userEmails = new ExistenceFilter("user-email", expectedInsertions, falsePositiveProbability,
+                meterRegistry);
+    }
+
+    /**
+     * Se ejecuta cuando la aplicación terminó de arrancar
+     * (después de DataInitializer, que crea el usuario admin)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        load(productNames, productRepository.streamAllNames());
+        load(userEmails, userRepository.streamAllEmails());
+    }
+
+    public ExistenceFilter productNames() {
+        return productNames;
+    }
+
+    public ExistenceFilter userEmails() {
+        return userEmails;
+    }
+
+    private void load(ExistenceFilter filter, Stream<String> values) {
+        long count = 0;
+        try (values) {
+            for (String value : (Iterable<String>) values::iterator) {
+                filter.put(value);
+                count++;
+            }
+        }
+
+        filter.markReady();
+        logger.info("Bloom filter '{}' construido con {} valores", filter.getName(), count);
+    }
+
+}
@@ -0,0 +1,72 @@
+package ec.edu.ups.icc.fundamentos01.core.bulkhead;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compartimento de un grupo de rutas: como mucho maxConcurrent peticiones en
+ * curso y maxQueue esperando turno (cada una como mucho queueTimeout)
+ *
+ * Así un grupo nunca ocupa más de maxConcurrent + maxQueue hilos de Tomcat ni
+ * más de maxConcurrent conexiones del pool; el resto queda para las demás rutas
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+
+    // Justo: las peticiones en cola entran en orden de llegada
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public Bulkhead(String name, BulkheadProperties.Group group) {
+        this.name = name;
+        this.maxConcurrent = group.getMaxConcurrent();
+        this.maxQueue = group.getMaxQueue();
+        this.queueTimeoutNanos = group.getQueueTimeout().toNanos();
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * true si la petición puede continuar (entonces hay que llamar a exit())
+     */
+    public boolean tryEnter() throws InterruptedException {
+        if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+
+        // Cola llena → rechazo inmediato, sin bloquear el hilo
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+}
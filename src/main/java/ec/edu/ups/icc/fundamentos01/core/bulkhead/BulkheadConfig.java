@@ -0,0 +1,67 @@
+package ec.edu.ups.icc.fundamentos01.core.bulkhead;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra BulkheadFilter justo después de Spring Security: una petición sin
+ * token o sin rol sigue recibiendo 401/403 y no ocupa sitio en la cola
+ *
+ * Al arrancar comprueba que los grupos dejan conexiones libres: con
+ * open-in-view cada petición en curso retiene una conexión, así que la suma de
+ * max-concurrent debe quedar por debajo del pool de Hikari. La diferencia es
+ * la parte del pool reservada al tráfico interactivo
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadConfig.class);
+
+    // springSecurityFilterChain se registra con orden -100 y RateLimitFilter en -99
+    private static final int FILTER_ORDER = -98;
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(BulkheadProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        List<Bulkhead> bulkheads = properties.getGroups().entrySet().stream()
+                .map(group -> new Bulkhead(group.getKey(), group.getValue()))
+                .toList();
+        checkReservedConnections(properties.getGroups(), poolSize);
+
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(
+                new BulkheadFilter(bulkheads, properties, objectMapper, meterRegistry));
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+
+    private static void checkReservedConnections(Map<String, BulkheadProperties.Group> groups, int poolSize) {
+        groups.forEach((name, group) -> {
+            if (group.getMaxConcurrent() < 1 || group.getMaxQueue() < 0) {
+                throw new IllegalStateException("bulkhead." + name + ": max-concurrent >= 1 y max-queue >= 0");
+            }
+        });
+        int heavy = groups.values().stream().mapToInt(BulkheadProperties.Group::getMaxConcurrent).sum();
+        if (heavy >= poolSize) {
+            throw new IllegalStateException("bulkhead: los grupos admiten " + heavy
+                    + " peticiones a la vez y el pool tiene " + poolSize
+                    + " conexiones; no quedaría ninguna reservada para el tráfico interactivo");
+        }
+        logger.info("Bulkheads {}: {} conexiones para rutas pesadas, {} reservadas para el resto",
+                groups.keySet(), heavy, poolSize - heavy);
+    }
+}
@@ -0,0 +1,98 @@
+package ec.edu.ups.icc.fundamentos01.core.bulkhead;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ec.edu.ups.icc.fundamentos01.core.web.RejectionWriter;
+import ec.edu.ups.icc.fundamentos01.core.web.RouteMatcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Aísla las rutas pesadas (listados sin paginar) del
+ * tráfico interactivo: cada grupo de bulkhead.groups pasa por su Bulkhead y,
+ * si está saturado, la petición se rechaza al momento con 503 + Retry-After
+ * en lugar de ocupar hilos y conexiones que necesitan /{id} o /auth/login
+ *
+ * Las rutas que no están en ningún grupo pasan sin coste extra
+ *
+ * Métricas: bulkhead.active, bulkhead.queued y bulkhead.rejected (tag group)
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    private final RouteMatcher<Bulkhead> routes = new RouteMatcher<>();
+    private final Map<String, Counter> rejections;
+    private final RejectionWriter rejectionWriter;
+    private final long retryAfterSeconds;
+
+    public BulkheadFilter(List<Bulkhead> bulkheads, BulkheadProperties properties,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rejectionWriter = new RejectionWriter(objectMapper);
+        this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+
+        for (Bulkhead bulkhead : bulkheads) {
+            routes.addAll(properties.getGroups().get(bulkhead.getName()).getPaths(), bulkhead);
+            Gauge.builder("bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .tag("group", bulkhead.getName())
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                    .tag("group", bulkhead.getName())
+                    .register(meterRegistry);
+        }
+        this.rejections = bulkheads.stream().collect(Collectors.toMap(
+                Bulkhead::getName,
+                bulkhead -> Counter.builder("bulkhead.rejected")
+                        .tag("group", bulkhead.getName())
+                        .register(meterRegistry)));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        Bulkhead bulkhead = routes.match(request);
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean entered;
+        try {
+            entered = bulkhead.tryEnter();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+        if (!entered) {
+            rejections.get(bulkhead.getName()).increment();
+            logger.warn("Bulkhead {} saturado: {} {} rechazada", bulkhead.getName(),
+                    request.getMethod(), request.getRequestURI());
+            rejectionWriter.write(request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Demasiadas operaciones pesadas en curso. Reintente en unos segundos",
+                    retryAfterSeconds);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.exit();
+        }
+    }
+}
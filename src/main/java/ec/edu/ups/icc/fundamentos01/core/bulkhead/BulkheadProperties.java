@@ -0,0 +1,97 @@
+package ec.edu.ups.icc.fundamentos01.core.bulkhead;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+
+    // false: ninguna ruta se limita (todas comparten los hilos de Tomcat y el pool)
+    private boolean enabled = true;
+
+    // Segundos sugeridos al cliente en Retry-After cuando se rechaza con 503
+    private Duration retryAfter = Duration.ofSeconds(2);
+
+    // Grupos de rutas pesadas, cada uno con su propio límite
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    public static class Group {
+
+        // "MÉTODO /ruta" o "/ruta" (cualquier método); admite patrones: /api/users/*/products
+        private List<String> paths = new ArrayList<>();
+
+        // Peticiones del grupo en curso a la vez (= conexiones del pool que puede ocupar)
+        private int maxConcurrent = 2;
+
+        // Peticiones que pueden esperar turno; las demás se rechazan al instante
+        private int maxQueue = 0;
+
+        // Espera máxima de una petición en cola antes de rechazarla
+        private Duration queueTimeout = Duration.ofSeconds(1);
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+
+        public Duration getQueueTimeout() {
+            return queueTimeout;
+        }
+
+        public void setQueueTimeout(Duration queueTimeout) {
+            this.queueTimeout = queueTimeout;
+        }
+    }
+
+    // Getters y Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public Map<String, Group> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(Map<String, Group> groups) {
+        this.groups = groups;
+    }
+}
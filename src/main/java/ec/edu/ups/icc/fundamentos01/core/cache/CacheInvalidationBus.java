@@ -0,0 +1,334 @@
+package ec.edu.ups.icc.fundamentos01.core.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ec.edu.ups.icc.fundamentos01.core.bloom.UniquenessFilters;
+import ec.edu.ups.icc.fundamentos01.core.datasource.ReplicaRoutingDataSource;
+import ec.edu.ups.icc.fundamentos01.core.sharding.ShardRouter;
+import ec.edu.ups.icc.fundamentos01.products.events.ProductChangedEvent;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductEntity;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+import ec.edu.ups.icc.fundamentos01.users.events.UserRenamedEvent;
+import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Coherencia de cachés locales entre instancias (varias réplicas detrás del balanceador)
+ *
+ * Escritura: los servicios llaman record() dentro de su transacción → fila en
+ * cache_invalidations + NOTIFY (se entrega solo al confirmar)
+ *
+ * Lectura: un hilo con conexión JDBC propia (fuera del pool) hace LISTEN y
+ * aplica las invalidaciones de las demás instancias:
+ * - PRODUCT: recarga el producto (primario, shard del producto) y publica
+ *   ProductChangedEvent local con el tipo de la escritura original (índice
+ *   Lucene, autocompletado, bitmaps, modelo de lectura, SSE)
+ * - CATEGORY: limpia la caché "categories"
+ * - USER: registra el email en el bloom filter y publica UserRenamedEvent
+ *   con el nombre actual (nombres de dueño en ProductReadModel)
+ * Al (re)conectar recorre el outbox desde la última escucha sana menos un margen
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    public static final String CHANNEL = "cache_invalidation";
+
+    public enum Entity {
+        PRODUCT, CATEGORY, USER
+    }
+
+    // Identifica esta instancia: sus propias notificaciones se ignoran
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final CacheInvalidationRepository repository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final UniquenessFilters uniquenessFilters;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readOnlyTx;
+
+    private final boolean listenEnabled;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollMillis;
+    private final Duration catchUpOverlap;
+    private final Duration retention;
+
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+    private Thread listener;
+
+    // Última vez que la conexión LISTEN respondió (desde ahí se hace el catch-up)
+    private volatile LocalDateTime lastHealthy = LocalDateTime.now();
+
+    public CacheInvalidationBus(CacheInvalidationRepository repository,
+            ProductRepository productRepository,
+            UserRepository userRepository,
+            UniquenessFilters uniquenessFilters,
+            CacheManager cacheManager,
+            ApplicationEventPublisher eventPublisher,
+            ShardRouter shardRouter,
+            PlatformTransactionManager transactionManager,
+            @Value("${cache-bus.listen:true}") boolean listenEnabled,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${cache-bus.poll-millis:5000}") int pollMillis,
+            @Value("${cache-bus.catch-up-overlap:PT1M}") Duration catchUpOverlap,
+            @Value("${cache-bus.retention:P1D}") Duration retention) {
+        this.repository = repository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.uniquenessFilters = uniquenessFilters;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.listenEnabled = listenEnabled;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollMillis = pollMillis;
+        this.catchUpOverlap = catchUpOverlap;
+        this.retention = retention;
+    }
+
+    // ============== PUBLICACIÓN ==============
+
+    /**
+     * Registra la invalidación en el outbox; debe llamarse dentro de la
+     * transacción de la escritura (si hace rollback, no se notifica)
+     */
+    public void record(Entity entity, Long id) {
+        record(entity, id, null);
+    }
+
+    /**
+     * Igual que record(entity, id), indicando el tipo de cambio para que las
+     * demás instancias republiquen el mismo evento (alta, modificación, baja)
+     */
+    public void record(Entity entity, Long id, ProductChangedEvent.Type type) {
+        repository.record(entity.name(), id, type != null ? type.name() : null, nodeId);
+    }
+
+    // ============== ESCUCHA ==============
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!listenEnabled) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listenLoop, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Connection connection = listenConnection;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ex) {
+                // Se está cerrando la aplicación
+            }
+        }
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listenLoop() {
+        long backoffMillis = 1000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                listenConnection = connection;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+
+                // Lo ocurrido mientras no había LISTEN (arranque o desconexión)
+                catchUp(lastHealthy.minus(catchUpOverlap));
+                backoffMillis = 1000;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    lastHealthy = LocalDateTime.now();
+                    if (notifications != null && notifications.length > 0) {
+                        apply(parse(notifications));
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Conexión LISTEN {} perdida; reintento en {} ms", CHANNEL, backoffMillis, ex);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, 30_000);
+            } finally {
+                listenConnection = null;
+            }
+        }
+    }
+
+    private void catchUp(LocalDateTime since) {
+        List<CacheInvalidationEntity> missed = repository.findSince(since, nodeId);
+        Map<Key, ProductChangedEvent.Type> keys = new LinkedHashMap<>();
+        missed.forEach(row -> merge(keys, new Key(Entity.valueOf(row.getEntity()), row.getEntityId()),
+                parseType(row.getChangeType())));
+        if (!keys.isEmpty()) {
+            logger.info("Catch-up de invalidaciones desde {}: {} entradas", since, keys.size());
+            apply(keys);
+        }
+    }
+
+    /**
+     * Payload ENTIDAD:id:tipo:origen (V8) o ENTIDAD:id:origen (V6, sin tipo);
+     * se descartan las propias y los duplicados del lote
+     */
+    private Map<Key, ProductChangedEvent.Type> parse(PGNotification[] notifications) {
+        Map<Key, ProductChangedEvent.Type> keys = new LinkedHashMap<>();
+        for (PGNotification notification : notifications) {
+            String[] parts = notification.getParameter().split(":", -1);
+            if (parts.length < 3 || parts.length > 4 || parts[parts.length - 1].equals(nodeId)) {
+                continue;
+            }
+            try {
+                ProductChangedEvent.Type type = parts.length == 4 ? parseType(parts[2]) : null;
+                merge(keys, new Key(Entity.valueOf(parts[0]), Long.parseLong(parts[1])), type);
+            } catch (IllegalArgumentException ex) {
+                logger.warn("Notificación de invalidación inválida: {}", notification.getParameter());
+            }
+        }
+        return keys;
+    }
+
+    private static ProductChangedEvent.Type parseType(String value) {
+        return value == null || value.isEmpty() ? null : ProductChangedEvent.Type.valueOf(value);
+    }
+
+    /**
+     * Varias escrituras del mismo registro en un lote se aplican una vez con
+     * el último tipo, salvo que un alta seguida de modificaciones sigue siendo
+     * un alta para quien no la había visto
+     */
+    private static void merge(Map<Key, ProductChangedEvent.Type> keys, Key key, ProductChangedEvent.Type type) {
+        keys.merge(key, type != null ? type : ProductChangedEvent.Type.UPDATED,
+                (previous, next) -> previous == ProductChangedEvent.Type.CREATED
+                        && next == ProductChangedEvent.Type.UPDATED ? previous : next);
+    }
+
+    private void apply(Map<Key, ProductChangedEvent.Type> keys) {
+        keys.forEach((key, type) -> {
+            switch (key.entity()) {
+                case PRODUCT -> relayProduct(key.id(), type);
+                case CATEGORY -> evict(CacheNames.CATEGORIES);
+                case USER -> relayUser(key.id());
+            }
+        });
+    }
+
+    /**
+     * Publica el cambio como evento local: los consumidores (AFTER_COMMIT) lo
+     * reciben igual que si la escritura hubiera ocurrido en esta instancia.
+     *
+     * La lectura va al primario y al shard del producto: el NOTIFY llega al
+     * confirmar en el primario, antes de que la réplica tenga la fila. Solo
+     * el outbox decide una baja; si el producto no aparece (borrado después)
+     * su propia invalidación DELETED llegará detrás
+     */
+    private void relayProduct(Long productId, ProductChangedEvent.Type type) {
+        if (type == ProductChangedEvent.Type.DELETED) {
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(productId));
+            return;
+        }
+        ReplicaRoutingDataSource.withTarget(ReplicaRoutingDataSource.Target.PRIMARY,
+                () -> shardRouter.onShard(shardRouter.shardForProduct(productId), () -> {
+                    readOnlyTx.executeWithoutResult(tx -> {
+                        List<ProductEntity> found = productRepository.findByIdIn(List.of(productId));
+                        if (found.isEmpty()) {
+                            logger.debug("Producto {} ya no existe; se omite su invalidación {}", productId, type);
+                            return;
+                        }
+                        ProductEntity product = found.get(0);
+                        uniquenessFilters.productNames().put(product.getName());
+                        eventPublisher.publishEvent(type == ProductChangedEvent.Type.CREATED
+                                ? ProductChangedEvent.created(product, product.getOwner().getId())
+                                : ProductChangedEvent.updated(product));
+                    });
+                    return null;
+                }));
+    }
+
+    /**
+     * El outbox no dice qué cambió: se publica el nombre actual (reemplazarlo
+     * por el mismo no tiene efecto)
+     */
+    private void relayUser(Long userId) {
+        ReplicaRoutingDataSource.withTarget(ReplicaRoutingDataSource.Target.PRIMARY,
+                () -> userRepository.findById(userId)).ifPresent(user -> {
+                    uniquenessFilters.userEmails().put(user.getEmail());
+                    eventPublisher.publishEvent(new UserRenamedEvent(user.getId(), user.getName()));
+                });
+    }
+
+    private void evict(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    // ============== MANTENIMIENTO ==============
+
+    @Scheduled(fixedDelayString = "${cache-bus.purge-interval:PT1H}")
+    @Transactional
+    public void purge() {
+        int deleted = repository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Outbox de invalidaciones: {} filas purgadas", deleted);
+        }
+    }
+
+    private record Key(Entity entity, Long id) {
+    }
+}
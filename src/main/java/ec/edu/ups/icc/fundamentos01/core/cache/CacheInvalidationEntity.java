@@ -0,0 +1,66 @@
+package ec.edu.ups.icc.fundamentos01.core.cache;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Fila del outbox cache_invalidations (V6__cache_invalidation_outbox.sql)
+ * Se inserta con CacheInvalidationRepository.record; solo lectura para Hibernate
+ */
+@Entity
+@Immutable
+@Table(name = "cache_invalidations")
+public class CacheInvalidationEntity {
+
+    @Id
+    private Long seq;
+
+    @Column(nullable = false, length = 20)
+    private String entity;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    // CREATED/UPDATED/DELETED en productos; null en el resto (V8)
+    @Column(name = "change_type", length = 10)
+    private String changeType;
+
+    @Column(nullable = false, length = 64)
+    private String origin;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    protected CacheInvalidationEntity() {
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,38 @@
+package ec.edu.ups.icc.fundamentos01.core.cache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidationEntity, Long> {
+
+    /**
+     * Registra la invalidación en la transacción del llamador
+     * El trigger emite NOTIFY, que se entrega solo si esa transacción confirma
+     */
+    @Modifying
+    @Query(value = "INSERT INTO cache_invalidations (entity, entity_id, change_type, origin) " +
+            "VALUES (:entity, :entityId, :changeType, :origin)", nativeQuery = true)
+    int record(@Param("entity") String entity,
+            @Param("entityId") Long entityId,
+            @Param("changeType") String changeType,
+            @Param("origin") String origin);
+
+    /**
+     * Catch-up tras reconexión: invalidaciones de otras instancias desde una fecha
+     */
+    @Query("SELECT c FROM CacheInvalidationEntity c " +
+            "WHERE c.createdAt >= :since AND c.origin <> :origin ORDER BY c.seq")
+    List<CacheInvalidationEntity> findSince(@Param("since") LocalDateTime since,
+            @Param("origin") String origin);
+
+    @Modifying
+    @Query(value = "DELETE FROM cache_invalidations WHERE created_at < :cutoff", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,12 @@
+package ec.edu.ups.icc.fundamentos01.core.cache;
+
+/**
+ * Nombres de las cachés de Spring (@Cacheable) que invalida CacheInvalidationBus
+ */
+public final class CacheNames {
+
+    public static final String CATEGORIES = "categories";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,37 @@
+package ec.edu.ups.icc.fundamentos01.core.concurrency;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra ConcurrencyLimitFilter antes de Spring Security (y por tanto de
+ * JwtAuthenticationFilter): una petición descartada no llega a validar el
+ * token ni a cargar el usuario desde la BD
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    // springSecurityFilterChain se registra con orden -100
+    private static final int FILTER_ORDER = -110;
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ConcurrencyLimitProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        if (properties.getMinLimit() < 1 || properties.getMaxLimit() < properties.getMinLimit()) {
+            throw new IllegalStateException("concurrency-limit: se requiere 1 <= min-limit <= max-limit");
+        }
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(properties, objectMapper, meterRegistry));
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+}
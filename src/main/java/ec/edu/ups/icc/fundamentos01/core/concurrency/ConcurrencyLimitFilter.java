@@ -0,0 +1,146 @@
+package ec.edu.ups.icc.fundamentos01.core.concurrency;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ec.edu.ups.icc.fundamentos01.core.web.LoadShedding;
+import ec.edu.ups.icc.fundamentos01.core.web.RejectionWriter;
+import ec.edu.ups.icc.fundamentos01.core.web.RouteMatcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limitador de concurrencia adaptativo delante de toda la API
+ *
+ * Cuenta las peticiones en curso y rechaza con 503 + Retry-After las que
+ * superan el límite que GradientLimit descubre a partir de la latencia. Así,
+ * cuando PostgreSQL se frena, el exceso se descarta al entrar en lugar de
+ * acumularse en Tomcat hasta que todas las peticiones expiran a la vez
+ *
+ * Prioridades (parte del límite que pueden ocupar):
+ * - CRITICAL: /auth/** y escrituras (POST, PUT, PATCH, DELETE) → 100%, se descartan las últimas
+ * - NORMAL: el resto de lecturas → normal-share
+ * - LOW: low-priority-paths → low-share, se descartan las primeras
+ *
+ * Métricas: concurrency.limit, concurrency.inflight, concurrency.rejected (tag priority)
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    enum Priority {
+        CRITICAL, NORMAL, LOW
+    }
+
+    private final GradientLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final double normalShare;
+    private final double lowShare;
+    private final RouteMatcher<Priority> lowPriorityRoutes;
+    private final long retryAfterSeconds;
+    private final RejectionWriter rejectionWriter;
+    private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.limit = new GradientLimit(properties);
+        this.normalShare = properties.getNormalShare();
+        this.lowShare = properties.getLowShare();
+        this.lowPriorityRoutes = new RouteMatcher<Priority>().addAll(properties.getLowPriorityPaths(), Priority.LOW);
+        this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+        this.rejectionWriter = new RejectionWriter(objectMapper);
+
+        Gauge.builder("concurrency.limit", limit, GradientLimit::getLimit).register(meterRegistry);
+        Gauge.builder("concurrency.inflight", inflight, AtomicInteger::get).register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            rejections.put(priority, Counter.builder("concurrency.rejected")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    // Health y estado no se descartan: un balanceador no debe sacar la instancia por estar cargada
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.startsWith("/actuator/") || uri.startsWith("/status/") || uri.equals("/api/status");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        Priority priority = classify(request);
+        int inflightAtStart = tryAcquire(priority);
+        if (inflightAtStart < 0) {
+            rejections.get(priority).increment();
+            logger.debug("Límite de concurrencia {} alcanzado: {} {} descartada",
+                    limit.getLimit(), request.getMethod(), request.getRequestURI());
+            rejectionWriter.write(request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                    "El servidor está al límite de su capacidad. Reintente en unos segundos",
+                    retryAfterSeconds);
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+        } finally {
+            inflight.decrementAndGet();
+            // SSE y demás peticiones asíncronas: la duración del despacho inicial no es su latencia
+            // Las rechazadas por bulkhead, rate limit o LoginGuard no dicen nada de la capacidad
+            if (!request.isAsyncStarted() && !LoadShedding.isShed(request)) {
+                limit.onSample(System.nanoTime() - started, inflightAtStart, dropped);
+            }
+        }
+    }
+
+    /**
+     * Reserva un sitio si hay hueco para la prioridad; devuelve las peticiones
+     * en curso incluida esta, o -1 si se descarta
+     */
+    private int tryAcquire(Priority priority) {
+        int current = limit.getLimit();
+        int allowed = switch (priority) {
+            case CRITICAL -> current;
+            case NORMAL -> Math.max(1, (int) (current * normalShare));
+            case LOW -> Math.max(1, (int) (current * lowShare));
+        };
+        while (true) {
+            int now = inflight.get();
+            if (now >= allowed) {
+                return -1;
+            }
+            if (inflight.compareAndSet(now, now + 1)) {
+                return now + 1;
+            }
+        }
+    }
+
+    private Priority classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/auth/")
+                || !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method))) {
+            return Priority.CRITICAL;
+        }
+        Priority low = lowPriorityRoutes.match(request);
+        return low != null ? low : Priority.NORMAL;
+    }
+}
@@ -0,0 +1,129 @@
+package ec.edu.ups.icc.fundamentos01.core.concurrency;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    // false: sin límite adaptativo (solo los hilos de Tomcat y los bulkheads)
+    private boolean enabled = true;
+
+    // Límite de peticiones en curso al arrancar y cotas del límite descubierto
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 400;
+
+    // Cuánto se acerca el límite al nuevo cálculo en cada muestra (0..1)
+    private double smoothing = 0.2;
+
+    // Latencia tolerada sobre la de referencia antes de reducir el límite (2.0 = el doble)
+    private double rttTolerance = 2.0;
+
+    // Factor del límite tras una respuesta 5xx o una excepción (decremento multiplicativo)
+    private double backoffRatio = 0.9;
+
+    // Parte del límite que puede usar cada prioridad; /auth/** y escrituras usan el 100%
+    private double normalShare = 0.9;
+    private double lowShare = 0.5;
+
+    // Rutas de prioridad baja ("MÉTODO /ruta" o "/ruta"): se rechazan primero
+    private List<String> lowPriorityPaths = new ArrayList<>();
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    // Getters y Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public double getRttTolerance() {
+        return rttTolerance;
+    }
+
+    public void setRttTolerance(double rttTolerance) {
+        this.rttTolerance = rttTolerance;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public double getNormalShare() {
+        return normalShare;
+    }
+
+    public void setNormalShare(double normalShare) {
+        this.normalShare = normalShare;
+    }
+
+    public double getLowShare() {
+        return lowShare;
+    }
+
+    public void setLowShare(double lowShare) {
+        this.lowShare = lowShare;
+    }
+
+    public List<String> getLowPriorityPaths() {
+        return lowPriorityPaths;
+    }
+
+    public void setLowPriorityPaths(List<String> lowPriorityPaths) {
+        this.lowPriorityPaths = lowPriorityPaths;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,101 @@
+package ec.edu.ups.icc.fundamentos01.core.concurrency;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Límite de concurrencia que se ajusta con la latencia (estilo gradiente)
+ *
+ * Compara la latencia reciente (media rápida) con la de referencia (media lenta):
+ *   gradiente = clamp(tolerancia · referencia / reciente, 0.5, 1)
+ *   nuevo     = límite · gradiente + √límite
+ * Mientras la latencia no supera la tolerancia el gradiente es 1 y el límite
+ * crece √límite por muestra (explora); cuando PostgreSQL se frena la latencia
+ * reciente sube, el gradiente baja y el límite se reduce hasta la concurrencia
+ * que la BD sostiene. Una respuesta 5xx reduce el límite de forma
+ * multiplicativa (backoffRatio), como AIMD
+ *
+ * Cada muestra toma el lock con tryLock: si otra petición está actualizando,
+ * la muestra se descarta en lugar de esperar
+ */
+public class GradientLimit {
+
+    // Pesos de las medias: la rápida sigue ~10 muestras, la lenta ~600
+    private static final double SHORT_ALPHA = 0.1;
+    private static final double LONG_ALPHA = 1.0 / 600;
+
+    // Referencia muy por encima de la latencia actual → la carga bajó: la referencia se acerca
+    private static final double LONG_DRIFT_RATIO = 2.0;
+    private static final double LONG_DECAY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    private volatile int limit;
+
+    public GradientLimit(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.smoothing = properties.getSmoothing();
+        this.rttTolerance = properties.getRttTolerance();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.estimatedLimit = clamp(properties.getInitialLimit());
+        this.limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param rttNanos duración de la petición
+     * @param inflight peticiones en curso cuando empezó
+     * @param dropped  true si terminó en 5xx o con excepción
+     */
+    public void onSample(long rttNanos, int inflight, boolean dropped) {
+        if (dropped) {
+            lock.lock();
+            try {
+                estimatedLimit = clamp(estimatedLimit * backoffRatio);
+                limit = (int) estimatedLimit;
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            shortRttNanos = shortRttNanos == 0 ? rttNanos : shortRttNanos + SHORT_ALPHA * (rttNanos - shortRttNanos);
+            longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos + LONG_ALPHA * (rttNanos - longRttNanos);
+            if (longRttNanos / shortRttNanos > LONG_DRIFT_RATIO) {
+                longRttNanos *= LONG_DECAY;
+            }
+
+            // Con poca carga la latencia no dice nada del límite: no se infla sin uso
+            if (inflight < estimatedLimit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            estimatedLimit = clamp(estimatedLimit * (1 - smoothing) + newLimit * smoothing);
+            limit = (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
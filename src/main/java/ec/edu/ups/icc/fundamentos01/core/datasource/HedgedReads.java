@@ -0,0 +1,385 @@
+package ec.edu.ups.icc.fundamentos01.core.datasource;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ec.edu.ups.icc.fundamentos01.core.sharding.ShardRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Lecturas con cobertura (hedged reads) para recortar la cola de latencia
+ *
+ * La consulta se lanza en un hilo propio; si no respondió dentro del p95
+ * observado para esa operación, se lanza un duplicado en otra conexión
+ * (al primario cuando hay réplica configurada). Gana la primera respuesta
+ * correcta y a la otra se le cancela la sentencia en PostgreSQL.
+ *
+ * Solo para lecturas idempotentes: cada intento corre en su propia transacción
+ * readOnly y debe devolver DTOs (las entidades no salen del intento).
+ * Con hedging.enabled=false la consulta se ejecuta directamente, sin hilos extra
+ */
+@Component
+public class HedgedReads {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgedReads.class);
+
+    // Tamaño de la ventana de latencias y cada cuántas muestras se recalcula el p95
+    private static final int WINDOW_SIZE = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    // Se permite una pequeña ráfaga de hedges antes de aplicar el límite de proporción
+    private static final long HEDGE_BURST = 10;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTx;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final double maxHedgeRatio;
+    private final ExecutorService attempts;
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    public HedgedReads(PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${hedging.enabled:false}") boolean enabled,
+            @Value("${hedging.initial-delay:PT0.05S}") Duration initialDelay,
+            @Value("${hedging.min-delay:PT0.005S}") Duration minDelay,
+            @Value("${hedging.max-delay:PT1S}") Duration maxDelay,
+            @Value("${hedging.max-hedge-ratio:0.1}") double maxHedgeRatio,
+            @Value("${hedging.threads:16}") int threads) {
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxHedgeRatio = maxHedgeRatio;
+
+        // Cola acotada: si se llena, la lectura se hace sin cobertura en el hilo del llamador
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.attempts = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(threads * 4), runnable -> {
+                    Thread thread = new Thread(runnable, "hedged-read-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // ============== LECTURA ==============
+
+    /**
+     * Ejecuta query con cobertura
+     *
+     * @param operation nombre de la operación (ventana de latencias y métricas propias)
+     * @param query     lectura idempotente que devuelve DTOs
+     */
+    public <T> T read(String operation, Supplier<T> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        Operation op = operations.computeIfAbsent(operation, Operation::new);
+        op.requests.incrementAndGet();
+
+        Attempt<T> first = new Attempt<>(query, null);
+        if (!submit(first)) {
+            return query.get();
+        }
+        first.future.whenComplete((value, ex) -> op.record(first.elapsedNanos()));
+
+        try {
+            try {
+                T value = first.future.get(op.hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+                op.firstWins.increment();
+                return value;
+            } catch (TimeoutException slow) {
+                if (!op.allowHedge()) {
+                    return first.future.get();
+                }
+            }
+
+            // El primer intento va lento: duplicado en otra conexión (primario si hay réplica)
+            Attempt<T> hedge = new Attempt<>(query, ReplicaRoutingDataSource.Target.PRIMARY);
+            if (!submit(hedge)) {
+                return first.future.get();
+            }
+            op.hedges.incrementAndGet();
+            op.hedgesSent.increment();
+
+            CompletableFuture<T> winner = firstSuccessful(first, hedge);
+            T value;
+            try {
+                value = winner.get();
+            } finally {
+                first.cancel();
+                hedge.cancel();
+            }
+            if (hedge.won) {
+                op.hedgeWins.increment();
+            } else {
+                op.firstWins.increment();
+            }
+            return value;
+        } catch (ExecutionException ex) {
+            throw rethrow(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            first.cancel();
+            throw new IllegalStateException("Lectura interrumpida", ex);
+        }
+    }
+
+    private boolean submit(Attempt<?> attempt) {
+        try {
+            attempts.execute(attempt::run);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Completa con el primer intento correcto; falla solo si fallan los dos
+     */
+    private static <T> CompletableFuture<T> firstSuccessful(Attempt<T> first, Attempt<T> hedge) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        first.future.whenComplete((value, ex) -> settle(result, first, hedge, value, ex));
+        hedge.future.whenComplete((value, ex) -> settle(result, hedge, first, value, ex));
+        return result;
+    }
+
+    private static <T> void settle(CompletableFuture<T> result, Attempt<T> self, Attempt<T> other,
+            T value, Throwable ex) {
+        if (ex == null) {
+            if (result.complete(value)) {
+                self.won = true;
+            }
+        } else if (other.future.isCompletedExceptionally()) {
+            result.completeExceptionally(ex);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        attempts.shutdownNow();
+    }
+
+    // ============== INTENTO ==============
+
+    /**
+     * Un intento: transacción readOnly propia en un hilo del pool
+     * Registra su conexión física para poder cancelar la sentencia en curso
+     */
+    private final class Attempt<T> {
+
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        private final Supplier<T> query;
+        private final ReplicaRoutingDataSource.Target target;
+        // Shard del llamador: el intento corre en otro hilo y el ThreadLocal no viaja
+        private final Integer shard = ShardRoutingDataSource.boundShard();
+        private final long startNanos = System.nanoTime();
+        private volatile long endNanos;
+        volatile boolean won;
+
+        // Protegidos por lock: la cancelación solo se envía mientras el intento
+        // aún tiene la conexión (nunca a una conexión ya devuelta al pool).
+        // ReentrantLock y no synchronized: cancelQuery abre un socket y, con
+        // hilos virtuales, un monitor retenido fija el hilo portador
+        private final ReentrantLock lock = new ReentrantLock();
+        private PGConnection connection;
+        private boolean finished;
+        private boolean cancelled;
+
+        Attempt(Supplier<T> query, ReplicaRoutingDataSource.Target target) {
+            this.query = query;
+            this.target = target;
+        }
+
+        void run() {
+            try {
+                T value = shard == null ? routed() : ShardRoutingDataSource.withShard(shard, this::routed);
+                endNanos = System.nanoTime();
+                future.complete(value);
+            } catch (Throwable ex) {
+                endNanos = System.nanoTime();
+                future.completeExceptionally(ex);
+            }
+        }
+
+        private T routed() {
+            return target == null ? execute() : ReplicaRoutingDataSource.withTarget(target, this::execute);
+        }
+
+        private T execute() {
+            return readOnlyTx.execute(status -> {
+                entityManager.unwrap(Session.class)
+                        .doWork(jdbc -> bind(jdbc.unwrap(PGConnection.class)));
+                try {
+                    return query.get();
+                } finally {
+                    lock.lock();
+                    try {
+                        finished = true;
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            });
+        }
+
+        private void bind(PGConnection pgConnection) {
+            lock.lock();
+            try {
+                if (cancelled) {
+                    throw new CancellationException("Intento descartado antes de empezar");
+                }
+                connection = pgConnection;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void cancel() {
+            lock.lock();
+            try {
+                if (cancelled || future.isDone()) {
+                    return;
+                }
+                cancelled = true;
+                if (connection != null && !finished) {
+                    connection.cancelQuery();
+                }
+            } catch (SQLException ex) {
+                logger.debug("No se pudo cancelar la lectura perdedora", ex);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long elapsedNanos() {
+            long end = endNanos;
+            return (end == 0 ? System.nanoTime() : end) - startNanos;
+        }
+    }
+
+    // ============== ESTADÍSTICAS POR OPERACIÓN ==============
+
+    /**
+     * Ventana circular de latencias del primer intento y contadores de la operación
+     */
+    private final class Operation {
+
+        private final long[] window = new long[WINDOW_SIZE];
+        private int next;
+        private int size;
+        private int sinceRecompute;
+        private volatile long p95Nanos = -1;
+
+        // Proporción de hedges sobre peticiones (se reinicia cada 10 000 peticiones)
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong hedges = new AtomicLong();
+
+        final Counter hedgesSent;
+        final Counter hedgeWins;
+        final Counter firstWins;
+
+        Operation(String name) {
+            this.hedgesSent = Counter.builder("hedging.hedges")
+                    .description("Lecturas duplicadas por superar el retardo de cobertura")
+                    .tag("operation", name)
+                    .register(meterRegistry);
+            this.hedgeWins = wins(name, "hedge");
+            this.firstWins = wins(name, "first");
+            Gauge.builder("hedging.delay", this, op -> op.hedgeDelayNanos() / 1_000_000.0)
+                    .description("Retardo actual antes de enviar el duplicado (p95 observado)")
+                    .tag("operation", name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+
+        private Counter wins(String name, String winner) {
+            return Counter.builder("hedging.wins")
+                    .description("Lecturas resueltas por cada intento")
+                    .tag("operation", name)
+                    .tag("winner", winner)
+                    .register(meterRegistry);
+        }
+
+        long hedgeDelayNanos() {
+            long p95 = p95Nanos;
+            if (p95 < 0) {
+                return initialDelayNanos;
+            }
+            return Math.max(minDelayNanos, Math.min(maxDelayNanos, p95));
+        }
+
+        boolean allowHedge() {
+            long total = requests.get();
+            if (total > 10_000) {
+                requests.set(0);
+                hedges.set(0);
+                return true;
+            }
+            return hedges.get() < maxHedgeRatio * total + HEDGE_BURST;
+        }
+
+        synchronized void record(long nanos) {
+            window[next] = nanos;
+            next = (next + 1) % WINDOW_SIZE;
+            if (size < WINDOW_SIZE) {
+                size++;
+            }
+            if (++sinceRecompute >= RECOMPUTE_EVERY) {
+                sinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(window, size);
+                Arrays.sort(sorted);
+                p95Nanos = sorted[(int) Math.ceil(size * 0.95) - 1];
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ec.edu.ups.icc.fundamentos01.core.datasource;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Pools Hikari que se crean a mano (primario / réplica, shards)
+ *
+ * Parten de spring.datasource.hikari.* igual que el pool que crea Spring Boot
+ * (connection-timeout, tiempos de vida, etc.); el llamador solo ajusta lo
+ * propio de cada pool después
+ */
+public final class HikariPools {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    private HikariPools() {
+    }
+
+    public static HikariDataSource create(Environment environment, String poolName,
+            String url, String username, String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(poolName);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        return dataSource;
+    }
+}
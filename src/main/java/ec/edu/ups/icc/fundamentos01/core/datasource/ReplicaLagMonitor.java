@@ -0,0 +1,81 @@
+package ec.edu.ups.icc.fundamentos01.core.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Mide el retraso de la réplica cada datasource.replica.lag-check-interval
+ *
+ * Si la réplica ya reprodujo todo lo recibido, el retraso es 0 (sin tráfico en el
+ * primario pg_last_xact_replay_timestamp envejece aunque no haya nada pendiente).
+ * Si no responde, se considera no disponible: las lecturas van al primario
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String LAG_SQL = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+
+    private final DataSource replica;
+    private final long maxLagMillis;
+
+    private volatile long lagMillis;
+    private volatile boolean available;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagMillis, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMillis)
+                .description("Retraso de la réplica de lectura (ms)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.isUsable() ? 1 : 0)
+                .description("1 si las lecturas se envían a la réplica")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval:PT1S}")
+    public void check() {
+        try (Connection connection = replica.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            rs.next();
+            lagMillis = (long) rs.getDouble(1);
+            if (!available) {
+                logger.info("Réplica de lectura disponible (retraso {} ms)", lagMillis);
+            }
+            available = true;
+        } catch (SQLException ex) {
+            if (available) {
+                logger.warn("Réplica de lectura no disponible; las lecturas van al primario", ex);
+            }
+            available = false;
+        }
+    }
+
+    /**
+     * true si la réplica responde y su retraso está dentro del umbral
+     */
+    public boolean isUsable() {
+        return available && lagMillis <= maxLagMillis;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+}
@@ -0,0 +1,75 @@
+package ec.edu.ups.icc.fundamentos01.core.datasource;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "datasource.replica")
+public class ReplicaProperties {
+
+    // Réplica de lectura (streaming replication del primario)
+    // Sin url no se activa el enrutamiento: todo va al datasource de spring.datasource
+
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+
+    // Retraso máximo tolerado; por encima las lecturas vuelven al primario
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    // Tras una escritura, las lecturas del mismo usuario van al primario durante esta ventana
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    // Getters y Setters
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+}
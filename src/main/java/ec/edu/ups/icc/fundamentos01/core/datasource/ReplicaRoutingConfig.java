@@ -0,0 +1,93 @@
+package ec.edu.ups.icc.fundamentos01.core.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Enrutamiento primario / réplica de lectura
+ *
+ * Solo se activa con datasource.replica.url y sin sharding.urls; sin ella Spring Boot crea el
+ * datasource único de spring.datasource como siempre
+ *
+ * Cada lado tiene su propio pool Hikari (beans primaryDataSource y
+ * replicaDataSource → métricas hikaricp.connections{pool=primary|replica}),
+ * ambos con spring.datasource.hikari.* (HikariPools);
+ * el @Primary "dataSource" que usan JPA y Flyway es el proxy de enrutamiento
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replica.url:}'.isEmpty() and '${sharding.urls:}'.isEmpty()")
+public class ReplicaRoutingConfig {
+
+    // El enrutamiento queda dentro del proxy perezoso (no es un bean propio)
+    private volatile ReplicaRoutingDataSource routing;
+
+    @Bean
+    public HikariDataSource primaryDataSource(Environment environment,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password) {
+        return HikariPools.create(environment, "primary", url, username, password);
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(Environment environment, ReplicaProperties properties,
+            @Value("${spring.datasource.username}") String primaryUsername,
+            @Value("${spring.datasource.password}") String primaryPassword) {
+        HikariDataSource dataSource = HikariPools.create(environment, "replica", properties.getUrl(),
+                properties.getUsername() != null ? properties.getUsername() : primaryUsername,
+                properties.getPassword() != null ? properties.getPassword() : primaryPassword);
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        // La réplica puede no estar levantada al arrancar: el primario atiende mientras tanto
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+            ReplicaProperties properties, MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica, properties.getMaxLag().toMillis(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReplicaLagMonitor lagMonitor,
+            ReplicaProperties properties,
+            MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(lagMonitor,
+                properties.getReadYourWritesWindow().toMillis(), meterRegistry);
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.Target.PRIMARY, primary,
+                ReplicaRoutingDataSource.Target.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        this.routing = routing;
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.write-prune-interval:PT1M}")
+    public void pruneExpiredWrites() {
+        ReplicaRoutingDataSource current = routing;
+        if (current != null) {
+            current.pruneExpiredWrites();
+        }
+    }
+}
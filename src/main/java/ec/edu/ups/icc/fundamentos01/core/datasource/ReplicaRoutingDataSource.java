@@ -0,0 +1,143 @@
+package ec.edu.ups.icc.fundamentos01.core.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Elige primario o réplica al obtener la conexión física
+ *
+ * Va a la réplica solo si:
+ * - hay una transacción @Transactional(readOnly = true) activa
+ * - el usuario autenticado no escribió dentro de la ventana read-your-writes
+ * - ReplicaLagMonitor indica que la réplica responde y su retraso es aceptable
+ *
+ * Debe envolverse en LazyConnectionDataSourceProxy: JpaTransactionManager pide
+ * la conexión al iniciar la transacción, antes de marcarla como readOnly;
+ * el proxy difiere la elección hasta la primera sentencia
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    // Destino impuesto por el llamador (p. ej. el hedge de HedgedReads va al primario)
+    private static final ThreadLocal<Target> forcedTarget = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long readYourWritesMillis;
+
+    // Usuario → instante de su última transacción de escritura
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    private final Counter toReplica;
+    private final Counter toPrimaryWrite;
+    private final Counter toPrimaryRecentWrite;
+    private final Counter toPrimaryLag;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, long readYourWritesMillis,
+            MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesMillis = readYourWritesMillis;
+        this.toReplica = routed(meterRegistry, "replica", "read-only");
+        this.toPrimaryWrite = routed(meterRegistry, "primary", "write");
+        this.toPrimaryRecentWrite = routed(meterRegistry, "primary", "read-your-writes");
+        this.toPrimaryLag = routed(meterRegistry, "primary", "replica-lag");
+    }
+
+    /**
+     * Ejecuta action con las conexiones de este hilo dirigidas a target
+     * Sin enrutamiento configurado no tiene efecto
+     */
+    public static <T> T withTarget(Target target, Supplier<T> action) {
+        Target previous = forcedTarget.get();
+        forcedTarget.set(target);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                forcedTarget.remove();
+            } else {
+                forcedTarget.set(previous);
+            }
+        }
+    }
+
+    private static Counter routed(MeterRegistry registry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Conexiones asignadas por el enrutamiento primario/réplica")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target forced = forcedTarget.get();
+        if (forced != null) {
+            return forced;
+        }
+
+        String user = currentUser();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Escritura (o sin transacción): primario; abre la ventana read-your-writes
+            if (user != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                lastWriteByUser.put(user, System.currentTimeMillis());
+            }
+            toPrimaryWrite.increment();
+            return Target.PRIMARY;
+        }
+
+        if (user != null && wroteRecently(user)) {
+            toPrimaryRecentWrite.increment();
+            return Target.PRIMARY;
+        }
+
+        if (!lagMonitor.isUsable()) {
+            toPrimaryLag.increment();
+            return Target.PRIMARY;
+        }
+
+        toReplica.increment();
+        return Target.REPLICA;
+    }
+
+    private boolean wroteRecently(String user) {
+        Long lastWrite = lastWriteByUser.get(user);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - lastWrite > readYourWritesMillis) {
+            lastWriteByUser.remove(user, lastWrite);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Descarta las escrituras fuera de la ventana; wroteRecently solo limpia
+     * a los usuarios que vuelven a leer, los demás quedarían para siempre
+     */
+    public void pruneExpiredWrites() {
+        long cutoff = System.currentTimeMillis() - readYourWritesMillis;
+        lastWriteByUser.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
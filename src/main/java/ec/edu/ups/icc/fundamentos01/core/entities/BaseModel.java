@@ -14,6 +14,16 @@ public abstract class BaseModel {
     private LocalDateTime updatedAt;
     private boolean deleted;
 
+    /**
+     * Versión para bloqueo optimista
+     * Hibernate la incrementa en cada UPDATE y agrega "AND version = ?"
+     * Si otra transacción ya modificó la fila, el UPDATE afecta 0 filas
+     * y se lanza OptimisticLockException
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         this.deleted = false;
@@ -44,4 +54,8 @@ public abstract class BaseModel {
     public boolean isDeleted() {
         return deleted;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,33 @@
+package ec.edu.ups.icc.fundamentos01.core.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra RateLimitFilter justo después de Spring Security (necesita el
+ * usuario autenticado) y antes de los bulkheads: un cliente que excede su
+ * límite no ocupa sitio en la cola de un grupo pesado
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    // springSecurityFilterChain se registra con orden -100; BulkheadFilter va en -98
+    private static final int FILTER_ORDER = -99;
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(properties, objectMapper, meterRegistry));
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+}
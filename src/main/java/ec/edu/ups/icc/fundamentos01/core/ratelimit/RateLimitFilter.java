@@ -0,0 +1,135 @@
+package ec.edu.ups.icc.fundamentos01.core.ratelimit;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ec.edu.ups.icc.fundamentos01.core.web.RejectionWriter;
+import ec.edu.ups.icc.fundamentos01.core.web.RouteMatcher;
+import ec.edu.ups.icc.fundamentos01.security.services.UserDetailsImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Límite de peticiones por cliente (token bucket) para cada grupo de rutas
+ *
+ * Va después de Spring Security: el usuario ya está en el SecurityContext
+ * (su id es el sujeto del JWT que emite JwtUtil) y no hace falta volver a
+ * parsear el token. Las rutas públicas (/auth/**) se limitan por IP
+ *
+ * Coste por petición: un hash de la clave y un compareAndSet en TokenBucketStore,
+ * sin locks ni asignaciones de buckets. Excedido → 429 + Retry-After
+ *
+ * Métrica: ratelimit.rejected (tag group)
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final TokenBucketStore store;
+    private final RouteMatcher<GroupRule> groups = new RouteMatcher<>();
+    private final RejectionWriter rejectionWriter;
+
+    // nanoTime puede ser negativo; el almacén necesita instantes > 0
+    private final long origin = System.nanoTime() - 1;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.store = new TokenBucketStore(properties.getCapacity(), properties.getStripes());
+        this.rejectionWriter = new RejectionWriter(objectMapper);
+        properties.getGroups().forEach((name, group) -> groups.addAll(group.getPaths(),
+                GroupRule.of(name, group, meterRegistry)));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        GroupRule group = groups.match(request);
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String client;
+        Rule rule = group.defaultRule();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (group.key() == RateLimitProperties.KeyType.USER
+                && authentication != null
+                && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+            client = "user:" + user.getId();
+            rule = group.ruleFor(user);
+        } else {
+            client = "ip:" + request.getRemoteAddr();
+        }
+
+        long key = TokenBucketStore.hash64(group.name() + '|' + client);
+        long waitNanos = store.tryConsume(key, System.nanoTime() - origin, rule.emissionNanos(), rule.toleranceNanos());
+        if (waitNanos > 0) {
+            group.rejected().increment();
+            reject(request, response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        rejectionWriter.write(request, response, HttpStatus.TOO_MANY_REQUESTS,
+                "Demasiadas peticiones. Reintente en " + retryAfterSeconds + " s", retryAfterSeconds);
+    }
+
+    // ============== REGLAS PRECALCULADAS ==============
+
+    /**
+     * GCRA: un token cada emissionNanos; ráfaga de burst → tolerancia de (burst - 1) intervalos
+     */
+    private record Rule(long emissionNanos, long toleranceNanos) {
+
+        static Rule of(RateLimitProperties.Limit limit) {
+            if (limit.getRate() < 1) {
+                throw new IllegalStateException("rate-limit: rate debe ser >= 1");
+            }
+            long emission = Math.max(1, limit.getPeriod().toNanos() / limit.getRate());
+            long burst = limit.getBurst() > 0 ? limit.getBurst() : limit.getRate();
+            return new Rule(emission, emission * (burst - 1));
+        }
+    }
+
+    private record GroupRule(String name, RateLimitProperties.KeyType key,
+            Rule defaultRule, Map<String, Rule> roleRules, Counter rejected) {
+
+        static GroupRule of(String name, RateLimitProperties.Group group, MeterRegistry meterRegistry) {
+            Map<String, Rule> roleRules = new HashMap<>();
+            group.getRoles().forEach((role, limit) -> roleRules.put(role, Rule.of(limit)));
+            return new GroupRule(name,
+                    group.getKey(),
+                    Rule.of(group),
+                    roleRules,
+                    Counter.builder("ratelimit.rejected").tag("group", name).register(meterRegistry));
+        }
+
+        // El rol más generoso (menor intervalo entre tokens); sin reglas de rol, la del grupo
+        Rule ruleFor(UserDetailsImpl user) {
+            Rule best = null;
+            if (!roleRules.isEmpty()) {
+                for (GrantedAuthority authority : user.getAuthorities()) {
+                    Rule rule = roleRules.get(authority.getAuthority());
+                    if (rule != null && (best == null || rule.emissionNanos() < best.emissionNanos())) {
+                        best = rule;
+                    }
+                }
+            }
+            return best != null ? best : defaultRule;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ec.edu.ups.icc.fundamentos01.core.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    // false: sin límite por cliente
+    private boolean enabled = true;
+
+    // Claves (usuario o IP por grupo) que caben a la vez: 16 bytes cada una
+    private int capacity = 1 << 20;
+
+    // Tablas independientes en que se reparte la capacidad
+    private int stripes = 64;
+
+    // Grupos de rutas; una petición usa el primer grupo cuyo patrón coincide
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    public enum KeyType {
+        // Usuario autenticado (sujeto del JWT); sin autenticación cae a la IP
+        USER,
+        // IP del cliente (rutas públicas como /auth/**)
+        IP
+    }
+
+    /**
+     * rate peticiones por period, con ráfagas de hasta burst (0 = rate)
+     */
+    public static class Limit {
+
+        private long rate = 100;
+        private Duration period = Duration.ofSeconds(1);
+        private int burst = 0;
+
+        public long getRate() {
+            return rate;
+        }
+
+        public void setRate(long rate) {
+            this.rate = rate;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+
+    public static class Group extends Limit {
+
+        // "MÉTODO /ruta" o "/ruta" (cualquier método); admite patrones: /auth/**
+        private List<String> paths = new ArrayList<>();
+
+        private KeyType key = KeyType.USER;
+
+        // Límite por rol (ROLE_ADMIN...); con varios roles se aplica el más generoso
+        private Map<String, Limit> roles = new LinkedHashMap<>();
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public KeyType getKey() {
+            return key;
+        }
+
+        public void setKey(KeyType key) {
+            this.key = key;
+        }
+
+        public Map<String, Limit> getRoles() {
+            return roles;
+        }
+
+        public void setRoles(Map<String, Limit> roles) {
+            this.roles = roles;
+        }
+    }
+
+    // Getters y Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public Map<String, Group> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(Map<String, Group> groups) {
+        this.groups = groups;
+    }
+}
@@ -0,0 +1,199 @@
+package ec.edu.ups.icc.fundamentos01.core.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token buckets de muchas claves en memoria acotada y sin locks
+ *
+ * Cada bucket se guarda como un solo long con GCRA (generic cell rate
+ * algorithm, equivalente a un token bucket): tat = instante teórico en que el
+ * bucket vuelve a estar lleno. Una petición se admite si tat - now <= tolerancia
+ * y entonces tat avanza un intervalo (emissionNanos = periodo / tasa). Admitir
+ * es un compareAndSet sobre ese long
+ *
+ * Almacenamiento: tabla de direccionamiento abierto repartida en stripes
+ * (AtomicLongArray de claves y de tat). La clave es un hash de 64 bits; el
+ * 0 marca un hueco libre. Caducidad sin hilos de limpieza: un tat ya pasado
+ * equivale a un bucket lleno, así que su hueco lo puede reclamar cualquier
+ * otra clave sin perder información. Memoria fija: 16 bytes por hueco
+ *
+ * Si los PROBES huecos de una clave están ocupados por buckets vivos se
+ * desaloja el de menor deuda (el más cercano a lleno). Si ni así consigue
+ * hueco (otra clave lo reclamó a la vez) la petición se admite: con la tabla
+ * saturada el límite se relaja en lugar de castigar a clientes legítimos.
+ * Las carreras al reclamar huecos son raras y afectan como mucho a un token
+ */
+public class TokenBucketStore {
+
+    // Huecos que se examinan por clave antes de desalojar
+    private static final int PROBES = 8;
+
+    private final AtomicLongArray[] keys;
+    private final AtomicLongArray[] tats;
+    private final int stripeMask;
+    private final int slotMask;
+
+    /**
+     * @param capacity número total de claves (se redondea a potencia de 2)
+     * @param stripes  número de tablas independientes (se redondea a potencia de 2)
+     */
+    public TokenBucketStore(int capacity, int stripes) {
+        int stripeCount = powerOfTwo(Math.max(1, stripes));
+        int slotsPerStripe = powerOfTwo(Math.max(PROBES, capacity / stripeCount));
+        this.keys = new AtomicLongArray[stripeCount];
+        this.tats = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            keys[i] = new AtomicLongArray(slotsPerStripe);
+            tats[i] = new AtomicLongArray(slotsPerStripe);
+        }
+        this.stripeMask = stripeCount - 1;
+        this.slotMask = slotsPerStripe - 1;
+    }
+
+    /**
+     * Consume un token de la clave
+     *
+     * @param key           hash de la clave (hash64)
+     * @param now           instante actual en nanos, siempre > 0 y creciente
+     * @param emissionNanos nanos entre tokens (periodo / tasa)
+     * @param toleranceNanos ráfaga admitida: emissionNanos * (burst - 1)
+     * @return 0 si se admite; si no, nanos hasta que habrá un token
+     */
+    public long tryConsume(long key, long now, long emissionNanos, long toleranceNanos) {
+        int stripe = (int) (key >>> 40) & stripeMask;
+        AtomicLongArray stripeKeys = keys[stripe];
+        AtomicLongArray stripeTats = tats[stripe];
+        int slot = slotFor(stripeKeys, stripeTats, key, (int) key, now);
+        if (slot < 0) {
+            return 0;
+        }
+
+        while (true) {
+            long stored = stripeTats.get(slot);
+            long tat = Math.max(stored, now);
+            long wait = tat - toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (stripeTats.compareAndSet(slot, stored, tat + emissionNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    private int slotFor(AtomicLongArray stripeKeys, AtomicLongArray stripeTats, long key, int hash, long now) {
+        int victim = -1;
+        long victimTat = Long.MAX_VALUE;
+
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = (hash + probe) & slotMask;
+            long current = stripeKeys.get(slot);
+            if (current == key) {
+                return slot;
+            }
+            long tat = stripeTats.get(slot);
+            // Hueco libre o bucket ya lleno (caducado): se reclama tal cual
+            if (current == 0 || tat <= now) {
+                if (stripeKeys.compareAndSet(slot, current, key)) {
+                    return slot;
+                }
+                if (stripeKeys.get(slot) == key) {
+                    return slot;
+                }
+                continue;
+            }
+            if (tat < victimTat) {
+                victim = slot;
+                victimTat = tat;
+            }
+        }
+
+        if (victim < 0) {
+            return -1;
+        }
+
+        // Todos vivos: se desaloja el de menor deuda y la clave nueva empieza con el bucket lleno
+        long evicted = stripeKeys.get(victim);
+        if (evicted == key) {
+            return victim;
+        }
+        if (stripeKeys.compareAndSet(victim, evicted, key)) {
+            stripeTats.set(victim, 0);
+            return victim;
+        }
+        return -1;
+    }
+
+    /**
+     * Lo que devolvería tryConsume, sin consumir: 0 si hay token o la clave no está
+     */
+    public long peek(long key, long now, long toleranceNanos) {
+        int stripe = (int) (key >>> 40) & stripeMask;
+        int slot = find(keys[stripe], key);
+        if (slot < 0) {
+            return 0;
+        }
+        return Math.max(0, tats[stripe].get(slot) - toleranceNanos - now);
+    }
+
+    /**
+     * Vuelve a llenar el bucket de la clave (su hueco queda libre para reclamar)
+     */
+    public void reset(long key) {
+        int stripe = (int) (key >>> 40) & stripeMask;
+        int slot = find(keys[stripe], key);
+        if (slot >= 0) {
+            tats[stripe].set(slot, 0);
+        }
+    }
+
+    /**
+     * Devuelve un token consumido con tryConsume (reserva que al final no se usó)
+     */
+    public void refund(long key, long emissionNanos) {
+        int stripe = (int) (key >>> 40) & stripeMask;
+        int slot = find(keys[stripe], key);
+        if (slot < 0) {
+            return;
+        }
+        AtomicLongArray stripeTats = tats[stripe];
+        while (true) {
+            long stored = stripeTats.get(slot);
+            if (stored == 0 || stripeTats.compareAndSet(slot, stored, Math.max(0, stored - emissionNanos))) {
+                return;
+            }
+        }
+    }
+
+    private int find(AtomicLongArray stripeKeys, long key) {
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = ((int) key + probe) & slotMask;
+            if (stripeKeys.get(slot) == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Hash de 64 bits de la clave (FNV-1a + mezcla final de MurmurHash3); nunca 0
+     */
+    public static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static int powerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+}
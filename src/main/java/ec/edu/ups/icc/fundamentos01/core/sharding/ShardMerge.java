@@ -0,0 +1,91 @@
+package ec.edu.ups.icc.fundamentos01.core.sharding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Mezcla k-way de resultados ya ordenados en cada shard
+ *
+ * Cada fila lleva sus claves de orden (calculadas dentro de la transacción del
+ * shard) y el valor a devolver. Los null van al final en ASC y al principio
+ * en DESC, igual que en PostgreSQL
+ */
+public final class ShardMerge {
+
+    private ShardMerge() {
+    }
+
+    public record Row<T>(Comparable<?>[] keys, T value) {
+    }
+
+    /**
+     * @param shards     filas de cada shard, ordenadas por las mismas claves
+     * @param descending dirección de cada clave
+     * @param offset     filas globales a saltar
+     * @param limit      filas a devolver
+     */
+    public static <T> List<T> merge(List<List<Row<T>>> shards, boolean[] descending, long offset, int limit) {
+        Comparator<Row<T>> order = comparator(descending);
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(
+                Math.max(1, shards.size()), (a, b) -> order.compare(a.current(), b.current()));
+        for (List<Row<T>> rows : shards) {
+            if (!rows.isEmpty()) {
+                heads.add(new Cursor<>(rows));
+            }
+        }
+
+        List<T> result = new ArrayList<>(limit);
+        long skipped = 0;
+        while (!heads.isEmpty() && result.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(cursor.current().value());
+            }
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <T> Comparator<Row<T>> comparator(boolean[] descending) {
+        return (a, b) -> {
+            for (int i = 0; i < descending.length; i++) {
+                Comparable left = a.keys()[i];
+                Comparable right = b.keys()[i];
+                int cmp;
+                if (left == null || right == null) {
+                    cmp = left == right ? 0 : (left == null ? 1 : -1);
+                } else {
+                    cmp = left.compareTo(right);
+                }
+                if (cmp != 0) {
+                    return descending[i] ? -cmp : cmp;
+                }
+            }
+            return 0;
+        };
+    }
+
+    private static final class Cursor<T> {
+        private final List<Row<T>> rows;
+        private int index;
+
+        Cursor(List<Row<T>> rows) {
+            this.rows = rows;
+        }
+
+        Row<T> current() {
+            return rows.get(index);
+        }
+
+        boolean advance() {
+            return ++index < rows.size();
+        }
+    }
+}
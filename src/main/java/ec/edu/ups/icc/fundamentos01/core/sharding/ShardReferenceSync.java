@@ -0,0 +1,168 @@
+package ec.edu.ups.icc.fundamentos01.core.sharding;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Copia las tablas de referencia del shard 0 a los demás shards
+ *
+ * roles, users, user_roles y categories se escriben solo en el shard 0; los
+ * demás guardan una copia para las FK de products/product_categories, los
+ * JOIN de las consultas y los triggers de product_search.
+ * - Al arrancar: copia completa
+ * - Cada sharding.reference-sync-interval: filas con updated_at reciente
+ * - Antes de escribir un producto: su dueño y sus categorías (copyTo)
+ */
+public class ShardReferenceSync {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardReferenceSync.class);
+
+    // Margen hacia atrás de la marca de agua: transacciones que confirmaron tarde
+    private static final Duration OVERLAP = Duration.ofMinutes(1);
+
+    private final List<? extends DataSource> shards;
+
+    private volatile Timestamp watermark;
+
+    public ShardReferenceSync(List<? extends DataSource> shards) {
+        this.shards = shards;
+    }
+
+    // ============== SINCRONIZACIÓN ==============
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void fullSync() {
+        watermark = homeNow();
+        for (int shard = 1; shard < shards.size(); shard++) {
+            copy(shard, "roles", "TRUE", null);
+            copy(shard, "users", "TRUE", null);
+            copy(shard, "user_roles", "TRUE", null);
+            copy(shard, "categories", "TRUE", null);
+        }
+        logger.info("Tablas de referencia copiadas a {} shards", shards.size() - 1);
+    }
+
+    @Scheduled(fixedDelayString = "${sharding.reference-sync-interval:PT5S}")
+    public void syncChanges() {
+        Timestamp since = watermark;
+        if (since == null) {
+            return;
+        }
+        Timestamp next = homeNow();
+        Timestamp from = Timestamp.from(since.toInstant().minus(OVERLAP));
+        for (int shard = 1; shard < shards.size(); shard++) {
+            copy(shard, "roles", "updated_at >= ?", from);
+            copy(shard, "users", "updated_at >= ?", from);
+            copy(shard, "user_roles",
+                    "user_id IN (SELECT id FROM users WHERE updated_at >= ?)", from);
+            copy(shard, "categories", "updated_at >= ?", from);
+        }
+        watermark = next;
+    }
+
+    /**
+     * Copia inmediata de un dueño y sus categorías al shard (idempotente)
+     */
+    public void copyTo(int shard, Long userId, Collection<Long> categoryIds) {
+        if (userId != null) {
+            copy(shard, "users", "id = ?", userId);
+            copy(shard, "user_roles", "user_id = ?", userId);
+        }
+        if (categoryIds != null && !categoryIds.isEmpty()) {
+            String ids = categoryIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+            copy(shard, "categories", "id = ANY(CAST(? AS bigint[]))", "{" + ids + "}");
+        }
+    }
+
+    // ============== COPIA GENÉRICA ==============
+
+    /**
+     * SELECT en el shard 0 → INSERT ... ON CONFLICT en el shard destino
+     * Las columnas se toman del ResultSet: la copia sigue al esquema de Flyway
+     */
+    private void copy(int shard, String table, String where, Object param) {
+        try (Connection home = shards.get(ShardRoutingDataSource.HOME_SHARD).getConnection();
+                PreparedStatement select = home.prepareStatement("SELECT * FROM " + table + " WHERE " + where)) {
+            if (param != null) {
+                select.setObject(1, param);
+            }
+            try (ResultSet rs = select.executeQuery();
+                    Connection target = shards.get(shard).getConnection()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                List<String> columns = new ArrayList<>();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    columns.add(meta.getColumnName(i));
+                }
+
+                target.setAutoCommit(false);
+                try (PreparedStatement insert = target.prepareStatement(upsertSql(table, columns))) {
+                    int batched = 0;
+                    while (rs.next()) {
+                        for (int i = 1; i <= columns.size(); i++) {
+                            Object value = rs.getObject(i);
+                            if (value instanceof Array array) {
+                                value = array.getArray();
+                            }
+                            insert.setObject(i, value);
+                        }
+                        insert.addBatch();
+                        if (++batched % 500 == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                    insert.executeBatch();
+                    target.commit();
+                } catch (SQLException ex) {
+                    target.rollback();
+                    throw ex;
+                }
+            }
+        } catch (SQLException ex) {
+            throw new CannotGetJdbcConnectionException("No se pudo copiar " + table + " al shard " + shard, ex);
+        }
+    }
+
+    private static String upsertSql(String table, List<String> columns) {
+        String placeholders = columns.stream().map(column -> "?").collect(Collectors.joining(", "));
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")";
+        if (!columns.contains("id")) {
+            // user_roles: solo la PK compuesta
+            return sql + " ON CONFLICT DO NOTHING";
+        }
+        String updates = columns.stream()
+                .filter(column -> !column.equals("id"))
+                .map(column -> column + " = EXCLUDED." + column)
+                .collect(Collectors.joining(", "));
+        return sql + " ON CONFLICT (id) DO UPDATE SET " + updates;
+    }
+
+    private Timestamp homeNow() {
+        try (Connection home = shards.get(ShardRoutingDataSource.HOME_SHARD).getConnection();
+                PreparedStatement statement = home.prepareStatement("SELECT LOCALTIMESTAMP");
+                ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1);
+        } catch (SQLException ex) {
+            throw new CannotGetJdbcConnectionException("Shard 0 no disponible", ex);
+        }
+    }
+}
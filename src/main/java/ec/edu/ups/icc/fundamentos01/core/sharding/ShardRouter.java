@@ -0,0 +1,163 @@
+package ec.edu.ups.icc.fundamentos01.core.sharding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Reparto de productos entre shards por hash del dueño
+ *
+ * - Escrituras y consultas de un dueño → shardForOwner(ownerId)
+ * - Consultas por id → shardForProduct(id): cada shard genera ids congruentes
+ *   con su número (id % shards), así el id identifica el shard sin consultar
+ * - Consultas globales → fanOut: una transacción readOnly por shard en paralelo
+ *
+ * Sin sharding.urls hay un solo shard y todos los métodos ejecutan la consulta
+ * directamente en el hilo del llamador
+ *
+ * Con sharding no hay equivalente global (se responde 400): feed de cambios
+ * (txid de una sola base), búsqueda fulltext (la relevancia no se puede
+ * mezclar entre shards) y autocompletado (índice en memoria de una sola base)
+ */
+@Component
+public class ShardRouter {
+
+    private final int shardCount;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectProvider<ShardReferenceSync> referenceSync;
+    private final ExecutorService fanOutExecutor;
+
+    public ShardRouter(ShardingProperties properties,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<ShardReferenceSync> referenceSync,
+            @Value("${products.read-source:database}") String readSource,
+            @Value("${products.search.engine:database}") String searchEngine) {
+        this.shardCount = properties.getShardCount();
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.referenceSync = referenceSync;
+
+        if (shardCount > 1 && !("database".equalsIgnoreCase(readSource)
+                && "database".equalsIgnoreCase(searchEngine))) {
+            // El modelo en memoria, Lucene y product_search se construyen desde una sola base
+            throw new IllegalStateException(
+                    "sharding requiere products.read-source=database y products.search.engine=database");
+        }
+
+        if (shardCount > 1) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.fanOutExecutor = Executors.newFixedThreadPool(properties.getFanOutThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "shard-fan-out-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.fanOutExecutor = null;
+        }
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    // ============== ELECCIÓN DEL SHARD ==============
+
+    public int shardForOwner(Long ownerId) {
+        if (!isSharded()) {
+            return ShardRoutingDataSource.HOME_SHARD;
+        }
+        return ownerShard(ownerId, shardCount);
+    }
+
+    // Mezcla de bits: ids consecutivos de dueños se reparten entre shards
+    static int ownerShard(long ownerId, int shardCount) {
+        long mixed = ownerId * 0x9E3779B97F4A7C15L;
+        return Math.floorMod(mixed ^ (mixed >>> 32), shardCount);
+    }
+
+    public int shardForProduct(Long productId) {
+        return isSharded() ? (int) Math.floorMod(productId, (long) shardCount) : ShardRoutingDataSource.HOME_SHARD;
+    }
+
+    // ============== EJECUCIÓN ==============
+
+    /**
+     * Ejecuta action con las conexiones dirigidas al shard
+     * Dentro de una transacción ya iniciada debe llamarse antes de la primera sentencia
+     */
+    public <T> T onShard(int shard, Supplier<T> action) {
+        if (!isSharded()) {
+            return action.get();
+        }
+        return ShardRoutingDataSource.withShard(shard, action);
+    }
+
+    /**
+     * Lectura en el shard dentro de una transacción readOnly propia
+     * (el DTO se arma dentro, con las asociaciones LAZY aún accesibles)
+     */
+    public <T> T readOnShard(int shard, Supplier<T> query) {
+        if (!isSharded()) {
+            return query.get();
+        }
+        return ShardRoutingDataSource.withShard(shard, () -> readOnlyTx.execute(status -> query.get()));
+    }
+
+    /**
+     * Ejecuta query en todos los shards en paralelo; un resultado por shard, en orden
+     */
+    public <T> List<T> fanOut(Supplier<T> query) {
+        if (!isSharded()) {
+            return List.of(query.get());
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> readOnShard(target, query), fanOutExecutor));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Copia al shard el dueño y las categorías que una escritura va a referenciar
+     * (las FK y los triggers de product_search los necesitan en la misma base)
+     */
+    public void ensureReferences(int shard, Long userId, Collection<Long> categoryIds) {
+        ShardReferenceSync sync = referenceSync.getIfAvailable();
+        if (sync != null && shard != ShardRoutingDataSource.HOME_SHARD) {
+            sync.copyTo(shard, userId, categoryIds);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ec.edu.ups.icc.fundamentos01.core.sharding;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Elige el shard al obtener la conexión física
+ *
+ * El shard lo fija el llamador con withShard (ShardRouter); sin él se usa el
+ * shard 0 (usuarios, roles, categorías y lo que no es de productos).
+ * Como en la réplica, debe envolverse en LazyConnectionDataSourceProxy para
+ * que la elección ocurra en la primera sentencia y no al iniciar la transacción
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final int HOME_SHARD = 0;
+
+    private static final ThreadLocal<Integer> boundShard = new ThreadLocal<>();
+
+    private final List<HikariDataSource> shards;
+
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Ejecuta action con las conexiones de este hilo dirigidas al shard indicado
+     */
+    public static <T> T withShard(int shard, Supplier<T> action) {
+        Integer previous = boundShard.get();
+        boundShard.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                boundShard.remove();
+            } else {
+                boundShard.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Shard fijado en este hilo, o null si no hay ninguno
+     */
+    public static Integer boundShard() {
+        return boundShard.get();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = boundShard.get();
+        return shard != null ? shard : HOME_SHARD;
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,176 @@
+package ec.edu.ups.icc.fundamentos01.core.sharding;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import ec.edu.ups.icc.fundamentos01.core.datasource.HikariPools;
+
+/**
+ * Sharding de productos en varias bases PostgreSQL
+ *
+ * Solo se activa con sharding.urls (shards 1..n); el shard 0 es spring.datasource.
+ * Cada shard tiene su pool con spring.datasource.hikari.* (HikariPools) y
+ * sharding.maximum-pool-size.
+ * Al crear los pools:
+ * - aplica las migraciones de Flyway en cada shard (mismo esquema en todos)
+ * - ajusta la secuencia de products.id: INCREMENT BY n y valores con id % n = shard,
+ *   así los ids son únicos entre shards y cada id indica su shard
+ * - no arranca si algún shard tiene productos que no le corresponden (por id o
+ *   por dueño): las filas existentes no se redistribuyen y quedarían
+ *   inaccesibles por id o fuera de las consultas por dueño
+ * El @Primary "dataSource" que usan JPA y Flyway es el proxy de enrutamiento
+ */
+@Configuration
+@ConditionalOnExpression("!'${sharding.urls:}'.isEmpty()")
+public class ShardingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties,
+            Environment environment,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${spring.flyway.locations:classpath:db/migration}") String migrations) {
+        List<String> urls = new ArrayList<>();
+        urls.add(url);
+        urls.addAll(properties.getUrls());
+
+        List<HikariDataSource> shards = new ArrayList<>();
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < urls.size(); shard++) {
+            HikariDataSource dataSource = HikariPools.create(environment, "shard-" + shard, urls.get(shard),
+                    shard == 0 || properties.getUsername() == null ? username : properties.getUsername(),
+                    shard == 0 || properties.getPassword() == null ? password : properties.getPassword());
+            dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+
+            migrate(dataSource, migrations);
+            checkPlacement(dataSource, shard, urls.size());
+            alignProductIds(dataSource, shard, urls.size());
+
+            shards.add(dataSource);
+            targets.put(shard, dataSource);
+        }
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shards);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(shards.get(ShardRoutingDataSource.HOME_SHARD));
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("shardRoutingDataSource") ShardRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ShardReferenceSync shardReferenceSync(@Qualifier("shardRoutingDataSource") ShardRoutingDataSource routing) {
+        List<DataSource> shards = new ArrayList<>();
+        routing.getResolvedDataSources().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey((a, b) -> Integer.compare((Integer) a, (Integer) b)))
+                .forEach(entry -> shards.add(entry.getValue()));
+        return new ShardReferenceSync(shards);
+    }
+
+    private static void migrate(DataSource dataSource, String locations) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations(locations.split(","))
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    /**
+     * Cada producto debe estar en el shard de su id y de su dueño. Al activar
+     * sharding.urls (o cambiar el número de shards) sobre una base con
+     * productos no se cumple: se detiene el arranque en lugar de servir un
+     * catálogo parcial
+     */
+    private static void checkPlacement(DataSource dataSource, int shard, int shardCount) {
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            long wrongId;
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT COUNT(*) FROM products WHERE mod(id, " + shardCount + ") <> " + shard)) {
+                rs.next();
+                wrongId = rs.getLong(1);
+            }
+            long wrongOwner = 0;
+            try (ResultSet rs = statement.executeQuery("SELECT DISTINCT user_id FROM products")) {
+                while (rs.next()) {
+                    if (ShardRouter.ownerShard(rs.getLong(1), shardCount) != shard) {
+                        wrongOwner++;
+                    }
+                }
+            }
+            if (wrongId > 0 || wrongOwner > 0) {
+                throw new IllegalStateException("Shard " + shard + " de " + shardCount + ": " + wrongId
+                        + " productos con id de otro shard y " + wrongOwner + " dueños de otro shard. "
+                        + "sharding.urls no redistribuye productos existentes: active el sharding con "
+                        + "products vacía en todas las bases y vuelva a cargar el catálogo "
+                        + "(cada alta recibe id y shard según su dueño)");
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("No se pudo comprobar products en el shard " + shard, ex);
+        }
+    }
+
+    /**
+     * Deja la secuencia de products.id en el siguiente valor con id % shardCount = shard
+     * Idempotente; la tabla se bloquea para que ningún INSERT tome un valor en medio
+     */
+    private static void alignProductIds(DataSource dataSource, int shard, int shardCount) {
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            statement.execute("LOCK TABLE products IN EXCLUSIVE MODE");
+
+            String sequence;
+            try (ResultSet rs = statement.executeQuery("SELECT pg_get_serial_sequence('products', 'id')")) {
+                rs.next();
+                sequence = rs.getString(1);
+            }
+            long highest;
+            try (ResultSet rs = statement.executeQuery("SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM products), "
+                    + "(SELECT last_value FROM " + sequence + "))")) {
+                rs.next();
+                highest = rs.getLong(1);
+            }
+            long next = highest + 1 + Math.floorMod(shard - (highest + 1), (long) shardCount);
+
+            statement.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + shardCount);
+            statement.execute("SELECT setval('" + sequence + "', " + next + ", false)");
+            connection.commit();
+            logger.info("Shard {}: products.id continúa en {} (incremento {})", shard, next, shardCount);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("No se pudo preparar la secuencia de products en el shard " + shard, ex);
+        }
+    }
+}
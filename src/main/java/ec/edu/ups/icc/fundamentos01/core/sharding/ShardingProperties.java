@@ -0,0 +1,74 @@
+package ec.edu.ups.icc.fundamentos01.core.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+
+    // Bases adicionales de productos (shard 1..n); el shard 0 es spring.datasource,
+    // que además es la base de referencia de usuarios, roles y categorías
+    // Sin urls no hay sharding: todo va al datasource de spring.datasource
+
+    private List<String> urls = new ArrayList<>();
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+
+    // Hilos para las consultas globales (una tarea por shard)
+    private int fanOutThreads = 8;
+
+    // Getters y Setters
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(List<String> urls) {
+        // SHARDING_URLS vacío llega como [""]
+        this.urls = urls.stream().filter(url -> !url.isBlank()).map(String::trim).toList();
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public int getFanOutThreads() {
+        return fanOutThreads;
+    }
+
+    public void setFanOutThreads(int fanOutThreads) {
+        this.fanOutThreads = fanOutThreads;
+    }
+
+    /**
+     * Número total de shards (1 = sin sharding)
+     */
+    public int getShardCount() {
+        return urls.isEmpty() ? 1 : urls.size() + 1;
+    }
+}
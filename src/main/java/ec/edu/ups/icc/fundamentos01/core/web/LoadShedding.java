@@ -0,0 +1,25 @@
+package ec.edu.ups.icc.fundamentos01.core.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Marca de las peticiones rechazadas a propósito (bulkhead, rate limit,
+ * LoginGuard) para que ConcurrencyLimitFilter no las tome como muestras:
+ * su 503/429 no indica que el servidor esté saturado y su latencia tampoco
+ * es la de una petición atendida
+ */
+public final class LoadShedding {
+
+    public static final String SHED_ATTRIBUTE = LoadShedding.class.getName() + ".SHED";
+
+    private LoadShedding() {
+    }
+
+    public static void markShed(HttpServletRequest request) {
+        request.setAttribute(SHED_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    public static boolean isShed(HttpServletRequest request) {
+        return request.getAttribute(SHED_ATTRIBUTE) != null;
+    }
+}
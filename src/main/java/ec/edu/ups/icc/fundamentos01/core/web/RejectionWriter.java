@@ -0,0 +1,40 @@
+package ec.edu.ups.icc.fundamentos01.core.web;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ec.edu.ups.icc.fundamentos01.exceptions.response.ErrorResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Respuesta de los filtros que rechazan antes de llegar a los controladores
+ * (sin GlobalExceptionHandler): status + Retry-After + ErrorResponse, con el
+ * mismo formato que el resto de errores de la API
+ *
+ * La petición queda marcada como rechazo deliberado (LoadShedding)
+ */
+public class RejectionWriter {
+
+    private final ObjectMapper objectMapper;
+
+    public RejectionWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response,
+            HttpStatus status, String message, long retryAfterSeconds) throws IOException {
+        LoadShedding.markShed(request);
+        ErrorResponse errorResponse = new ErrorResponse(status, message, request.getRequestURI());
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+}
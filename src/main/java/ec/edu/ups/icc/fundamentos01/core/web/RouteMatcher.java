@@ -0,0 +1,62 @@
+package ec.edu.ups.icc.fundamentos01.core.web;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Rutas "MÉTODO /patrón" de la configuración (rate-limit, bulkhead,
+ * concurrency-limit) asociadas a un destino; gana la primera que coincide
+ *
+ * "GET /api/products" → solo GET; "/auth/**" → cualquier método
+ */
+public class RouteMatcher<T> {
+
+    private final List<Route<T>> routes = new ArrayList<>();
+
+    public RouteMatcher<T> add(String definition, T target) {
+        routes.add(Route.parse(definition, target));
+        return this;
+    }
+
+    public RouteMatcher<T> addAll(List<String> definitions, T target) {
+        definitions.forEach(definition -> add(definition, target));
+        return this;
+    }
+
+    /**
+     * Destino de la primera ruta que coincide con la petición, o null
+     */
+    public T match(HttpServletRequest request) {
+        if (routes.isEmpty()) {
+            return null;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        String method = request.getMethod();
+        for (Route<T> route : routes) {
+            if (route.matches(method, path)) {
+                return route.target();
+            }
+        }
+        return null;
+    }
+
+    private record Route<T>(String method, PathPattern pattern, T target) {
+
+        static <T> Route<T> parse(String definition, T target) {
+            String[] parts = definition.trim().split("\\s+", 2);
+            String method = parts.length == 2 ? parts[0].toUpperCase() : null;
+            String path = parts.length == 2 ? parts[1] : parts[0];
+            return new Route<>(method, PathPatternParser.defaultInstance.parse(path), target);
+        }
+
+        boolean matches(String requestMethod, PathContainer path) {
+            return (method == null || method.equals(requestMethod)) && pattern.matches(path);
+        }
+    }
+}
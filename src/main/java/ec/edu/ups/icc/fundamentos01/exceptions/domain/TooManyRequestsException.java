@@ -0,0 +1,20 @@
+package ec.edu.ups.icc.fundamentos01.exceptions.domain;
+
+import org.springframework.http.HttpStatus;
+
+import ec.edu.ups.icc.fundamentos01.exceptions.base.ApplicationException;
+
+public class TooManyRequestsException extends ApplicationException {
+
+    // Valor de la cabecera Retry-After
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
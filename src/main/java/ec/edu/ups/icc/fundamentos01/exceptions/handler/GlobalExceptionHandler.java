@@ -4,6 +4,9 @@ import java.util.HashMap;
 import java.util.Map;
 import jakarta.servlet.http.HttpServletRequest;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
@@ -12,7 +15,10 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.security.core.AuthenticationException;
+import ec.edu.ups.icc.fundamentos01.core.web.LoadShedding;
 import ec.edu.ups.icc.fundamentos01.exceptions.base.ApplicationException;
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.ServiceUnavailableException;
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.TooManyRequestsException;
 import ec.edu.ups.icc.fundamentos01.exceptions.response.ErrorResponse;
 
 @RestControllerAdvice
@@ -33,6 +39,78 @@ public class GlobalExceptionHandler {
                                 .body(response);
         }
 
+        /**
+         * 429 / 503 con Retry-After: el cliente sabe cuándo reintentar
+         */
+        @ExceptionHandler(TooManyRequestsException.class)
+        public ResponseEntity<ErrorResponse> handleTooManyRequestsException(
+                        TooManyRequestsException ex,
+                        HttpServletRequest request) {
+                return retryLater(ex, ex.getRetryAfterSeconds(), request);
+        }
+
+        @ExceptionHandler(ServiceUnavailableException.class)
+        public ResponseEntity<ErrorResponse> handleServiceUnavailableException(
+                        ServiceUnavailableException ex,
+                        HttpServletRequest request) {
+                return retryLater(ex, ex.getRetryAfterSeconds(), request);
+        }
+
+        private ResponseEntity<ErrorResponse> retryLater(
+                        ApplicationException ex,
+                        long retryAfterSeconds,
+                        HttpServletRequest request) {
+                // Rechazo deliberado: ConcurrencyLimitFilter no lo cuenta como sobrecarga
+                LoadShedding.markShed(request);
+                ErrorResponse response = new ErrorResponse(
+                                ex.getStatus(),
+                                ex.getMessage(),
+                                request.getRequestURI());
+
+                return ResponseEntity
+                                .status(ex.getStatus())
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                                .body(response);
+        }
+
+        // ============== EXCEPCIONES DE CONCURRENCIA ==============
+
+        /**
+         * Maneja conflictos de bloqueo optimista (@Version)
+         * Se lanza cuando otra transacción modificó la fila entre la lectura y el UPDATE
+         */
+        @ExceptionHandler(OptimisticLockingFailureException.class)
+        public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(
+                        OptimisticLockingFailureException ex,
+                        HttpServletRequest request) {
+                ErrorResponse response = new ErrorResponse(
+                                HttpStatus.PRECONDITION_FAILED,
+                                "El recurso fue modificado por otra petición. Vuelva a consultarlo",
+                                request.getRequestURI());
+
+                return ResponseEntity
+                                .status(HttpStatus.PRECONDITION_FAILED)
+                                .body(response);
+        }
+
+        /**
+         * Maneja violaciones de restricciones de BD (índices únicos, FKs)
+         * que no fueron traducidas a una excepción de negocio en el servicio
+         */
+        @ExceptionHandler(DataIntegrityViolationException.class)
+        public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(
+                        DataIntegrityViolationException ex,
+                        HttpServletRequest request) {
+                ErrorResponse response = new ErrorResponse(
+                                HttpStatus.CONFLICT,
+                                "La operación viola una restricción de integridad de datos",
+                                request.getRequestURI());
+
+                return ResponseEntity
+                                .status(HttpStatus.CONFLICT)
+                                .body(response);
+        }
+
         // ============== EXCEPCIONES DE VALIDACIÓN ==============
 
         @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -0,0 +1,44 @@
+package ec.edu.ups.icc.fundamentos01.products.changes;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+
+/**
+ * Purga periódica de product_changes (feed GET /api/products/changes)
+ *
+ * Los cambios más antiguos que products.changes.retention se eliminan y el
+ * token más alto purgado queda en product_change_horizon: un cliente que
+ * vuelve con un token anterior recibe 410 y debe resincronizar completo
+ */
+@Component
+public class ProductChangeRetention {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeRetention.class);
+
+    private final ProductRepository productRepository;
+    private final Duration retention;
+
+    public ProductChangeRetention(ProductRepository productRepository,
+            @Value("${products.changes.retention:P7D}") Duration retention) {
+        this.productRepository = productRepository;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${products.changes.purge-interval:PT1H}")
+    @Transactional
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        if (productRepository.purgeChangesBefore(cutoff) > 0) {
+            logger.info("Feed de cambios: purgados los registros anteriores a {}", cutoff);
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package ec.edu.ups.icc.fundamentos01.products.controllers;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -15,15 +21,21 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
 import ec.edu.ups.icc.fundamentos01.products.dtos.CreateProductDto;
 
 import ec.edu.ups.icc.fundamentos01.products.dtos.UpdateProductDto;
 
 import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductSuggestionDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductChangesDto;
+import ec.edu.ups.icc.fundamentos01.products.events.ProductEventStream;
 
 import ec.edu.ups.icc.fundamentos01.products.services.ProductService;
 import ec.edu.ups.icc.fundamentos01.security.services.UserDetailsImpl;
@@ -35,8 +47,11 @@ public class ProductController {
 
     private final ProductService productService;
 
-    public ProductController(ProductService productService) {
+    private final ProductEventStream eventStream;
+
+    public ProductController(ProductService productService, ProductEventStream eventStream) {
         this.productService = productService;
+        this.eventStream = eventStream;
     }
 
     /**
@@ -74,6 +89,15 @@ public class ProductController {
     /**
      * Lista productos con filtros y paginación
      * Ejemplo: GET /api/products/search?name=laptop&minPrice=500&page=0&size=5
+     * 
+     * Modos de búsqueda del parámetro name:
+     * - contains (por defecto): subcadena en el nombre, ordenado por sort
+     * - fulltext: palabras en nombre y descripción, ordenado por relevancia (ignora sort)
+     *   Ejemplo: GET /api/products/search?mode=fulltext&name=laptop gamer&maxPrice=1500
+     * 
+     * Varias categorías (modo contains):
+     * - categoryIds=1,2,3&categoryMatch=any → al menos una (por defecto)
+     * - categoryIds=1,2,3&categoryMatch=all → todas
      */
     @GetMapping("/search")
     public ResponseEntity<Page<ProductResponseDto>> findWithFilters(
@@ -81,16 +105,95 @@ public class ProductController {
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Set<Long> categoryIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(defaultValue = "any") String categoryMatch,
+            @RequestParam(defaultValue = "contains") String mode,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String[] sort) {
 
-        Page<ProductResponseDto> products = productService.findWithFilters(
-                name, minPrice, maxPrice, categoryId, page, size, sort);
+        boolean createdRange = createdFrom != null || createdTo != null;
+        if (createdRange && (!"contains".equalsIgnoreCase(mode) || (categoryIds != null && !categoryIds.isEmpty()))) {
+            throw new BadRequestException("createdFrom/createdTo solo se admiten en modo contains sin categoryIds");
+        }
+
+        if (categoryIds != null && !categoryIds.isEmpty()) {
+            if (!"contains".equalsIgnoreCase(mode)) {
+                throw new BadRequestException("categoryIds solo se admite en modo contains");
+            }
+            Set<Long> allCategoryIds = new HashSet<>(categoryIds);
+            if (categoryId != null) {
+                allCategoryIds.add(categoryId);
+            }
+            return ResponseEntity.ok(productService.findWithCategories(name, minPrice, maxPrice,
+                    allCategoryIds, parseCategoryMatch(categoryMatch), page, size, sort));
+        }
+
+        Page<ProductResponseDto> products = switch (mode.toLowerCase()) {
+            case "contains" -> productService.findWithFilters(
+                    name, minPrice, maxPrice, categoryId, createdFrom, createdTo, page, size, sort);
+            case "fulltext" -> productService.searchFullText(
+                    name, minPrice, maxPrice, categoryId, page, size);
+            default -> throw new BadRequestException("Modo de búsqueda no válido: " + mode);
+        };
 
         return ResponseEntity.ok(products);
     }
 
+    // ============== AUTOCOMPLETADO ==============
+
+    /**
+     * Sugerencias mientras el usuario escribe (se resuelve en memoria, sin BD)
+     * Ejemplo: GET /api/products/suggest?prefix=lap&limit=8
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDto>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(productService.suggest(prefix, limit));
+    }
+
+    // ============== FEED DE CAMBIOS ==============
+
+    /**
+     * Sincronización incremental: cambios posteriores a un token
+     * Ejemplo: GET /api/products/changes?since=7345.120&limit=500
+     * 
+     * 1. Sin since: devuelve solo nextToken (guardarlo antes de la copia completa)
+     * 2. Copia completa con /paginated
+     * 3. Repetir con since=nextToken mientras hasMore sea true
+     * Un token purgado por antigüedad → 410 Gone (volver al paso 1)
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangesDto> findChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        return ResponseEntity.ok(productService.findChanges(since, limit));
+    }
+
+    // ============== EVENTOS EN VIVO (SSE) ==============
+
+    /**
+     * Eventos created / updated / deleted en tiempo real (text/event-stream)
+     * Ejemplo: GET /api/products/stream?categoryId=3
+     * 
+     * - ownerId / categoryId: filtros opcionales (los deleted llegan siempre)
+     * - Last-Event-ID: al reconectar se repiten los eventos perdidos
+     * - Evento "reset": se perdieron eventos, el cliente debe recargar sus datos
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) Long ownerId,
+            @RequestParam(required = false) Long categoryId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        return eventStream.subscribe(ownerId, categoryId, lastEventId);
+    }
+
     // ============== USUARIOS CON SUS PRODUCTOS PAGINADOS ==============
 
     /**
@@ -132,7 +235,9 @@ public class ProductController {
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponseDto> findById(@PathVariable("id") String id) {
         ProductResponseDto product = productService.findById(Long.parseLong(id));
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(product.version))
+                .body(product);
     }
 
     @GetMapping("/user/{userId}")
@@ -151,15 +256,21 @@ public class ProductController {
      * 
      * El usuario autenticado se extrae del JWT mediante @AuthenticationPrincipal
      * y se pasa al servicio para validar ownership
+     * 
+     * Bloqueo optimista: el cliente envía en If-Match el ETag obtenido en el GET.
+     * Si el producto cambió desde entonces → 412 Precondition Failed
      */
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponseDto> update(
             @PathVariable Long id,
             @Valid @RequestBody UpdateProductDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal UserDetailsImpl currentUser) {  // ← Usuario del JWT
         
-        ProductResponseDto updated = productService.update(id, dto, currentUser);
-        return ResponseEntity.ok(updated);
+        ProductResponseDto updated = productService.update(id, dto, parseIfMatch(ifMatch), currentUser);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(updated.version))
+                .body(updated);
     }
 
     /**
@@ -177,5 +288,38 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * any → alguna categoría (false), all → todas (true)
+     */
+    private boolean parseCategoryMatch(String categoryMatch) {
+        return switch (categoryMatch.toLowerCase()) {
+            case "any" -> false;
+            case "all" -> true;
+            default -> throw new BadRequestException("categoryMatch debe ser any o all: " + categoryMatch);
+        };
+    }
+
+    /**
+     * Convierte el header If-Match ("3", W/"3" o *) en la versión esperada
+     * Retorna null si no hay precondición
+     */
+    private Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Header If-Match inválido: " + ifMatch);
+        }
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package ec.edu.ups.icc.fundamentos01.products.controllers;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.ConflictException;
+import ec.edu.ups.icc.fundamentos01.products.search.ProductIndexSynchronizer;
+
+/**
+ * Administración del índice de búsqueda de productos
+ * /api/admin/** ya exige ROLE_ADMIN en SecurityConfig
+ */
+@RestController
+@RequestMapping("/api/admin/products/index")
+public class ProductSearchAdminController {
+
+    private final ObjectProvider<ProductIndexSynchronizer> synchronizer;
+
+    public ProductSearchAdminController(ObjectProvider<ProductIndexSynchronizer> synchronizer) {
+        this.synchronizer = synchronizer;
+    }
+
+    /**
+     * Estado del índice
+     * Ejemplo: GET /api/admin/products/index
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(requireSynchronizer().status());
+    }
+
+    /**
+     * Reconstruye el índice en segundo plano desde la BD
+     * Ejemplo: POST /api/admin/products/index/reindex → 202 Accepted
+     */
+    @PostMapping("/reindex")
+    public ResponseEntity<Map<String, Object>> reindex() {
+        ProductIndexSynchronizer sync = requireSynchronizer();
+        if (!sync.startReindex()) {
+            throw new ConflictException("Ya hay una reindexación en curso");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(sync.status());
+    }
+
+    private ProductIndexSynchronizer requireSynchronizer() {
+        ProductIndexSynchronizer sync = synchronizer.getIfAvailable();
+        if (sync == null) {
+            throw new BadRequestException("El motor de búsqueda Lucene no está habilitado (products.search.engine=lucene)");
+        }
+        return sync;
+    }
+
+}
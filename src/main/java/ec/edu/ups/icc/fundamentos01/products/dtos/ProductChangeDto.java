@@ -0,0 +1,15 @@
+package ec.edu.ups.icc.fundamentos01.products.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Un cambio del feed /changes
+ * - UPSERT: product trae el estado actual
+ * - DELETE: tombstone, solo productId
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChangeDto {
+    public Long productId;
+    public String type;
+    public ProductResponseDto product;
+}
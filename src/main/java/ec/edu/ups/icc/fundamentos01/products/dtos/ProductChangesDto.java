@@ -0,0 +1,14 @@
+package ec.edu.ups.icc.fundamentos01.products.dtos;
+
+import java.util.List;
+
+/**
+ * Página del feed de cambios
+ * nextToken se envía como since en la siguiente llamada;
+ * hasMore = false indica que el cliente está al día
+ */
+public class ProductChangesDto {
+    public List<ProductChangeDto> changes;
+    public String nextToken;
+    public boolean hasMore;
+}
@@ -3,6 +3,7 @@ package ec.edu.ups.icc.fundamentos01.products.dtos;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
@@ -36,6 +37,10 @@ public class ProductResponseDto {
     public LocalDateTime createdAt;
     public LocalDateTime updatedAt;
 
+    // Versión para bloqueo optimista: se envía en el header ETag, no en el cuerpo
+    @JsonIgnore
+    public Long version;
+
     // ============== DTOs INTERNOS ==============
 
     public static class UserSummaryDto {
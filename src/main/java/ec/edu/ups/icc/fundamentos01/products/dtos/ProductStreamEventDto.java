@@ -0,0 +1,23 @@
+package ec.edu.ups.icc.fundamentos01.products.dtos;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Datos de un evento SSE de GET /api/products/stream
+ * En DELETED solo viene productId
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductStreamEventDto {
+    public String type;
+    public Long productId;
+    public String name;
+    public Double price;
+    public String description;
+    public Long ownerId;
+    public Set<Long> categoryIds;
+    public LocalDateTime createdAt;
+    public LocalDateTime updatedAt;
+}
@@ -0,0 +1,12 @@
+package ec.edu.ups.icc.fundamentos01.products.dtos;
+
+/**
+ * Sugerencia de autocompletado (GET /api/products/suggest)
+ */
+public class ProductSuggestionDto {
+    public Long id;
+    public String name;
+
+    // Popularidad usada para ordenar (consultas al detalle del producto)
+    public long score;
+}
@@ -0,0 +1,114 @@
+package ec.edu.ups.icc.fundamentos01.products.events;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductEntity;
+
+/**
+ * Evento publicado por ProductServiceImpl en cada escritura de productos
+ * 
+ * Se publica dentro de la transacción; los consumidores lo reciben con
+ * @TransactionalEventListener(phase = AFTER_COMMIT) para actuar solo sobre
+ * cambios confirmados (índices de búsqueda, cachés, suscriptores, etc.)
+ * 
+ * Lleva una copia del estado del producto (no la entidad) para que los
+ * consumidores no dependan de la sesión de Hibernate ya cerrada
+ */
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Long productId;
+    private final String name;
+    private final String description;
+    private final Double price;
+    private final Long ownerId;
+    private final Set<Long> categoryIds;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    private ProductChangedEvent(Type type, Long productId, String name, String description, Double price,
+            Long ownerId, Set<Long> categoryIds, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.type = type;
+        this.productId = productId;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.ownerId = ownerId;
+        this.categoryIds = categoryIds;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // ============== FÁBRICAS ==============
+
+    public static ProductChangedEvent created(ProductEntity entity, Long ownerId) {
+        return fromEntity(Type.CREATED, entity, ownerId);
+    }
+
+    public static ProductChangedEvent updated(ProductEntity entity) {
+        return fromEntity(Type.UPDATED, entity, entity.getOwner().getId());
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null, null, null, null, Set.of(), null, null);
+    }
+
+    private static ProductChangedEvent fromEntity(Type type, ProductEntity entity, Long ownerId) {
+        Set<Long> categoryIds = entity.getCategories().stream()
+                .map(CategoryEntity::getId)
+                .collect(Collectors.toUnmodifiableSet());
+
+        return new ProductChangedEvent(type, entity.getId(), entity.getName(), entity.getDescription(),
+                entity.getPrice(), ownerId, categoryIds, entity.getCreatedAt(), entity.getUpdatedAt());
+    }
+
+    // ============== GETTERS ==============
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+}
@@ -0,0 +1,342 @@
+package ec.edu.ups.icc.fundamentos01.products.events;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductStreamEventDto;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Difusión de ProductChangedEvent a clientes SSE (GET /api/products/stream)
+ *
+ * - El hilo de Tomcat se libera al devolver el SseEmitter (request asíncrono);
+ *   los envíos los hace un pool pequeño de despachadores compartido
+ * - Cada suscriptor tiene un buffer acotado: si se llena se descarta el evento
+ *   más antiguo y se envía "reset" (el cliente debe recargar), o se desconecta
+ *   según products.stream.overflow
+ * - Ids "época-secuencia" + ring de los últimos eventos para reanudar con
+ *   Last-Event-ID; si el id es de otra época o ya salió del ring → "reset"
+ * - Los DELETED no traen dueño ni categorías: llegan a todos los suscriptores
+ */
+@Component
+public class ProductEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventStream.class);
+
+    public enum Overflow {
+        DROP_OLDEST, DISCONNECT
+    }
+
+    // Marca en la cola de un suscriptor (no es un evento del catálogo)
+    private static final Object HEARTBEAT = new Object();
+    private static final Object RESET = new Object();
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Overflow overflow;
+    private final ExecutorService dispatcher;
+
+    // Cambia en cada arranque: ids de otra instancia/arranque no son reanudables
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // ============== RING DE REPETICIÓN ==============
+
+    private final Object replayLock = new Object();
+    private final StreamEvent[] replay;
+    private long lastSequence;  // protegido por replayLock
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public ProductEventStream(ObjectMapper objectMapper,
+            @Value("${products.stream.buffer-size:256}") int bufferSize,
+            @Value("${products.stream.replay-size:1024}") int replaySize,
+            @Value("${products.stream.timeout-millis:1800000}") long timeoutMillis,
+            @Value("${products.stream.overflow:drop-oldest}") String overflow,
+            @Value("${products.stream.dispatcher-threads:2}") int dispatcherThreads) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.overflow = Overflow.valueOf(overflow.trim().toUpperCase().replace('-', '_'));
+        this.replay = new StreamEvent[replaySize];
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "product-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ============== SUSCRIPCIÓN ==============
+
+    /**
+     * Registra un suscriptor con filtros opcionales por dueño o categoría
+     * Con lastEventId encola primero los eventos perdidos (si siguen en el ring)
+     */
+    public SseEmitter subscribe(Long ownerId, Long categoryId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, ownerId, categoryId);
+
+        emitter.onCompletion(() -> subscriber.close());
+        emitter.onTimeout(() -> subscriber.close());
+        emitter.onError(ex -> subscriber.close());
+
+        synchronized (replayLock) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                long resumeFrom = resumeSequence(lastEventId);
+                long oldestAvailable = Math.max(1, lastSequence - replay.length + 1);
+                if (resumeFrom < 0 || resumeFrom + 1 < oldestAvailable) {
+                    subscriber.enqueue(RESET);
+                } else {
+                    for (long seq = resumeFrom + 1; seq <= lastSequence; seq++) {
+                        StreamEvent event = replay[(int) (seq % replay.length)];
+                        if (subscriber.accepts(event)) {
+                            subscriber.enqueue(event);
+                        }
+                    }
+                }
+            }
+            // Se registra bajo el mismo lock: ningún evento queda entre la repetición y el vivo
+            subscribers.add(subscriber);
+        }
+
+        subscriber.schedule();
+        return emitter;
+    }
+
+    /**
+     * Secuencia de un id "época-secuencia", o -1 si es de otra época o inválido
+     */
+    private long resumeSequence(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // ============== DIFUSIÓN ==============
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Se serializa una sola vez para todos los suscriptores (fuera del lock)
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(toDto(event));
+        } catch (JsonProcessingException ex) {
+            logger.warn("No se pudo serializar el evento del producto {}", event.getProductId(), ex);
+            return;
+        }
+
+        synchronized (replayLock) {
+            long seq = ++lastSequence;
+            StreamEvent streamEvent = new StreamEvent(epoch + "-" + seq,
+                    event.getType().name().toLowerCase(), json, event);
+            replay[(int) (seq % replay.length)] = streamEvent;
+
+            // Solo encola (no bloquea); el envío lo hacen los despachadores
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.accepts(streamEvent)) {
+                    subscriber.enqueue(streamEvent);
+                }
+            }
+        }
+
+        subscribers.forEach(Subscriber::schedule);
+    }
+
+    /**
+     * Comentario periódico: mantiene viva la conexión en proxies y detecta clientes caídos
+     */
+    @Scheduled(fixedDelayString = "${products.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueueHeartbeat();
+            subscriber.schedule();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        dispatcher.shutdownNow();
+    }
+
+    private static ProductStreamEventDto toDto(ProductChangedEvent event) {
+        ProductStreamEventDto dto = new ProductStreamEventDto();
+        dto.type = event.getType().name();
+        dto.productId = event.getProductId();
+        if (!event.isDeleted()) {
+            dto.name = event.getName();
+            dto.price = event.getPrice();
+            dto.description = event.getDescription();
+            dto.ownerId = event.getOwnerId();
+            dto.categoryIds = event.getCategoryIds();
+            dto.createdAt = event.getCreatedAt();
+            dto.updatedAt = event.getUpdatedAt();
+        }
+        return dto;
+    }
+
+    // ============== TIPOS INTERNOS ==============
+
+    private static final class StreamEvent {
+        final String id;
+        final String name;
+        final String json;
+        final ProductChangedEvent source;
+
+        StreamEvent(String id, String name, String json, ProductChangedEvent source) {
+            this.id = id;
+            this.name = name;
+            this.json = json;
+            this.source = source;
+        }
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final Long ownerId;
+        final Long categoryId;
+
+        // Cola acotada; protegida por su propio monitor
+        final ArrayDeque<Object> queue = new ArrayDeque<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Long ownerId, Long categoryId) {
+            this.emitter = emitter;
+            this.ownerId = ownerId;
+            this.categoryId = categoryId;
+        }
+
+        boolean accepts(StreamEvent event) {
+            ProductChangedEvent source = event.source;
+            if (source.isDeleted()) {
+                return true;
+            }
+            return (ownerId == null || ownerId.equals(source.getOwnerId()))
+                    && (categoryId == null || source.getCategoryIds().contains(categoryId));
+        }
+
+        void enqueue(Object item) {
+            synchronized (queue) {
+                if (queue.size() >= bufferSize) {
+                    if (overflow == Overflow.DISCONNECT) {
+                        queue.clear();
+                        closed = true;
+                    } else {
+                        // Descarta el más antiguo y avisa al cliente que perdió eventos
+                        queue.pollFirst();
+                        if (queue.peekFirst() != RESET) {
+                            queue.addFirst(RESET);
+                        }
+                    }
+                }
+                if (!closed) {
+                    queue.addLast(item);
+                }
+            }
+        }
+
+        void enqueueHeartbeat() {
+            synchronized (queue) {
+                if (queue.isEmpty()) {
+                    queue.addLast(HEARTBEAT);
+                }
+            }
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RuntimeException ex) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        /**
+         * Envía lo encolado; un solo despachador por suscriptor a la vez (orden garantizado)
+         */
+        void drain() {
+            while (true) {
+                Object item;
+                synchronized (queue) {
+                    item = closed ? null : queue.pollFirst();
+                }
+
+                if (item == null) {
+                    scheduled.set(false);
+                    if (closed) {
+                        close();
+                        emitter.complete();
+                        return;
+                    }
+                    // Pudo llegar algo entre el poll y el set(false)
+                    synchronized (queue) {
+                        if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                            return;
+                        }
+                    }
+                    continue;
+                }
+
+                try {
+                    send(item);
+                } catch (IOException | IllegalStateException ex) {
+                    // Cliente desconectado
+                    close();
+                    return;
+                }
+            }
+        }
+
+        private void send(Object item) throws IOException {
+            if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } else if (item == RESET) {
+                emitter.send(SseEmitter.event().name("reset").data("{}"));
+            } else {
+                StreamEvent event = (StreamEvent) item;
+                emitter.send(SseEmitter.event()
+                        .id(event.id)
+                        .name(event.name)
+                        .data(event.json));
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
@@ -9,9 +9,15 @@ import ec.edu.ups.icc.fundamentos01.users.models.UserEntity;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", uniqueConstraints = @UniqueConstraint(name = ProductEntity.UNIQUE_NAME_CONSTRAINT, columnNames = "name"))
 public class ProductEntity extends BaseModel {
 
+    /**
+     * Índice único sobre el nombre: la unicidad la garantiza la BD
+     * (sin consultar antes si el nombre existe)
+     */
+    public static final String UNIQUE_NAME_CONSTRAINT = "uk_products_name";
+
     @Column(nullable = false, length = 150)
     private String name;
 
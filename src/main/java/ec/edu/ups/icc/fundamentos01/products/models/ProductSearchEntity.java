@@ -0,0 +1,110 @@
+package ec.edu.ups.icc.fundamentos01.products.models;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Fila de la tabla desnormalizada product_search (solo lectura)
+ *
+ * La mantienen los triggers de V4__product_search_table.sql en la misma
+ * transacción que escribe products, product_categories, users o categories;
+ * la aplicación nunca la escribe
+ *
+ * category_ids y category_names van alineados por posición
+ */
+@Entity
+@Immutable
+@Table(name = "product_search")
+public class ProductSearchEntity {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "owner_name", nullable = false, length = 150)
+    private String ownerName;
+
+    @Column(nullable = false, length = 150)
+    private String name;
+
+    @Column(name = "lower_name", nullable = false, length = 150)
+    private String lowerName;
+
+    @Column(nullable = false)
+    private Double price;
+
+    @Column(length = 500)
+    private String description;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "category_ids", nullable = false)
+    private Long[] categoryIds;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "category_names", nullable = false)
+    private String[] categoryNames;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private Long version;
+
+    protected ProductSearchEntity() {
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getOwnerName() {
+        return ownerName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long[] getCategoryIds() {
+        return categoryIds;
+    }
+
+    public String[] getCategoryNames() {
+        return categoryNames;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,80 @@
+package ec.edu.ups.icc.fundamentos01.products.partitioning;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import ec.edu.ups.icc.fundamentos01.core.sharding.ShardRoutingDataSource;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Particionado de products por mes de created_at (V7__products_partitioning.sql;
+ * V9 serializa la conversión entre instancias que arrancan a la vez)
+ *
+ * - Al crear el bean (antes de atender tráfico): si products aún no está
+ *   particionada la convierte en una sola transacción (bloquea la tabla
+ *   mientras copia; en bases grandes conviene hacerlo en una ventana de mantenimiento)
+ * - Cada products.partitioning.maintenance-interval: crea las particiones de
+ *   los próximos months-ahead meses, para que las altas nunca caigan en
+ *   products_pdefault. Un mes con filas ya en products_pdefault se omite
+ *   con un aviso en el log en lugar de impedir el arranque
+ * Con sharding se aplica en cada shard
+ */
+@Component
+@ConditionalOnProperty(prefix = "products.partitioning", name = "enabled", havingValue = "true")
+public class ProductPartitionMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductPartitionMaintenance.class);
+
+    private final List<JdbcTemplate> targets;
+    private final int monthsAhead;
+
+    // JdbcTemplate depende de Flyway: V7 ya está aplicada al llegar aquí
+    public ProductPartitionMaintenance(JdbcTemplate jdbcTemplate,
+            ObjectProvider<ShardRoutingDataSource> shards,
+            @Value("${products.partitioning.months-ahead:3}") int monthsAhead) {
+        ShardRoutingDataSource routing = shards.getIfAvailable();
+        this.targets = routing == null
+                ? List.of(jdbcTemplate)
+                : routing.getResolvedDataSources().values().stream().map(JdbcTemplate::new).toList();
+        this.monthsAhead = monthsAhead;
+    }
+
+    @PostConstruct
+    public void partition() {
+        for (JdbcTemplate jdbc : targets) {
+            Integer created = jdbc.queryForObject(
+                    "SELECT products_partition_by_created_at(?)", Integer.class, monthsAhead);
+            if (created != null && created > 0) {
+                logger.info("products convertida en tabla particionada por created_at ({} particiones)", created);
+            }
+        }
+        ensureFuturePartitions();
+    }
+
+    @Scheduled(fixedDelayString = "${products.partitioning.maintenance-interval:PT6H}")
+    public void ensureFuturePartitions() {
+        for (JdbcTemplate jdbc : targets) {
+            Integer created = jdbc.queryForObject(
+                    "SELECT products_ensure_partitions(CAST(LOCALTIMESTAMP AS date), ?)", Integer.class, monthsAhead);
+            if (created != null && created > 0) {
+                logger.info("Particiones de products creadas: {}", created);
+            }
+
+            // Meses que ya tenían filas en products_pdefault: su partición no se crea (V10)
+            List<String> stranded = jdbc.queryForList(
+                    "SELECT DISTINCT to_char(created_at, 'YYYY-MM') FROM products_pdefault ORDER BY 1", String.class);
+            if (!stranded.isEmpty()) {
+                logger.warn("products_pdefault tiene productos de {}: esos meses no tienen partición propia "
+                        + "hasta mover sus filas", stranded);
+            }
+        }
+    }
+}
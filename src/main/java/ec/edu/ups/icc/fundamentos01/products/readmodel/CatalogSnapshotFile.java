@@ -0,0 +1,200 @@
+package ec.edu.ups.icc.fundamentos01.products.readmodel;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Formato binario del snapshot del catálogo (versión FORMAT_VERSION)
+ * 
+ * Cabecera: magic, versión de formato, fecha de escritura, marca de agua
+ * (máximo createdAt/updatedAt en microsegundos) y cantidad de filas.
+ * Luego las columnas de ancho fijo (ids, precios, dueños, fechas) contiguas,
+ * que al leer se copian en bloque desde el archivo mapeado en memoria,
+ * y por último las secciones de texto y dimensiones
+ * 
+ * Se escribe en un archivo temporal y se renombra de forma atómica:
+ * un lector nunca ve un snapshot a medias
+ */
+final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x50434154; // "PCAT"
+    static final int FORMAT_VERSION = 1;
+
+    private CatalogSnapshotFile() {
+    }
+
+    // ============== CONTENIDO ==============
+
+    /**
+     * Copia de las columnas del modelo de lectura (solo filas vivas)
+     */
+    static final class Data {
+        long writtenAtMillis;
+        long watermarkMicros;
+        int rowCount;
+        long[] ids;
+        double[] prices;
+        long[] ownerIds;
+        long[] createdAt;
+        long[] updatedAt;
+        String[] names;
+        String[] descriptions;
+        Map<Long, long[]> categoryRowWords = new LinkedHashMap<>(); // BitSet.toLongArray() por categoría
+        Map<Long, String> categoryNames = new LinkedHashMap<>();
+        Map<Long, String> ownerNames = new LinkedHashMap<>();
+    }
+
+    // ============== ESCRITURA ==============
+
+    static void write(Path path, Data data) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (OutputStream file = Files.newOutputStream(temp);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(data.writtenAtMillis);
+            out.writeLong(data.watermarkMicros);
+            out.writeInt(data.rowCount);
+
+            writeLongs(out, data.ids, data.rowCount);
+            for (int i = 0; i < data.rowCount; i++) {
+                out.writeDouble(data.prices[i]);
+            }
+            writeLongs(out, data.ownerIds, data.rowCount);
+            writeLongs(out, data.createdAt, data.rowCount);
+            writeLongs(out, data.updatedAt, data.rowCount);
+
+            for (int i = 0; i < data.rowCount; i++) {
+                writeString(out, data.names[i]);
+                writeString(out, data.descriptions[i]);
+            }
+
+            out.writeInt(data.categoryRowWords.size());
+            for (Map.Entry<Long, long[]> category : data.categoryRowWords.entrySet()) {
+                out.writeLong(category.getKey());
+                out.writeInt(category.getValue().length);
+                writeLongs(out, category.getValue(), category.getValue().length);
+            }
+
+            writeNames(out, data.categoryNames);
+            writeNames(out, data.ownerNames);
+        }
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] values, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            out.writeLong(values[i]);
+        }
+    }
+
+    private static void writeNames(DataOutputStream out, Map<Long, String> names) throws IOException {
+        out.writeInt(names.size());
+        for (Map.Entry<Long, String> entry : names.entrySet()) {
+            out.writeLong(entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // ============== LECTURA ==============
+
+    /**
+     * Mapea el archivo y copia las columnas en bloque
+     * @return null si no existe o es de otro formato
+     */
+    static Data read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+
+            Data data = new Data();
+            data.writtenAtMillis = buffer.getLong();
+            data.watermarkMicros = buffer.getLong();
+            data.rowCount = buffer.getInt();
+
+            int rows = data.rowCount;
+            data.ids = readLongs(buffer, rows);
+            data.prices = new double[rows];
+            buffer.asDoubleBuffer().get(data.prices);
+            buffer.position(buffer.position() + rows * Double.BYTES);
+            data.ownerIds = readLongs(buffer, rows);
+            data.createdAt = readLongs(buffer, rows);
+            data.updatedAt = readLongs(buffer, rows);
+
+            data.names = new String[rows];
+            data.descriptions = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                data.names[i] = readString(buffer);
+                data.descriptions[i] = readString(buffer);
+            }
+
+            int categories = buffer.getInt();
+            for (int i = 0; i < categories; i++) {
+                long categoryId = buffer.getLong();
+                data.categoryRowWords.put(categoryId, readLongs(buffer, buffer.getInt()));
+            }
+
+            readNames(buffer, data.categoryNames);
+            readNames(buffer, data.ownerNames);
+            return data;
+        }
+    }
+
+    private static long[] readLongs(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        return values;
+    }
+
+    private static void readNames(ByteBuffer buffer, Map<Long, String> names) {
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            long id = buffer.getLong();
+            names.put(id, readString(buffer));
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
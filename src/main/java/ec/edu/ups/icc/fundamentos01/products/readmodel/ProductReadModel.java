@@ -0,0 +1,808 @@
+package ec.edu.ups.icc.fundamentos01.products.readmodel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
+import ec.edu.ups.icc.fundamentos01.categories.reporitory.CategoryRepository;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.events.ProductChangedEvent;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+import ec.edu.ups.icc.fundamentos01.products.search.ProductDocument;
+import ec.edu.ups.icc.fundamentos01.users.events.UserRenamedEvent;
+import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
+
+/**
+ * Modelo de lectura en memoria (CQRS) para navegar el catálogo
+ * 
+ * Los productos se guardan por columnas (una fila = un índice en los arreglos):
+ * - long[] ids, double[] prices, long[] ownerIds, long[] createdAt/updatedAt
+ * - int[] nameCodes: nombres codificados con diccionario
+ * - un BitSet de filas por categoría
+ * - nombres de dueños y categorías en tablas de dimensión
+ * 
+ * /search (modo contains) y /paginated se resuelven aquí sin JDBC:
+ * filtro por recorrido de columnas (en paralelo si el catálogo es grande),
+ * orden y paginación en memoria
+ * 
+ * Se actualiza con ProductChangedEvent (AFTER_COMMIT)
+ * Solo existe con products.read-source=memory
+ * 
+ * Arranque rápido: cada products.read-model.snapshot.interval se guarda un snapshot
+ * binario (CatalogSnapshotFile). Al arrancar se mapea ese archivo y el modelo
+ * responde de inmediato; en segundo plano se aplican los cambios en PostgreSQL
+ * posteriores a la marca de agua del snapshot (catch-up)
+ */
+@Component
+@ConditionalOnProperty(prefix = "products", name = "read-source", havingValue = "memory")
+public class ProductReadModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductReadModel.class);
+
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    // Propiedades de ordenamiento que el modelo puede resolver
+    private static final Set<String> SORTABLE = Set.of("id", "name", "price", "createdAt", "updatedAt");
+
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+
+    // A partir de cuántas filas el recorrido se reparte entre núcleos
+    private final int parallelThreshold;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // ============== COLUMNAS ==============
+
+    private int rowCount;                 // filas usadas (incluye eliminadas)
+    private long[] ids = new long[0];
+    private double[] prices = new double[0];
+    private long[] ownerIds = new long[0];
+    private int[] nameCodes = new int[0];
+    private long[] createdAt = new long[0];  // epoch en microsegundos
+    private long[] updatedAt = new long[0];
+    private String[] descriptions = new String[0];
+    private final BitSet liveRows = new BitSet();
+
+    private final Map<Long, Integer> rowById = new HashMap<>();
+    private final Map<Long, BitSet> rowsByCategory = new HashMap<>();
+
+    // ============== DICCIONARIO DE NOMBRES ==============
+
+    private final List<String> names = new ArrayList<>();
+    private final List<String> lowerNames = new ArrayList<>();
+    private final Map<String, Integer> nameCodeByName = new HashMap<>();
+    private volatile int[] nameRank;      // posición de cada código en orden alfabético (perezoso)
+
+    // ============== DIMENSIONES ==============
+
+    private final Map<Long, String> ownerNames = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+
+    private volatile boolean ready;
+    private final List<ProductChangedEvent> pendingDuringBuild = new ArrayList<>();
+
+    // ============== SNAPSHOT ==============
+
+    private final TransactionTemplate readOnlyTx;
+    private final boolean snapshotEnabled;
+    private final Path snapshotPath;
+
+    // Margen hacia atrás de la marca de agua: transacciones que fijaron
+    // updatedAt antes del snapshot pero confirmaron después
+    private final Duration catchUpOverlap;
+
+    // Ids modificados por eventos durante el catch-up (el evento es más reciente que lo leído)
+    private volatile boolean catchingUp;
+    private final Set<Long> changedDuringCatchUp = ConcurrentHashMap.newKeySet();
+    private final Set<Long> renamedDuringCatchUp = ConcurrentHashMap.newKeySet();
+    private long snapshotWatermark;
+
+    public ProductReadModel(ProductRepository productRepository,
+            UserRepository userRepository,
+            CategoryRepository categoryRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${products.read-model.parallel-threshold:50000}") int parallelThreshold,
+            @Value("${products.read-model.snapshot.enabled:true}") boolean snapshotEnabled,
+            @Value("${products.read-model.snapshot.path:./data/catalog.snap}") String snapshotPath,
+            @Value("${products.read-model.snapshot.catch-up-overlap:PT5M}") Duration catchUpOverlap) {
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.parallelThreshold = parallelThreshold;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.snapshotEnabled = snapshotEnabled;
+        this.snapshotPath = Path.of(snapshotPath);
+        this.catchUpOverlap = catchUpOverlap;
+    }
+
+    // ============== ARRANQUE ==============
+
+    /**
+     * Con snapshot válido: listo de inmediato + catch-up en segundo plano
+     * Sin snapshot: construcción completa desde la BD
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (snapshotEnabled && loadSnapshot()) {
+            Thread catchUp = new Thread(this::catchUp, "catalog-catch-up");
+            catchUp.setDaemon(true);
+            catchUp.start();
+            return;
+        }
+        readOnlyTx.executeWithoutResult(tx -> build());
+    }
+
+    // ============== CONSTRUCCIÓN ==============
+
+    private void build() {
+        long start = System.nanoTime();
+
+        lock.writeLock().lock();
+        try {
+            clear();
+            categoryRepository.findAllIdsAndNames()
+                    .forEach(row -> categoryNames.put((Long) row[0], (String) row[1]));
+            userRepository.findOwnerIdsAndNames()
+                    .forEach(row -> ownerNames.put((Long) row[0], (String) row[1]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Los lotes se aplican con el write lock corto, así las lecturas no esperan todo el recorrido
+        try (Stream<ProductDocument> rows = productRepository.streamForIndex()) {
+            List<ProductDocument> batch = new ArrayList<>(1000);
+            for (ProductDocument row : (Iterable<ProductDocument>) rows::iterator) {
+                batch.add(row);
+                if (batch.size() == 1000) {
+                    loadBatch(batch);
+                    batch.clear();
+                }
+            }
+            loadBatch(batch);
+        }
+
+        try (Stream<Object[]> pairs = productRepository.streamCategoryIdPairs()) {
+            lock.writeLock().lock();
+            try {
+                pairs.forEach(pair -> {
+                    Integer row = rowById.get((Long) pair[0]);
+                    if (row != null) {
+                        rowsByCategory.computeIfAbsent((Long) pair[1], key -> new BitSet()).set(row);
+                    }
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringBuild.forEach(this::apply);
+            pendingDuringBuild.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Modelo de lectura de productos construido: {} filas en {} ms",
+                rowCount, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void loadBatch(List<ProductDocument> batch) {
+        lock.writeLock().lock();
+        try {
+            batch.forEach(document -> upsertRow(document.getId(), document.getName(), document.getDescription(),
+                    document.getPrice(), document.getOwnerId(), document.getCreatedAt(), document.getUpdatedAt()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ============== ESCRITURAS ==============
+
+    /**
+     * Los nombres de dueño y categorías se refrescan en cada escritura del producto
+     * (dos consultas por PK en el hilo de escritura; las lecturas no usan JDBC)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        String ownerName = event.isDeleted() ? null : userRepository.findNameById(event.getOwnerId()).orElse(null);
+        List<Object[]> categories = event.isDeleted() || event.getCategoryIds().isEmpty()
+                ? List.of()
+                : categoryRepository.findIdsAndNamesByIdIn(event.getCategoryIds());
+
+        if (catchingUp) {
+            changedDuringCatchUp.add(event.getProductId());
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (ownerName != null) {
+                ownerNames.put(event.getOwnerId(), ownerName);
+            }
+            categories.forEach(row -> categoryNames.put((Long) row[0], (String) row[1]));
+
+            if (ready) {
+                apply(event);
+            } else {
+                pendingDuringBuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Renombre de un usuario (local o de otra instancia): las lecturas resuelven
+     * el nombre del dueño desde ownerNames, así que basta con reemplazarlo
+     * Si aún no es dueño de nada no se guarda (onProductChanged lo carga)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserRenamed(UserRenamedEvent event) {
+        if (catchingUp) {
+            renamedDuringCatchUp.add(event.getUserId());
+        }
+
+        lock.writeLock().lock();
+        try {
+            ownerNames.computeIfPresent(event.getUserId(), (id, previous) -> event.getName());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Se llama con el write lock tomado
+     */
+    private void apply(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            deleteRow(event.getProductId());
+        } else {
+            upsertDocument(ProductDocument.fromEvent(event));
+        }
+    }
+
+    private void upsertDocument(ProductDocument document) {
+        int row = upsertRow(document.getId(), document.getName(), document.getDescription(), document.getPrice(),
+                document.getOwnerId(), document.getCreatedAt(), document.getUpdatedAt());
+
+        rowsByCategory.values().forEach(rows -> rows.clear(row));
+        for (Long categoryId : document.getCategoryIds()) {
+            rowsByCategory.computeIfAbsent(categoryId, key -> new BitSet()).set(row);
+        }
+    }
+
+    private int upsertRow(Long id, String name, String description, Double price, Long ownerId,
+            LocalDateTime created, LocalDateTime updated) {
+        Integer existing = rowById.get(id);
+        int row;
+        if (existing != null) {
+            row = existing;
+        } else {
+            row = rowCount++;
+            ensureCapacity(rowCount);
+            rowById.put(id, row);
+            liveRows.set(row);
+        }
+
+        ids[row] = id;
+        prices[row] = price;
+        ownerIds[row] = ownerId;
+        nameCodes[row] = encodeName(name);
+        descriptions[row] = description;
+        createdAt[row] = toEpochMicros(created);
+        updatedAt[row] = toEpochMicros(updated);
+        return row;
+    }
+
+    private void deleteRow(Long id) {
+        Integer row = rowById.remove(id);
+        if (row == null) {
+            return;
+        }
+        liveRows.clear(row);
+        rowsByCategory.values().forEach(rows -> rows.clear(row));
+
+        // Más de un 25% de filas muertas → compactar las columnas
+        if (rowCount > 1024 && liveRows.cardinality() < rowCount * 3 / 4) {
+            compact();
+        }
+    }
+
+    private int encodeName(String name) {
+        Integer code = nameCodeByName.get(name);
+        if (code != null) {
+            return code;
+        }
+        code = names.size();
+        names.add(name);
+        lowerNames.add(name.toLowerCase(Locale.ROOT));
+        nameCodeByName.put(name, code);
+        nameRank = null; // el orden alfabético cambió
+        return code;
+    }
+
+    // ============== SNAPSHOT: ESCRITURA ==============
+
+    /**
+     * Guarda periódicamente el contenido del modelo en el archivo de snapshot
+     * La copia de columnas se hace con el read lock; la escritura a disco, sin lock
+     */
+    @Scheduled(fixedDelayString = "${products.read-model.snapshot.interval:PT5M}",
+            initialDelayString = "${products.read-model.snapshot.interval:PT5M}")
+    public void writeSnapshot() {
+        if (!snapshotEnabled || !ready || catchingUp) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        CatalogSnapshotFile.Data data;
+        lock.readLock().lock();
+        try {
+            data = exportData();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            CatalogSnapshotFile.write(snapshotPath, data);
+            logger.info("Snapshot del catálogo escrito: {} filas en {} ms",
+                    data.rowCount, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException ex) {
+            logger.warn("No se pudo escribir el snapshot del catálogo en {}", snapshotPath, ex);
+        }
+    }
+
+    /**
+     * Copia solo las filas vivas, renumeradas de forma contigua
+     */
+    private CatalogSnapshotFile.Data exportData() {
+        int live = liveRows.cardinality();
+        int[] newRow = new int[rowCount];
+
+        CatalogSnapshotFile.Data data = new CatalogSnapshotFile.Data();
+        data.writtenAtMillis = System.currentTimeMillis();
+        data.rowCount = live;
+        data.ids = new long[live];
+        data.prices = new double[live];
+        data.ownerIds = new long[live];
+        data.createdAt = new long[live];
+        data.updatedAt = new long[live];
+        data.names = new String[live];
+        data.descriptions = new String[live];
+
+        long watermark = NO_TIMESTAMP;
+        int target = 0;
+        for (int row = liveRows.nextSetBit(0); row >= 0; row = liveRows.nextSetBit(row + 1)) {
+            newRow[row] = target;
+            data.ids[target] = ids[row];
+            data.prices[target] = prices[row];
+            data.ownerIds[target] = ownerIds[row];
+            data.createdAt[target] = createdAt[row];
+            data.updatedAt[target] = updatedAt[row];
+            data.names[target] = names.get(nameCodes[row]);
+            data.descriptions[target] = descriptions[row];
+            watermark = Math.max(watermark, Math.max(createdAt[row], updatedAt[row]));
+            target++;
+        }
+        data.watermarkMicros = watermark;
+
+        rowsByCategory.forEach((categoryId, rows) -> {
+            BitSet remapped = new BitSet(live);
+            rows.stream().filter(liveRows::get).forEach(row -> remapped.set(newRow[row]));
+            data.categoryRowWords.put(categoryId, remapped.toLongArray());
+        });
+        data.categoryNames.putAll(categoryNames);
+        data.ownerNames.putAll(ownerNames);
+        return data;
+    }
+
+    // ============== SNAPSHOT: ARRANQUE ==============
+
+    /**
+     * Mapea el snapshot y carga las columnas (copia en bloque, sin BD)
+     * @return false si no hay snapshot utilizable
+     */
+    private boolean loadSnapshot() {
+        long start = System.nanoTime();
+        CatalogSnapshotFile.Data data;
+        try {
+            data = CatalogSnapshotFile.read(snapshotPath);
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Snapshot del catálogo ilegible en {}; se construye desde la BD", snapshotPath, ex);
+            return false;
+        }
+        if (data == null) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            clear();
+            rowCount = data.rowCount;
+            ids = data.ids;
+            prices = data.prices;
+            ownerIds = data.ownerIds;
+            createdAt = data.createdAt;
+            updatedAt = data.updatedAt;
+            descriptions = data.descriptions;
+            nameCodes = new int[rowCount];
+            for (int row = 0; row < rowCount; row++) {
+                nameCodes[row] = encodeName(data.names[row]);
+                rowById.put(ids[row], row);
+            }
+            liveRows.set(0, rowCount);
+            data.categoryRowWords.forEach((categoryId, words) -> rowsByCategory.put(categoryId, BitSet.valueOf(words)));
+            categoryNames.putAll(data.categoryNames);
+            ownerNames.putAll(data.ownerNames);
+
+            catchingUp = true;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        snapshotWatermark = data.watermarkMicros;
+        logger.info("Modelo de lectura cargado desde snapshot ({} filas, escrito {}) en {} ms",
+                rowCount, Instant.ofEpochMilli(data.writtenAtMillis), (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Aplica los cambios posteriores al snapshot:
+     * - altas/ediciones: COALESCE(updatedAt, createdAt) >= marca de agua - margen
+     * - eliminaciones: ids del modelo que ya no están en la BD (solo se recorren ids)
+     * Los productos que cambiaron por eventos mientras tanto se respetan
+     */
+    private void catchUp() {
+        long start = System.nanoTime();
+        try {
+            LocalDateTime since = fromEpochMicros(snapshotWatermark).minus(catchUpOverlap);
+
+            readOnlyTx.executeWithoutResult(tx -> {
+                List<ProductDocument> changed = productRepository.findDocumentsChangedSince(since);
+                Map<Long, ProductDocument> byId = new HashMap<>();
+                changed.forEach(document -> byId.put(document.getId(), document));
+                if (!byId.isEmpty()) {
+                    for (Object[] pair : productRepository.findCategoryIdPairs(byId.keySet())) {
+                        byId.get((Long) pair[0]).addCategoryId((Long) pair[1]);
+                    }
+                }
+
+                Set<Long> existingIds = new HashSet<>();
+                try (Stream<Long> idStream = productRepository.streamAllIds()) {
+                    idStream.forEach(existingIds::add);
+                }
+
+                List<Object[]> categories = categoryRepository.findAllIdsAndNames();
+                List<Object[]> owners = userRepository.findOwnerIdsAndNames();
+
+                lock.writeLock().lock();
+                try {
+                    categories.forEach(row -> categoryNames.put((Long) row[0], (String) row[1]));
+                    owners.forEach(row -> {
+                        if (!renamedDuringCatchUp.contains((Long) row[0])) {
+                            ownerNames.put((Long) row[0], (String) row[1]);
+                        }
+                    });
+
+                    for (ProductDocument document : changed) {
+                        if (!changedDuringCatchUp.contains(document.getId())) {
+                            upsertDocument(document);
+                        }
+                    }
+                    for (Long id : new ArrayList<>(rowById.keySet())) {
+                        if (!existingIds.contains(id) && !changedDuringCatchUp.contains(id)) {
+                            deleteRow(id);
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                logger.info("Catch-up del catálogo: {} productos cambiados desde {} en {} ms",
+                        changed.size(), since, (System.nanoTime() - start) / 1_000_000);
+            });
+        } catch (RuntimeException ex) {
+            // Sin catch-up el modelo estaría desactualizado: se reconstruye desde la BD
+            logger.error("Falló el catch-up del catálogo; se reconstruye desde la BD", ex);
+            ready = false;
+            readOnlyTx.executeWithoutResult(tx -> build());
+        } finally {
+            catchingUp = false;
+            changedDuringCatchUp.clear();
+            renamedDuringCatchUp.clear();
+        }
+    }
+
+    // ============== CONSULTA ==============
+
+    /**
+     * El modelo puede responder si ya se construyó y el orden pedido está en columnas
+     */
+    public boolean canServe(Sort sort) {
+        if (!ready) {
+            return false;
+        }
+        for (Sort.Order order : sort) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Filtra, ordena y pagina en memoria
+     * Mismo criterio que ProductRepository.findWithFilters (nombre contiene, sin distinguir mayúsculas)
+     * 
+     * @param ownerId null = todos los dueños
+     */
+    public Page<ProductResponseDto> query(String name, Double minPrice, Double maxPrice, Long categoryId,
+            Long ownerId, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            IntPredicate filter = buildFilter(name, minPrice, maxPrice, categoryId, ownerId);
+
+            IntStream rows = liveRows.stream();
+            if (rowCount >= parallelThreshold) {
+                rows = rows.parallel();
+            }
+            int[] matches = rows.filter(filter).toArray();
+
+            Integer[] sorted = Arrays.stream(matches).boxed().toArray(Integer[]::new);
+            Comparator<Integer> order = comparator(pageable.getSort());
+            if (sorted.length >= parallelThreshold) {
+                Arrays.parallelSort(sorted, order);
+            } else {
+                Arrays.sort(sorted, order);
+            }
+
+            int from = (int) Math.min(pageable.getOffset(), sorted.length);
+            int to = Math.min(from + pageable.getPageSize(), sorted.length);
+
+            List<ProductResponseDto> content = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                content.add(toResponseDto(sorted[i]));
+            }
+            return new PageImpl<>(content, pageable, sorted.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private IntPredicate buildFilter(String name, Double minPrice, Double maxPrice, Long categoryId, Long ownerId) {
+        IntPredicate filter = row -> true;
+
+        if (name != null && !name.isBlank()) {
+            String needle = name.toLowerCase(Locale.ROOT);
+            filter = filter.and(row -> lowerNames.get(nameCodes[row]).contains(needle));
+        }
+        if (minPrice != null) {
+            double min = minPrice;
+            filter = filter.and(row -> prices[row] >= min);
+        }
+        if (maxPrice != null) {
+            double max = maxPrice;
+            filter = filter.and(row -> prices[row] <= max);
+        }
+        if (ownerId != null) {
+            long owner = ownerId;
+            filter = filter.and(row -> ownerIds[row] == owner);
+        }
+        if (categoryId != null) {
+            BitSet categoryRows = rowsByCategory.getOrDefault(categoryId, new BitSet());
+            filter = filter.and(categoryRows::get);
+        }
+        return filter;
+    }
+
+    private Comparator<Integer> comparator(Sort sort) {
+        Comparator<Integer> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Integer> next = switch (order.getProperty()) {
+                case "name" -> {
+                    int[] rank = nameRank();
+                    yield Comparator.comparingInt(row -> rank[nameCodes[row]]);
+                }
+                case "price" -> Comparator.comparingDouble(row -> prices[row]);
+                case "createdAt" -> Comparator.comparingLong(row -> createdAt[row]);
+                case "updatedAt" -> Comparator.comparingLong(row -> updatedAt[row]);
+                default -> Comparator.comparingLong(row -> ids[row]);
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+
+        // Desempate estable entre páginas
+        Comparator<Integer> byId = Comparator.comparingLong(row -> ids[row]);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    /**
+     * Orden alfabético de los códigos del diccionario; se recalcula solo si cambió
+     * (se llama con el read lock tomado: el diccionario no cambia mientras tanto)
+     */
+    private synchronized int[] nameRank() {
+        int[] rank = nameRank;
+        if (rank != null && rank.length == names.size()) {
+            return rank;
+        }
+
+        Integer[] codes = new Integer[names.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = i;
+        }
+        Arrays.sort(codes, Comparator.comparing(lowerNames::get));
+
+        rank = new int[codes.length];
+        for (int position = 0; position < codes.length; position++) {
+            rank[codes[position]] = position;
+        }
+        nameRank = rank;
+        return rank;
+    }
+
+    private ProductResponseDto toResponseDto(int row) {
+        ProductResponseDto dto = new ProductResponseDto();
+        dto.id = ids[row];
+        dto.name = names.get(nameCodes[row]);
+        dto.price = prices[row];
+        dto.description = descriptions[row];
+
+        ProductResponseDto.UserSummaryDto ownerDto = new ProductResponseDto.UserSummaryDto();
+        ownerDto.id = ownerIds[row];
+        ownerDto.name = ownerNames.get(ownerIds[row]);
+        dto.user = ownerDto;
+
+        List<CategoryResponseDto> categoryDtos = new ArrayList<>();
+        rowsByCategory.forEach((categoryId, rows) -> {
+            if (rows.get(row)) {
+                CategoryResponseDto categoryDto = new CategoryResponseDto();
+                categoryDto.id = categoryId;
+                categoryDto.name = categoryNames.get(categoryId);
+                categoryDtos.add(categoryDto);
+            }
+        });
+        dto.categories = categoryDtos;
+        return dto;
+    }
+
+    // ============== MANTENIMIENTO DE COLUMNAS ==============
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, Math.max(16, ids.length + (ids.length >> 1)));
+        ids = Arrays.copyOf(ids, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        ownerIds = Arrays.copyOf(ownerIds, capacity);
+        nameCodes = Arrays.copyOf(nameCodes, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+
+    /**
+     * Reescribe las columnas solo con las filas vivas (y el diccionario con los nombres en uso)
+     */
+    private void compact() {
+        int live = liveRows.cardinality();
+        long[] newIds = new long[live];
+        double[] newPrices = new double[live];
+        long[] newOwnerIds = new long[live];
+        int[] newNameCodes = new int[live];
+        long[] newCreatedAt = new long[live];
+        long[] newUpdatedAt = new long[live];
+        String[] newDescriptions = new String[live];
+        Map<Long, BitSet> newRowsByCategory = new HashMap<>();
+
+        List<String> oldNames = new ArrayList<>(names);
+        names.clear();
+        lowerNames.clear();
+        nameCodeByName.clear();
+        rowById.clear();
+
+        int target = 0;
+        for (int row = liveRows.nextSetBit(0); row >= 0; row = liveRows.nextSetBit(row + 1)) {
+            newIds[target] = ids[row];
+            newPrices[target] = prices[row];
+            newOwnerIds[target] = ownerIds[row];
+            newNameCodes[target] = encodeName(oldNames.get(nameCodes[row]));
+            newCreatedAt[target] = createdAt[row];
+            newUpdatedAt[target] = updatedAt[row];
+            newDescriptions[target] = descriptions[row];
+            rowById.put(ids[row], target);
+
+            for (Map.Entry<Long, BitSet> category : rowsByCategory.entrySet()) {
+                if (category.getValue().get(row)) {
+                    newRowsByCategory.computeIfAbsent(category.getKey(), key -> new BitSet()).set(target);
+                }
+            }
+            target++;
+        }
+
+        ids = newIds;
+        prices = newPrices;
+        ownerIds = newOwnerIds;
+        nameCodes = newNameCodes;
+        createdAt = newCreatedAt;
+        updatedAt = newUpdatedAt;
+        descriptions = newDescriptions;
+        rowsByCategory.clear();
+        rowsByCategory.putAll(newRowsByCategory);
+        liveRows.clear();
+        liveRows.set(0, live);
+        rowCount = live;
+        nameRank = null;
+    }
+
+    private void clear() {
+        rowCount = 0;
+        liveRows.clear();
+        rowById.clear();
+        rowsByCategory.clear();
+        names.clear();
+        lowerNames.clear();
+        nameCodeByName.clear();
+        nameRank = null;
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        if (micros == NO_TIMESTAMP) {
+            return LocalDateTime.of(1970, 1, 1, 0, 0);
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static long toEpochMicros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NO_TIMESTAMP;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+}
@@ -1,19 +1,35 @@
 package ec.edu.ups.icc.fundamentos01.products.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import ec.edu.ups.icc.fundamentos01.products.models.ProductEntity;
+import ec.edu.ups.icc.fundamentos01.products.search.ProductDocument;
+import jakarta.persistence.QueryHint;
 
+/**
+ * Consultas en transacción de solo lectura: con réplica configurada
+ * (datasource.replica.url) se atienden en la réplica salvo que ya exista una
+ * transacción de escritura; los @Modifying declaran la suya de escritura
+ */
 @Repository
+@Transactional(readOnly = true)
 public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
 
         // ============== CONSULTAS BÁSICAS (HEREDA AUTOMÁTICAMENTE) ==============
@@ -22,6 +38,16 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
 
         Optional<ProductEntity> findByName(String name);
 
+        boolean existsByName(String name);
+
+        /**
+         * Recorre todos los nombres en streaming (cursor con fetch size)
+         * Requiere una transacción abierta y cerrar el Stream
+         */
+        @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+        @Query("SELECT p.name FROM ProductEntity p")
+        Stream<String> streamAllNames();
+
         List<ProductEntity> findByOwnerId(Long userId);
 
         // List<ProductEntity> findByCategoryId(Long categoryId);
@@ -46,11 +72,14 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
 
         /**
          * Consulta personalizada: productos con TODAS las categorías especificadas
+         * Agrupa solo las filas de product_categories de esas categorías
+         * (idx_product_categories_category) en lugar de contar por cada producto
+         * NOTA: categoryIds no debe tener repetidos
          */
-        @Query("SELECT p FROM ProductEntity p " +
-                        "WHERE SIZE(p.categories) >= :categoryCount " +
-                        "AND :categoryCount = " +
-                        "(SELECT COUNT(c) FROM p.categories c WHERE c.id IN :categoryIds)")
+        @Query("SELECT p FROM ProductEntity p WHERE p.id IN (" +
+                        "SELECT pc.id FROM ProductEntity pc JOIN pc.categories c " +
+                        "WHERE c.id IN :categoryIds " +
+                        "GROUP BY pc.id HAVING COUNT(c.id) = :categoryCount)")
         List<ProductEntity> findByAllCategories(@Param("categoryIds") List<Long> categoryIds,
                         @Param("categoryCount") long categoryCount);
 
@@ -58,13 +87,13 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
          * Consulta personalizada: productos de un usuario con filtros opcionales
          * Permite filtrar por nombre, precio mínimo/máximo y categoría
          */
-        @Query("SELECT DISTINCT p FROM ProductEntity p " +
-                        "LEFT JOIN p.categories c " +
+        @Query("SELECT p FROM ProductEntity p " +
                         "WHERE p.owner.id = :userId " +
                         "AND (COALESCE(:name, '') = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
                         "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
                         "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
-                        "AND (:categoryId IS NULL OR c.id = :categoryId)")
+                        "AND (:categoryId IS NULL OR EXISTS (" +
+                        "SELECT c.id FROM p.categories c WHERE c.id = :categoryId))")
 
         List<ProductEntity> findByOwnerIdWithFilters(
                         @Param("userId") Long userId,
@@ -77,6 +106,7 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
 
         /**
          * Busca productos por nombre de usuario con paginación
+         * El LIKE con comodín inicial usa el índice de trigramas idx_users_name_trgm
          */
         @Query("SELECT p FROM ProductEntity p " +
                         "JOIN p.owner o WHERE LOWER(o.name) LIKE LOWER(CONCAT('%', :ownerName, '%'))")
@@ -87,14 +117,16 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
         /**
          * Busca productos con filtros opcionales y paginación
          * Todos los parámetros son opcionales excepto el Pageable
-         * NOTA: Usa LEFT JOIN p.categories para relación Many-to-Many
+         * NOTA: la categoría se filtra con EXISTS (sin JOIN ni DISTINCT) para que
+         * el ORDER BY pueda recorrer idx_products_created en lugar de ordenar en memoria
+         * El LIKE '%name%' usa el índice de trigramas idx_products_name_trgm
          */
-        @Query("SELECT DISTINCT p FROM ProductEntity p " +
-                        "LEFT JOIN p.categories c " +
+        @Query("SELECT p FROM ProductEntity p " +
                         "WHERE (COALESCE(:name, '') = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
                         "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
                         "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
-                        "AND (:categoryId IS NULL OR c.id = :categoryId)")
+                        "AND (:categoryId IS NULL OR EXISTS (" +
+                        "SELECT c.id FROM p.categories c WHERE c.id = :categoryId))")
         Page<ProductEntity> findWithFilters(
                         @Param("name") String name,
                         @Param("minPrice") Double minPrice,
@@ -102,17 +134,39 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
                         @Param("categoryId") Long categoryId,
                         Pageable pageable);
 
+        /**
+         * findWithFilters acotado a [createdFrom, createdTo)
+         * Los límites van sin "IS NULL OR": con products particionada por
+         * created_at el planner (o el ejecutor, con plan genérico) descarta las
+         * particiones fuera del rango; sin particionar usa idx_products_created
+         */
+        @Query("SELECT p FROM ProductEntity p " +
+                        "WHERE p.createdAt >= :createdFrom AND p.createdAt < :createdTo " +
+                        "AND (COALESCE(:name, '') = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+                        "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+                        "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+                        "AND (:categoryId IS NULL OR EXISTS (" +
+                        "SELECT c.id FROM p.categories c WHERE c.id = :categoryId))")
+        Page<ProductEntity> findWithFiltersCreatedBetween(
+                        @Param("name") String name,
+                        @Param("minPrice") Double minPrice,
+                        @Param("maxPrice") Double maxPrice,
+                        @Param("categoryId") Long categoryId,
+                        @Param("createdFrom") LocalDateTime createdFrom,
+                        @Param("createdTo") LocalDateTime createdTo,
+                        Pageable pageable);
+
         /**
          * Busca productos de un usuario con filtros opcionales y paginación
-         * NOTA: Usa LEFT JOIN p.categories para relación Many-to-Many
+         * NOTA: usa idx_products_user_created (user_id, created_at DESC)
          */
-        @Query("SELECT DISTINCT p FROM ProductEntity p " +
-                        "LEFT JOIN p.categories c " +
+        @Query("SELECT p FROM ProductEntity p " +
                         "WHERE p.owner.id = :userId " +
                         "AND (COALESCE(:name, '') = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
                         "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
                         "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
-                        "AND (:categoryId IS NULL OR c.id = :categoryId)")
+                        "AND (:categoryId IS NULL OR EXISTS (" +
+                        "SELECT c.id FROM p.categories c WHERE c.id = :categoryId))")
         Page<ProductEntity> findByUserIdWithFilters(
                         @Param("userId") Long userId,
                         @Param("name") String name,
@@ -121,6 +175,248 @@ public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
                         @Param("categoryId") Long categoryId,
                         Pageable pageable);
 
+        // ============== ÍNDICE DE BÚSQUEDA (LUCENE) ==============
+
+        /**
+         * Hidrata una página de resultados del índice: owner y categorías en la misma consulta
+         * El orden lo aplica el servicio según el orden de los ids
+         */
+        @EntityGraph(attributePaths = { "owner", "categories" })
+        List<ProductEntity> findByIdIn(Collection<Long> ids);
+
+        /**
+         * Recorre todos los productos en streaming como documentos a indexar
+         * (sin entidades ni relaciones: las categorías se cargan por lote)
+         */
+        @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+        @Query("SELECT new ec.edu.ups.icc.fundamentos01.products.search.ProductDocument(" +
+                        "p.id, p.name, p.description, p.price, p.owner.id, p.createdAt, p.updatedAt) " +
+                        "FROM ProductEntity p")
+        Stream<ProductDocument> streamForIndex();
+
+        @Query("SELECT new ec.edu.ups.icc.fundamentos01.products.search.ProductDocument(" +
+                        "p.id, p.name, p.description, p.price, p.owner.id, p.createdAt, p.updatedAt) " +
+                        "FROM ProductEntity p WHERE p.id IN :ids")
+        List<ProductDocument> findDocumentsByIdIn(@Param("ids") Collection<Long> ids);
+
+        /**
+         * Productos creados o modificados desde una fecha (catch-up del snapshot del catálogo)
+         */
+        @Query("SELECT new ec.edu.ups.icc.fundamentos01.products.search.ProductDocument(" +
+                        "p.id, p.name, p.description, p.price, p.owner.id, p.createdAt, p.updatedAt) " +
+                        "FROM ProductEntity p WHERE COALESCE(p.updatedAt, p.createdAt) >= :since")
+        List<ProductDocument> findDocumentsChangedSince(@Param("since") LocalDateTime since);
+
+        /**
+         * Recorre solo los ids (detección de eliminados, usa el índice de la PK)
+         */
+        @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+        @Query("SELECT p.id FROM ProductEntity p")
+        Stream<Long> streamAllIds();
+
+        /**
+         * Pares [productId, categoryId] de un lote de productos
+         */
+        @Query("SELECT p.id, c.id FROM ProductEntity p JOIN p.categories c WHERE p.id IN :ids")
+        List<Object[]> findCategoryIdPairs(@Param("ids") Collection<Long> ids);
+
+        /**
+         * Recorre [id, nombre] de todos los productos (índice de autocompletado)
+         */
+        @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+        @Query("SELECT p.id, p.name FROM ProductEntity p")
+        Stream<Object[]> streamIdsAndNames();
+
+        // ============== FILTRO POR VARIAS CATEGORÍAS ==============
+
+        /**
+         * Página sobre un conjunto de ids ya filtrado en memoria (CategoryBitmapIndex)
+         * La BD solo aplica el filtro de nombre, el orden y la paginación
+         */
+        @Query("SELECT p FROM ProductEntity p " +
+                        "WHERE p.id IN :ids " +
+                        "AND (COALESCE(:name, '') = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')))")
+        Page<ProductEntity> findPageByIdIn(
+                        @Param("ids") Collection<Long> ids,
+                        @Param("name") String name,
+                        Pageable pageable);
+
+        /**
+         * Alternativa SQL cuando el índice en memoria no puede responder
+         * matchAll = false → alguna de las categorías (EXISTS)
+         * matchAll = true → todas las categorías (COUNT = categoryCount)
+         */
+        @Query("SELECT p FROM ProductEntity p " +
+                        "WHERE (COALESCE(:name, '') = '' OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+                        "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+                        "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+                        "AND ((:matchAll = false AND EXISTS (" +
+                        "SELECT c.id FROM p.categories c WHERE c.id IN :categoryIds)) " +
+                        "OR (:matchAll = true AND :categoryCount = (" +
+                        "SELECT COUNT(c) FROM p.categories c WHERE c.id IN :categoryIds)))")
+        Page<ProductEntity> findWithCategoryFilters(
+                        @Param("name") String name,
+                        @Param("minPrice") Double minPrice,
+                        @Param("maxPrice") Double maxPrice,
+                        @Param("categoryIds") Collection<Long> categoryIds,
+                        @Param("matchAll") boolean matchAll,
+                        @Param("categoryCount") long categoryCount,
+                        Pageable pageable);
+
+        /**
+         * Recorridos en streaming para construir CategoryBitmapIndex
+         */
+        @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+        @Query("SELECT p.id, p.price FROM ProductEntity p")
+        Stream<Object[]> streamIdsAndPrices();
+
+        @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+        @Query("SELECT p.id, c.id FROM ProductEntity p JOIN p.categories c")
+        Stream<Object[]> streamCategoryIdPairs();
+
+        // ============== BÚSQUEDA FULL-TEXT (POSTGRESQL) ==============
+
+        /**
+         * Búsqueda full-text sobre nombre y descripción ordenada por relevancia
+         * Usa la columna generada search_vector (índice GIN idx_products_search_vector)
+         * y admite la sintaxis web: "palabra exacta", -excluir, or
+         * Los filtros de precio y categoría son opcionales y se combinan con AND
+         * NOTA: el Pageable no debe traer Sort (el orden es por ts_rank_cd)
+         */
+        @Query(value = "SELECT p.* FROM products p " +
+                        "WHERE p.search_vector @@ websearch_to_tsquery('spanish', :query) " +
+                        "AND (CAST(:minPrice AS double precision) IS NULL OR p.price >= :minPrice) " +
+                        "AND (CAST(:maxPrice AS double precision) IS NULL OR p.price <= :maxPrice) " +
+                        "AND (CAST(:categoryId AS bigint) IS NULL OR EXISTS (" +
+                        "  SELECT 1 FROM product_categories pc " +
+                        "  WHERE pc.product_id = p.id AND pc.category_id = :categoryId)) " +
+                        "ORDER BY ts_rank_cd(p.search_vector, websearch_to_tsquery('spanish', :query)) DESC, p.id",
+                        countQuery = "SELECT COUNT(*) FROM products p " +
+                                        "WHERE p.search_vector @@ websearch_to_tsquery('spanish', :query) " +
+                                        "AND (CAST(:minPrice AS double precision) IS NULL OR p.price >= :minPrice) " +
+                                        "AND (CAST(:maxPrice AS double precision) IS NULL OR p.price <= :maxPrice) " +
+                                        "AND (CAST(:categoryId AS bigint) IS NULL OR EXISTS (" +
+                                        "  SELECT 1 FROM product_categories pc " +
+                                        "  WHERE pc.product_id = p.id AND pc.category_id = :categoryId))",
+                        nativeQuery = true)
+        Page<ProductEntity> searchFullText(
+                        @Param("query") String query,
+                        @Param("minPrice") Double minPrice,
+                        @Param("maxPrice") Double maxPrice,
+                        @Param("categoryId") Long categoryId,
+                        Pageable pageable);
+
+        // ============== ESCRITURAS CON VALIDACIÓN DE OWNERSHIP EN SQL ==============
+
+        /**
+         * Dueño del producto (diagnóstico cuando una escritura afecta 0 filas)
+         */
+        @Query("SELECT p.owner.id FROM ProductEntity p WHERE p.id = :id")
+        Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+        /**
+         * Actualiza el producto en un solo UPDATE solo si el usuario es el dueño
+         * (o tiene rol privilegiado) y la versión coincide con la esperada
+         * Retorna el número de filas afectadas (0 = no existe, sin permiso o versión distinta)
+         *
+         * Un UPDATE masivo no pasa por @PreUpdate: updatedAt llega como parámetro
+         * desde el reloj de la JVM, el mismo que fija createdAt en @PrePersist
+         */
+        @Transactional
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("UPDATE ProductEntity p SET " +
+                        "p.name = :name, p.price = :price, p.description = :description, " +
+                        "p.updatedAt = :updatedAt, p.version = p.version + 1 " +
+                        "WHERE p.id = :id " +
+                        "AND (:expectedVersion IS NULL OR p.version = :expectedVersion) " +
+                        "AND (p.owner.id = :userId OR :privileged = true)")
+        int updateIfOwned(
+                        @Param("id") Long id,
+                        @Param("name") String name,
+                        @Param("price") Double price,
+                        @Param("description") String description,
+                        @Param("updatedAt") LocalDateTime updatedAt,
+                        @Param("expectedVersion") Long expectedVersion,
+                        @Param("userId") Long userId,
+                        @Param("privileged") boolean privileged);
+
+        /**
+         * Reemplaza las categorías del producto en una sola sentencia:
+         * elimina las que ya no están e inserta solo las nuevas
+         */
+        @Transactional
+        @Modifying
+        @Query(value = "WITH removed AS (" +
+                        "  DELETE FROM product_categories " +
+                        "  WHERE product_id = :id AND category_id NOT IN (:categoryIds)) " +
+                        "INSERT INTO product_categories (product_id, category_id) " +
+                        "SELECT :id, c.id FROM categories c WHERE c.id IN (:categoryIds) " +
+                        "ON CONFLICT DO NOTHING", nativeQuery = true)
+        int replaceCategories(@Param("id") Long id, @Param("categoryIds") Set<Long> categoryIds);
+
+        /**
+         * Elimina el producto y sus filas de product_categories en una sola sentencia
+         * solo si el usuario es el dueño (o tiene rol privilegiado)
+         */
+        @Transactional
+        @Modifying(clearAutomatically = true)
+        @Query(value = "WITH target AS (" +
+                        "  SELECT id FROM products " +
+                        "  WHERE id = :id AND (user_id = :userId OR :privileged) FOR UPDATE), " +
+                        "links AS (" +
+                        "  DELETE FROM product_categories WHERE product_id IN (SELECT id FROM target)) " +
+                        "DELETE FROM products WHERE id IN (SELECT id FROM target)", nativeQuery = true)
+        int deleteIfOwned(
+                        @Param("id") Long id,
+                        @Param("userId") Long userId,
+                        @Param("privileged") boolean privileged);
+
+        // ============== FEED DE CAMBIOS (product_changes) ==============
+
+        /**
+         * Cambios posteriores al token (sinceTx, sinceSeq) en orden (tx_id, seq)
+         * Solo de transacciones anteriores al horizonte (xmin del snapshot), que ya
+         * terminaron: ningún cambio nuevo puede aparecer antes del último entregado
+         *
+         * Cada fila: [horizon, tx_id, seq, product_id, change_type]
+         * Sin cambios → una sola fila con el horizonte y el resto en null
+         * Usa idx_product_changes_token
+         */
+        @Query(value = "WITH h AS (SELECT txid_snapshot_xmin(txid_current_snapshot()) AS horizon) " +
+                        "SELECT h.horizon, c.tx_id, c.seq, c.product_id, c.change_type " +
+                        "FROM h LEFT JOIN LATERAL (" +
+                        "  SELECT pc.tx_id, pc.seq, pc.product_id, pc.change_type FROM product_changes pc " +
+                        "  WHERE (pc.tx_id, pc.seq) > (:sinceTx, :sinceSeq) AND pc.tx_id < h.horizon " +
+                        "  ORDER BY pc.tx_id, pc.seq LIMIT :limit) c ON TRUE " +
+                        "ORDER BY c.tx_id, c.seq", nativeQuery = true)
+        List<Object[]> findChangesAfter(
+                        @Param("sinceTx") long sinceTx,
+                        @Param("sinceSeq") long sinceSeq,
+                        @Param("limit") int limit);
+
+        /**
+         * Horizonte actual: punto de partida de un cliente nuevo (antes de su copia completa)
+         */
+        @Query(value = "SELECT txid_snapshot_xmin(txid_current_snapshot())", nativeQuery = true)
+        long currentChangeHorizon();
+
+        /**
+         * [tx_id, seq] más alto purgado; tokens anteriores ya no se pueden servir
+         */
+        @Query(value = "SELECT tx_id, seq FROM product_change_horizon WHERE id = 1", nativeQuery = true)
+        List<Object[]> findPurgedChangeToken();
+
+        /**
+         * Elimina los cambios anteriores a cutoff y avanza el token purgado
+         */
+        @Transactional
+        @Modifying
+        @Query(value = "WITH purged AS (" +
+                        "  DELETE FROM product_changes WHERE changed_at < :cutoff RETURNING tx_id, seq), " +
+                        "newest AS (" +
+                        "  SELECT tx_id, seq FROM purged ORDER BY tx_id DESC, seq DESC LIMIT 1) " +
+                        "UPDATE product_change_horizon h SET tx_id = n.tx_id, seq = n.seq " +
+                        "FROM newest n WHERE h.id = 1 AND (n.tx_id, n.seq) > (h.tx_id, h.seq)", nativeQuery = true)
+        int purgeChangesBefore(@Param("cutoff") LocalDateTime cutoff);
 
-        
-}
\ No newline at end of file
+}
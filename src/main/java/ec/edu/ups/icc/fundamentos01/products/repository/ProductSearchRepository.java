@@ -0,0 +1,77 @@
+package ec.edu.ups.icc.fundamentos01.products.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import ec.edu.ups.icc.fundamentos01.products.models.ProductSearchEntity;
+
+/**
+ * Consultas sobre la tabla desnormalizada product_search
+ *
+ * Sin JOIN ni EXISTS: dueño y categorías ya están en la fila, así que la
+ * consulta y su COUNT recorren solo índices de product_search.
+ * Son nativas (operador @> sobre arreglos); por eso el Sort del Pageable
+ * debe usar nombres de columna (created_at, owner_name, ...)
+ */
+@Repository
+@Transactional(readOnly = true)
+public interface ProductSearchRepository extends JpaRepository<ProductSearchEntity, Long> {
+
+        /**
+         * /search en modo contains
+         * - name: idx_product_search_name_trgm
+         * - categoryId: idx_product_search_categories (GIN sobre category_ids)
+         * - orden por defecto: idx_product_search_created
+         */
+        @Query(value = "SELECT s.* FROM product_search s " +
+                        "WHERE (COALESCE(:name, '') = '' OR s.lower_name LIKE '%' || LOWER(:name) || '%') " +
+                        "AND (CAST(:minPrice AS double precision) IS NULL OR s.price >= :minPrice) " +
+                        "AND (CAST(:maxPrice AS double precision) IS NULL OR s.price <= :maxPrice) " +
+                        "AND (CAST(:categoryId AS bigint) IS NULL " +
+                        "  OR s.category_ids @> ARRAY[CAST(:categoryId AS bigint)])",
+                        countQuery = "SELECT COUNT(*) FROM product_search s " +
+                                        "WHERE (COALESCE(:name, '') = '' OR s.lower_name LIKE '%' || LOWER(:name) || '%') " +
+                                        "AND (CAST(:minPrice AS double precision) IS NULL OR s.price >= :minPrice) " +
+                                        "AND (CAST(:maxPrice AS double precision) IS NULL OR s.price <= :maxPrice) " +
+                                        "AND (CAST(:categoryId AS bigint) IS NULL " +
+                                        "  OR s.category_ids @> ARRAY[CAST(:categoryId AS bigint)])",
+                        nativeQuery = true)
+        Page<ProductSearchEntity> findWithFilters(
+                        @Param("name") String name,
+                        @Param("minPrice") Double minPrice,
+                        @Param("maxPrice") Double maxPrice,
+                        @Param("categoryId") Long categoryId,
+                        Pageable pageable);
+
+        /**
+         * /userProduct/{userId}
+         * NOTA: usa idx_product_search_user_created (user_id, created_at DESC)
+         */
+        @Query(value = "SELECT s.* FROM product_search s " +
+                        "WHERE s.user_id = :userId " +
+                        "AND (COALESCE(:name, '') = '' OR s.lower_name LIKE '%' || LOWER(:name) || '%') " +
+                        "AND (CAST(:minPrice AS double precision) IS NULL OR s.price >= :minPrice) " +
+                        "AND (CAST(:maxPrice AS double precision) IS NULL OR s.price <= :maxPrice) " +
+                        "AND (CAST(:categoryId AS bigint) IS NULL " +
+                        "  OR s.category_ids @> ARRAY[CAST(:categoryId AS bigint)])",
+                        countQuery = "SELECT COUNT(*) FROM product_search s " +
+                                        "WHERE s.user_id = :userId " +
+                                        "AND (COALESCE(:name, '') = '' OR s.lower_name LIKE '%' || LOWER(:name) || '%') " +
+                                        "AND (CAST(:minPrice AS double precision) IS NULL OR s.price >= :minPrice) " +
+                                        "AND (CAST(:maxPrice AS double precision) IS NULL OR s.price <= :maxPrice) " +
+                                        "AND (CAST(:categoryId AS bigint) IS NULL " +
+                                        "  OR s.category_ids @> ARRAY[CAST(:categoryId AS bigint)])",
+                        nativeQuery = true)
+        Page<ProductSearchEntity> findByUserIdWithFilters(
+                        @Param("userId") Long userId,
+                        @Param("name") String name,
+                        @Param("minPrice") Double minPrice,
+                        @Param("maxPrice") Double maxPrice,
+                        @Param("categoryId") Long categoryId,
+                        Pageable pageable);
+}
@@ -0,0 +1,244 @@
+package ec.edu.ups.icc.fundamentos01.products.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ec.edu.ups.icc.fundamentos01.products.events.ProductChangedEvent;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+
+/**
+ * Índice en memoria: un bitmap comprimido (Roaring) de ids de producto por categoría
+ * 
+ * - categoryMatch=any → unión de los bitmaps (OR)
+ * - categoryMatch=all → intersección de los bitmaps (AND)
+ * - El rango de precio se aplica sobre el resultado con un arreglo de precios por id
+ * 
+ * El resultado son ids; la BD solo pagina/ordena sobre "id IN (...)"
+ * 
+ * Los bitmaps usan enteros de 32 bits: si aparece un id mayor a Integer.MAX_VALUE
+ * el índice se desactiva y las consultas vuelven a SQL
+ */
+@Component
+public class CategoryBitmapIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryBitmapIndex.class);
+
+    private final ProductRepository productRepository;
+
+    // Máximo de ids que se devuelven para paginar con "id IN (...)"; por encima va a SQL
+    private final int maxCandidates;
+
+    // RoaringBitmap no es thread-safe: lecturas concurrentes, escrituras exclusivas
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, RoaringBitmap> productsByCategory = new HashMap<>();
+    private double[] prices = new double[0]; // NaN = sin producto
+
+    private volatile boolean ready;
+    private volatile boolean disabled;
+
+    // Eventos recibidos mientras se construye; se aplican al terminar
+    private final List<ProductChangedEvent> pendingDuringBuild = new ArrayList<>();
+
+    public CategoryBitmapIndex(ProductRepository productRepository,
+            @Value("${products.category-index.max-candidates:5000}") int maxCandidates) {
+        this.productRepository = productRepository;
+        this.maxCandidates = maxCandidates;
+    }
+
+    // ============== CONSTRUCCIÓN ==============
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        Map<Long, RoaringBitmap> bitmaps = new HashMap<>();
+        double[] builtPrices = new double[0];
+
+        try (Stream<Object[]> rows = productRepository.streamIdsAndPrices()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                int id = toIntId((Long) row[0]);
+                if (id < 0) {
+                    return;
+                }
+                builtPrices = ensureCapacity(builtPrices, id);
+                builtPrices[id] = (Double) row[1];
+            }
+        }
+
+        try (Stream<Object[]> rows = productRepository.streamCategoryIdPairs()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                int id = toIntId((Long) row[0]);
+                if (id < 0) {
+                    return;
+                }
+                bitmaps.computeIfAbsent((Long) row[1], key -> new RoaringBitmap()).add(id);
+            }
+        }
+        bitmaps.values().forEach(RoaringBitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            productsByCategory = bitmaps;
+            prices = builtPrices;
+            pendingDuringBuild.forEach(this::apply);
+            pendingDuringBuild.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Índice de categorías construido: {} categorías, {} bytes",
+                bitmaps.size(), bitmaps.values().stream().mapToLong(RoaringBitmap::getLongSizeInBytes).sum());
+    }
+
+    // ============== ESCRITURAS ==============
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                apply(event);
+            } else if (!disabled) {
+                pendingDuringBuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Se llama con el write lock tomado
+     */
+    private void apply(ProductChangedEvent event) {
+        int id = toIntId(event.getProductId());
+        if (id < 0) {
+            return;
+        }
+
+        // Quitar de todas las categorías (son pocas) y volver a agregar las actuales
+        productsByCategory.values().forEach(bitmap -> bitmap.remove(id));
+        if (id < prices.length) {
+            prices[id] = Double.NaN;
+        }
+
+        if (!event.isDeleted()) {
+            for (Long categoryId : event.getCategoryIds()) {
+                productsByCategory.computeIfAbsent(categoryId, key -> new RoaringBitmap()).add(id);
+            }
+            prices = ensureCapacity(prices, id);
+            prices[id] = event.getPrice();
+        }
+    }
+
+    // ============== CONSULTA ==============
+
+    /**
+     * Ids de los productos que cumplen el filtro de categorías y precio
+     * 
+     * @param matchAll true = todas las categorías, false = alguna
+     * @return null si el índice no puede responder (no listo o más de maxCandidates resultados)
+     */
+    public List<Long> match(Set<Long> categoryIds, boolean matchAll, Double minPrice, Double maxPrice) {
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+
+            RoaringBitmap matches = combine(categoryIds, matchAll);
+
+            double min = minPrice != null ? minPrice : Double.NEGATIVE_INFINITY;
+            double max = maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY;
+            boolean filterPrice = minPrice != null || maxPrice != null;
+
+            List<Long> ids = new ArrayList<>();
+            IntIterator iterator = matches.getIntIterator();
+            while (iterator.hasNext()) {
+                int id = iterator.next();
+                if (filterPrice) {
+                    double price = id < prices.length ? prices[id] : Double.NaN;
+                    if (!(price >= min && price <= max)) { // NaN no cumple
+                        continue;
+                    }
+                }
+                if (ids.size() == maxCandidates) {
+                    return null; // demasiados candidatos: mejor que lo resuelva SQL
+                }
+                ids.add((long) id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap combine(Set<Long> categoryIds, boolean matchAll) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(categoryIds.size());
+        for (Long categoryId : categoryIds) {
+            RoaringBitmap bitmap = productsByCategory.get(categoryId);
+            if (bitmap == null) {
+                if (matchAll) {
+                    return new RoaringBitmap(); // una categoría sin productos vacía la intersección
+                }
+                continue;
+            }
+            bitmaps.add(bitmap);
+        }
+
+        if (bitmaps.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        // Ambas operaciones devuelven un bitmap nuevo (no modifican los del índice)
+        return matchAll
+                ? FastAggregation.and(bitmaps.iterator())
+                : FastAggregation.or(bitmaps.iterator());
+    }
+
+    // ============== UTILIDADES ==============
+
+    /**
+     * @return el id como int, o -1 si no cabe (y el índice queda desactivado)
+     */
+    private int toIntId(Long id) {
+        if (id <= Integer.MAX_VALUE) {
+            return id.intValue();
+        }
+        if (!disabled) {
+            disabled = true;
+            ready = false;
+            logger.warn("Id de producto {} fuera de rango de 32 bits: índice de categorías desactivado", id);
+        }
+        return -1;
+    }
+
+    private static double[] ensureCapacity(double[] array, int id) {
+        if (id < array.length) {
+            return array;
+        }
+        int oldLength = array.length;
+        double[] grown = Arrays.copyOf(array, Math.max(id + 1, oldLength + (oldLength >> 1)));
+        Arrays.fill(grown, oldLength, grown.length, Double.NaN);
+        return grown;
+    }
+
+}
@@ -0,0 +1,84 @@
+package ec.edu.ups.icc.fundamentos01.products.search;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import ec.edu.ups.icc.fundamentos01.products.events.ProductChangedEvent;
+
+/**
+ * Campos de un producto que se indexan en Lucene
+ * 
+ * Se construye desde la proyección de ProductRepository.streamForIndex
+ * (reindexación) o desde un ProductChangedEvent (cambios en línea)
+ */
+public class ProductDocument {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Double price;
+    private final Long ownerId;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Set<Long> categoryIds = new HashSet<>();
+
+    /**
+     * Usado por la expresión constructor de JPQL (SELECT new ...)
+     */
+    public ProductDocument(Long id, String name, String description, Double price, Long ownerId,
+            LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.ownerId = ownerId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static ProductDocument fromEvent(ProductChangedEvent event) {
+        ProductDocument document = new ProductDocument(event.getProductId(), event.getName(),
+                event.getDescription(), event.getPrice(), event.getOwnerId(),
+                event.getCreatedAt(), event.getUpdatedAt());
+        document.categoryIds.addAll(event.getCategoryIds());
+        return document;
+    }
+
+    public void addCategoryId(Long categoryId) {
+        categoryIds.add(categoryId);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+}
@@ -0,0 +1,264 @@
+package ec.edu.ups.icc.fundamentos01.products.search;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ec.edu.ups.icc.fundamentos01.products.events.ProductChangedEvent;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Mantiene el índice Lucene sincronizado con PostgreSQL
+ * 
+ * 1. Cambios en línea: cada ProductChangedEvent confirmado (AFTER_COMMIT)
+ *    se aplica al índice y se espera a que sea visible en el searcher NRT
+ * 2. Reindexación completa: recorre la tabla con un cursor (streaming) en lotes
+ *    y varios hilos escriben los documentos en paralelo. Mientras dura,
+ *    el índice no está "listo" y las búsquedas van a la BD
+ */
+@Component
+@ConditionalOnProperty(prefix = "products.search", name = "engine", havingValue = "lucene")
+public class ProductIndexSynchronizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIndexSynchronizer.class);
+
+    private final ProductSearchIndex index;
+    private final ProductRepository productRepository;
+    private final ProductSearchProperties properties;
+    private final TransactionTemplate readOnlyTx;
+
+    // Un solo job de reindexación a la vez
+    private final ExecutorService reindexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean reindexing = new AtomicBoolean(false);
+
+    // Productos modificados mientras corre la reindexación: se vuelven a leer al final
+    // (el cursor pudo leer una versión anterior al cambio)
+    private final Set<Long> changedDuringReindex = ConcurrentHashMap.newKeySet();
+
+    // Estado del último job (para el endpoint de administración)
+    private volatile Instant lastStartedAt;
+    private volatile Instant lastFinishedAt;
+    private volatile String lastError;
+    private final AtomicLong lastIndexedCount = new AtomicLong();
+
+    public ProductIndexSynchronizer(ProductSearchIndex index,
+            ProductRepository productRepository,
+            ProductSearchProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.index = index;
+        this.productRepository = productRepository;
+        this.properties = properties;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    // ============== CAMBIOS EN LÍNEA ==============
+
+    /**
+     * fallbackExecution: también se procesa si el evento se publicó sin transacción
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (reindexing.get()) {
+            changedDuringReindex.add(event.getProductId());
+        }
+
+        long sequence = event.isDeleted()
+                ? index.delete(event.getProductId())
+                : index.upsert(ProductDocument.fromEvent(event));
+
+        index.awaitVisible(sequence);
+    }
+
+    // ============== REINDEXACIÓN ==============
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (properties.isReindexOnStartup() || index.numDocs() == 0) {
+            startReindex();
+        } else {
+            index.setReady(true);
+            logger.info("Índice de productos reutilizado ({} documentos)", index.numDocs());
+        }
+    }
+
+    /**
+     * Inicia la reindexación en segundo plano
+     * @return false si ya había una en curso
+     */
+    public boolean startReindex() {
+        if (!reindexing.compareAndSet(false, true)) {
+            return false;
+        }
+        reindexExecutor.submit(this::reindex);
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("engine", "lucene");
+        status.put("ready", index.isReady());
+        status.put("reindexing", reindexing.get());
+        status.put("documents", index.numDocs());
+        status.put("lastStartedAt", lastStartedAt);
+        status.put("lastFinishedAt", lastFinishedAt);
+        status.put("lastIndexedCount", lastIndexedCount.get());
+        status.put("lastError", lastError);
+        return status;
+    }
+
+    private void reindex() {
+        lastStartedAt = Instant.now();
+        lastError = null;
+        changedDuringReindex.clear();
+        index.setReady(false);
+
+        ExecutorService writers = Executors.newFixedThreadPool(properties.getReindexThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "product-reindex-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            index.deleteAll();
+
+            long indexed = readOnlyTx.execute(tx -> streamIntoIndex(writers));
+
+            // Releer los productos que cambiaron durante el recorrido
+            Set<Long> changed = new HashSet<>(changedDuringReindex);
+            refreshProducts(changed);
+
+            index.commit();
+            index.setReady(true);
+
+            lastIndexedCount.set(indexed);
+            logger.info("Reindexación de productos completada: {} documentos en {} ms ({} releídos)",
+                    indexed, Duration.between(lastStartedAt, Instant.now()).toMillis(), changed.size());
+        } catch (Exception ex) {
+            lastError = ex.getMessage();
+            logger.error("Falló la reindexación de productos; las búsquedas seguirán usando la BD", ex);
+        } finally {
+            writers.shutdown();
+            lastFinishedAt = Instant.now();
+            reindexing.set(false);
+        }
+    }
+
+    /**
+     * Lee la tabla en streaming y reparte los lotes entre los hilos escritores
+     * El semáforo limita los lotes en memoria (el cursor no se adelanta a la escritura)
+     */
+    private long streamIntoIndex(ExecutorService writers) {
+        int batchSize = properties.getReindexBatchSize();
+        Semaphore inFlight = new Semaphore(properties.getReindexThreads() * 2);
+        List<Future<?>> pending = new ArrayList<>();
+        long count = 0;
+
+        try (Stream<ProductDocument> rows = productRepository.streamForIndex()) {
+            List<ProductDocument> batch = new ArrayList<>(batchSize);
+            for (ProductDocument row : (Iterable<ProductDocument>) rows::iterator) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    count += submitBatch(batch, writers, inFlight, pending);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                count += submitBatch(batch, writers, inFlight, pending);
+            }
+
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reindexación interrumpida", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Error escribiendo el índice", ex.getCause());
+        }
+
+        return count;
+    }
+
+    private int submitBatch(List<ProductDocument> batch, ExecutorService writers, Semaphore inFlight,
+            List<Future<?>> pending) throws InterruptedException {
+        // Categorías del lote en una sola consulta (en el hilo que tiene la transacción)
+        attachCategories(batch);
+
+        inFlight.acquire();
+        pending.add(writers.submit(() -> {
+            try {
+                index.upsertAll(batch);
+            } finally {
+                inFlight.release();
+            }
+        }));
+        return batch.size();
+    }
+
+    private void attachCategories(List<ProductDocument> batch) {
+        Map<Long, ProductDocument> byId = new LinkedHashMap<>();
+        batch.forEach(document -> byId.put(document.getId(), document));
+
+        for (Object[] pair : productRepository.findCategoryIdPairs(byId.keySet())) {
+            byId.get((Long) pair[0]).addCategoryId((Long) pair[1]);
+        }
+    }
+
+    /**
+     * Vuelve a leer de la BD los productos indicados (los que ya no existen se borran)
+     */
+    private void refreshProducts(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        readOnlyTx.executeWithoutResult(tx -> {
+            List<ProductDocument> documents = productRepository.findDocumentsByIdIn(ids);
+            attachCategories(documents);
+            index.upsertAll(documents);
+
+            Set<Long> deleted = new HashSet<>(ids);
+            documents.forEach(document -> deleted.remove(document.getId()));
+            deleted.forEach(index::delete);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        reindexExecutor.shutdownNow();
+        reindexExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,372 @@
+package ec.edu.ups.icc.fundamentos01.products.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.es.SpanishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Índice Lucene embebido (en disco) de productos
+ * 
+ * - Escrituras: IndexWriter (thread-safe) con updateDocument por id
+ * - Lecturas: SearcherManager + ControlledRealTimeReopenThread (near-real-time):
+ *   un cambio es visible en menos de products.search.max-stale-millis
+ * - Las búsquedas devuelven solo ids; la BD hidrata la página por PK
+ * 
+ * Solo existe con products.search.engine=lucene
+ */
+@Component
+@ConditionalOnProperty(prefix = "products.search", name = "engine", havingValue = "lucene")
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // ============== CAMPOS DEL DOCUMENTO ==============
+
+    static final String ID = "id";                    // StringField: clave para update/delete
+    static final String ID_SORT = "id_sort";          // doc values: orden y desempate
+    static final String NAME = "name";                // texto analizado (español)
+    static final String NAME_SORT = "name_sort";      // doc values: orden por nombre
+    static final String DESCRIPTION = "description";  // texto analizado (español)
+    static final String PRICE = "price";              // DoublePoint (rango) + doc values (orden)
+    static final String OWNER = "owner";              // LongPoint
+    static final String CATEGORY = "category";        // LongPoint multivaluado
+    static final String CREATED_AT = "created_at";    // doc values (epoch millis)
+    static final String UPDATED_AT = "updated_at";    // doc values (epoch millis)
+
+    // Propiedades de ordenamiento que el índice puede resolver
+    private static final Map<String, SortField> SORTABLE = Map.of(
+            "id", new SortField(ID_SORT, SortField.Type.LONG),
+            "name", new SortField(NAME_SORT, SortField.Type.STRING),
+            "price", new SortField(PRICE, SortField.Type.DOUBLE),
+            "createdAt", new SortField(CREATED_AT, SortField.Type.LONG),
+            "updatedAt", new SortField(UPDATED_AT, SortField.Type.LONG));
+
+    private final ProductSearchProperties properties;
+    private final Analyzer analyzer;
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+    // false mientras se reconstruye: el servicio consulta la BD
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductSearchProperties properties) throws IOException {
+        this.properties = properties;
+        this.analyzer = new SpanishAnalyzer();
+
+        Path path = Path.of(properties.getIndexPath());
+        Files.createDirectories(path);
+        this.directory = FSDirectory.open(path);
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        config.setRAMBufferSizeMB(64);
+        this.writer = new IndexWriter(directory, config);
+
+        this.searcherManager = new SearcherManager(writer, null);
+
+        double maxStaleSec = properties.getMaxStaleMillis() / 1000.0;
+        this.reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager,
+                maxStaleSec, Math.min(0.025, maxStaleSec));
+        this.reopenThread.setName("product-index-nrt");
+        this.reopenThread.setDaemon(true);
+        this.reopenThread.start();
+
+        logger.info("Índice de productos abierto en {} ({} documentos)", path.toAbsolutePath(), writer.getDocStats().numDocs);
+    }
+
+    // ============== ESCRITURA ==============
+
+    /**
+     * Inserta o reemplaza el documento del producto
+     * @return número de secuencia de la operación (para esperar visibilidad)
+     */
+    public long upsert(ProductDocument product) {
+        try {
+            return writer.updateDocument(new Term(ID, String.valueOf(product.getId())), toDocument(product));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public void upsertAll(Collection<ProductDocument> products) {
+        for (ProductDocument product : products) {
+            upsert(product);
+        }
+    }
+
+    public long delete(Long productId) {
+        try {
+            return writer.deleteDocuments(new Term(ID, String.valueOf(productId)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Espera a que el searcher NRT incluya la operación indicada
+     * (lectura de lo propio: quien escribe ve su cambio en la siguiente búsqueda)
+     */
+    public void awaitVisible(long sequenceNumber) {
+        try {
+            reopenThread.waitForGeneration(sequenceNumber, (int) properties.getMaxStaleMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void deleteAll() throws IOException {
+        writer.deleteAll();
+    }
+
+    void commit() throws IOException {
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    int numDocs() {
+        return writer.getDocStats().numDocs;
+    }
+
+    // ============== ESTADO ==============
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    /**
+     * El índice puede resolver la consulta si está listo y todas las
+     * propiedades de ordenamiento están indexadas como doc values
+     */
+    public boolean canServe(Sort sort) {
+        if (!ready) {
+            return false;
+        }
+        for (Sort.Order order : sort) {
+            if (!SORTABLE.containsKey(order.getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ============== BÚSQUEDA ==============
+
+    /**
+     * Busca productos y devuelve solo los ids de la página pedida
+     * 
+     * A diferencia del LIKE '%texto%' de la BD, el texto se analiza en español
+     * (minúsculas, stemming, stopwords) y se busca en nombre (peso 2) y descripción.
+     * Admite la sintaxis simple de Lucene: "frase", -excluir, prefijo*
+     * 
+     * @param ownerId null = todos los dueños
+     */
+    public Hits search(String text, Double minPrice, Double maxPrice, Long categoryId, Long ownerId,
+            Pageable pageable) {
+        Query query = buildQuery(text, minPrice, maxPrice, categoryId, ownerId);
+        org.apache.lucene.search.Sort sort = toLuceneSort(pageable.getSort());
+
+        IndexSearcher searcher;
+        try {
+            searcher = searcherManager.acquire();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        try {
+            long total = searcher.count(query);
+            int offset = (int) pageable.getOffset();
+            if (offset >= total) {
+                return new Hits(List.of(), total);
+            }
+
+            TopFieldDocs top = searcher.search(query, offset + pageable.getPageSize(), sort);
+            StoredFields storedFields = searcher.storedFields();
+
+            List<Long> ids = new ArrayList<>(pageable.getPageSize());
+            ScoreDoc[] scoreDocs = top.scoreDocs;
+            for (int i = offset; i < scoreDocs.length; i++) {
+                Document document = storedFields.document(scoreDocs[i].doc, Set.of(ID));
+                ids.add(document.getField(ID).numericValue().longValue());
+            }
+            return new Hits(ids, total);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    private Query buildQuery(String text, Double minPrice, Double maxPrice, Long categoryId, Long ownerId) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+
+        Query textQuery = null;
+        if (text != null && !text.isBlank()) {
+            SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(NAME, 2f, DESCRIPTION, 1f));
+            parser.setDefaultOperator(BooleanClause.Occur.MUST);
+            textQuery = parser.parse(text);
+        }
+        // Sin texto (o solo stopwords) → todos los documentos
+        builder.add(textQuery != null ? textQuery : new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+
+        // Filtros: no afectan el puntaje
+        if (minPrice != null || maxPrice != null) {
+            builder.add(DoublePoint.newRangeQuery(PRICE,
+                    minPrice != null ? minPrice : Double.NEGATIVE_INFINITY,
+                    maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY), BooleanClause.Occur.FILTER);
+        }
+        if (categoryId != null) {
+            builder.add(LongPoint.newExactQuery(CATEGORY, categoryId), BooleanClause.Occur.FILTER);
+        }
+        if (ownerId != null) {
+            builder.add(LongPoint.newExactQuery(OWNER, ownerId), BooleanClause.Occur.FILTER);
+        }
+
+        return builder.build();
+    }
+
+    private org.apache.lucene.search.Sort toLuceneSort(Sort sort) {
+        List<SortField> fields = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            SortField base = SORTABLE.get(order.getProperty());
+            fields.add(new SortField(base.getField(), base.getType(), order.isDescending()));
+        }
+        // Desempate estable entre páginas
+        fields.add(new SortField(ID_SORT, SortField.Type.LONG));
+        return new org.apache.lucene.search.Sort(fields.toArray(new SortField[0]));
+    }
+
+    // ============== DOCUMENTO ==============
+
+    private Document toDocument(ProductDocument product) {
+        Document document = new Document();
+
+        document.add(new StringField(ID, String.valueOf(product.getId()), Field.Store.NO));
+        document.add(new StoredField(ID, product.getId()));
+        document.add(new NumericDocValuesField(ID_SORT, product.getId()));
+
+        document.add(new TextField(NAME, product.getName(), Field.Store.NO));
+        document.add(new SortedDocValuesField(NAME_SORT,
+                new BytesRef(product.getName().toLowerCase(Locale.ROOT))));
+        if (product.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, product.getDescription(), Field.Store.NO));
+        }
+
+        document.add(new DoublePoint(PRICE, product.getPrice()));
+        document.add(new DoubleDocValuesField(PRICE, product.getPrice()));
+
+        document.add(new LongPoint(OWNER, product.getOwnerId()));
+        for (Long categoryId : product.getCategoryIds()) {
+            document.add(new LongPoint(CATEGORY, categoryId));
+        }
+
+        if (product.getCreatedAt() != null) {
+            document.add(new NumericDocValuesField(CREATED_AT, toEpochMillis(product.getCreatedAt())));
+        }
+        if (product.getUpdatedAt() != null) {
+            document.add(new NumericDocValuesField(UPDATED_AT, toEpochMillis(product.getUpdatedAt())));
+        }
+
+        return document;
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException ex) {
+            logger.warn("No se pudo liberar el searcher del índice de productos", ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        writer.close(); // hace commit de los cambios pendientes
+        directory.close();
+        analyzer.close();
+    }
+
+    // ============== RESULTADO ==============
+
+    /**
+     * Ids de la página (en el orden pedido) y total de coincidencias
+     */
+    public static class Hits {
+
+        private final List<Long> ids;
+        private final long total;
+
+        public Hits(List<Long> ids, long total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+    }
+
+}
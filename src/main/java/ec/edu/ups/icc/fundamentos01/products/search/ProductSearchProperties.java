@@ -0,0 +1,82 @@
+package ec.edu.ups.icc.fundamentos01.products.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración del motor de búsqueda de productos (prefijo products.search)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "products.search")
+public class ProductSearchProperties {
+
+    // database: consultas JPQL sobre PostgreSQL (por defecto)
+    // lucene: índice Lucene embebido; la BD solo hidrata la página por id
+    private String engine = "database";
+
+    // Carpeta del índice en disco
+    private String indexPath = "./data/product-index";
+
+    // Reconstruir el índice al arrancar (la BD pudo cambiar con la app detenida)
+    private boolean reindexOnStartup = true;
+
+    // Hilos que escriben documentos durante la reindexación
+    private int reindexThreads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+    // Filas por lote leídas del cursor de la BD
+    private int reindexBatchSize = 1000;
+
+    // Máxima antigüedad del searcher NRT (un cambio es visible en a lo sumo este tiempo)
+    private long maxStaleMillis = 1000;
+
+    // Getters y Setters
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+
+    public String getIndexPath() {
+        return indexPath;
+    }
+
+    public void setIndexPath(String indexPath) {
+        this.indexPath = indexPath;
+    }
+
+    public boolean isReindexOnStartup() {
+        return reindexOnStartup;
+    }
+
+    public void setReindexOnStartup(boolean reindexOnStartup) {
+        this.reindexOnStartup = reindexOnStartup;
+    }
+
+    public int getReindexThreads() {
+        return reindexThreads;
+    }
+
+    public void setReindexThreads(int reindexThreads) {
+        this.reindexThreads = reindexThreads;
+    }
+
+    public int getReindexBatchSize() {
+        return reindexBatchSize;
+    }
+
+    public void setReindexBatchSize(int reindexBatchSize) {
+        this.reindexBatchSize = reindexBatchSize;
+    }
+
+    public long getMaxStaleMillis() {
+        return maxStaleMillis;
+    }
+
+    public void setMaxStaleMillis(long maxStaleMillis) {
+        this.maxStaleMillis = maxStaleMillis;
+    }
+
+}
@@ -0,0 +1,395 @@
+package ec.edu.ups.icc.fundamentos01.products.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductSuggestionDto;
+import ec.edu.ups.icc.fundamentos01.products.events.ProductChangedEvent;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+
+/**
+ * Índice en memoria para autocompletar nombres de productos (typeahead)
+ * 
+ * Estructura:
+ * - Base: arreglos ordenados (claves + ids) → búsqueda binaria del prefijo
+ * - Delta: TreeSet pequeño con las altas/cambios recientes
+ * - Obsoletos: ids cuyas entradas en la base ya no valen (editados o eliminados)
+ * Cuando delta + obsoletos superan COMPACT_THRESHOLD se fusionan con la base
+ * (cuenta también los obsoletos: con muchas bajas el delta no crece)
+ * 
+ * Cada palabra del nombre es una clave (normalizada: minúsculas y sin tildes),
+ * así "gam" encuentra "Laptop Gamer"
+ * 
+ * Las lecturas no bloquean: leen una instantánea inmutable (volatile);
+ * las escrituras se serializan y publican una instantánea nueva
+ * 
+ * El ranking usa la popularidad (consultas a GET /api/products/{id})
+ */
+@Component
+public class ProductSuggestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestIndex.class);
+
+    private static final int COMPACT_THRESHOLD = 1024;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator
+            .comparing((Entry entry) -> entry.key)
+            .thenComparingLong(entry -> entry.id);
+
+    // Más popular primero; a igualdad, el nombre más corto
+    private static final Comparator<ProductSuggestionDto> RANKING = Comparator
+            .comparingLong((ProductSuggestionDto dto) -> dto.score).reversed()
+            .thenComparingInt(dto -> dto.name.length())
+            .thenComparingLong(dto -> dto.id);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    // Nombre para mostrar y popularidad por producto
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> popularity = new ConcurrentHashMap<>();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // Mientras se construye la base no se compacta (el delta protege los cambios concurrentes)
+    private boolean building = true;
+
+    // Base cargada desde la BD; si la carga falla, retryBuild la reintenta
+    private volatile boolean built;
+
+    public ProductSuggestIndex(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    // ============== CONSTRUCCIÓN ==============
+
+    /**
+     * Carga inicial en streaming (id, nombre); los cambios que llegan mientras
+     * tanto quedan en el delta y tienen prioridad sobre lo leído
+     *
+     * Si la carga falla el índice sigue atendiendo con lo que llegue por
+     * eventos (se compacta normalmente) y retryBuild vuelve a intentarlo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        synchronized (this) {
+            building = true;
+        }
+        try {
+            List<Entry> entries = readOnlyTx.execute(status -> loadEntries());
+
+            synchronized (this) {
+                Snapshot current = snapshot;
+                snapshot = new Snapshot(toKeys(entries), toIds(entries), current.delta, current.stale);
+                built = true;
+            }
+            logger.info("Índice de autocompletado construido con {} claves", entries.size());
+        } catch (RuntimeException ex) {
+            logger.error("No se pudo construir el índice de autocompletado; se reintentará", ex);
+        } finally {
+            synchronized (this) {
+                building = false;
+                // Lo acumulado durante la carga se compacta si ya supera el umbral
+                publish(snapshot.delta, snapshot.stale);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${products.suggest.build-retry:PT1M}",
+            initialDelayString = "${products.suggest.build-retry:PT1M}")
+    public void retryBuild() {
+        synchronized (this) {
+            if (built || building) {
+                return;
+            }
+        }
+        build();
+    }
+
+    private List<Entry> loadEntries() {
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<Object[]> rows = productRepository.streamIdsAndNames()) {
+            rows.forEach(row -> {
+                Long id = (Long) row[0];
+                String name = (String) row[1];
+                names.putIfAbsent(id, name);
+                addEntries(entries, id, name);
+            });
+        }
+        entries.sort(ENTRY_ORDER);
+        return entries;
+    }
+
+    // ============== ESCRITURAS ==============
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getProductId());
+        } else {
+            upsert(event.getProductId(), event.getName());
+        }
+    }
+
+    public synchronized void upsert(Long id, String name) {
+        names.put(id, name);
+
+        NavigableSet<Entry> delta = withoutId(snapshot.delta, id);
+        List<Entry> entries = new ArrayList<>();
+        addEntries(entries, id, name);
+        delta.addAll(entries);
+
+        publish(delta, withId(snapshot.stale, id));
+    }
+
+    public synchronized void remove(Long id) {
+        names.remove(id);
+        popularity.remove(id);
+
+        publish(withoutId(snapshot.delta, id), withId(snapshot.stale, id));
+    }
+
+    /**
+     * Suma una consulta al producto (ranking por popularidad)
+     */
+    public void recordView(Long id) {
+        popularity.computeIfAbsent(id, key -> new LongAdder()).increment();
+    }
+
+    private void publish(NavigableSet<Entry> delta, Set<Long> stale) {
+        Snapshot current = snapshot;
+        if (!building && delta.size() + stale.size() > COMPACT_THRESHOLD) {
+            snapshot = compact(current, delta, stale);
+        } else {
+            snapshot = new Snapshot(current.keys, current.ids,
+                    Collections.unmodifiableNavigableSet(delta), Collections.unmodifiableSet(stale));
+        }
+    }
+
+    /**
+     * Fusiona base (sin obsoletos) + delta en arreglos nuevos (ambos ya están ordenados)
+     */
+    private Snapshot compact(Snapshot current, NavigableSet<Entry> delta, Set<Long> stale) {
+        int capacity = current.keys.length + delta.size();
+        String[] keys = new String[capacity];
+        long[] ids = new long[capacity];
+
+        int size = 0;
+        int i = 0;
+        for (Entry entry : delta) {
+            while (i < current.keys.length && compare(current.keys[i], current.ids[i], entry) < 0) {
+                if (!stale.contains(current.ids[i])) {
+                    keys[size] = current.keys[i];
+                    ids[size++] = current.ids[i];
+                }
+                i++;
+            }
+            keys[size] = entry.key;
+            ids[size++] = entry.id;
+        }
+        for (; i < current.keys.length; i++) {
+            if (!stale.contains(current.ids[i])) {
+                keys[size] = current.keys[i];
+                ids[size++] = current.ids[i];
+            }
+        }
+
+        return new Snapshot(Arrays.copyOf(keys, size), Arrays.copyOf(ids, size),
+                emptyDelta(), Set.of());
+    }
+
+    // ============== CONSULTA ==============
+
+    /**
+     * Top-N productos cuyo nombre tiene una palabra que empieza con el prefijo,
+     * ordenados por popularidad (y a igualdad, nombre más corto)
+     */
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Snapshot current = snapshot;
+        Set<Long> seen = new HashSet<>();
+        PriorityQueue<ProductSuggestionDto> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+
+        // Base: rango [primer >= prefijo, mientras empiece con el prefijo)
+        for (int i = lowerBound(current.keys, key); i < current.keys.length && current.keys[i].startsWith(key); i++) {
+            long id = current.ids[i];
+            if (!current.stale.contains(id)) {
+                offer(top, seen, id, limit);
+            }
+        }
+
+        // Delta
+        for (Entry entry : current.delta.tailSet(new Entry(key, Long.MIN_VALUE), true)) {
+            if (!entry.key.startsWith(key)) {
+                break;
+            }
+            offer(top, seen, entry.id, limit);
+        }
+
+        List<ProductSuggestionDto> result = new ArrayList<>(top);
+        result.sort(RANKING);
+        return result;
+    }
+
+    private void offer(PriorityQueue<ProductSuggestionDto> top, Set<Long> seen, long id, int limit) {
+        if (!seen.add(id)) {
+            return; // el producto ya coincidió por otra palabra
+        }
+        String name = names.get(id);
+        if (name == null) {
+            return;
+        }
+
+        ProductSuggestionDto dto = new ProductSuggestionDto();
+        dto.id = id;
+        dto.name = name;
+        LongAdder views = popularity.get(id);
+        dto.score = views != null ? views.sum() : 0;
+
+        top.offer(dto);
+        if (top.size() > limit) {
+            top.poll(); // descarta el de menor ranking
+        }
+    }
+
+    // ============== UTILIDADES ==============
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return withoutAccents.toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Una clave por palabra: "Laptop Gamer Pro" → "laptop gamer pro", "gamer pro", "pro"
+     */
+    private static void addEntries(List<Entry> entries, Long id, String name) {
+        String normalized = normalize(name);
+        entries.add(new Entry(normalized, id));
+
+        Matcher separator = WORD_SEPARATOR.matcher(normalized);
+        while (separator.find()) {
+            if (separator.end() < normalized.length()) {
+                entries.add(new Entry(normalized.substring(separator.end()), id));
+            }
+        }
+    }
+
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(String key, long id, Entry entry) {
+        int byKey = key.compareTo(entry.key);
+        return byKey != 0 ? byKey : Long.compare(id, entry.id);
+    }
+
+    private static NavigableSet<Entry> withoutId(NavigableSet<Entry> delta, Long id) {
+        NavigableSet<Entry> copy = new TreeSet<>(ENTRY_ORDER);
+        for (Entry entry : delta) {
+            if (entry.id != id) {
+                copy.add(entry);
+            }
+        }
+        return copy;
+    }
+
+    private static NavigableSet<Entry> emptyDelta() {
+        return Collections.unmodifiableNavigableSet(new TreeSet<>(ENTRY_ORDER));
+    }
+
+    private static Set<Long> withId(Set<Long> stale, Long id) {
+        Set<Long> copy = new HashSet<>(stale);
+        copy.add(id);
+        return copy;
+    }
+
+    private static String[] toKeys(List<Entry> entries) {
+        return entries.stream().map(entry -> entry.key).toArray(String[]::new);
+    }
+
+    private static long[] toIds(List<Entry> entries) {
+        return entries.stream().mapToLong(entry -> entry.id).toArray();
+    }
+
+    // ============== ESTRUCTURAS INTERNAS ==============
+
+    private static final class Entry {
+        private final String key;
+        private final long id;
+
+        private Entry(String key, long id) {
+            this.key = key;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Estado inmutable que leen las consultas
+     */
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new long[0],
+                emptyDelta(), Set.of());
+
+        private final String[] keys;
+        private final long[] ids;
+        private final NavigableSet<Entry> delta;
+        private final Set<Long> stale;
+
+        private Snapshot(String[] keys, long[] ids, NavigableSet<Entry> delta, Set<Long> stale) {
+            this.keys = keys;
+            this.ids = ids;
+            this.delta = delta;
+            this.stale = stale;
+        }
+    }
+
+}
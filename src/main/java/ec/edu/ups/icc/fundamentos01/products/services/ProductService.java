@@ -1,6 +1,8 @@
 package ec.edu.ups.icc.fundamentos01.products.services;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Slice;
@@ -10,6 +12,8 @@ import ec.edu.ups.icc.fundamentos01.products.dtos.CreateProductDto;
 import ec.edu.ups.icc.fundamentos01.products.dtos.UpdateProductDto;
 import ec.edu.ups.icc.fundamentos01.security.services.UserDetailsImpl;
 import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductSuggestionDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductChangesDto;
 
 public interface ProductService {
 
@@ -19,13 +23,21 @@ public interface ProductService {
 
         ProductResponseDto findById(Long id);
 
+        /**
+         * Autocompletado: top-N productos cuyo nombre tiene una palabra con el prefijo
+         */
+        List<ProductSuggestionDto> suggest(String prefix, int limit);
+
         List<ProductResponseDto> findByUserId(Long id);
 
         List<ProductResponseDto> findByCategoryId(Long id);
 
         // ProductResponseDto update(Long id, UpdateProductDto dto);
 
-        ProductResponseDto update(Long id, UpdateProductDto dto, UserDetailsImpl currentUser);
+        /**
+         * @param expectedVersion versión recibida en If-Match (null = sin precondición)
+         */
+        ProductResponseDto update(Long id, UpdateProductDto dto, Long expectedVersion, UserDetailsImpl currentUser);
 
         // void delete(Long id);
 
@@ -35,11 +47,36 @@ public interface ProductService {
 
         Slice<ProductResponseDto> findAllSlice(int page, int size, String[] sort);
 
+        /**
+         * createdFrom / createdTo (opcionales) acotan created_at a [createdFrom, createdTo);
+         * con products particionada solo se leen las particiones del rango
+         */
         Page<ProductResponseDto> findWithFilters(String name, Double minPrice, Double maxPrice, Long categoryId,
+                        LocalDateTime createdFrom, LocalDateTime createdTo,
                         int page,
                         int size, String[] sort);
 
+        /**
+         * Filtro por varias categorías: matchAll = todas, si no alguna
+         * Combinable con nombre y rango de precio
+         */
+        Page<ProductResponseDto> findWithCategories(String name, Double minPrice, Double maxPrice,
+                        Set<Long> categoryIds, boolean matchAll, int page, int size, String[] sort);
+
+        /**
+         * Búsqueda full-text (nombre + descripción) ordenada por relevancia,
+         * combinable con los filtros de precio y categoría
+         */
+        Page<ProductResponseDto> searchFullText(String query, Double minPrice, Double maxPrice, Long categoryId,
+                        int page, int size);
+
         Page<ProductResponseDto> findByUserIdWithFilters(Long userId, String name, Double minPrice, Double maxPrice,
                         Long categoryId, int page, int size, String[] sort);
 
+        /**
+         * Feed incremental: productos creados, modificados o eliminados después del token
+         * Sin token solo devuelve el token inicial (se toma antes de la copia completa)
+         */
+        ProductChangesDto findChanges(String since, int limit);
+
 }
@@ -1,36 +1,66 @@
 package ec.edu.ups.icc.fundamentos01.products.services;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
 import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
 import ec.edu.ups.icc.fundamentos01.categories.reporitory.CategoryRepository;
+import ec.edu.ups.icc.fundamentos01.core.bloom.UniquenessFilters;
+import ec.edu.ups.icc.fundamentos01.core.cache.CacheInvalidationBus;
+import ec.edu.ups.icc.fundamentos01.core.datasource.HedgedReads;
+import ec.edu.ups.icc.fundamentos01.core.sharding.ShardMerge;
+import ec.edu.ups.icc.fundamentos01.core.sharding.ShardRouter;
 import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.ConflictException;
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.GoneException;
 import ec.edu.ups.icc.fundamentos01.exceptions.domain.NotFoundException;
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.PreconditionFailedException;
 import ec.edu.ups.icc.fundamentos01.products.dtos.CreateProductDto;
 
 import ec.edu.ups.icc.fundamentos01.products.dtos.UpdateProductDto;
 import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
-
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductSuggestionDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductChangeDto;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductChangesDto;
+import ec.edu.ups.icc.fundamentos01.products.events.ProductChangedEvent;
 import ec.edu.ups.icc.fundamentos01.products.models.Product;
 import ec.edu.ups.icc.fundamentos01.products.models.ProductEntity;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductSearchEntity;
+import ec.edu.ups.icc.fundamentos01.products.readmodel.ProductReadModel;
 import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductSearchRepository;
+import ec.edu.ups.icc.fundamentos01.products.search.CategoryBitmapIndex;
+import ec.edu.ups.icc.fundamentos01.products.search.ProductSearchIndex;
+import ec.edu.ups.icc.fundamentos01.products.search.ProductSuggestIndex;
 import ec.edu.ups.icc.fundamentos01.security.services.UserDetailsImpl;
 import ec.edu.ups.icc.fundamentos01.users.models.UserEntity;
 import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
-import jakarta.transaction.Transactional;
 
 @Service
 public class ProductServiceImpl implements ProductService {
@@ -41,47 +71,124 @@ public class ProductServiceImpl implements ProductService {
 
     private final CategoryRepository categoryRepo;
 
+    private final UniquenessFilters uniquenessFilters;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Outbox + NOTIFY: las demás instancias invalidan sus cachés locales
+    private final CacheInvalidationBus cacheBus;
+    private final HedgedReads hedgedReads;
+    private final ShardRouter shardRouter;
+
+    // Solo disponible con products.search.engine=lucene
+    private final ObjectProvider<ProductSearchIndex> searchIndex;
+
+    private final ProductSuggestIndex suggestIndex;
+
+    private final CategoryBitmapIndex categoryIndex;
+
+    // Solo disponible con products.read-source=memory
+    private final ObjectProvider<ProductReadModel> readModel;
+
+    // products.read-source=search-table: /search y /userProduct sobre product_search
+    private final ProductSearchRepository searchTableRepo;
+    private final boolean useSearchTable;
+
+    // Propiedad del DTO → columna de product_search (Sort de consultas nativas)
+    private static final Map<String, String> SEARCH_TABLE_COLUMNS = Map.of(
+            "id", "product_id",
+            "name", "name",
+            "price", "price",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at",
+            "owner.name", "owner_name");
+
     public ProductServiceImpl(ProductRepository productRepo,
             UserRepository userRepo,
-            CategoryRepository categoryRepository) {
+            CategoryRepository categoryRepository,
+            UniquenessFilters uniquenessFilters,
+            ApplicationEventPublisher eventPublisher,
+            CacheInvalidationBus cacheBus,
+            HedgedReads hedgedReads,
+            ShardRouter shardRouter,
+            ObjectProvider<ProductSearchIndex> searchIndex,
+            ProductSuggestIndex suggestIndex,
+            CategoryBitmapIndex categoryIndex,
+            ObjectProvider<ProductReadModel> readModel,
+            ProductSearchRepository searchTableRepo,
+            @Value("${products.read-source:database}") String readSource) {
         this.productRepo = productRepo;
         this.categoryRepo = categoryRepository;
         this.userRepo = userRepo;
+        this.uniquenessFilters = uniquenessFilters;
+        this.eventPublisher = eventPublisher;
+        this.cacheBus = cacheBus;
+        this.hedgedReads = hedgedReads;
+        this.shardRouter = shardRouter;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.categoryIndex = categoryIndex;
+        this.readModel = readModel;
+        this.searchTableRepo = searchTableRepo;
+        this.useSearchTable = "search-table".equalsIgnoreCase(readSource);
     }
 
     @Override
+    @Transactional
     public ProductResponseDto create(CreateProductDto dto) {
+        // Sharding: toda la transacción va al shard del dueño (antes de la primera sentencia)
+        int shard = shardRouter.shardForOwner(dto.userId);
+        shardRouter.ensureReferences(shard, dto.userId, dto.categoryIds);
+        return shardRouter.onShard(shard, () -> createOnShard(dto));
+    }
+
+    private ProductResponseDto createOnShard(CreateProductDto dto) {
 
-        // 1. VALIDAR EXISTENCIA DE RELACIONES
-        UserEntity owner = userRepo.findById(dto.userId)
+        // 1. VALIDAR OWNER: solo se consulta el nombre (sin cargar roles EAGER)
+        String ownerName = userRepo.findNameById(dto.userId)
                 .orElseThrow(() -> new NotFoundException("Usuario no encontrado con ID: " + dto.userId));
+        UserEntity owner = userRepo.getReferenceById(dto.userId);
 
-        // 2. VALIDAR Y OBTENER CATEGORÍAS
+        // 2. VALIDAR Y OBTENER CATEGORÍAS (una sola consulta IN)
         Set<CategoryEntity> categories = validateAndGetCategories(dto.categoryIds);
 
         // Regla: nombre único
-        if (productRepo.findByName(dto.name).isPresent()) {
-            throw new IllegalStateException("El nombre del producto ya está registrado");
+        // El bloom filter evita la consulta cuando el nombre seguro no existe;
+        // si responde "tal vez", se confirma en BD para fallar rápido con 409
+        if (uniquenessFilters.productNames().exists(dto.name, productRepo::existsByName)) {
+            throw new ConflictException("El nombre del producto ya está registrado");
         }
 
-        // 2. CREAR MODELO DE DOMINIO
+        // 3. CREAR MODELO DE DOMINIO
         Product product = Product.fromDto(dto);
 
-        // 3. CONVERTIR A ENTIDAD CON RELACIONES
+        // 4. CONVERTIR A ENTIDAD CON RELACIONES
         ProductEntity entity = product.toEntity(owner, categories);
 
-        // 4. PERSISTIR
-        ProductEntity saved = productRepo.save(entity);
+        // 5. PERSISTIR
+        // El índice uk_products_name sigue garantizando la unicidad ante concurrencia
+        ProductEntity saved;
+        try {
+            saved = productRepo.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateIntegrityViolation(ex);
+        }
+        uniquenessFilters.productNames().put(saved.getName());
+        eventPublisher.publishEvent(ProductChangedEvent.created(saved, dto.userId));
+        cacheBus.record(CacheInvalidationBus.Entity.PRODUCT, saved.getId(), ProductChangedEvent.Type.CREATED);
 
-        // 5. CONVERTIR A DTO DE RESPUESTA
-        return toResponseDto(saved);
+        // 6. CONVERTIR A DTO DE RESPUESTA (sin inicializar el proxy del owner)
+        return toResponseDto(saved, ownerName);
     }
 
     @Override
     public List<ProductResponseDto> findAll() {
-        return productRepo.findAll()
+        return shardRouter.fanOut(() -> productRepo.findAll()
                 .stream()
                 .map(this::toResponseDto)
+                .toList())
+                .stream()
+                .flatMap(List::stream)
                 .toList();
     }
 
@@ -89,9 +196,121 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public ProductResponseDto findById(Long id) {
-        return productRepo.findById(id)
-                .map(this::toResponseDto)
-                .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
+        // Lectura con cobertura en el shard del id: el DTO se arma dentro del intento
+        ProductResponseDto product = shardRouter.readOnShard(shardRouter.shardForProduct(id),
+                () -> hedgedReads.read("products.findById", () -> productRepo.findById(id)
+                        .map(this::toResponseDto)
+                        .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id))));
+
+        // Popularidad para el ranking del autocompletado
+        suggestIndex.recordView(id);
+        return product;
+    }
+
+    @Override
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > 20) {
+            throw new BadRequestException("El límite debe estar entre 1 y 20");
+        }
+        // El índice se construye desde una sola base
+        if (shardRouter.isSharded()) {
+            throw new BadRequestException("El autocompletado no está disponible con sharding");
+        }
+
+        // Solo memoria: no consulta la BD
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    // ============== FEED DE CAMBIOS ==============
+
+    /**
+     * Una sola transacción de lectura: token purgado, cambios y estado actual
+     * salen de la misma conexión y snapshot (con réplica, del mismo servidor).
+     * Si no, un alta posterior al horizonte podía enviarse como DELETE
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProductChangesDto findChanges(String since, int limit) {
+        if (limit < 1 || limit > 1000) {
+            throw new BadRequestException("El límite debe estar entre 1 y 1000");
+        }
+        // Los tokens son txid de una sola base: con varios shards el feed quedaría incompleto
+        if (shardRouter.isSharded()) {
+            throw new BadRequestException("El feed de cambios no está disponible con sharding");
+        }
+
+        ProductChangesDto result = new ProductChangesDto();
+        result.changes = new ArrayList<>();
+
+        // Cliente nuevo: token de partida, luego copia completa con /paginated
+        if (since == null || since.isBlank()) {
+            result.nextToken = formatChangeToken(productRepo.currentChangeHorizon(), 0);
+            return result;
+        }
+
+        long[] token = parseChangeToken(since);
+        Object[] purged = productRepo.findPurgedChangeToken().get(0);
+        if (compareTokens(token[0], token[1], ((Number) purged[0]).longValue(), ((Number) purged[1]).longValue()) < 0) {
+            throw new GoneException("El token " + since + " ya no está disponible; "
+                    + "resincronice el catálogo completo e inicie con un token nuevo");
+        }
+
+        // limit + 1 para saber si hay más sin otra consulta
+        List<Object[]> rows = productRepo.findChangesAfter(token[0], token[1], limit + 1);
+        long horizon = ((Number) rows.get(0)[0]).longValue();
+
+        // Colapsa por producto: solo cuenta el último cambio de la página
+        Map<Long, String> lastChange = new LinkedHashMap<>();
+        long lastTx = token[0];
+        long lastSeq = token[1];
+        int consumed = 0;
+        for (Object[] row : rows) {
+            if (row[1] == null || consumed == limit) {
+                break;
+            }
+            Long productId = ((Number) row[3]).longValue();
+            lastChange.remove(productId);
+            lastChange.put(productId, (String) row[4]);
+            lastTx = ((Number) row[1]).longValue();
+            lastSeq = ((Number) row[2]).longValue();
+            consumed++;
+        }
+        result.hasMore = rows.size() > limit;
+
+        // Al día: todo lo anterior al horizonte ya se entregó
+        if (!result.hasMore && compareTokens(horizon, 0, lastTx, lastSeq) > 0) {
+            lastTx = horizon;
+            lastSeq = 0;
+        }
+        result.nextToken = formatChangeToken(lastTx, lastSeq);
+
+        // Estado actual de los productos (una consulta con owner y categorías)
+        Set<Long> upsertIds = new HashSet<>();
+        lastChange.forEach((productId, type) -> {
+            if ("UPSERT".equals(type)) {
+                upsertIds.add(productId);
+            }
+        });
+        Map<Long, ProductEntity> byId = new HashMap<>();
+        if (!upsertIds.isEmpty()) {
+            productRepo.findByIdIn(upsertIds).forEach(entity -> byId.put(entity.getId(), entity));
+        }
+
+        lastChange.forEach((productId, type) -> {
+            ProductChangeDto change = new ProductChangeDto();
+            change.productId = productId;
+            ProductEntity entity = byId.get(productId);
+            if (entity == null) {
+                // Eliminado después del cambio (su DELETE llega en esta u otra página)
+                change.type = "DELETE";
+            } else {
+                change.type = "UPSERT";
+                change.product = toResponseDto(entity);
+            }
+            result.changes.add(change);
+        });
+
+        return result;
     }
 
     @Override
@@ -102,10 +321,11 @@ public class ProductServiceImpl implements ProductService {
             throw new NotFoundException("Usuario no encontrado con ID: " + userId);
         }
 
-        return productRepo.findByOwnerId(userId)
+        // Todos los productos del dueño están en su shard
+        return shardRouter.readOnShard(shardRouter.shardForOwner(userId), () -> productRepo.findByOwnerId(userId)
                 .stream()
                 .map(this::toResponseDto)
-                .toList();
+                .toList());
     }
 
     @Override
@@ -116,48 +336,112 @@ public class ProductServiceImpl implements ProductService {
             throw new NotFoundException("Categoría no encontrada con ID: " + categoryId);
         }
 
-        return productRepo.findByCategoriesId(categoryId)
+        return shardRouter.fanOut(() -> productRepo.findByCategoriesId(categoryId)
                 .stream()
                 .map(this::toResponseDto)
+                .toList())
+                .stream()
+                .flatMap(List::stream)
                 .toList();
     }
 
     @Override
     @Transactional
-    public ProductResponseDto update(Long id, UpdateProductDto dto, UserDetailsImpl currentUser) {
+    public ProductResponseDto update(Long id, UpdateProductDto dto, Long expectedVersion,
+            UserDetailsImpl currentUser) {
+        int shard = shardRouter.shardForProduct(id);
+        shardRouter.ensureReferences(shard, null, dto.categoryIds);
+        return shardRouter.onShard(shard, () -> updateOnShard(id, dto, expectedVersion, currentUser));
+    }
 
-        // 1. BUSCAR PRODUCTO EXISTENTE
-        ProductEntity existing = productRepo.findById(id)
-                .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
+    private ProductResponseDto updateOnShard(Long id, UpdateProductDto dto, Long expectedVersion,
+            UserDetailsImpl currentUser) {
 
-        // 2. VALIDAR Y OBTENER CATEGORÍAS
-        Set<CategoryEntity> categories = validateAndGetCategories(dto.categoryIds);
+        // 1. VALIDAR REGLAS DE NEGOCIO USANDO DOMINIO
+        Product product = new Product(dto.name, dto.price, dto.description);
+
+        // 2. VALIDAR CATEGORÍAS (una sola consulta)
+        validateCategoryIds(dto.categoryIds);
+
+        // 3. UPDATE ÚNICO: ownership y versión se validan en el WHERE
+        boolean privileged = hasAnyRole(currentUser, "ROLE_ADMIN", "ROLE_MODERATOR");
+        int updated;
+        try {
+            updated = productRepo.updateIfOwned(id, product.getName(), product.getPrice(),
+                    product.getDescription(), LocalDateTime.now(), expectedVersion,
+                    currentUser.getId(), privileged);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateIntegrityViolation(ex);
+        }
 
-        // 3. ACTUALIZAR USANDO DOMINIO
-        Product product = Product.fromEntity(existing);
-        product.update(dto);
+        if (updated == 0) {
+            rejectWrite(id, currentUser);
+        }
+        uniquenessFilters.productNames().put(product.getName());
+
+        // 4. SINCRONIZAR CATEGORÍAS (solo cambian las filas distintas)
+        productRepo.replaceCategories(id, dto.categoryIds);
 
-        // 4. CONVERTIR A ENTIDAD MANTENIENDO OWNER ORIGINAL
-        ProductEntity updated = product.toEntity(existing.getOwner(), categories);
-        updated.setId(id); // Asegurar que mantiene el ID
+        // 5. RESPONDER CON EL ESTADO ACTUAL
+        ProductEntity current = productRepo.findById(id)
+                .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
+        eventPublisher.publishEvent(ProductChangedEvent.updated(current));
+        cacheBus.record(CacheInvalidationBus.Entity.PRODUCT, id, ProductChangedEvent.Type.UPDATED);
 
-        // 5. PERSISTIR Y RESPONDER
-        ProductEntity saved = productRepo.save(updated);
-        return toResponseDto(saved);
+        return toResponseDto(current);
     }
 
     @Override
     @Transactional
     public void delete(Long id, UserDetailsImpl currentUser) {
 
-        ProductEntity product = productRepo.findById(id)
-                .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
-
-        // Eliminación física (también se puede implementar lógica)
-        productRepo.delete(product);
+        // DELETE único (incluye product_categories) con ownership en el WHERE
+        boolean privileged = hasAnyRole(currentUser, "ROLE_ADMIN", "ROLE_MODERATOR");
+        shardRouter.onShard(shardRouter.shardForProduct(id), () -> {
+            int deleted = productRepo.deleteIfOwned(id, currentUser.getId(), privileged);
+            if (deleted == 0) {
+                rejectWrite(id, currentUser);
+            }
+            return null;
+        });
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+        cacheBus.record(CacheInvalidationBus.Entity.PRODUCT, id, ProductChangedEvent.Type.DELETED);
     }
 
     private ProductResponseDto toResponseDto(ProductEntity entity) {
+        return toResponseDto(entity, entity.getOwner().getName());
+    }
+
+    /**
+     * Fila de product_search → DTO (dueño y categorías ya vienen en la fila)
+     */
+    private ProductResponseDto toResponseDto(ProductSearchEntity row) {
+        ProductResponseDto dto = new ProductResponseDto();
+        dto.id = row.getProductId();
+        dto.name = row.getName();
+        dto.price = row.getPrice();
+        dto.description = row.getDescription();
+
+        ProductResponseDto.UserSummaryDto ownerDto = new ProductResponseDto.UserSummaryDto();
+        ownerDto.id = row.getUserId();
+        ownerDto.name = row.getOwnerName();
+
+        List<CategoryResponseDto> categoryDtos = new ArrayList<>();
+        Long[] categoryIds = row.getCategoryIds();
+        String[] categoryNames = row.getCategoryNames();
+        for (int i = 0; i < categoryIds.length; i++) {
+            CategoryResponseDto categoryDto = new CategoryResponseDto();
+            categoryDto.id = categoryIds[i];
+            categoryDto.name = categoryNames[i];
+            categoryDtos.add(categoryDto);
+        }
+        dto.user = ownerDto;
+        dto.categories = categoryDtos;
+        dto.version = row.getVersion();
+        return dto;
+    }
+
+    private ProductResponseDto toResponseDto(ProductEntity entity, String ownerName) {
         ProductResponseDto dto = new ProductResponseDto();
         dto.id = entity.getId();
         dto.name = entity.getName();
@@ -166,7 +450,7 @@ public class ProductServiceImpl implements ProductService {
 
         ProductResponseDto.UserSummaryDto ownerDto = new ProductResponseDto.UserSummaryDto();
         ownerDto.id = entity.getOwner().getId();
-        ownerDto.name = entity.getOwner().getName();
+        ownerDto.name = ownerName;
 
         List<CategoryResponseDto> categoryDtos = new ArrayList<>();
         for (CategoryEntity categoryEntity : entity.getCategories()) {
@@ -177,25 +461,67 @@ public class ProductServiceImpl implements ProductService {
         }
         dto.user = ownerDto;
         dto.categories = categoryDtos;
+        dto.version = entity.getVersion();
         return dto;
 
     }
 
+    /**
+     * Valida que todas las categorías existan con una sola consulta IN
+     */
+    private void validateCategoryIds(Set<Long> categoryIds) {
+        Set<Long> missingIds = new HashSet<>(categoryIds);
+        categoryRepo.findExistingIds(categoryIds).forEach(missingIds::remove);
+
+        if (!missingIds.isEmpty()) {
+            throw new NotFoundException("Categorías no encontradas: " + missingIds);
+        }
+    }
+
     private Set<CategoryEntity> validateAndGetCategories(Set<Long> categoryIds) {
-        Set<CategoryEntity> categories = new HashSet<>();
+        Set<CategoryEntity> categories = new HashSet<>(categoryRepo.findAllById(categoryIds));
 
-        for (Long categoryId : categoryIds) {
-            CategoryEntity category = categoryRepo.findById(categoryId)
-                    .orElseThrow(() -> new NotFoundException("Categoría no encontrada: " + categoryId));
-            categories.add(category);
+        if (categories.size() != categoryIds.size()) {
+            Set<Long> missingIds = new HashSet<>(categoryIds);
+            categories.forEach(category -> missingIds.remove(category.getId()));
+            throw new NotFoundException("Categorías no encontradas: " + missingIds);
         }
 
         return categories;
     }
 
+    /**
+     * Traduce la violación del índice único de nombre a ConflictException (409)
+     */
+    private RuntimeException translateIntegrityViolation(DataIntegrityViolationException ex) {
+        String constraintName = null;
+        if (ex.getCause() instanceof ConstraintViolationException violation) {
+            constraintName = violation.getConstraintName();
+        }
+
+        String message = String.valueOf(ex.getMostSpecificCause().getMessage());
+        if (ProductEntity.UNIQUE_NAME_CONSTRAINT.equalsIgnoreCase(constraintName)
+                || message.contains(ProductEntity.UNIQUE_NAME_CONSTRAINT)) {
+            return new ConflictException("El nombre del producto ya está registrado");
+        }
+
+        return ex;
+    }
+
     @Override
     public Page<ProductResponseDto> findAllPaginado(int page, int size, String[] sort) {
         Pageable pageable = createPageable(page, size, sort);
+
+        // Modelo de lectura en memoria: sin JDBC
+        ProductReadModel model = readModel.getIfAvailable();
+        if (model != null && model.canServe(pageable.getSort())) {
+            return model.query(null, null, null, null, null, pageable);
+        }
+
+        if (shardRouter.isSharded()) {
+            return fanOutPage(pageable, productRepo::findAll);
+        }
+
         Page<ProductEntity> productPage = productRepo.findAll(pageable);
 
         return productPage.map(this::toResponseDto);
@@ -252,6 +578,35 @@ public class ProductServiceImpl implements ProductService {
         return allowedProperties.contains(property);
     }
 
+    /**
+     * Token del feed: "txId.seq"
+     */
+    private long[] parseChangeToken(String token) {
+        String[] parts = token.trim().split("\\.");
+        try {
+            if (parts.length != 2) {
+                throw new NumberFormatException();
+            }
+            long txId = Long.parseLong(parts[0]);
+            long seq = Long.parseLong(parts[1]);
+            if (txId < 0 || seq < 0) {
+                throw new NumberFormatException();
+            }
+            return new long[] { txId, seq };
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Token de cambios inválido: " + token);
+        }
+    }
+
+    private String formatChangeToken(long txId, long seq) {
+        return txId + "." + seq;
+    }
+
+    private int compareTokens(long txA, long seqA, long txB, long seqB) {
+        int byTx = Long.compare(txA, txB);
+        return byTx != 0 ? byTx : Long.compare(seqA, seqB);
+    }
+
     private void validateFilterParameters(Double minPrice, Double maxPrice) {
         if (minPrice != null && minPrice < 0) {
             throw new BadRequestException("El precio mínimo no puede ser negativo");
@@ -269,6 +624,13 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public Slice<ProductResponseDto> findAllSlice(int page, int size, String[] sort) {
         Pageable pageable = createPageable(page, size, sort);
+
+        // Con sharding hace falta el COUNT de cada shard para saber si hay más
+        if (shardRouter.isSharded()) {
+            Page<ProductResponseDto> merged = fanOutPage(pageable, productRepo::findAll);
+            return new SliceImpl<>(merged.getContent(), pageable, merged.hasNext());
+        }
+
         Slice<ProductEntity> productSlice = productRepo.findBy(pageable);
 
         return productSlice.map(this::toResponseDto);
@@ -276,16 +638,114 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Page<ProductResponseDto> findWithFilters(String name, Double minPrice, Double maxPrice, Long categoryId,
-            int page, int size, String[] sort) {
+            LocalDateTime createdFrom, LocalDateTime createdTo, int page, int size, String[] sort) {
         // Validaciones de filtros (del tema 09)
         validateFilterParameters(minPrice, maxPrice);
 
         // Crear Pageable
         Pageable pageable = createPageable(page, size, sort);
 
-        // Consulta con filtros y paginación
-        Page<ProductEntity> productPage = productRepo.findWithFilters(
-                name, minPrice, maxPrice, categoryId, pageable);
+        // Rango de fechas: directo a products (partition pruning por created_at)
+        if (createdFrom != null || createdTo != null) {
+            LocalDateTime from = createdFrom != null ? createdFrom : CREATED_MIN;
+            LocalDateTime to = createdTo != null ? createdTo : CREATED_MAX;
+            if (!from.isBefore(to)) {
+                throw new BadRequestException("createdFrom debe ser anterior a createdTo");
+            }
+            if (shardRouter.isSharded()) {
+                return fanOutPage(pageable, shardPageable -> productRepo.findWithFiltersCreatedBetween(
+                        name, minPrice, maxPrice, categoryId, from, to, shardPageable));
+            }
+            return hedgedReads.read("products.search", () -> productRepo
+                    .findWithFiltersCreatedBetween(name, minPrice, maxPrice, categoryId, from, to, pageable)
+                    .map(this::toResponseDto));
+        }
+
+        // Modelo de lectura en memoria: filtros, orden y paginación sin JDBC
+        ProductReadModel model = readModel.getIfAvailable();
+        if (model != null && model.canServe(pageable.getSort())) {
+            return model.query(name, minPrice, maxPrice, categoryId, null, pageable);
+        }
+
+        // Motor Lucene: el índice resuelve filtros y orden; la BD solo hidrata la página
+        ProductSearchIndex index = searchIndex.getIfAvailable();
+        if (index != null && index.canServe(pageable.getSort())) {
+            return hydrate(index.search(name, minPrice, maxPrice, categoryId, null, pageable), pageable);
+        }
+
+        // Tabla desnormalizada: una sola tabla, sin JOIN en la consulta ni en el COUNT
+        Pageable searchTablePageable = toSearchTablePageable(pageable);
+        if (searchTablePageable != null) {
+            return hedgedReads.read("products.search", () -> searchTableRepo
+                    .findWithFilters(name, minPrice, maxPrice, categoryId, searchTablePageable)
+                    .map(this::toResponseDto));
+        }
+
+        // Consulta global: en paralelo en cada shard y mezcla por la clave de orden
+        if (shardRouter.isSharded()) {
+            return fanOutPage(pageable,
+                    shardPageable -> productRepo.findWithFilters(name, minPrice, maxPrice, categoryId, shardPageable));
+        }
+
+        // Consulta con filtros y paginación (con cobertura ante sentencias lentas)
+        return hedgedReads.read("products.search", () -> productRepo
+                .findWithFilters(name, minPrice, maxPrice, categoryId, pageable)
+                .map(this::toResponseDto));
+    }
+
+    @Override
+    public Page<ProductResponseDto> findWithCategories(String name, Double minPrice, Double maxPrice,
+            Set<Long> categoryIds, boolean matchAll, int page, int size, String[] sort) {
+        validateFilterParameters(minPrice, maxPrice);
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            throw new BadRequestException("Debe indicar al menos una categoría");
+        }
+
+        Pageable pageable = createPageable(page, size, sort);
+
+        // El índice de bitmaps solo conoce el shard 0: todo en SQL en cada shard
+        if (shardRouter.isSharded()) {
+            return fanOutPage(pageable, shardPageable -> productRepo.findWithCategoryFilters(name, minPrice,
+                    maxPrice, categoryIds, matchAll, categoryIds.size(), shardPageable));
+        }
+
+        // 1. Categorías (AND/OR de bitmaps) + rango de precio en memoria
+        List<Long> candidateIds = categoryIndex.match(categoryIds, matchAll, minPrice, maxPrice);
+
+        Page<ProductEntity> productPage;
+        if (candidateIds == null) {
+            // Índice no disponible o demasiados candidatos → todo en SQL
+            productPage = productRepo.findWithCategoryFilters(name, minPrice, maxPrice,
+                    categoryIds, matchAll, categoryIds.size(), pageable);
+        } else if (candidateIds.isEmpty()) {
+            return Page.empty(pageable);
+        } else {
+            // 2. La BD solo filtra por nombre, ordena y pagina sobre los ids
+            productPage = productRepo.findPageByIdIn(candidateIds, name, pageable);
+        }
+
+        return productPage.map(this::toResponseDto);
+    }
+
+    @Override
+    public Page<ProductResponseDto> searchFullText(String query, Double minPrice, Double maxPrice,
+            Long categoryId, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("El texto de búsqueda es obligatorio en modo fulltext");
+        }
+
+        validateFilterParameters(minPrice, maxPrice);
+
+        // ts_rank_cd no se devuelve: no hay clave para mezclar las páginas de cada shard
+        if (shardRouter.isSharded()) {
+            throw new BadRequestException("La búsqueda fulltext no está disponible con sharding");
+        }
+
+        // Sin Sort: el orden lo define la relevancia (ts_rank_cd) en la consulta
+        Pageable pageable = PageRequest.of(page, size);
+
+        Page<ProductEntity> productPage = productRepo.searchFullText(
+                query.trim(), minPrice, maxPrice, categoryId, pageable);
 
         return productPage.map(this::toResponseDto);
     }
@@ -304,11 +764,132 @@ public class ProductServiceImpl implements ProductService {
         // 3. Crear Pageable
         Pageable pageable = createPageable(page, size, sort);
 
-        // 4. Consulta con filtros y paginación
-        Page<ProductEntity> productPage = productRepo.findByUserIdWithFilters(
-                userId, name, minPrice, maxPrice, categoryId, pageable);
+        ProductReadModel model = readModel.getIfAvailable();
+        if (model != null && model.canServe(pageable.getSort())) {
+            return model.query(name, minPrice, maxPrice, categoryId, userId, pageable);
+        }
 
-        return productPage.map(this::toResponseDto);
+        ProductSearchIndex index = searchIndex.getIfAvailable();
+        if (index != null && index.canServe(pageable.getSort())) {
+            return hydrate(index.search(name, minPrice, maxPrice, categoryId, userId, pageable), pageable);
+        }
+
+        Pageable searchTablePageable = toSearchTablePageable(pageable);
+        if (searchTablePageable != null) {
+            return searchTableRepo.findByUserIdWithFilters(userId, name, minPrice, maxPrice, categoryId,
+                    searchTablePageable).map(this::toResponseDto);
+        }
+
+        // 4. Consulta con filtros y paginación (solo en el shard del dueño)
+        return shardRouter.readOnShard(shardRouter.shardForOwner(userId), () -> productRepo
+                .findByUserIdWithFilters(userId, name, minPrice, maxPrice, categoryId, pageable)
+                .map(this::toResponseDto));
+    }
+
+    // Límites para un rango de fechas abierto por un lado
+    private static final LocalDateTime CREATED_MIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime CREATED_MAX = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    // ============== SHARDING ==============
+
+    // Claves de orden para mezclar páginas de varios shards (propiedades de isValidSortProperty)
+    private static final Map<String, Function<ProductEntity, Comparable<?>>> SHARD_SORT_KEYS = Map.of(
+            "id", ProductEntity::getId,
+            "name", ProductEntity::getName,
+            "price", ProductEntity::getPrice,
+            "createdAt", ProductEntity::getCreatedAt,
+            "updatedAt", ProductEntity::getUpdatedAt,
+            "owner.name", entity -> entity.getOwner().getName(),
+            "owner.email", entity -> entity.getOwner().getEmail());
+
+    /**
+     * Página global sobre todos los shards
+     * Cada shard devuelve sus primeras offset + size filas (con id como desempate),
+     * la mezcla k-way salta offset y toma size; el total es la suma de los COUNT.
+     * category.name no se puede mezclar: un producto tiene varias categorías
+     */
+    private Page<ProductResponseDto> fanOutPage(Pageable pageable, Function<Pageable, Page<ProductEntity>> query) {
+        List<Sort.Order> orders = new ArrayList<>(pageable.getSort().toList());
+        if (orders.stream().noneMatch(order -> order.getProperty().equals("id"))) {
+            orders.add(Sort.Order.asc("id"));
+        }
+
+        boolean[] descending = new boolean[orders.size()];
+        List<Function<ProductEntity, Comparable<?>>> keys = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Function<ProductEntity, Comparable<?>> key = SHARD_SORT_KEYS.get(orders.get(i).getProperty());
+            if (key == null) {
+                throw new BadRequestException(
+                        "Ordenamiento no disponible con sharding: " + orders.get(i).getProperty());
+            }
+            keys.add(key);
+            descending[i] = orders.get(i).isDescending();
+        }
+
+        Pageable shardPageable = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(),
+                Sort.by(orders));
+        List<ShardPage> shardPages = shardRouter.fanOut(() -> {
+            Page<ProductEntity> shardPage = query.apply(shardPageable);
+            List<ShardMerge.Row<ProductResponseDto>> rows = new ArrayList<>(shardPage.getNumberOfElements());
+            for (ProductEntity entity : shardPage) {
+                Comparable<?>[] values = new Comparable<?>[keys.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = keys.get(i).apply(entity);
+                }
+                rows.add(new ShardMerge.Row<>(values, toResponseDto(entity)));
+            }
+            return new ShardPage(shardPage.getTotalElements(), rows);
+        });
+
+        long total = shardPages.stream().mapToLong(ShardPage::total).sum();
+        List<ProductResponseDto> content = ShardMerge.merge(
+                shardPages.stream().map(ShardPage::rows).toList(),
+                descending, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private record ShardPage(long total, List<ShardMerge.Row<ProductResponseDto>> rows) {
+    }
+
+    /**
+     * Traduce el Sort a columnas de product_search
+     * Retorna null si la tabla no está activa o el orden no se puede resolver
+     * en ella (owner.email, category.name) → consulta normal
+     */
+    private Pageable toSearchTablePageable(Pageable pageable) {
+        if (!useSearchTable) {
+            return null;
+        }
+
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            String column = SEARCH_TABLE_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                return null;
+            }
+            orders.add(new Sort.Order(order.getDirection(), column));
+        }
+        // Desempate estable entre páginas
+        orders.add(Sort.Order.asc("product_id"));
+
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders));
+    }
+
+    /**
+     * Carga por PK los productos de la página (una consulta con owner y categorías)
+     * y los devuelve en el orden que definió el índice
+     */
+    private Page<ProductResponseDto> hydrate(ProductSearchIndex.Hits hits, Pageable pageable) {
+        Map<Long, ProductEntity> byId = new HashMap<>();
+        productRepo.findByIdIn(hits.getIds()).forEach(entity -> byId.put(entity.getId(), entity));
+
+        List<ProductResponseDto> content = hits.getIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull) // eliminado entre la búsqueda y la hidratación
+                .map(this::toResponseDto)
+                .toList();
+
+        return new PageImpl<>(content, pageable, hits.getTotal());
     }
 
     // ============== MÉTODOS DE VALIDACIÓN Y UTILIDADES ==============
@@ -321,18 +902,18 @@ public class ProductServiceImpl implements ProductService {
      * 2. Si tiene ROLE_MODERATOR → Puede modificar cualquier producto
      * 3. Si es ROLE_USER → Solo puede modificar sus propios productos
      * 
-     * @param product Producto a validar
+     * @param ownerId ID del dueño del producto
      * @param currentUser Usuario autenticado (del JWT)
      * @throws AccessDeniedException si no tiene permisos
      */
-    private void validateOwnership(ProductEntity product, UserDetailsImpl currentUser) {
+    private void validateOwnership(Long ownerId, UserDetailsImpl currentUser) {
         // ADMIN y MODERATOR pueden modificar cualquier producto
         if (hasAnyRole(currentUser, "ROLE_ADMIN", "ROLE_MODERATOR")) {
             return;  // ← Pasa la validación automáticamente
         }
 
         // USER solo puede modificar sus propios productos
-        if (!product.getOwner().getId().equals(currentUser.getId())) {
+        if (!ownerId.equals(currentUser.getId())) {
             // ← Lanza excepción que será capturada por GlobalExceptionHandler
             throw new AccessDeniedException("No puedes modificar productos ajenos");
         }
@@ -340,6 +921,23 @@ public class ProductServiceImpl implements ProductService {
         // Si llega aquí, es el dueño → Pasa la validación
     }
 
+    /**
+     * Diagnostica por qué un UPDATE/DELETE con ownership afectó 0 filas
+     * 
+     * Solo se ejecuta en el caso de error (una consulta adicional):
+     * 1. El producto no existe → 404
+     * 2. El usuario no es dueño ni privilegiado → 403
+     * 3. En otro caso la versión no coincidió → 412
+     */
+    private void rejectWrite(Long id, UserDetailsImpl currentUser) {
+        Long ownerId = productRepo.findOwnerIdById(id)
+                .orElseThrow(() -> new NotFoundException("Producto no encontrado con ID: " + id));
+
+        validateOwnership(ownerId, currentUser);
+
+        throw new PreconditionFailedException("El producto fue modificado por otra petición");
+    }
+
     /**
      * Verifica si el usuario tiene alguno de los roles especificados
      * 
@@ -0,0 +1,107 @@
+package ec.edu.ups.icc.fundamentos01.security.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "login-guard")
+public class LoginGuardProperties {
+
+    // false: sin bloqueo por intentos fallidos (el hash sigue en su propio pool)
+    private boolean enabled = true;
+
+    // Fallos por email admitidos en cada ventana; después se rechaza sin calcular BCrypt
+    private int emailMaxFailures = 5;
+    private Duration emailWindow = Duration.ofMinutes(5);
+
+    // Fallos por IP (cubre probar muchos emails desde un mismo origen)
+    private int ipMaxFailures = 30;
+    private Duration ipWindow = Duration.ofMinutes(5);
+
+    // Emails + IPs recordados a la vez (16 bytes cada uno); los más antiguos se reciclan
+    private int capacity = 1 << 18;
+
+    // Hilos que calculan BCrypt (~100 ms de CPU por login)
+    private int hashThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    // Logins esperando hilo; con la cola llena → 503
+    private int queueCapacity = 64;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    // Getters y Setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getEmailMaxFailures() {
+        return emailMaxFailures;
+    }
+
+    public void setEmailMaxFailures(int emailMaxFailures) {
+        this.emailMaxFailures = emailMaxFailures;
+    }
+
+    public Duration getEmailWindow() {
+        return emailWindow;
+    }
+
+    public void setEmailWindow(Duration emailWindow) {
+        this.emailWindow = emailWindow;
+    }
+
+    public int getIpMaxFailures() {
+        return ipMaxFailures;
+    }
+
+    public void setIpMaxFailures(int ipMaxFailures) {
+        this.ipMaxFailures = ipMaxFailures;
+    }
+
+    public Duration getIpWindow() {
+        return ipWindow;
+    }
+
+    public void setIpWindow(Duration ipWindow) {
+        this.ipWindow = ipWindow;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getHashThreads() {
+        return hashThreads;
+    }
+
+    public void setHashThreads(int hashThreads) {
+        this.hashThreads = hashThreads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
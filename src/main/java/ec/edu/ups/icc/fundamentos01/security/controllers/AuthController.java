@@ -1,5 +1,8 @@
 package ec.edu.ups.icc.fundamentos01.security.controllers;
 
+import java.util.concurrent.CompletableFuture;
+
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,12 +26,16 @@ public class AuthController {
     /**
      * Login - Endpoint público (configurado en SecurityConfig)
      * POST /auth/login
+     *
+     * Asíncrono: BCrypt corre en el pool de LoginGuard y Spring MVC completa
+     * la respuesta cuando termina (la IP limita los intentos fallidos por origen)
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest) {
+    public CompletableFuture<ResponseEntity<AuthResponseDto>> login(@Valid @RequestBody LoginRequestDto loginRequest,
+            HttpServletRequest request) {
         // @Valid valida anotaciones en LoginRequestDto (email, password requeridos)
-        AuthResponseDto response = authService.login(loginRequest);
-        return ResponseEntity.ok(response); // 200 OK con JWT
+        return authService.login(loginRequest, request.getRemoteAddr())
+                .thenApply(ResponseEntity::ok); // 200 OK con JWT
     }
 
     /**
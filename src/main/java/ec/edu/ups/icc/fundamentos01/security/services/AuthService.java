@@ -3,11 +3,12 @@ package ec.edu.ups.icc.fundamentos01.security.services;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import ec.edu.ups.icc.fundamentos01.core.bloom.UniquenessFilters;
+import ec.edu.ups.icc.fundamentos01.core.cache.CacheInvalidationBus;
 import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
 import ec.edu.ups.icc.fundamentos01.exceptions.domain.ConflictException;
 import ec.edu.ups.icc.fundamentos01.security.dtos.AuthResponseDto;
@@ -22,6 +23,7 @@ import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,25 +35,41 @@ public class AuthService {
     private final RoleRepository roleRepository;               // Gestión de roles
     private final PasswordEncoder passwordEncoder;             // Hash de passwords
     private final JwtUtil jwtUtil;                            // Generación de tokens
+    private final UniquenessFilters uniquenessFilters;        // Bloom filter de emails
+    private final CacheInvalidationBus cacheBus;              // Aviso a otras instancias
+    private final LoginGuard loginGuard;                      // Fallos recientes + pool de BCrypt
 
     public AuthService(AuthenticationManager authenticationManager,
                        UserRepository userRepository,
                        RoleRepository roleRepository,
                        PasswordEncoder passwordEncoder,
-                       JwtUtil jwtUtil) {
+                       JwtUtil jwtUtil,
+                       UniquenessFilters uniquenessFilters,
+                       CacheInvalidationBus cacheBus,
+                       LoginGuard loginGuard) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.uniquenessFilters = uniquenessFilters;
+        this.cacheBus = cacheBus;
+        this.loginGuard = loginGuard;
     }
 
     /**
      * Login: Valida credenciales y retorna JWT
+     *
+     * LoginGuard rechaza (429) emails o IPs con demasiados fallos recientes
+     * antes de tocar la base o BCrypt; el resto se valida en su pool de hash
+     * y el hilo del request queda libre mientras tanto
      */
-    @Transactional(readOnly = true) // Solo lectura, no modifica BD
-    public AuthResponseDto login(LoginRequestDto loginRequest) {
-        
+    public CompletableFuture<AuthResponseDto> login(LoginRequestDto loginRequest, String clientIp) {
+        return loginGuard.attempt(loginRequest.getEmail(), clientIp, () -> authenticate(loginRequest));
+    }
+
+    private AuthResponseDto authenticate(LoginRequestDto loginRequest) {
+
         // 1. Validar email y password con Spring Security
         // authenticationManager usa UserDetailsService internamente
         // Si falla: lanza BadCredentialsException → 401
@@ -62,14 +80,12 @@ public class AuthService {
             )
         );
 
-        // 2. Establecer usuario autenticado en contexto de seguridad
-        // Permite acceso a usuario actual en servicios
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-
-        // 3. Generar JWT con datos del usuario
+        // 2. Generar JWT con datos del usuario
+        // No se guarda en el SecurityContext: la API es stateless y este hilo
+        // es del pool de hash (el contexto quedaría para el siguiente login)
         String jwt = jwtUtil.generateToken(authentication);
 
-        // 4. Extraer información del usuario autenticado
+        // 3. Extraer información del usuario autenticado
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
         // Convertir authorities a Set<String> para la respuesta
@@ -77,7 +93,7 @@ public class AuthService {
             .map(item -> item.getAuthority()) // "ROLE_USER", "ROLE_ADMIN"
             .collect(Collectors.toSet());
 
-        // 5. Retornar JWT + datos del usuario
+        // 4. Retornar JWT + datos del usuario
         return new AuthResponseDto(
             jwt,                      // Token para autenticación
             userDetails.getId(),      // ID del usuario
@@ -94,8 +110,9 @@ public class AuthService {
     public AuthResponseDto register(RegisterRequestDto registerRequest) {
         
         // 1. Validar que email no exista
+        // El bloom filter omite la consulta si el email seguro no está registrado
         // Si existe: lanza ConflictException → 409
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
+        if (uniquenessFilters.userEmails().exists(registerRequest.getEmail(), userRepository::existsByEmail)) {
             throw new ConflictException("El email ya está registrado");
         }
 
@@ -117,6 +134,8 @@ public class AuthService {
 
         // 4. Guardar en BD (INSERT)
         user = userRepository.save(user);
+        uniquenessFilters.userEmails().put(user.getEmail());
+        cacheBus.record(CacheInvalidationBus.Entity.USER, user.getId());
 
         // 5. Generar JWT automáticamente para login directo
         // No requiere que el usuario haga login después de registrarse
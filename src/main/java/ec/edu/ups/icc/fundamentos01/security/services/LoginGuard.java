@@ -0,0 +1,166 @@
+package ec.edu.ups.icc.fundamentos01.security.services;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import ec.edu.ups.icc.fundamentos01.core.ratelimit.TokenBucketStore;
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.ServiceUnavailableException;
+import ec.edu.ups.icc.fundamentos01.exceptions.domain.TooManyRequestsException;
+import ec.edu.ups.icc.fundamentos01.security.config.LoginGuardProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Protección del login frente a ráfagas de credenciales (credential stuffing)
+ *
+ * Cada login cuesta ~100 ms de CPU en BCrypt. Antes de calcularlo:
+ * - Los fallos recientes por email y por IP se cuentan en un TokenBucketStore
+ *   (memoria fija, los fallos caducan solos): email-max-failures fallos por
+ *   email-window y lo mismo por IP. Cada intento reserva un fallo en ambas
+ *   claves antes de empezar (una ráfaga concurrente contra un email no pasa
+ *   de email-max-failures intentos en curso); una clave agotada se rechaza
+ *   con 429 sin llegar a la base ni a BCrypt
+ * - El intento corre en un pool propio de hash-threads hilos con cola acotada:
+ *   el hilo del request queda libre y los logins nunca ocupan más núcleos que
+ *   los del pool. Cola llena → 503
+ *
+ * Un login correcto borra los fallos de su email y devuelve la reserva de la
+ * IP (sin borrar sus fallos: entrar en una cuenta propia no debe rehabilitar
+ * una IP que prueba cuentas ajenas). Si el intento no llega a comprobar la
+ * contraseña (pool lleno, error de la base) se devuelven ambas reservas
+ *
+ * Métrica: login.guard.rejected (tag reason = email | ip | saturated)
+ */
+@Component
+public class LoginGuard {
+
+    private final LoginGuardProperties properties;
+    private final TokenBucketStore failures;
+    private final ThreadPoolExecutor hashExecutor;
+
+    private final long emailEmission;
+    private final long emailTolerance;
+    private final long ipEmission;
+    private final long ipTolerance;
+
+    // nanoTime puede ser negativo; el almacén necesita instantes > 0
+    private final long origin = System.nanoTime() - 1;
+
+    private final Counter rejectedEmail;
+    private final Counter rejectedIp;
+    private final Counter rejectedSaturated;
+
+    public LoginGuard(LoginGuardProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.failures = new TokenBucketStore(properties.getCapacity(), 16);
+
+        this.emailEmission = properties.getEmailWindow().toNanos() / Math.max(1, properties.getEmailMaxFailures());
+        this.emailTolerance = emailEmission * (Math.max(1, properties.getEmailMaxFailures()) - 1);
+        this.ipEmission = properties.getIpWindow().toNanos() / Math.max(1, properties.getIpMaxFailures());
+        this.ipTolerance = ipEmission * (Math.max(1, properties.getIpMaxFailures()) - 1);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashExecutor = new ThreadPoolExecutor(
+                properties.getHashThreads(), properties.getHashThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.rejectedEmail = rejectedCounter(meterRegistry, "email");
+        this.rejectedIp = rejectedCounter(meterRegistry, "ip");
+        this.rejectedSaturated = rejectedCounter(meterRegistry, "saturated");
+    }
+
+    /**
+     * Ejecuta el intento de login (authenticate + JWT) en el pool de hash
+     *
+     * @throws TooManyRequestsException    si el email o la IP acumulan demasiados fallos
+     * @throws ServiceUnavailableException si el pool y su cola están llenos
+     */
+    public <T> CompletableFuture<T> attempt(String email, String clientIp, Supplier<T> login) {
+        long emailKey = TokenBucketStore.hash64("email|" + email.trim().toLowerCase(Locale.ROOT));
+        long ipKey = TokenBucketStore.hash64("ip|" + clientIp);
+
+        boolean guarded = properties.isEnabled();
+        if (guarded) {
+            // Se reserva el fallo antes del intento: cuenta aunque aún no haya terminado
+            long now = now();
+            long emailWait = failures.tryConsume(emailKey, now, emailEmission, emailTolerance);
+            if (emailWait > 0) {
+                rejectedEmail.increment();
+                throw tooManyFailures(emailWait);
+            }
+            long ipWait = failures.tryConsume(ipKey, now, ipEmission, ipTolerance);
+            if (ipWait > 0) {
+                failures.refund(emailKey, emailEmission);
+                rejectedIp.increment();
+                throw tooManyFailures(ipWait);
+            }
+        }
+
+        CompletableFuture<T> result;
+        try {
+            result = CompletableFuture.supplyAsync(login, hashExecutor);
+        } catch (RejectedExecutionException ex) {
+            if (guarded) {
+                refund(emailKey, ipKey);
+            }
+            rejectedSaturated.increment();
+            throw new ServiceUnavailableException("Demasiados inicios de sesión en curso",
+                    Math.max(1, properties.getRetryAfter().toSeconds()));
+        }
+
+        if (!guarded) {
+            return result;
+        }
+        return result.whenComplete((value, ex) -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause == null) {
+                failures.reset(emailKey);
+                failures.refund(ipKey, ipEmission);
+            } else if (!(cause instanceof AuthenticationException)) {
+                // No llegó a decidir si la contraseña era correcta
+                refund(emailKey, ipKey);
+            }
+        });
+    }
+
+    private void refund(long emailKey, long ipKey) {
+        failures.refund(emailKey, emailEmission);
+        failures.refund(ipKey, ipEmission);
+    }
+
+    private long now() {
+        return System.nanoTime() - origin;
+    }
+
+    private static TooManyRequestsException tooManyFailures(long waitNanos) {
+        long seconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        return new TooManyRequestsException(
+                "Demasiados intentos fallidos. Reintente en " + seconds + " s", seconds);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("login.guard.rejected").tag("reason", reason).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,28 @@
+package ec.edu.ups.icc.fundamentos01.users.events;
+
+/**
+ * Evento publicado cuando cambia el nombre de un usuario
+ *
+ * Lo publica UserServiceImpl dentro de la transacción (los consumidores lo
+ * reciben AFTER_COMMIT) y CacheInvalidationBus al recibir una invalidación
+ * USER de otra instancia. Las cachés que guardan el nombre del dueño de un
+ * producto (ProductReadModel) se actualizan con él
+ */
+public class UserRenamedEvent {
+
+    private final Long userId;
+    private final String name;
+
+    public UserRenamedEvent(Long userId, String name) {
+        this.userId = userId;
+        this.name = name;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -1,11 +1,20 @@
 package ec.edu.ups.icc.fundamentos01.users.repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ec.edu.ups.icc.fundamentos01.users.models.UserEntity;
+import jakarta.persistence.QueryHint;
 
 @Repository
+@Transactional(readOnly = true)
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
      // ============== MÉTODOS EXISTENTES ==============
@@ -20,4 +29,17 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     // Verificar si email ya está registrado (usado en registro)
     boolean existsByEmail(String email);
 
+    // Verificar existencia y obtener solo el nombre (sin cargar roles EAGER)
+    @Query("SELECT u.name FROM UserEntity u WHERE u.id = :id")
+    Optional<String> findNameById(@Param("id") Long id);
+
+    // Pares [id, nombre] de los usuarios que tienen productos (modelo de lectura)
+    @Query("SELECT u.id, u.name FROM UserEntity u WHERE u.id IN (SELECT p.owner.id FROM ProductEntity p)")
+    List<Object[]> findOwnerIdsAndNames();
+
+    // Recorre todos los emails en streaming (usado para construir el bloom filter)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT u.email FROM UserEntity u")
+    Stream<String> streamAllEmails();
+
 }
\ No newline at end of file
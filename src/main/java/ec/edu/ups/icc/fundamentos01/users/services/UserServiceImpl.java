@@ -2,11 +2,18 @@ package ec.edu.ups.icc.fundamentos01.users.services;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import jakarta.transaction.Transactional;
+
 import ec.edu.ups.icc.fundamentos01.categories.dtos.CategoryResponseDto;
+import ec.edu.ups.icc.fundamentos01.core.bloom.UniquenessFilters;
+import ec.edu.ups.icc.fundamentos01.core.cache.CacheInvalidationBus;
 import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
 import ec.edu.ups.icc.fundamentos01.exceptions.domain.BadRequestException;
 import ec.edu.ups.icc.fundamentos01.exceptions.domain.NotFoundException;
@@ -18,6 +25,7 @@ import ec.edu.ups.icc.fundamentos01.users.dtos.CreateUserDto;
 import ec.edu.ups.icc.fundamentos01.users.dtos.PartialUpdateUserDto;
 import ec.edu.ups.icc.fundamentos01.users.dtos.UpdateUserDto;
 import ec.edu.ups.icc.fundamentos01.users.dtos.UserResponseDto;
+import ec.edu.ups.icc.fundamentos01.users.events.UserRenamedEvent;
 import ec.edu.ups.icc.fundamentos01.users.mappers.UserMapper;
 import ec.edu.ups.icc.fundamentos01.users.models.User;
 import ec.edu.ups.icc.fundamentos01.users.models.UserEntity;
@@ -27,10 +35,20 @@ import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepo;
     private final ProductRepository productRepo;
-
-    public UserServiceImpl(UserRepository userRepo, ProductRepository productRepo) {
+    private final UniquenessFilters uniquenessFilters;
+    private final CacheInvalidationBus cacheBus;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserServiceImpl(UserRepository userRepo, ProductRepository productRepo,
+            UniquenessFilters uniquenessFilters, CacheInvalidationBus cacheBus,
+            PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher) {
         this.userRepo = userRepo;
         this.productRepo = productRepo;
+        this.uniquenessFilters = uniquenessFilters;
+        this.cacheBus = cacheBus;
+        this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -51,80 +69,80 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserResponseDto create(CreateUserDto dto) {
 
         // Regla: email único
-        if (userRepo.findByEmail(dto.email).isPresent()) {
+        // El bloom filter omite la consulta si el email seguro no está registrado
+        if (uniquenessFilters.userEmails().exists(dto.email, userRepo::existsByEmail)) {
             throw new IllegalStateException("El email ya está registrado");
         }
 
         User user = UserMapper.fromCreateDto(dto);
 
         UserEntity saved = userRepo.save(user.toEntity());
+        recordEmail(saved);
 
         return UserMapper.toResponse(User.fromEntity(saved));
 
     }
 
     @Override
+    @Transactional
     public UserResponseDto update(int id, UpdateUserDto dto) {
 
-        return userRepo.findById((long) id)
-                // Entity → Domain
-                .map(User::fromEntity)
-
-                // Aplicar cambios permitidos en el dominio
-                .map(u -> u.update(dto))
-
-                // Domain → Entity
-                .map(User::toEntity)
+        // Entidad gestionada: conserva id y version (bloqueo optimista)
+        UserEntity entity = userRepo.findById((long) id)
+                .orElseThrow(() -> new IllegalStateException("Usuario no encontrado"));
 
-                // Persistencia
-                .map(userRepo::save)
+        // Aplicar cambios permitidos en el dominio
+        User user = User.fromEntity(entity).update(dto);
 
-                // Entity → Domain
-                .map(User::fromEntity)
+        // Copiar al entity; el UPDATE se emite al confirmar la transacción
+        rename(entity, user.getName());
+        entity.setEmail(user.getEmail());
 
-                // Domain → DTO
-                .map(UserMapper::toResponse)
+        // Registrar el email (puede haber cambiado) en el bloom filter
+        recordEmail(entity);
 
-                // Error controlado si no existe
-                .orElseThrow(() -> new IllegalStateException("Usuario no encontrado"));
+        return UserMapper.toResponse(User.fromEntity(entity));
     }
 
     @Override
+    @Transactional
     public UserResponseDto partialUpdate(int id, PartialUpdateUserDto dto) {
 
-        return userRepo.findById((long) id)
-                // Entity → Domain
-                .map(User::fromEntity)
-
-                // Aplicar solo los cambios presentes
-                .map(user -> user.partialUpdate(dto))
-
-                // Domain → Entity
-                .map(User::toEntity)
+        // Entidad gestionada: conserva id y version (bloqueo optimista)
+        UserEntity entity = userRepo.findById((long) id)
+                .orElseThrow(() -> new IllegalStateException("Usuario no encontrado"));
 
-                // Persistencia
-                .map(userRepo::save)
+        // Aplicar solo los cambios presentes
+        User user = User.fromEntity(entity).partialUpdate(dto);
 
-                // Entity → Domain
-                .map(User::fromEntity)
+        rename(entity, user.getName());
+        entity.setEmail(user.getEmail());
+        if (dto.password != null) {
+            // Hash del password con BCrypt (nunca almacenar en texto plano)
+            entity.setPassword(passwordEncoder.encode(dto.password));
+        }
 
-                // Domain → DTO
-                .map(UserMapper::toResponse)
+        // Registrar el email (puede haber cambiado) en el bloom filter
+        recordEmail(entity);
 
-                // Error si no existe
-                .orElseThrow(() -> new IllegalStateException("Usuario no encontrado"));
+        return UserMapper.toResponse(User.fromEntity(entity));
     }
 
     @Override
+    @Transactional
     public void delete(int id) {
 
         // Verifica existencia y elimina
         userRepo.findById((long) id)
                 .ifPresentOrElse(
-                        userRepo::delete,
+                        user -> {
+                            userRepo.delete(user);
+                            cacheBus.record(CacheInvalidationBus.Entity.USER, user.getId());
+                        },
                         () -> {
                             throw new IllegalStateException("Usuario no encontrado");
                         });
@@ -195,6 +213,26 @@ public class UserServiceImpl implements UserService {
 
     // ============== MÉTODO HELPER ==============
 
+    /**
+     * Cambia el nombre y, si es distinto, avisa a las cachés de nombres de dueño
+     * (se entrega al confirmar; otras instancias lo reciben por la invalidación USER)
+     */
+    private void rename(UserEntity entity, String name) {
+        if (!Objects.equals(entity.getName(), name)) {
+            entity.setName(name);
+            eventPublisher.publishEvent(new UserRenamedEvent(entity.getId(), name));
+        }
+    }
+
+    /**
+     * Registra el email en el bloom filter local y avisa a las demás instancias
+     */
+    private UserEntity recordEmail(UserEntity entity) {
+        uniquenessFilters.userEmails().put(entity.getEmail());
+        cacheBus.record(CacheInvalidationBus.Entity.USER, entity.getId());
+        return entity;
+    }
+
     /**
      * Convierte ProductEntity a ProductResponseDto
      * NOTA: Este método podría estar en un mapper separado para mejor organización
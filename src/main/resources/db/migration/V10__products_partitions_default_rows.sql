@@ -0,0 +1,32 @@
+-- ============== V10: PARTICIONES NUEVAS CON FILAS EN products_pdefault ==============
+-- Redefine products_ensure_partitions (V7). CREATE TABLE ... PARTITION OF falla
+-- si products_pdefault ya tiene filas de ese mes (reloj adelantado, created_at
+-- importado o retroactivo), y ProductPartitionMaintenance la llama al arrancar.
+-- Ese mes se omite con un WARNING: sus filas siguen en products_pdefault (las
+-- consultas son correctas, solo sin pruning) y la aplicación avisa en el log
+-- hasta que se muevan a mano.
+
+-- Crea las particiones mensuales que falten entre from_month y from_month + months
+CREATE OR REPLACE FUNCTION products_ensure_partitions(from_month DATE, months INT) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    month          DATE := date_trunc('month', from_month)::DATE;
+    partition_name TEXT;
+    created        INT := 0;
+BEGIN
+    FOR i IN 0..months LOOP
+        partition_name := format('products_p%s', to_char(month, 'YYYYMM'));
+        IF to_regclass(partition_name) IS NULL THEN
+            BEGIN
+                EXECUTE format('CREATE TABLE %I PARTITION OF products FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, month, (month + INTERVAL '1 month')::DATE);
+                created := created + 1;
+            EXCEPTION WHEN check_violation THEN
+                RAISE WARNING 'products_pdefault tiene filas de %: no se crea %', to_char(month, 'YYYY-MM'), partition_name;
+            END;
+        END IF;
+        month := (month + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN created;
+END;
+$$;
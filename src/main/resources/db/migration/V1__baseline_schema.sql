@@ -0,0 +1,68 @@
+-- ============== V1: ESQUEMA BASE ==============
+-- Equivalente al esquema que generaba ddl-auto: update a partir de las entidades.
+-- En bases existentes Flyway marca esta versión como baseline y no la ejecuta.
+
+-- ============== ROLES ==============
+CREATE TABLE roles (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    deleted     BOOLEAN NOT NULL DEFAULT FALSE,
+    version     BIGINT NOT NULL DEFAULT 0,
+    name        VARCHAR(50) NOT NULL,
+    description VARCHAR(200),
+    CONSTRAINT uk_roles_name UNIQUE (name),
+    CONSTRAINT ck_roles_name CHECK (name IN ('ROLE_USER', 'ROLE_ADMIN', 'ROLE_MODERATOR'))
+);
+
+-- ============== USUARIOS ==============
+CREATE TABLE users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    deleted     BOOLEAN NOT NULL DEFAULT FALSE,
+    version     BIGINT NOT NULL DEFAULT 0,
+    name        VARCHAR(150) NOT NULL,
+    email       VARCHAR(150) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    role_id BIGINT NOT NULL REFERENCES roles (id),
+    PRIMARY KEY (user_id, role_id)
+);
+
+-- ============== CATEGORÍAS ==============
+CREATE TABLE categories (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    deleted     BOOLEAN NOT NULL DEFAULT FALSE,
+    version     BIGINT NOT NULL DEFAULT 0,
+    name        VARCHAR(120) NOT NULL,
+    description VARCHAR(500),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+-- ============== PRODUCTOS ==============
+CREATE TABLE products (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    deleted     BOOLEAN NOT NULL DEFAULT FALSE,
+    version     BIGINT NOT NULL DEFAULT 0,
+    name        VARCHAR(150) NOT NULL,
+    price       DOUBLE PRECISION NOT NULL,
+    description VARCHAR(500),
+    user_id     BIGINT NOT NULL REFERENCES users (id),
+    CONSTRAINT uk_products_name UNIQUE (name)
+);
+
+-- La PK (product_id, category_id) es la que usa ON CONFLICT en replaceCategories
+CREATE TABLE product_categories (
+    product_id  BIGINT NOT NULL REFERENCES products (id),
+    category_id BIGINT NOT NULL REFERENCES categories (id),
+    PRIMARY KEY (product_id, category_id)
+);
@@ -0,0 +1,42 @@
+-- ============== V2: ÍNDICES PARA LAS CONSULTAS DE LOS REPOSITORIOS ==============
+-- Cada índice indica la consulta (y el orden) que atiende.
+-- Las PK y los UNIQUE de V1 ya cubren: findById, findOwnerIdById, updateIfOwned,
+-- deleteIfOwned (products_pkey), findByName / existsByName (uk_products_name),
+-- findByEmail / existsByEmail (uk_users_email), findByCategoriesName (uk_categories_name)
+-- y las categorías de un producto (product_categories_pkey).
+
+-- findByOwnerId, findByOwnerIdWithFilters, findByUserIdWithFilters
+-- (filtro por dueño + orden por defecto createdAt; se recorre en ambos sentidos)
+CREATE INDEX idx_products_user_created
+    ON products (user_id, created_at DESC, id);
+
+-- findByCategoriesId y el filtro categoryId de /search (EXISTS por categoría)
+-- La PK empieza por product_id, así que no sirve para buscar por categoría
+CREATE INDEX idx_product_categories_category
+    ON product_categories (category_id, product_id);
+
+-- /search, /slice y /paginated ordenados por createdAt (sort por defecto de /search)
+-- id como desempate para un orden estable entre páginas
+CREATE INDEX idx_products_created
+    ON products (created_at DESC, id);
+
+-- Filtros minPrice / maxPrice y sort=price
+CREATE INDEX idx_products_price
+    ON products (price);
+
+-- findByOwnerName (igualdad sobre users.name)
+CREATE INDEX idx_users_name
+    ON users (name);
+
+-- CategoryRepository.findByNameIgnoreCase → Spring Data genera upper(name) = upper(?)
+CREATE INDEX idx_categories_upper_name
+    ON categories (UPPER(name));
+
+-- FK user_roles.role_id (la PK empieza por user_id)
+CREATE INDEX idx_user_roles_role
+    ON user_roles (role_id);
+
+ANALYZE products;
+ANALYZE product_categories;
+ANALYZE users;
+ANALYZE categories;
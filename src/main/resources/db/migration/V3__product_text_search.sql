@@ -0,0 +1,28 @@
+-- ============== V3: BÚSQUEDA POR SUBCADENA (TRIGRAMAS) Y FULL-TEXT ==============
+
+-- pg_trgm: índices GIN que sirven para LIKE '%texto%' (comodín al inicio)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- findWithFilters / findByUserIdWithFilters: LOWER(p.name) LIKE LOWER('%' || ? || '%')
+CREATE INDEX idx_products_name_trgm
+    ON products USING gin (LOWER(name) gin_trgm_ops);
+
+-- findByOwnerNameContaining: LOWER(o.name) LIKE LOWER('%' || ? || '%')
+CREATE INDEX idx_users_name_trgm
+    ON users USING gin (LOWER(name) gin_trgm_ops);
+
+-- Documento de búsqueda: nombre (peso A) + descripción (peso B), en español
+-- Columna generada: PostgreSQL la mantiene en cada INSERT/UPDATE; no se mapea en la entidad
+ALTER TABLE products
+    ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('spanish', COALESCE(name, '')), 'A') ||
+        setweight(to_tsvector('spanish', COALESCE(description, '')), 'B')
+    ) STORED;
+
+-- searchFullText: search_vector @@ websearch_to_tsquery('spanish', ?)
+CREATE INDEX idx_products_search_vector
+    ON products USING gin (search_vector);
+
+ANALYZE products;
+ANALYZE users;
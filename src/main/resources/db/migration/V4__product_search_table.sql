@@ -0,0 +1,174 @@
+-- ============== V4: TABLA DE BÚSQUEDA DESNORMALIZADA ==============
+-- /search y /userProduct/{userId} unían products + users + product_categories
+-- en cada consulta (y otra vez en el COUNT). product_search guarda una fila por
+-- producto con el nombre del dueño y las categorías como arreglos, de modo que
+-- filtro, orden, página y conteo se resuelven con índices de una sola tabla.
+--
+-- Se mantiene de forma incremental con triggers en la misma transacción que la
+-- escritura (no hay REFRESH ni ventana de datos desactualizados).
+
+CREATE TABLE product_search (
+    product_id     BIGINT PRIMARY KEY REFERENCES products (id) ON DELETE CASCADE,
+    user_id        BIGINT NOT NULL,
+    owner_name     VARCHAR(150) NOT NULL,
+    name           VARCHAR(150) NOT NULL,
+    lower_name     VARCHAR(150) NOT NULL,
+    price          DOUBLE PRECISION NOT NULL,
+    description    VARCHAR(500),
+    category_ids   BIGINT[] NOT NULL DEFAULT '{}',
+    category_names VARCHAR(120)[] NOT NULL DEFAULT '{}',
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6),
+    version        BIGINT NOT NULL DEFAULT 0
+);
+
+-- ============== RECÁLCULO DE UNA FILA ==============
+-- category_ids y category_names van alineados (mismo orden por category_id)
+CREATE FUNCTION product_search_refresh(p_product_id BIGINT) RETURNS VOID
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO product_search (product_id, user_id, owner_name, name, lower_name, price,
+                                description, category_ids, category_names,
+                                created_at, updated_at, version)
+    SELECT p.id, p.user_id, u.name, p.name, LOWER(p.name), p.price, p.description,
+           ARRAY(SELECT pc.category_id FROM product_categories pc
+                 WHERE pc.product_id = p.id ORDER BY pc.category_id),
+           ARRAY(SELECT c.name FROM product_categories pc
+                 JOIN categories c ON c.id = pc.category_id
+                 WHERE pc.product_id = p.id ORDER BY pc.category_id),
+           p.created_at, p.updated_at, p.version
+    FROM products p
+    JOIN users u ON u.id = p.user_id
+    WHERE p.id = p_product_id
+    ON CONFLICT (product_id) DO UPDATE SET
+        user_id        = EXCLUDED.user_id,
+        owner_name     = EXCLUDED.owner_name,
+        name           = EXCLUDED.name,
+        lower_name     = EXCLUDED.lower_name,
+        price          = EXCLUDED.price,
+        description    = EXCLUDED.description,
+        category_ids   = EXCLUDED.category_ids,
+        category_names = EXCLUDED.category_names,
+        created_at     = EXCLUDED.created_at,
+        updated_at     = EXCLUDED.updated_at,
+        version        = EXCLUDED.version;
+END;
+$$;
+
+-- ============== TRIGGERS ==============
+
+-- Alta / edición de producto (la eliminación la cubre ON DELETE CASCADE)
+CREATE FUNCTION product_search_on_product() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM product_search_refresh(NEW.id);
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_product_search_product
+    AFTER INSERT OR UPDATE ON products
+    FOR EACH ROW EXECUTE FUNCTION product_search_on_product();
+
+-- Categorías de un producto: por sentencia, una sola vez por producto afectado
+-- (replaceCategories inserta/borra varias filas en una sentencia)
+CREATE FUNCTION product_search_on_categories_inserted() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM product_search_refresh(product_id)
+    FROM (SELECT DISTINCT product_id FROM inserted_rows) changed;
+    RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION product_search_on_categories_deleted() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM product_search_refresh(product_id)
+    FROM (SELECT DISTINCT product_id FROM deleted_rows) changed;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_product_search_categories_insert
+    AFTER INSERT ON product_categories
+    REFERENCING NEW TABLE AS inserted_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_search_on_categories_inserted();
+
+CREATE TRIGGER trg_product_search_categories_delete
+    AFTER DELETE ON product_categories
+    REFERENCING OLD TABLE AS deleted_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_search_on_categories_deleted();
+
+-- Cambio de nombre del dueño
+CREATE FUNCTION product_search_on_user() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE product_search SET owner_name = NEW.name WHERE user_id = NEW.id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_product_search_user
+    AFTER UPDATE OF name ON users
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION product_search_on_user();
+
+-- Cambio de nombre de una categoría (localiza los productos con el índice GIN)
+CREATE FUNCTION product_search_on_category() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM product_search_refresh(product_id)
+    FROM product_search
+    WHERE category_ids @> ARRAY[NEW.id];
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_product_search_category
+    AFTER UPDATE OF name ON categories
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION product_search_on_category();
+
+-- ============== CARGA INICIAL ==============
+INSERT INTO product_search (product_id, user_id, owner_name, name, lower_name, price,
+                            description, category_ids, category_names,
+                            created_at, updated_at, version)
+SELECT p.id, p.user_id, u.name, p.name, LOWER(p.name), p.price, p.description,
+       COALESCE(cats.ids, '{}'), COALESCE(cats.names, '{}'),
+       p.created_at, p.updated_at, p.version
+FROM products p
+JOIN users u ON u.id = p.user_id
+LEFT JOIN (
+    SELECT pc.product_id,
+           array_agg(pc.category_id ORDER BY pc.category_id) AS ids,
+           array_agg(c.name ORDER BY pc.category_id) AS names
+    FROM product_categories pc
+    JOIN categories c ON c.id = pc.category_id
+    GROUP BY pc.product_id
+) cats ON cats.product_id = p.id;
+
+-- ============== ÍNDICES ==============
+
+-- Filtro categoryId: category_ids @> ARRAY[?]
+CREATE INDEX idx_product_search_categories
+    ON product_search USING gin (category_ids);
+
+-- Filtro name: lower_name LIKE '%texto%'
+CREATE INDEX idx_product_search_name_trgm
+    ON product_search USING gin (lower_name gin_trgm_ops);
+
+-- /userProduct/{userId}: dueño + orden por defecto createdAt;
+-- también lo usa el trigger de cambio de nombre del dueño
+CREATE INDEX idx_product_search_user_created
+    ON product_search (user_id, created_at DESC, product_id);
+
+-- /search ordenado por createdAt (sort por defecto)
+CREATE INDEX idx_product_search_created
+    ON product_search (created_at DESC, product_id);
+
+-- Filtros minPrice / maxPrice y sort=price
+CREATE INDEX idx_product_search_price
+    ON product_search (price);
+
+ANALYZE product_search;
@@ -0,0 +1,112 @@
+-- ============== V5: REGISTRO DE CAMBIOS PARA SINCRONIZACIÓN INCREMENTAL ==============
+-- GET /api/products/changes?since=<token> lee esta tabla en lugar de recorrer
+-- el catálogo completo. Cada escritura deja una fila (UPSERT o DELETE) con el
+-- id de la transacción que la hizo.
+--
+-- Token = (tx_id, seq). Solo se entregan filas de transacciones anteriores a
+-- txid_snapshot_xmin(): todas ya terminaron, así que ninguna fila nueva puede
+-- aparecer "detrás" de un token entregado (una secuencia sola no basta:
+-- una transacción lenta puede confirmar un seq menor después de uno mayor).
+
+CREATE TABLE product_changes (
+    seq         BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    tx_id       BIGINT NOT NULL DEFAULT txid_current(),
+    product_id  BIGINT NOT NULL,
+    change_type VARCHAR(10) NOT NULL,
+    changed_at  TIMESTAMP(6) NOT NULL DEFAULT now(),
+    CONSTRAINT ck_product_changes_type CHECK (change_type IN ('UPSERT', 'DELETE'))
+);
+
+-- Lectura del feed: (tx_id, seq) > token ORDER BY tx_id, seq
+CREATE INDEX idx_product_changes_token
+    ON product_changes (tx_id, seq);
+
+-- Purga por antigüedad
+CREATE INDEX idx_product_changes_changed_at
+    ON product_changes (changed_at);
+
+-- Token más alto purgado: un cliente con un token anterior debe resincronizar
+CREATE TABLE product_change_horizon (
+    id     SMALLINT PRIMARY KEY DEFAULT 1,
+    tx_id  BIGINT NOT NULL,
+    seq    BIGINT NOT NULL,
+    CONSTRAINT ck_product_change_horizon_single CHECK (id = 1)
+);
+
+INSERT INTO product_change_horizon (id, tx_id, seq) VALUES (1, 0, 0);
+
+-- ============== TRIGGERS ==============
+
+CREATE FUNCTION product_changes_on_product() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO product_changes (product_id, change_type) VALUES (OLD.id, 'DELETE');
+    ELSE
+        INSERT INTO product_changes (product_id, change_type) VALUES (NEW.id, 'UPSERT');
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_product_changes_product
+    AFTER INSERT OR UPDATE OR DELETE ON products
+    FOR EACH ROW EXECUTE FUNCTION product_changes_on_product();
+
+-- Categorías de un producto: una fila por producto afectado y sentencia
+CREATE FUNCTION product_changes_on_categories_inserted() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO product_changes (product_id, change_type)
+    SELECT DISTINCT product_id, 'UPSERT' FROM inserted_rows;
+    RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION product_changes_on_categories_deleted() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO product_changes (product_id, change_type)
+    SELECT DISTINCT product_id, 'UPSERT' FROM deleted_rows;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_product_changes_categories_insert
+    AFTER INSERT ON product_categories
+    REFERENCING NEW TABLE AS inserted_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_changes_on_categories_inserted();
+
+CREATE TRIGGER trg_product_changes_categories_delete
+    AFTER DELETE ON product_categories
+    REFERENCING OLD TABLE AS deleted_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_changes_on_categories_deleted();
+
+-- El DTO incluye el nombre del dueño y de las categorías
+CREATE FUNCTION product_changes_on_user() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO product_changes (product_id, change_type)
+    SELECT p.id, 'UPSERT' FROM products p WHERE p.user_id = NEW.id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_product_changes_user
+    AFTER UPDATE OF name ON users
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION product_changes_on_user();
+
+CREATE FUNCTION product_changes_on_category() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO product_changes (product_id, change_type)
+    SELECT pc.product_id, 'UPSERT' FROM product_categories pc WHERE pc.category_id = NEW.id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_product_changes_category
+    AFTER UPDATE OF name ON categories
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION product_changes_on_category();
@@ -0,0 +1,32 @@
+-- ============== V6: BUS DE INVALIDACIÓN DE CACHÉS ENTRE INSTANCIAS ==============
+-- Cada escritura de productos, categorías o usuarios registra aquí una fila en
+-- la misma transacción (outbox). El trigger emite NOTIFY, que PostgreSQL solo
+-- entrega al confirmar: las demás instancias (LISTEN cache_invalidation)
+-- invalidan sus cachés locales. Si una instancia pierde la conexión, al
+-- reconectar recorre las filas recientes (catch-up) por created_at.
+
+CREATE TABLE cache_invalidations (
+    seq         BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    entity      VARCHAR(20) NOT NULL,
+    entity_id   BIGINT NOT NULL,
+    origin      VARCHAR(64) NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL DEFAULT now(),
+    CONSTRAINT ck_cache_invalidations_entity CHECK (entity IN ('PRODUCT', 'CATEGORY', 'USER'))
+);
+
+-- Catch-up tras reconexión y purga por antigüedad
+CREATE INDEX idx_cache_invalidations_created
+    ON cache_invalidations (created_at);
+
+-- Payload: ENTIDAD:id:origen (origen = instancia que escribió, se ignora a sí misma)
+CREATE FUNCTION cache_invalidations_notify() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM pg_notify('cache_invalidation', NEW.entity || ':' || NEW.entity_id || ':' || NEW.origin);
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_cache_invalidations_notify
+    AFTER INSERT ON cache_invalidations
+    FOR EACH ROW EXECUTE FUNCTION cache_invalidations_notify();
@@ -0,0 +1,183 @@
+-- ============== V7: PARTICIONADO DE PRODUCTS POR created_at (OPCIONAL) ==============
+-- Esta migración solo crea las funciones; la conversión la ejecuta
+-- ProductPartitionMaintenance al arrancar con products.partitioning.enabled=true.
+--
+-- products pasa a ser una tabla particionada por rango mensual de created_at
+-- (products_pYYYYMM + products_pdefault). Las consultas con rango de fechas
+-- solo recorren las particiones del rango (partition pruning); el resto sigue
+-- funcionando igual sobre todas las particiones.
+--
+-- Restricciones de PostgreSQL y cómo se compensan:
+-- - La PK debe incluir la clave de partición → PRIMARY KEY (id, created_at).
+--   El id sigue siendo único por la secuencia, y la entidad JPA no cambia
+-- - Ninguna FK puede apuntar a products(id) → product_categories y
+--   product_search pierden su FK: un trigger valida product_id al insertar
+--   y el borrado de un producto limpia ambas tablas (antes ON DELETE CASCADE)
+-- - Un UNIQUE debe incluir la clave de partición → la unicidad global del
+--   nombre pasa a la tabla product_names, con la misma restricción
+--   uk_products_name (el servicio sigue traduciéndola a 409)
+
+-- ============== CREACIÓN DE PARTICIONES ==============
+
+-- Crea las particiones mensuales que falten entre from_month y from_month + months
+CREATE FUNCTION products_ensure_partitions(from_month DATE, months INT) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    month          DATE := date_trunc('month', from_month)::DATE;
+    partition_name TEXT;
+    created        INT := 0;
+BEGIN
+    FOR i IN 0..months LOOP
+        partition_name := format('products_p%s', to_char(month, 'YYYYMM'));
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF products FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month, (month + INTERVAL '1 month')::DATE);
+            created := created + 1;
+        END IF;
+        month := (month + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+-- ============== INTEGRIDAD SIN FK ==============
+
+-- Sustituye a la FK product_categories.product_id → products.id
+CREATE FUNCTION product_categories_check_product() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    missing BIGINT;
+BEGIN
+    SELECT n.product_id INTO missing
+    FROM new_rows n
+    WHERE NOT EXISTS (SELECT 1 FROM products p WHERE p.id = n.product_id)
+    LIMIT 1;
+    IF missing IS NOT NULL THEN
+        RAISE EXCEPTION 'product_categories: no existe el producto %', missing
+            USING ERRCODE = 'foreign_key_violation';
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+-- Sustituye a los ON DELETE CASCADE y al UNIQUE (name) de products
+CREATE FUNCTION products_partitioned_integrity() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO product_names (name, product_id) VALUES (NEW.name, NEW.id);
+    ELSIF TG_OP = 'UPDATE' THEN
+        IF NEW.name IS DISTINCT FROM OLD.name THEN
+            DELETE FROM product_names WHERE name = OLD.name AND product_id = OLD.id;
+            INSERT INTO product_names (name, product_id) VALUES (NEW.name, NEW.id);
+        END IF;
+    ELSE
+        DELETE FROM product_names WHERE name = OLD.name AND product_id = OLD.id;
+        DELETE FROM product_categories WHERE product_id = OLD.id;
+        DELETE FROM product_search WHERE product_id = OLD.id;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+-- ============== CONVERSIÓN ==============
+
+-- Una sola transacción con products bloqueada; devuelve las particiones creadas
+CREATE FUNCTION products_partition_by_created_at(months_ahead INT) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    old_sequence  TEXT := pg_get_serial_sequence('products', 'id');
+    seq_increment BIGINT;
+    seq_last      BIGINT;
+    seq_called    BOOLEAN;
+    first_month   DATE;
+    months_back   INT;
+    created       INT;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'products'::regclass) THEN
+        RETURN 0;
+    END IF;
+
+    LOCK TABLE products IN ACCESS EXCLUSIVE MODE;
+
+    -- La clave de partición no admite NULL
+    UPDATE products SET created_at = COALESCE(updated_at, LOCALTIMESTAMP) WHERE created_at IS NULL;
+
+    -- Se conserva el estado de la secuencia (con sharding: incremento n e id % n = shard)
+    SELECT seqincrement INTO seq_increment FROM pg_sequence WHERE seqrelid = old_sequence::regclass;
+    EXECUTE format('SELECT last_value, is_called FROM %s', old_sequence) INTO seq_last, seq_called;
+
+    ALTER TABLE products RENAME TO products_unpartitioned;
+    EXECUTE format('ALTER SEQUENCE %s RENAME TO products_unpartitioned_id_seq', old_sequence);
+
+    EXECUTE format('CREATE SEQUENCE products_id_seq INCREMENT BY %s', seq_increment);
+    PERFORM setval('products_id_seq', seq_last, seq_called);
+
+    CREATE TABLE products (
+        id          BIGINT NOT NULL DEFAULT nextval('products_id_seq'),
+        created_at  TIMESTAMP(6) NOT NULL,
+        updated_at  TIMESTAMP(6),
+        deleted     BOOLEAN NOT NULL DEFAULT FALSE,
+        version     BIGINT NOT NULL DEFAULT 0,
+        name        VARCHAR(150) NOT NULL,
+        price       DOUBLE PRECISION NOT NULL,
+        description VARCHAR(500),
+        user_id     BIGINT NOT NULL REFERENCES users (id),
+        search_vector tsvector
+            GENERATED ALWAYS AS (
+                setweight(to_tsvector('spanish', COALESCE(name, '')), 'A') ||
+                setweight(to_tsvector('spanish', COALESCE(description, '')), 'B')
+            ) STORED
+    ) PARTITION BY RANGE (created_at);
+    ALTER SEQUENCE products_id_seq OWNED BY products.id;
+
+    -- Particiones desde el producto más antiguo hasta months_ahead meses en el futuro
+    SELECT date_trunc('month', COALESCE(MIN(created_at), LOCALTIMESTAMP))::DATE
+    INTO first_month FROM products_unpartitioned;
+    months_back := (EXTRACT(YEAR FROM age(date_trunc('month', LOCALTIMESTAMP), first_month)) * 12
+                    + EXTRACT(MONTH FROM age(date_trunc('month', LOCALTIMESTAMP), first_month)))::INT;
+    created := products_ensure_partitions(first_month, months_back + months_ahead);
+    CREATE TABLE products_pdefault PARTITION OF products DEFAULT;
+
+    INSERT INTO products (id, created_at, updated_at, deleted, version, name, price, description, user_id)
+    SELECT id, created_at, updated_at, deleted, version, name, price, description, user_id
+    FROM products_unpartitioned;
+
+    -- CASCADE quita las FK de product_categories y product_search hacia la tabla vieja
+    DROP TABLE products_unpartitioned CASCADE;
+
+    -- ============== CLAVES E ÍNDICES (se propagan a cada partición) ==============
+    ALTER TABLE products ADD CONSTRAINT products_pkey PRIMARY KEY (id, created_at);
+    CREATE INDEX idx_products_user_created ON products (user_id, created_at DESC, id);
+    CREATE INDEX idx_products_created ON products (created_at DESC, id);
+    CREATE INDEX idx_products_price ON products (price);
+    CREATE INDEX idx_products_name ON products (name);
+    CREATE INDEX idx_products_name_trgm ON products USING gin (LOWER(name) gin_trgm_ops);
+    CREATE INDEX idx_products_search_vector ON products USING gin (search_vector);
+
+    CREATE TABLE product_names (
+        name       VARCHAR(150) NOT NULL,
+        product_id BIGINT NOT NULL,
+        CONSTRAINT uk_products_name PRIMARY KEY (name)
+    );
+    INSERT INTO product_names (name, product_id) SELECT name, id FROM products;
+
+    -- ============== TRIGGERS ==============
+    CREATE TRIGGER trg_products_partitioned_integrity
+        AFTER INSERT OR UPDATE OR DELETE ON products
+        FOR EACH ROW EXECUTE FUNCTION products_partitioned_integrity();
+    CREATE TRIGGER trg_product_search_product
+        AFTER INSERT OR UPDATE ON products
+        FOR EACH ROW EXECUTE FUNCTION product_search_on_product();
+    CREATE TRIGGER trg_product_changes_product
+        AFTER INSERT OR UPDATE OR DELETE ON products
+        FOR EACH ROW EXECUTE FUNCTION product_changes_on_product();
+    CREATE TRIGGER trg_product_categories_check_product
+        AFTER INSERT ON product_categories
+        REFERENCING NEW TABLE AS new_rows
+        FOR EACH STATEMENT EXECUTE FUNCTION product_categories_check_product();
+
+    ANALYZE products;
+    RETURN created + 1;
+END;
+$$;
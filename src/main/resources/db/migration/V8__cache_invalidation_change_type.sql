@@ -0,0 +1,20 @@
+-- ============== V8: TIPO DE CAMBIO EN EL BUS DE INVALIDACIÓN ==============
+-- Las demás instancias republican el cambio como ProductChangedEvent; sin el
+-- tipo, un alta remota llegaba a sus suscriptores SSE como "updated". La fila
+-- del outbox guarda CREATED/UPDATED/DELETED (NULL para categorías y usuarios)
+-- y el NOTIFY lo incluye para no tener que leer la fila.
+
+ALTER TABLE cache_invalidations
+    ADD COLUMN change_type VARCHAR(10),
+    ADD CONSTRAINT ck_cache_invalidations_change_type
+        CHECK (change_type IN ('CREATED', 'UPDATED', 'DELETED'));
+
+-- Payload: ENTIDAD:id:tipo:origen (tipo vacío si no aplica; el origen sigue al final)
+CREATE OR REPLACE FUNCTION cache_invalidations_notify() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM pg_notify('cache_invalidation',
+            NEW.entity || ':' || NEW.entity_id || ':' || coalesce(NEW.change_type, '') || ':' || NEW.origin);
+    RETURN NULL;
+END;
+$$;
@@ -0,0 +1,110 @@
+-- ============== V9: CONVERSIÓN A PARTICIONES SERIALIZADA ENTRE INSTANCIAS ==============
+-- Redefine products_partition_by_created_at (V7): toma un advisory lock de
+-- transacción antes de comprobar si products ya está particionada. El resto
+-- de la conversión no cambia.
+
+-- Una sola transacción con products bloqueada; devuelve las particiones creadas
+CREATE OR REPLACE FUNCTION products_partition_by_created_at(months_ahead INT) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    old_sequence  TEXT;
+    seq_increment BIGINT;
+    seq_last      BIGINT;
+    seq_called    BOOLEAN;
+    first_month   DATE;
+    months_back   INT;
+    created       INT;
+BEGIN
+    -- Primero el candado y después la comprobación: dos instancias que arrancan
+    -- a la vez ya no pasan ambas el IF (la segunda convertiría la tabla nueva y
+    -- todas las filas acabarían en products_pdefault). Se libera con la transacción
+    PERFORM pg_advisory_xact_lock(hashtext('products_partition_by_created_at'));
+
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'products'::regclass) THEN
+        RETURN 0;
+    END IF;
+
+    LOCK TABLE products IN ACCESS EXCLUSIVE MODE;
+    old_sequence := pg_get_serial_sequence('products', 'id');
+
+    -- La clave de partición no admite NULL
+    UPDATE products SET created_at = COALESCE(updated_at, LOCALTIMESTAMP) WHERE created_at IS NULL;
+
+    -- Se conserva el estado de la secuencia (con sharding: incremento n e id % n = shard)
+    SELECT seqincrement INTO seq_increment FROM pg_sequence WHERE seqrelid = old_sequence::regclass;
+    EXECUTE format('SELECT last_value, is_called FROM %s', old_sequence) INTO seq_last, seq_called;
+
+    ALTER TABLE products RENAME TO products_unpartitioned;
+    EXECUTE format('ALTER SEQUENCE %s RENAME TO products_unpartitioned_id_seq', old_sequence);
+
+    EXECUTE format('CREATE SEQUENCE products_id_seq INCREMENT BY %s', seq_increment);
+    PERFORM setval('products_id_seq', seq_last, seq_called);
+
+    CREATE TABLE products (
+        id          BIGINT NOT NULL DEFAULT nextval('products_id_seq'),
+        created_at  TIMESTAMP(6) NOT NULL,
+        updated_at  TIMESTAMP(6),
+        deleted     BOOLEAN NOT NULL DEFAULT FALSE,
+        version     BIGINT NOT NULL DEFAULT 0,
+        name        VARCHAR(150) NOT NULL,
+        price       DOUBLE PRECISION NOT NULL,
+        description VARCHAR(500),
+        user_id     BIGINT NOT NULL REFERENCES users (id),
+        search_vector tsvector
+            GENERATED ALWAYS AS (
+                setweight(to_tsvector('spanish', COALESCE(name, '')), 'A') ||
+                setweight(to_tsvector('spanish', COALESCE(description, '')), 'B')
+            ) STORED
+    ) PARTITION BY RANGE (created_at);
+    ALTER SEQUENCE products_id_seq OWNED BY products.id;
+
+    -- Particiones desde el producto más antiguo hasta months_ahead meses en el futuro
+    SELECT date_trunc('month', COALESCE(MIN(created_at), LOCALTIMESTAMP))::DATE
+    INTO first_month FROM products_unpartitioned;
+    months_back := (EXTRACT(YEAR FROM age(date_trunc('month', LOCALTIMESTAMP), first_month)) * 12
+                    + EXTRACT(MONTH FROM age(date_trunc('month', LOCALTIMESTAMP), first_month)))::INT;
+    created := products_ensure_partitions(first_month, months_back + months_ahead);
+    CREATE TABLE products_pdefault PARTITION OF products DEFAULT;
+
+    INSERT INTO products (id, created_at, updated_at, deleted, version, name, price, description, user_id)
+    SELECT id, created_at, updated_at, deleted, version, name, price, description, user_id
+    FROM products_unpartitioned;
+
+    -- CASCADE quita las FK de product_categories y product_search hacia la tabla vieja
+    DROP TABLE products_unpartitioned CASCADE;
+
+    -- ============== CLAVES E ÍNDICES (se propagan a cada partición) ==============
+    ALTER TABLE products ADD CONSTRAINT products_pkey PRIMARY KEY (id, created_at);
+    CREATE INDEX idx_products_user_created ON products (user_id, created_at DESC, id);
+    CREATE INDEX idx_products_created ON products (created_at DESC, id);
+    CREATE INDEX idx_products_price ON products (price);
+    CREATE INDEX idx_products_name ON products (name);
+    CREATE INDEX idx_products_name_trgm ON products USING gin (LOWER(name) gin_trgm_ops);
+    CREATE INDEX idx_products_search_vector ON products USING gin (search_vector);
+
+    CREATE TABLE product_names (
+        name       VARCHAR(150) NOT NULL,
+        product_id BIGINT NOT NULL,
+        CONSTRAINT uk_products_name PRIMARY KEY (name)
+    );
+    INSERT INTO product_names (name, product_id) SELECT name, id FROM products;
+
+    -- ============== TRIGGERS ==============
+    CREATE TRIGGER trg_products_partitioned_integrity
+        AFTER INSERT OR UPDATE OR DELETE ON products
+        FOR EACH ROW EXECUTE FUNCTION products_partitioned_integrity();
+    CREATE TRIGGER trg_product_search_product
+        AFTER INSERT OR UPDATE ON products
+        FOR EACH ROW EXECUTE FUNCTION product_search_on_product();
+    CREATE TRIGGER trg_product_changes_product
+        AFTER INSERT OR UPDATE OR DELETE ON products
+        FOR EACH ROW EXECUTE FUNCTION product_changes_on_product();
+    CREATE TRIGGER trg_product_categories_check_product
+        AFTER INSERT ON product_categories
+        REFERENCING NEW TABLE AS new_rows
+        FOR EACH STATEMENT EXECUTE FUNCTION product_categories_check_product();
+
+    ANALYZE products;
+    RETURN created + 1;
+END;
+$$;
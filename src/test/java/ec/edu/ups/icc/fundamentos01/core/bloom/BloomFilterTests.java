@@ -0,0 +1,107 @@
+package ec.edu.ups.icc.fundamentos01.core.bloom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Bloom filter: sin falsos negativos y con la tasa de falsos positivos pedida
+ * (los hashes son deterministas, así los resultados no varían entre ejecuciones)
+ */
+class BloomFilterTests {
+
+	private static final int INSERTIONS = 10_000;
+
+	@Test
+	void emptyFilterContainsNothing() {
+		BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+
+		assertThat(filter.mightContain("ana@example.com")).isFalse();
+		assertThat(filter.expectedFalsePositiveRate()).isZero();
+	}
+
+	@Test
+	void everyAddedValueIsFound() {
+		BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+		for (int i = 0; i < INSERTIONS; i++) {
+			filter.put("user-" + i + "@example.com");
+		}
+
+		for (int i = 0; i < INSERTIONS; i++) {
+			assertThat(filter.mightContain("user-" + i + "@example.com")).as("user-%d", i).isTrue();
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheTarget() {
+		BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+		for (int i = 0; i < INSERTIONS; i++) {
+			filter.put("user-" + i + "@example.com");
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < INSERTIONS; i++) {
+			if (filter.mightContain("absent-" + i + "@example.com")) {
+				falsePositives++;
+			}
+		}
+
+		assertThat((double) falsePositives / INSERTIONS).isLessThan(0.02);
+		assertThat(filter.expectedFalsePositiveRate()).isBetween(0.001, 0.02);
+	}
+
+	@Test
+	void sizesBitsAndHashFunctionsFromTheTarget() {
+		// m = -n ln(p) / (ln 2)^2 ≈ 95 851 bits → 1498 palabras de 64 bits; k ≈ 7
+		BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+
+		assertThat(filter.bitSize()).isEqualTo(1498L * 64);
+		assertThat(filter.memoryBytes()).isEqualTo(1498L * Long.BYTES);
+		assertThat(filter.hashFunctions()).isEqualTo(7);
+
+		// Parámetros fuera de rango se acotan en lugar de fallar
+		BloomFilter degenerate = new BloomFilter(0, 0.9);
+		assertThat(degenerate.bitSize()).isEqualTo(64);
+		assertThat(degenerate.hashFunctions()).isPositive();
+	}
+
+	@Test
+	void concurrentPutsLoseNoBits() throws Exception {
+		BloomFilter sequential = new BloomFilter(INSERTIONS, 0.01);
+		for (int i = 0; i < INSERTIONS; i++) {
+			sequential.put("user-" + i + "@example.com");
+		}
+
+		BloomFilter concurrent = new BloomFilter(INSERTIONS, 0.01);
+		int threads = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> tasks = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int first = t;
+				tasks.add(executor.submit(() -> {
+					for (int i = first; i < INSERTIONS; i += threads) {
+						concurrent.put("user-" + i + "@example.com");
+					}
+				}));
+			}
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// Mismos valores → mismos bits encendidos (el contador del CAS no pierde ni duplica)
+		assertThat(concurrent.expectedFalsePositiveRate()).isEqualTo(sequential.expectedFalsePositiveRate());
+		for (int i = 0; i < INSERTIONS; i++) {
+			assertThat(concurrent.mightContain("user-" + i + "@example.com")).isTrue();
+		}
+	}
+}
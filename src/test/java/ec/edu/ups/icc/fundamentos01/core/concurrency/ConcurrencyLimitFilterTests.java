@@ -0,0 +1,78 @@
+package ec.edu.ups.icc.fundamentos01.core.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ec.edu.ups.icc.fundamentos01.core.bulkhead.Bulkhead;
+import ec.edu.ups.icc.fundamentos01.core.bulkhead.BulkheadFilter;
+import ec.edu.ups.icc.fundamentos01.core.bulkhead.BulkheadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Muestras que ajustan el límite (sin servidor): los rechazos deliberados
+ * de otros filtros no cuentan como sobrecarga
+ */
+class ConcurrencyLimitFilterTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private ConcurrencyLimitFilter filter;
+
+	@BeforeEach
+	void createFilter() {
+		filter = new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(), objectMapper, meterRegistry);
+	}
+
+	@Test
+	void bulkheadRejectionsDoNotShrinkTheLimit() throws Exception {
+		BulkheadProperties properties = new BulkheadProperties();
+		BulkheadProperties.Group group = new BulkheadProperties.Group();
+		group.setPaths(List.of("GET /api/products"));
+		group.setMaxConcurrent(1);
+		properties.getGroups().put("listados", group);
+		Bulkhead bulkhead = new Bulkhead("listados", group);
+		BulkheadFilter bulkheadFilter = new BulkheadFilter(List.of(bulkhead), properties, objectMapper,
+				meterRegistry);
+
+		// Grupo saturado: cada petición recibe el 503 del bulkhead
+		assertThat(bulkhead.tryEnter()).isTrue();
+		for (int i = 0; i < 10; i++) {
+			MockHttpServletResponse response = send(bulkheadFilter);
+			assertThat(response.getStatus()).isEqualTo(503);
+		}
+
+		assertThat(currentLimit()).isEqualTo(20);
+	}
+
+	@Test
+	void serverErrorsStillShrinkTheLimit() throws Exception {
+		send((request, response, chain) -> ((HttpServletResponse) response).setStatus(500));
+
+		assertThat(currentLimit()).isEqualTo(18);
+	}
+
+	private MockHttpServletResponse send(Filter next) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+		}, next));
+		return response;
+	}
+
+	private double currentLimit() {
+		return meterRegistry.get("concurrency.limit").gauge().value();
+	}
+}
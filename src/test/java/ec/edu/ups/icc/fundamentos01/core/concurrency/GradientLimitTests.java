@@ -0,0 +1,52 @@
+package ec.edu.ups.icc.fundamentos01.core.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Ajuste del límite con la latencia (sin servidor)
+ */
+class GradientLimitTests {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+	@Test
+	void growsWhileLatencyIsStableAndShrinksWhenItRises() {
+		GradientLimit limit = new GradientLimit(new ConcurrencyLimitProperties());
+
+		samples(limit, FAST, 100);
+		int grown = limit.getLimit();
+		assertThat(grown).isGreaterThan(20);
+
+		samples(limit, SLOW, 100);
+		assertThat(limit.getLimit()).isLessThan(grown / 2).isGreaterThanOrEqualTo(4);
+	}
+
+	@Test
+	void doesNotGrowWithoutLoad() {
+		GradientLimit limit = new GradientLimit(new ConcurrencyLimitProperties());
+
+		for (int i = 0; i < 100; i++) {
+			limit.onSample(FAST, 1, false);
+		}
+		assertThat(limit.getLimit()).isEqualTo(20);
+	}
+
+	@Test
+	void serverErrorsBackOffMultiplicatively() {
+		GradientLimit limit = new GradientLimit(new ConcurrencyLimitProperties());
+
+		limit.onSample(FAST, 20, true);
+		assertThat(limit.getLimit()).isEqualTo(18);
+	}
+
+	private static void samples(GradientLimit limit, long rttNanos, int count) {
+		for (int i = 0; i < count; i++) {
+			limit.onSample(rttNanos, limit.getLimit(), false);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package ec.edu.ups.icc.fundamentos01.core.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Ráfagas, recarga y memoria acotada del almacén de buckets (tiempo simulado)
+ */
+class TokenBucketStoreTests {
+
+	// 10 peticiones/s con ráfagas de 5
+	private static final long EMISSION = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final long TOLERANCE = EMISSION * 4;
+
+	private static final long START = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void admitsBurstThenRejectsUntilRefill() {
+		TokenBucketStore store = new TokenBucketStore(1024, 4);
+		long key = TokenBucketStore.hash64("api|user:1");
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(store.tryConsume(key, START, EMISSION, TOLERANCE)).isZero();
+		}
+		long wait = store.tryConsume(key, START, EMISSION, TOLERANCE);
+		assertThat(wait).isEqualTo(EMISSION);
+
+		assertThat(store.tryConsume(key, START + wait, EMISSION, TOLERANCE)).isZero();
+		assertThat(store.tryConsume(key, START + wait, EMISSION, TOLERANCE)).isPositive();
+	}
+
+	@Test
+	void keysAreIndependent() {
+		TokenBucketStore store = new TokenBucketStore(1024, 4);
+		long first = TokenBucketStore.hash64("api|user:1");
+		long second = TokenBucketStore.hash64("api|user:2");
+
+		for (int i = 0; i < 5; i++) {
+			store.tryConsume(first, START, EMISSION, TOLERANCE);
+		}
+		assertThat(store.tryConsume(first, START, EMISSION, TOLERANCE)).isPositive();
+		assertThat(store.tryConsume(second, START, EMISSION, TOLERANCE)).isZero();
+	}
+
+	@Test
+	void peekDoesNotConsumeAndResetRefills() {
+		TokenBucketStore store = new TokenBucketStore(1024, 4);
+		long key = TokenBucketStore.hash64("email|ana@example.com");
+
+		assertThat(store.peek(key, START, TOLERANCE)).isZero();
+		for (int i = 0; i < 5; i++) {
+			store.tryConsume(key, START, EMISSION, TOLERANCE);
+		}
+		assertThat(store.peek(key, START, TOLERANCE)).isEqualTo(EMISSION);
+		assertThat(store.peek(key, START, TOLERANCE)).isEqualTo(EMISSION);
+
+		store.reset(key);
+		assertThat(store.peek(key, START, TOLERANCE)).isZero();
+		assertThat(store.tryConsume(key, START, EMISSION, TOLERANCE)).isZero();
+	}
+
+	@Test
+	void refundReturnsOneToken() {
+		TokenBucketStore store = new TokenBucketStore(1024, 4);
+		long key = TokenBucketStore.hash64("ip|10.0.0.1");
+
+		for (int i = 0; i < 5; i++) {
+			store.tryConsume(key, START, EMISSION, TOLERANCE);
+		}
+		assertThat(store.tryConsume(key, START, EMISSION, TOLERANCE)).isPositive();
+
+		store.refund(key, EMISSION);
+		assertThat(store.tryConsume(key, START, EMISSION, TOLERANCE)).isZero();
+		assertThat(store.tryConsume(key, START, EMISSION, TOLERANCE)).isPositive();
+	}
+
+	@Test
+	void boundedCapacityRecyclesSlotsWithoutBlockingNewKeys() {
+		TokenBucketStore store = new TokenBucketStore(64, 1);
+
+		// Muchas más claves que huecos: todas se admiten la primera vez
+		for (int i = 0; i < 10_000; i++) {
+			long key = TokenBucketStore.hash64("ip:10.0." + (i / 256) + "." + (i % 256));
+			assertThat(store.tryConsume(key, START, EMISSION, TOLERANCE)).isZero();
+		}
+
+		// Una clave recién usada sigue limitada
+		long hot = TokenBucketStore.hash64("ip:192.168.0.1");
+		for (int i = 0; i < 5; i++) {
+			store.tryConsume(hot, START, EMISSION, TOLERANCE);
+		}
+		assertThat(store.tryConsume(hot, START, EMISSION, TOLERANCE)).isPositive();
+	}
+}
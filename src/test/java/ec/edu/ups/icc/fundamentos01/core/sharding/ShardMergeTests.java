@@ -0,0 +1,55 @@
+package ec.edu.ups.icc.fundamentos01.core.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Mezcla k-way de páginas de varios shards (sin base de datos)
+ * Clave de orden: precio y el id como desempate, igual que fanOutPage
+ */
+class ShardMergeTests {
+
+	@Test
+	void mergesAscendingAndAppliesOffset() {
+		List<List<ShardMerge.Row<Long>>> shards = List.of(
+				rows(10.0, 3L, 30.0, 6L, 50.0, 9L),
+				rows(20.0, 1L, 30.0, 4L),
+				rows());
+
+		assertThat(ShardMerge.merge(shards, new boolean[] { false, false }, 0, 10))
+				.containsExactly(3L, 1L, 4L, 6L, 9L);
+		assertThat(ShardMerge.merge(shards, new boolean[] { false, false }, 2, 2))
+				.containsExactly(4L, 6L);
+	}
+
+	@Test
+	void nullsGoLastAscendingAndFirstDescending() {
+		List<List<ShardMerge.Row<Long>>> ascending = List.of(
+				rows(10.0, 1L, null, 2L),
+				rows(5.0, 3L));
+		assertThat(ShardMerge.merge(ascending, new boolean[] { false, false }, 0, 10))
+				.containsExactly(3L, 1L, 2L);
+
+		List<List<ShardMerge.Row<Long>>> descending = List.of(
+				rows(null, 2L, 10.0, 1L),
+				rows(5.0, 3L));
+		assertThat(ShardMerge.merge(descending, new boolean[] { true, false }, 0, 10))
+				.containsExactly(2L, 1L, 3L);
+	}
+
+	/**
+	 * Pares (precio, id) → filas cuyo valor es el id
+	 */
+	private static List<ShardMerge.Row<Long>> rows(Object... pairs) {
+		List<ShardMerge.Row<Long>> rows = new ArrayList<>();
+		for (int i = 0; i < pairs.length; i += 2) {
+			Long id = (Long) pairs[i + 1];
+			rows.add(new ShardMerge.Row<>(new Comparable<?>[] { (Double) pairs[i], id }, id));
+		}
+		return rows;
+	}
+}
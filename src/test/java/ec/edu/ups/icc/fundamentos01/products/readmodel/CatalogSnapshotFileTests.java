@@ -0,0 +1,131 @@
+package ec.edu.ups.icc.fundamentos01.products.readmodel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
+import ec.edu.ups.icc.fundamentos01.categories.reporitory.CategoryRepository;
+import ec.edu.ups.icc.fundamentos01.products.events.ProductChangedEvent;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductEntity;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
+
+/**
+ * Snapshot binario del catálogo: escribir y volver a leer (sin base de datos)
+ */
+class CatalogSnapshotFileTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void roundTripKeepsColumnsBitmapsAndDimensions() throws IOException {
+		CatalogSnapshotFile.Data data = new CatalogSnapshotFile.Data();
+		data.writtenAtMillis = 1_700_000_000_000L;
+		data.watermarkMicros = 1_700_000_000_123_456L;
+		data.rowCount = 3;
+		data.ids = new long[] { 10, 20, 30 };
+		data.prices = new double[] { 9.99, 0.0, 1500.5 };
+		data.ownerIds = new long[] { 1, 2, 1 };
+		data.createdAt = new long[] { 100, 200, 300 };
+		data.updatedAt = new long[] { Long.MIN_VALUE, 250, Long.MIN_VALUE };
+		data.names = new String[] { "Cámara", "Teclado mecánico", "Monitor 4K" };
+		data.descriptions = new String[] { "Réflex", null, "" };
+		data.categoryRowWords.put(5L, bits(0, 2));
+		data.categoryRowWords.put(6L, bits(1));
+		data.categoryRowWords.put(7L, bits());
+		data.categoryNames.put(5L, "Electrónica");
+		data.categoryNames.put(6L, "Periféricos");
+		data.ownerNames.put(1L, "Ana");
+		data.ownerNames.put(2L, "Luis");
+
+		Path path = dir.resolve("nested/catalog.snap");
+		CatalogSnapshotFile.write(path, data);
+		CatalogSnapshotFile.Data read = CatalogSnapshotFile.read(path);
+
+		assertThat(read).isNotNull();
+		assertThat(read.writtenAtMillis).isEqualTo(data.writtenAtMillis);
+		assertThat(read.watermarkMicros).isEqualTo(data.watermarkMicros);
+		assertThat(read.rowCount).isEqualTo(3);
+		assertThat(read.ids).containsExactly(data.ids);
+		assertThat(read.prices).containsExactly(data.prices);
+		assertThat(read.ownerIds).containsExactly(data.ownerIds);
+		assertThat(read.createdAt).containsExactly(data.createdAt);
+		assertThat(read.updatedAt).containsExactly(data.updatedAt);
+		assertThat(read.names).containsExactly(data.names);
+		assertThat(read.descriptions).containsExactly(data.descriptions);
+
+		assertThat(read.categoryRowWords).containsOnlyKeys(5L, 6L, 7L);
+		assertThat(BitSet.valueOf(read.categoryRowWords.get(5L)).stream()).containsExactly(0, 2);
+		assertThat(BitSet.valueOf(read.categoryRowWords.get(6L)).stream()).containsExactly(1);
+		assertThat(BitSet.valueOf(read.categoryRowWords.get(7L)).isEmpty()).isTrue();
+		assertThat(read.categoryNames).containsExactlyEntriesOf(data.categoryNames);
+		assertThat(read.ownerNames).containsExactlyEntriesOf(data.ownerNames);
+
+		// Escritura atómica: no queda el temporal
+		assertThat(Files.exists(path.resolveSibling("catalog.snap.tmp"))).isFalse();
+	}
+
+	@Test
+	void missingOrForeignFileIsIgnored() throws IOException {
+		assertThat(CatalogSnapshotFile.read(dir.resolve("missing.snap"))).isNull();
+
+		Path foreign = dir.resolve("foreign.snap");
+		Files.write(foreign, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		assertThat(CatalogSnapshotFile.read(foreign)).isNull();
+	}
+
+	@Test
+	void modelExportsOnlyLiveRowsWithRemappedCategoryBitmaps() throws IOException {
+		Path path = dir.resolve("catalog.snap");
+		ProductReadModel model = new ProductReadModel(mock(ProductRepository.class), mock(UserRepository.class),
+				mock(CategoryRepository.class), mock(PlatformTransactionManager.class),
+				50_000, true, path.toString(), Duration.ZERO);
+		model.start(); // sin snapshot todavía: construye (vacío) desde los repositorios
+
+		model.onProductChanged(saved(1L, "Mouse", 20.0, 10L));
+		model.onProductChanged(saved(2L, "Monitor", 200.0, 20L));
+		model.onProductChanged(saved(3L, "Teclado", 50.0, 10L));
+		model.onProductChanged(ProductChangedEvent.deleted(1L));
+		model.writeSnapshot();
+
+		CatalogSnapshotFile.Data read = CatalogSnapshotFile.read(path);
+
+		// La fila del producto 1 desaparece y las demás se renumeran desde 0
+		assertThat(read.rowCount).isEqualTo(2);
+		assertThat(read.ids).containsExactly(2L, 3L);
+		assertThat(read.names).containsExactly("Monitor", "Teclado");
+		assertThat(BitSet.valueOf(read.categoryRowWords.get(20L)).stream()).containsExactly(0);
+		assertThat(BitSet.valueOf(read.categoryRowWords.get(10L)).stream()).containsExactly(1);
+	}
+
+	private static long[] bits(int... rows) {
+		BitSet bitSet = new BitSet();
+		for (int row : rows) {
+			bitSet.set(row);
+		}
+		return bitSet.toLongArray();
+	}
+
+	private static ProductChangedEvent saved(Long id, String name, Double price, Long categoryId) {
+		CategoryEntity category = new CategoryEntity();
+		category.setId(categoryId);
+
+		ProductEntity entity = new ProductEntity();
+		entity.setId(id);
+		entity.setName(name);
+		entity.setPrice(price);
+		entity.getCategories().add(category);
+		return ProductChangedEvent.created(entity, 7L);
+	}
+}
@@ -0,0 +1,123 @@
+package ec.edu.ups.icc.fundamentos01.products.readmodel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
+import ec.edu.ups.icc.fundamentos01.categories.reporitory.CategoryRepository;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductEntity;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+import ec.edu.ups.icc.fundamentos01.users.models.UserEntity;
+import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
+
+/**
+ * El modelo de lectura responde lo mismo que ProductRepository.findWithFilters
+ * (filtros, orden y paginación) sobre los mismos productos
+ *
+ * Requiere el PostgreSQL local de application.yaml (igual que contextLoads).
+ * El modelo se construye a mano dentro de la transacción de la prueba, así
+ * lee los productos recién insertados; el filtro por nombre los aísla del
+ * resto de la base. Los órdenes que se comparan son totales (terminan en un
+ * campo único) para que el resultado no dependa del plan de la consulta.
+ */
+@SpringBootTest
+@Transactional
+class ProductReadModelParityTests {
+
+	private static final String[] WORDS = { "alfa", "bravo", "charlie", "delta", "eco", "foxtrot",
+			"golf", "hotel", "india", "juliet", "kilo", "lima" };
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private ProductReadModel model;
+	private Long categoryId;
+
+	@BeforeEach
+	void seedCatalog() {
+		UserEntity owner = new UserEntity();
+		owner.setName("Dueño Paridad");
+		owner.setEmail("read-model-parity@example.com");
+		owner.setPassword("$2a$10$hashNoUsadoEnEsteTest");
+		owner = userRepository.saveAndFlush(owner);
+
+		CategoryEntity category = new CategoryEntity();
+		category.setName("read-model-parity");
+		categoryId = categoryRepository.saveAndFlush(category).getId();
+
+		// Precios repetidos (5, 15, 25, 35) para que el desempate importe
+		for (int i = 0; i < WORDS.length; i++) {
+			ProductEntity product = new ProductEntity();
+			product.setName("Paridad " + WORDS[(i * 5) % WORDS.length]);
+			product.setPrice(5.0 + (i % 4) * 10);
+			product.setOwner(owner);
+			if (i % 2 == 0) {
+				product.getCategories().add(category);
+			}
+			productRepository.saveAndFlush(product);
+		}
+
+		model = new ProductReadModel(productRepository, userRepository, categoryRepository, transactionManager,
+				50_000, false, "unused.snap", Duration.ZERO);
+		model.start();
+	}
+
+	@Test
+	void matchesFindWithFiltersForEveryFilterSortAndPage() {
+		List<Sort> sorts = List.of(
+				Sort.by("name"),
+				Sort.by(Sort.Direction.DESC, "name"),
+				Sort.by("price").and(Sort.by("id")),
+				Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id")),
+				Sort.by("createdAt").and(Sort.by("id")),
+				Sort.by(Sort.Direction.DESC, "id"));
+
+		for (Sort sort : sorts) {
+			for (int page = 0; page < 4; page++) {
+				Pageable pageable = PageRequest.of(page, 4, sort);
+				assertSameResult("paridad", null, null, null, pageable);
+				assertSameResult("PARIDAD", 15.0, 25.0, null, pageable);
+				assertSameResult("paridad", null, 25.0, categoryId, pageable);
+				assertSameResult("paridad e", 10.0, null, null, pageable);
+				assertSameResult("paridad", 100.0, null, null, pageable);
+			}
+		}
+	}
+
+	private void assertSameResult(String name, Double minPrice, Double maxPrice, Long categoryId,
+			Pageable pageable) {
+		Page<ProductEntity> expected = productRepository.findWithFilters(name, minPrice, maxPrice, categoryId,
+				pageable);
+		Page<ProductResponseDto> actual = model.query(name, minPrice, maxPrice, categoryId, null, pageable);
+
+		String description = String.format("name=%s min=%s max=%s category=%s %s",
+				name, minPrice, maxPrice, categoryId, pageable);
+		assertThat(actual.getContent().stream().map(product -> product.id).toList())
+				.as(description)
+				.containsExactlyElementsOf(expected.getContent().stream().map(ProductEntity::getId).toList());
+		assertThat(actual.getTotalElements()).as(description).isEqualTo(expected.getTotalElements());
+	}
+}
@@ -0,0 +1,157 @@
+package ec.edu.ups.icc.fundamentos01.products.readmodel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
+import ec.edu.ups.icc.fundamentos01.categories.reporitory.CategoryRepository;
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductResponseDto;
+import ec.edu.ups.icc.fundamentos01.products.events.ProductChangedEvent;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductEntity;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
+
+/**
+ * Escrituras del modelo de lectura (sin base de datos): el catálogo arranca
+ * vacío (repositorios simulados) y se llena solo con ProductChangedEvent
+ *
+ * La paridad de filtros, orden y paginación con la consulta SQL está en
+ * ProductReadModelParityTests
+ */
+class ProductReadModelTests {
+
+	private static final PageRequest FIRST_PAGE = PageRequest.of(0, 10);
+
+	private ProductReadModel model;
+
+	@BeforeEach
+	void createModel() {
+		model = new ProductReadModel(mock(ProductRepository.class), mock(UserRepository.class),
+				mock(CategoryRepository.class), mock(PlatformTransactionManager.class),
+				50_000, false, "unused.snap", Duration.ZERO);
+		model.start();
+	}
+
+	@Test
+	void upsertReplacesTheRowInPlace() {
+		model.onProductChanged(saved(1L, "Laptop", 900.0, 10L));
+		model.onProductChanged(saved(1L, "Laptop Pro", 1200.0, 20L));
+
+		Page<ProductResponseDto> page = model.query(null, null, null, null, null, FIRST_PAGE);
+		assertThat(page.getTotalElements()).isEqualTo(1);
+		ProductResponseDto product = page.getContent().get(0);
+		assertThat(product.name).isEqualTo("Laptop Pro");
+		assertThat(product.price).isEqualTo(1200.0);
+		assertThat(categoryIds(product)).containsExactly(20L);
+
+		assertThat(model.query(null, null, null, 10L, null, FIRST_PAGE).getContent()).isEmpty();
+		assertThat(ids(model.query("pro", null, null, 20L, null, FIRST_PAGE))).containsExactly(1L);
+	}
+
+	@Test
+	void deleteHidesTheRowFromEveryFilter() {
+		model.onProductChanged(saved(1L, "Mouse", 20.0, 10L));
+		model.onProductChanged(saved(2L, "Monitor", 200.0, 10L));
+		model.onProductChanged(saved(3L, "Teclado", 50.0, 10L));
+
+		model.onProductChanged(ProductChangedEvent.deleted(2L));
+		model.onProductChanged(ProductChangedEvent.deleted(99L)); // desconocido: se ignora
+
+		assertThat(ids(model.query(null, null, null, null, null, FIRST_PAGE))).containsExactly(1L, 3L);
+		assertThat(ids(model.query(null, null, null, 10L, null, FIRST_PAGE))).containsExactly(1L, 3L);
+		assertThat(ids(model.query("mo", null, null, null, null, FIRST_PAGE))).containsExactly(1L);
+	}
+
+	@Test
+	void compactionKeepsLiveRowsCategoriesAndIds() {
+		for (long id = 1; id <= 2000; id++) {
+			model.onProductChanged(saved(id, "Producto " + id, (double) id, id % 2 == 0 ? 1L : 2L));
+		}
+		// 600 de 2000 filas muertas (> 25%) → las columnas se compactan
+		for (long id = 1; id <= 600; id++) {
+			model.onProductChanged(ProductChangedEvent.deleted(id));
+		}
+
+		Page<ProductResponseDto> evens = model.query(null, null, null, 1L, null,
+				PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "price")));
+		assertThat(evens.getTotalElements()).isEqualTo(700);
+		assertThat(ids(evens)).containsExactly(2000L, 1998L, 1996L);
+		assertThat(evens.getContent().get(0).name).isEqualTo("Producto 2000");
+		assertThat(categoryIds(evens.getContent().get(0))).containsExactly(1L);
+
+		// Tras compactar, los ids siguen apuntando a su fila: editar no duplica
+		model.onProductChanged(saved(700L, "Producto 700 editado", 5000.0, 2L));
+		model.onProductChanged(saved(5L, "Producto 5", 5.0, 2L));
+
+		assertThat(model.query(null, null, null, null, null, FIRST_PAGE).getTotalElements()).isEqualTo(1401);
+		assertThat(model.query(null, null, null, 1L, null, FIRST_PAGE).getTotalElements()).isEqualTo(699);
+		assertThat(ids(model.query("editado", null, null, 2L, null, FIRST_PAGE))).containsExactly(700L);
+	}
+
+	@Test
+	void filtersSortsAndPagesLikeTheSqlQuery() {
+		model.onProductChanged(saved(1L, "Cable USB", 10.0, 10L));
+		model.onProductChanged(saved(2L, "cable hdmi", 25.0, 10L));
+		model.onProductChanged(saved(3L, "Adaptador", 25.0, 20L));
+		model.onProductChanged(saved(4L, "CABLE RED", 40.0, 10L));
+		model.onProductChanged(saved(5L, "Cable USB-C", 25.0, 20L));
+
+		// Nombre contiene sin distinguir mayúsculas; límites de precio inclusivos
+		assertThat(ids(model.query("cable", 25.0, 40.0, null, null,
+				PageRequest.of(0, 10, Sort.by("price"))))).containsExactly(2L, 5L, 4L);
+
+		// Empates de precio: desempate por id, estable entre páginas
+		PageRequest byPriceDesc = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "price"));
+		Page<ProductResponseDto> second = model.query(null, null, null, null, null, byPriceDesc);
+		assertThat(ids(second)).containsExactly(3L, 5L);
+		assertThat(second.getTotalElements()).isEqualTo(5);
+		assertThat(second.getTotalPages()).isEqualTo(3);
+
+		// Orden por nombre sin distinguir mayúsculas
+		assertThat(ids(model.query(null, null, null, null, null,
+				PageRequest.of(0, 10, Sort.by("name"))))).containsExactly(3L, 2L, 4L, 1L, 5L);
+
+		// Página fuera de rango: vacía pero con el total
+		Page<ProductResponseDto> beyond = model.query("cable", null, null, 10L, null, PageRequest.of(5, 10));
+		assertThat(beyond.getContent()).isEmpty();
+		assertThat(beyond.getTotalElements()).isEqualTo(3);
+	}
+
+	@Test
+	void sortsOutsideTheColumnsAreLeftToTheDatabase() {
+		assertThat(model.canServe(Sort.by("price", "name"))).isTrue();
+		assertThat(model.canServe(Sort.by("owner.name"))).isFalse();
+	}
+
+	// ============== UTILIDADES ==============
+
+	private static ProductChangedEvent saved(Long id, String name, Double price, Long categoryId) {
+		CategoryEntity category = new CategoryEntity();
+		category.setId(categoryId);
+
+		ProductEntity entity = new ProductEntity();
+		entity.setId(id);
+		entity.setName(name);
+		entity.setPrice(price);
+		entity.getCategories().add(category);
+		return ProductChangedEvent.created(entity, 7L);
+	}
+
+	private static List<Long> ids(Page<ProductResponseDto> page) {
+		return page.getContent().stream().map(product -> product.id).toList();
+	}
+
+	private static List<Long> categoryIds(ProductResponseDto product) {
+		return product.categories.stream().map(category -> category.id).toList();
+	}
+}
@@ -0,0 +1,388 @@
+package ec.edu.ups.icc.fundamentos01.products.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import ec.edu.ups.icc.fundamentos01.categories.reporitory.CategoryRepository;
+import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
+
+/**
+ * Verifica con EXPLAIN que cada consulta de los repositorios tiene un índice
+ * que la atiende (migración V2__product_query_indexes.sql).
+ *
+ * Requiere el PostgreSQL local de application.yaml (igual que contextLoads).
+ * enable_seqscan = off obliga al planner a elegir un índice si existe alguno
+ * aplicable, así el resultado no depende de cuántas filas tenga la base.
+ *
+ * Cada test llama al método real del repositorio: el DataSource de la prueba
+ * registra el SQL que genera Hibernate (o la consulta nativa) y los valores
+ * enlazados, y el EXPLAIN se ejecuta sobre esa misma sentencia con los mismos
+ * parámetros. Si cambia un @Query, el plan que se comprueba cambia con él.
+ *
+ * Con products particionada (products.partitioning.enabled) el plan nombra
+ * los índices de cada partición: se aceptan los que heredan del índice
+ * esperado, y se comprueba además que un rango de fechas solo recorre sus
+ * particiones.
+ */
+@SpringBootTest
+@Transactional
+class ProductQueryPlanTests {
+
+	// Particiones de products que recorre un plan ("... on products_p202401 products_1")
+	private static final Pattern SCANNED_PARTITION = Pattern.compile(" on (products_p\\w+)");
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductSearchRepository productSearchRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@BeforeEach
+	void disableSequentialScans() {
+		jdbc.execute("SET LOCAL enable_seqscan = off");
+	}
+
+	// ============== ProductRepository ==============
+
+	@Test
+	void findByOwnerIdUsesOwnerIndex() {
+		assertUsesIndex(() -> productRepository.findByOwnerId(1L),
+				"idx_products_user_created");
+	}
+
+	@Test
+	void findByUserIdWithFiltersUsesOwnerIndexForSort() {
+		assertUsesIndex(() -> productRepository.findByUserIdWithFilters(1L, null, null, null, null,
+				PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"))),
+				"idx_products_user_created");
+	}
+
+	@Test
+	void findWithFiltersDefaultSortUsesCreatedIndex() {
+		assertUsesIndex(() -> productRepository.findWithFilters(null, null, null, null,
+				PageRequest.of(0, 10, Sort.by("createdAt"))),
+				"idx_products_created");
+	}
+
+	@Test
+	void findWithFiltersCreatedBetweenUsesCreatedIndex() {
+		assertUsesIndex(() -> productRepository.findWithFiltersCreatedBetween(null, null, null, null,
+				LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0),
+				PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"))),
+				"idx_products_created");
+	}
+
+	@Test
+	void findWithFiltersCreatedBetweenScansOnlyTheMonthPartition() {
+		assumeTrue(isPartitioned(), "products no está particionada");
+		LocalDateTime month = jdbc.queryForObject("SELECT date_trunc('month', LOCALTIMESTAMP)",
+				LocalDateTime.class);
+
+		String plan = explain(captureFirstStatement(() -> productRepository.findWithFiltersCreatedBetween(
+				null, null, null, null, month, month.plusMonths(1),
+				PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")))));
+
+		assertThat(scannedPartitions(plan))
+				.as("Particiones en el plan:%n%s", plan)
+				.containsExactly("products_p" + month.format(DateTimeFormatter.ofPattern("yyyyMM")));
+	}
+
+	@Test
+	void findWithFiltersPriceRangeUsesPriceIndex() {
+		assertUsesIndex(() -> productRepository.findWithFilters(null, 100.0, 500.0, null, Pageable.unpaged()),
+				"idx_products_price");
+	}
+
+	@Test
+	void findWithFiltersCategoryUsesCategoryIndex() {
+		assertUsesIndex(() -> productRepository.findWithFilters(null, null, null, 3L, Pageable.unpaged()),
+				"idx_product_categories_category");
+	}
+
+	@Test
+	void findByCategoriesIdUsesCategoryIndex() {
+		assertUsesIndex(() -> productRepository.findByCategoriesId(3L),
+				"idx_product_categories_category");
+	}
+
+	@Test
+	void findByNameUsesUniqueNameIndex() {
+		// Particionada, uk_products_name pasa a product_names (V7) y products usa idx_products_name
+		assertUsesIndex(() -> productRepository.findByName("Laptop"),
+				isPartitioned() ? "idx_products_name" : "uk_products_name");
+	}
+
+	@Test
+	void findOwnerIdByIdUsesPrimaryKey() {
+		assertUsesIndex(() -> productRepository.findOwnerIdById(1L),
+				"products_pkey");
+	}
+
+	@Test
+	void findByOwnerNameUsesUserNameIndex() {
+		assertUsesIndex(() -> productRepository.findByOwnerName("Admin"),
+				"idx_users_name");
+	}
+
+	@Test
+	void findByCategoriesNameUsesUniqueCategoryName() {
+		assertUsesIndex(() -> productRepository.findByCategoriesName("Tecnología"),
+				"uk_categories_name");
+	}
+
+	@Test
+	void findWithFiltersSubstringUsesTrigramIndex() {
+		assertUsesIndex(() -> productRepository.findWithFilters("lapt", null, null, null, Pageable.unpaged()),
+				"idx_products_name_trgm");
+	}
+
+	@Test
+	void searchFullTextUsesSearchVectorIndex() {
+		assertUsesIndex(() -> productRepository.searchFullText("laptop gamer", null, null, null,
+				PageRequest.of(0, 10)),
+				"idx_products_search_vector");
+	}
+
+	@Test
+	void findByOwnerNameContainingUsesTrigramIndex() {
+		assertUsesIndex(() -> productRepository.findByOwnerNameContaining("adm", Pageable.unpaged()),
+				"idx_users_name_trgm");
+	}
+
+	// ============== ProductSearchRepository (product_search) ==============
+
+	@Test
+	void searchTableCategoryUsesArrayIndex() {
+		assertUsesIndex(() -> productSearchRepository.findWithFilters(null, null, null, 3L, Pageable.unpaged()),
+				"idx_product_search_categories");
+	}
+
+	@Test
+	void searchTableByUserUsesOwnerIndexForSort() {
+		assertUsesIndex(() -> productSearchRepository.findByUserIdWithFilters(1L, null, null, null, null,
+				PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created_at"))),
+				"idx_product_search_user_created");
+	}
+
+	@Test
+	void searchTableSubstringUsesTrigramIndex() {
+		assertUsesIndex(() -> productSearchRepository.findWithFilters("lapt", null, null, null, Pageable.unpaged()),
+				"idx_product_search_name_trgm");
+	}
+
+	// ============== UserRepository / CategoryRepository ==============
+
+	@Test
+	void findByEmailUsesUniqueEmailIndex() {
+		assertUsesIndex(() -> userRepository.findByEmail("admin@ups.edu.ec"),
+				"uk_users_email");
+	}
+
+	@Test
+	void findByNameIgnoreCaseUsesUpperNameIndex() {
+		assertUsesIndex(() -> categoryRepository.findByNameIgnoreCase("tecnología"),
+				"idx_categories_upper_name");
+	}
+
+	// ============== HELPERS ==============
+
+	/**
+	 * EXPLAIN de la primera sentencia que ejecuta call: la consulta del propio
+	 * método (las siguientes son COUNT de la página o cargas EAGER)
+	 */
+	private void assertUsesIndex(Runnable call, String indexName) {
+		CapturedStatement statement = captureFirstStatement(call);
+		String plan = explain(statement);
+		List<String> accepted = new ArrayList<>(partitionIndexes(indexName));
+		accepted.add(indexName);
+
+		assertThat(plan)
+				.as("Plan de: %s", statement.sql())
+				.doesNotContain("Seq Scan");
+		assertThat(accepted)
+				.as("%s (o su índice en una partición) en el plan de: %s%n%s", indexName, statement.sql(), plan)
+				.anyMatch(plan::contains);
+	}
+
+	/**
+	 * Índices que heredan de indexName: uno por partición si la tabla está
+	 * particionada, ninguno si no
+	 */
+	private List<String> partitionIndexes(String indexName) {
+		return jdbc.queryForList("WITH RECURSIVE children(oid) AS ("
+				+ "SELECT inhrelid FROM pg_inherits WHERE inhparent = to_regclass(CAST(? AS text)) "
+				+ "UNION ALL SELECT i.inhrelid FROM pg_inherits i JOIN children c ON i.inhparent = c.oid) "
+				+ "SELECT relname FROM pg_class JOIN children USING (oid)", String.class, indexName);
+	}
+
+	private boolean isPartitioned() {
+		return Boolean.TRUE.equals(jdbc.queryForObject(
+				"SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'products'::regclass)",
+				Boolean.class));
+	}
+
+	private static Set<String> scannedPartitions(String plan) {
+		Set<String> partitions = new TreeSet<>();
+		Matcher matcher = SCANNED_PARTITION.matcher(plan);
+		while (matcher.find()) {
+			partitions.add(matcher.group(1));
+		}
+		return partitions;
+	}
+
+	private CapturedStatement captureFirstStatement(Runnable call) {
+		StatementCapture.captured.clear();
+		StatementCapture.capturing = true;
+		try {
+			call.run();
+		} finally {
+			StatementCapture.capturing = false;
+		}
+		assertThat(StatementCapture.captured).as("Sentencias ejecutadas").isNotEmpty();
+		return StatementCapture.captured.get(0);
+	}
+
+	private String explain(CapturedStatement statement) {
+		return jdbc.execute((ConnectionCallback<String>) connection -> {
+			try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+				for (Binding binding : statement.bindings()) {
+					binding.replay(explain);
+				}
+				List<String> lines = new ArrayList<>();
+				try (ResultSet rows = explain.executeQuery()) {
+					while (rows.next()) {
+						lines.add(rows.getString(1));
+					}
+				}
+				return String.join("\n", lines);
+			}
+		});
+	}
+
+	// ============== CAPTURA DE SENTENCIAS ==============
+
+	private record CapturedStatement(String sql, List<Binding> bindings) {
+	}
+
+	// Una llamada set*(índice, valor...) sobre el PreparedStatement
+	private record Binding(Method setter, Object[] args) {
+
+		void replay(PreparedStatement target) {
+			try {
+				setter.invoke(target, args);
+			} catch (ReflectiveOperationException ex) {
+				throw new IllegalStateException("No se pudo repetir " + setter.getName(), ex);
+			}
+		}
+	}
+
+	/**
+	 * Envuelve el DataSource "dataSource" (el que usan JPA y JdbcTemplate) para
+	 * registrar cada PreparedStatement ejecutado mientras capturing = true
+	 */
+	@TestConfiguration
+	static class StatementCapture {
+
+		static final List<CapturedStatement> captured = new CopyOnWriteArrayList<>();
+		static volatile boolean capturing;
+
+		@Bean
+		static BeanPostProcessor captureStatements() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+						return proxy(DataSource.class, dataSource, (target, method, args) -> {
+							Object result = method.invoke(target, args);
+							return result instanceof Connection connection
+									? proxy(Connection.class, connection, StatementCapture::onConnection)
+									: result;
+						});
+					}
+					return bean;
+				}
+			};
+		}
+
+		private static Object onConnection(Object target, Method method, Object[] args) throws Exception {
+			Object result = method.invoke(target, args);
+			if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+				String sql = (String) args[0];
+				List<Binding> bindings = new ArrayList<>();
+				return proxy(PreparedStatement.class, statement, (stmt, stmtMethod, stmtArgs) -> {
+					String name = stmtMethod.getName();
+					if (name.startsWith("set") && stmtArgs != null && stmtArgs.length >= 2
+							&& stmtArgs[0] instanceof Integer) {
+						bindings.add(new Binding(stmtMethod, stmtArgs.clone()));
+					} else if (name.equals("clearParameters")) {
+						bindings.clear();
+					} else if (capturing && (name.equals("executeQuery") || name.equals("execute"))) {
+						captured.add(new CapturedStatement(sql, List.copyOf(bindings)));
+					}
+					return stmtMethod.invoke(stmt, stmtArgs);
+				});
+			}
+			return result;
+		}
+
+		@FunctionalInterface
+		private interface Interceptor {
+			Object invoke(Object target, Method method, Object[] args) throws Exception;
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+			InvocationHandler handler = (proxy, method, args) -> {
+				try {
+					return interceptor.invoke(target, method, args);
+				} catch (InvocationTargetException ex) {
+					throw ex.getCause();
+				}
+			};
+			return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+		}
+	}
+
+}
@@ -0,0 +1,130 @@
+package ec.edu.ups.icc.fundamentos01.products.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ec.edu.ups.icc.fundamentos01.categories.entity.CategoryEntity;
+import ec.edu.ups.icc.fundamentos01.products.events.ProductChangedEvent;
+import ec.edu.ups.icc.fundamentos01.products.models.ProductEntity;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+
+/**
+ * Bitmaps de productos por categoría (sin base de datos): el repositorio
+ * simulado entrega las filas (id, precio) y los pares (producto, categoría)
+ */
+class CategoryBitmapIndexTests {
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+
+	@BeforeEach
+	void catalog() {
+		// Categoría 1: productos 1, 2, 3 · categoría 2: productos 2, 3, 4 · categoría 3: producto 5
+		when(productRepository.streamIdsAndPrices()).thenAnswer(invocation -> rows(
+				new Object[] { 1L, 10.0 }, new Object[] { 2L, 20.0 }, new Object[] { 3L, 30.0 },
+				new Object[] { 4L, 40.0 }, new Object[] { 5L, 50.0 }));
+		when(productRepository.streamCategoryIdPairs()).thenAnswer(invocation -> rows(
+				new Object[] { 1L, 1L }, new Object[] { 2L, 1L }, new Object[] { 3L, 1L },
+				new Object[] { 2L, 2L }, new Object[] { 3L, 2L }, new Object[] { 4L, 2L },
+				new Object[] { 5L, 3L }));
+	}
+
+	@Test
+	void anyIsTheUnionAndAllIsTheIntersection() {
+		CategoryBitmapIndex index = builtIndex(100);
+
+		assertThat(index.match(Set.of(1L, 2L), false, null, null)).containsExactly(1L, 2L, 3L, 4L);
+		assertThat(index.match(Set.of(1L, 2L), true, null, null)).containsExactly(2L, 3L);
+		assertThat(index.match(Set.of(1L, 3L), true, null, null)).isEmpty();
+
+		// Una categoría sin productos no aporta a la unión y vacía la intersección
+		assertThat(index.match(Set.of(2L, 99L), false, null, null)).containsExactly(2L, 3L, 4L);
+		assertThat(index.match(Set.of(2L, 99L), true, null, null)).isEmpty();
+	}
+
+	@Test
+	void priceRangeIsInclusive() {
+		CategoryBitmapIndex index = builtIndex(100);
+
+		assertThat(index.match(Set.of(1L, 2L), false, 20.0, 30.0)).containsExactly(2L, 3L);
+		assertThat(index.match(Set.of(1L, 2L), false, null, 10.0)).containsExactly(1L);
+		assertThat(index.match(Set.of(1L, 2L), false, 35.0, null)).containsExactly(4L);
+	}
+
+	@Test
+	void eventsMoveProductsBetweenCategories() {
+		CategoryBitmapIndex index = builtIndex(100);
+
+		// El producto 1 pasa a la categoría 2 con otro precio; el 4 se elimina; el 6 es nuevo
+		index.onProductChanged(saved(1L, 45.0, 2L));
+		index.onProductChanged(ProductChangedEvent.deleted(4L));
+		index.onProductChanged(saved(6L, 60.0, 1L, 3L));
+
+		assertThat(index.match(Set.of(1L), false, null, null)).containsExactly(2L, 3L, 6L);
+		assertThat(index.match(Set.of(2L), false, null, null)).containsExactly(1L, 2L, 3L);
+		assertThat(index.match(Set.of(2L), false, 41.0, null)).containsExactly(1L);
+		assertThat(index.match(Set.of(1L, 3L), true, null, null)).containsExactly(6L);
+	}
+
+	@Test
+	void tooManyCandidatesFallBackToSql() {
+		CategoryBitmapIndex index = builtIndex(3);
+
+		assertThat(index.match(Set.of(1L), false, null, null)).containsExactly(1L, 2L, 3L);
+		assertThat(index.match(Set.of(1L, 2L), false, null, null)).isNull();
+		// El límite cuenta después del filtro de precio
+		assertThat(index.match(Set.of(1L, 2L), false, 20.0, null)).containsExactly(2L, 3L, 4L);
+	}
+
+	@Test
+	void answersOnlyAfterBuildingAndAppliesEventsReceivedMeanwhile() {
+		CategoryBitmapIndex index = new CategoryBitmapIndex(productRepository, 100);
+		index.onProductChanged(saved(7L, 70.0, 1L));
+		assertThat(index.match(Set.of(1L), false, null, null)).isNull();
+
+		index.build();
+
+		assertThat(index.match(Set.of(1L), false, null, null)).containsExactly(1L, 2L, 3L, 7L);
+	}
+
+	@Test
+	void idBeyond32BitsDisablesTheIndex() {
+		CategoryBitmapIndex index = builtIndex(100);
+
+		index.onProductChanged(saved(Integer.MAX_VALUE + 1L, 10.0, 1L));
+
+		assertThat(index.match(Set.of(1L), false, null, null)).isNull();
+	}
+
+	// ============== UTILIDADES ==============
+
+	private CategoryBitmapIndex builtIndex(int maxCandidates) {
+		CategoryBitmapIndex index = new CategoryBitmapIndex(productRepository, maxCandidates);
+		index.build();
+		return index;
+	}
+
+	private static Stream<Object[]> rows(Object[]... rows) {
+		return Arrays.stream(rows);
+	}
+
+	private static ProductChangedEvent saved(Long id, Double price, Long... categoryIds) {
+		ProductEntity entity = new ProductEntity();
+		entity.setId(id);
+		entity.setName("Producto " + id);
+		entity.setPrice(price);
+		for (Long categoryId : categoryIds) {
+			CategoryEntity category = new CategoryEntity();
+			category.setId(categoryId);
+			entity.getCategories().add(category);
+		}
+		return ProductChangedEvent.created(entity, 7L);
+	}
+}
@@ -0,0 +1,126 @@
+package ec.edu.ups.icc.fundamentos01.products.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ec.edu.ups.icc.fundamentos01.products.dtos.ProductSuggestionDto;
+import ec.edu.ups.icc.fundamentos01.products.repository.ProductRepository;
+
+/**
+ * Autocompletado en memoria (sin base de datos): la base se carga de un
+ * repositorio simulado y los cambios llegan por upsert/remove
+ */
+class ProductSuggestIndexTests {
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private ProductSuggestIndex index;
+
+	@BeforeEach
+	void createIndex() {
+		when(productRepository.streamIdsAndNames()).thenAnswer(invocation -> Arrays.stream(new Object[][] {
+				{ 1L, "Laptop Gamer" },
+				{ 2L, "Silla Gamer Pro" },
+				{ 3L, "Gamepad" },
+				{ 4L, "Cámara Réflex" } }));
+		index = new ProductSuggestIndex(productRepository, mock(PlatformTransactionManager.class));
+	}
+
+	@Test
+	void matchesAnyWordIgnoringCaseAndAccents() {
+		index.build();
+
+		assertThat(ids(index.suggest("gam", 10))).containsExactlyInAnyOrder(1L, 2L, 3L);
+		assertThat(ids(index.suggest("PRO", 10))).containsExactly(2L);
+		assertThat(ids(index.suggest("camara r", 10))).containsExactly(4L);
+		assertThat(ids(index.suggest("réf", 10))).containsExactly(4L);
+		assertThat(ids(index.suggest("top", 10))).isEmpty(); // prefijo de palabra, no subcadena
+		assertThat(index.suggest(" ", 10)).isEmpty();
+		assertThat(index.suggest("gam", 0)).isEmpty();
+	}
+
+	@Test
+	void ranksByPopularityThenShorterName() {
+		index.build();
+
+		assertThat(ids(index.suggest("gam", 10))).containsExactly(3L, 1L, 2L);
+
+		index.recordView(2L);
+		index.recordView(2L);
+		index.recordView(1L);
+
+		List<ProductSuggestionDto> top = index.suggest("gam", 2);
+		assertThat(ids(top)).containsExactly(2L, 1L);
+		assertThat(top.get(0).name).isEqualTo("Silla Gamer Pro");
+		assertThat(top.get(0).score).isEqualTo(2);
+	}
+
+	@Test
+	void productMatchingSeveralWordsAppearsOnce() {
+		index.build();
+		index.upsert(5L, "Gamer Game Gamma");
+
+		assertThat(ids(index.suggest("gam", 10))).containsExactlyInAnyOrder(1L, 2L, 3L, 5L);
+	}
+
+	@Test
+	void renamesAndRemovalsHideTheOldEntries() {
+		index.build();
+
+		index.upsert(1L, "Laptop Oficina");
+		index.remove(3L);
+
+		assertThat(ids(index.suggest("gam", 10))).containsExactly(2L);
+		assertThat(ids(index.suggest("ofi", 10))).containsExactly(1L);
+		assertThat(index.suggest("ofi", 10).get(0).name).isEqualTo("Laptop Oficina");
+	}
+
+	@Test
+	void changesDuringTheBuildWinOverTheLoadedRows() {
+		// Antes de build(): el cambio queda en el delta y la base leída trae el nombre viejo
+		index.upsert(1L, "Laptop Oficina");
+		index.remove(2L);
+
+		index.build();
+
+		assertThat(ids(index.suggest("gam", 10))).containsExactly(3L);
+		assertThat(ids(index.suggest("laptop", 10))).containsExactly(1L);
+		assertThat(index.suggest("laptop", 10).get(0).name).isEqualTo("Laptop Oficina");
+	}
+
+	@Test
+	void compactionKeepsResultsAndDropsStaleEntries() {
+		index.build();
+
+		// Más de 1024 cambios entre delta y obsoletos: se fusionan con la base
+		LongStream.rangeClosed(100, 1199).forEach(id -> index.upsert(id, "Serie " + id));
+		index.upsert(1L, "Laptop Oficina");
+		LongStream.rangeClosed(100, 1199).filter(id -> id % 2 == 0).forEach(index::remove);
+
+		assertThat(index.suggest("serie", 5000)).hasSize(550);
+		assertThat(ids(index.suggest("serie 11", 5000)))
+				.hasSize(55)
+				.allMatch(id -> id % 2 == 1 && (id / 10 == 11 || id / 100 == 11));
+		assertThat(ids(index.suggest("1199", 10))).containsExactly(1199L);
+		assertThat(ids(index.suggest("gam", 10))).containsExactlyInAnyOrder(2L, 3L);
+		assertThat(ids(index.suggest("ofi", 10))).containsExactly(1L);
+	}
+
+	@Test
+	void normalizeLowercasesAndStripsAccents() {
+		assertThat(ProductSuggestIndex.normalize("  Cámara RÉFLEX ñandú ")).isEqualTo("camara reflex nandu");
+		assertThat(ProductSuggestIndex.normalize(null)).isEmpty();
+	}
+
+	private static List<Long> ids(List<ProductSuggestionDto> suggestions) {
+		return suggestions.stream().map(suggestion -> suggestion.id).toList();
+	}
+}
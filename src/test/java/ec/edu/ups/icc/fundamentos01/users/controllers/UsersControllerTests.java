@@ -0,0 +1,102 @@
+package ec.edu.ups.icc.fundamentos01.users.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import ec.edu.ups.icc.fundamentos01.users.models.UserEntity;
+import ec.edu.ups.icc.fundamentos01.users.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+
+/**
+ * PUT y PATCH de /api/users/{id} sobre la entidad gestionada (con @Version)
+ *
+ * Requiere el PostgreSQL local de application.yaml (igual que contextLoads)
+ */
+@SpringBootTest
+@Transactional
+@WithMockUser
+class UsersControllerTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private MockMvc mockMvc;
+	private UserEntity user;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+		UserEntity entity = new UserEntity();
+		entity.setName("Usuario Original");
+		entity.setEmail("users-controller-tests@example.com");
+		entity.setPassword("$2a$10$hashNoUsadoEnEsteTest");
+		user = userRepository.saveAndFlush(entity);
+	}
+
+	@Test
+	void putUpdatesManagedUserAndBumpsVersion() throws Exception {
+		Long versionBefore = user.getVersion();
+
+		mockMvc.perform(put("/api/users/{id}", user.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"name": "Usuario Editado", "email": "users-controller-put@example.com", "password": "Secreta123"}
+						"""))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(user.getId()))
+				.andExpect(jsonPath("$.name").value("Usuario Editado"))
+				.andExpect(jsonPath("$.email").value("users-controller-put@example.com"));
+
+		UserEntity stored = reload();
+		assertThat(stored.getName()).isEqualTo("Usuario Editado");
+		assertThat(stored.getVersion()).isEqualTo(versionBefore + 1);
+	}
+
+	@Test
+	void patchChangesOnlyPresentFields() throws Exception {
+		Long versionBefore = user.getVersion();
+
+		mockMvc.perform(patch("/api/users/{id}", user.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"email": "users-controller-patch@example.com"}
+						"""))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Usuario Original"))
+				.andExpect(jsonPath("$.email").value("users-controller-patch@example.com"));
+
+		UserEntity stored = reload();
+		assertThat(stored.getName()).isEqualTo("Usuario Original");
+		assertThat(stored.getEmail()).isEqualTo("users-controller-patch@example.com");
+		assertThat(stored.getVersion()).isEqualTo(versionBefore + 1);
+	}
+
+	// Fuerza el UPDATE y vuelve a leer la fila desde la base
+	private UserEntity reload() {
+		entityManager.flush();
+		entityManager.clear();
+		return userRepository.findById(user.getId()).orElseThrow();
+	}
+}
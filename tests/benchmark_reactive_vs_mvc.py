@@ -0,0 +1,300 @@
+#!/usr/bin/env python3
+"""
+Benchmark: API MVC (Tomcat + JPA, :8080) frente a reactive-api (WebFlux + R2DBC, :8081)
+
+Ambos servidores sobre la misma base. Para cada ruta de lectura
+(/paginated, /slice, /search, /{id}) se lanzan N clientes concurrentes
+contra cada API durante --duration segundos y se mide peticiones/s, p50, p99
+y errores. Además:
+- Paridad: compara el JSON de ambas APIs para las mismas peticiones
+- Streaming: una página grande (--stream-size filas) como JSON en MVC frente
+  a NDJSON en reactive-api; mide tiempo hasta el primer byte y total
+- Memoria: RSS e hilos de cada proceso (--mvc-pid / --reactive-pid, solo Linux)
+
+Uso (los dos servidores ya levantados):
+    ./gradlew bootRun
+    ./gradlew :reactive-api:bootRun
+    python3 tests/benchmark_reactive_vs_mvc.py --mvc-pid <pid> --reactive-pid <pid> --out resultado.json
+
+Solo usa la biblioteca estándar. Con muchos clientes subir antes el límite de descriptores:
+    ulimit -n 20000
+"""
+
+import argparse
+import asyncio
+import json
+import statistics
+import sys
+import time
+import urllib.error
+import urllib.request
+import uuid
+
+HOST = "localhost"
+MVC_PORT = 8080
+REACTIVE_PORT = 8081
+
+
+# -----------------------------
+# Autenticación: el token del API MVC vale en reactive-api (mismo jwt.secret)
+# -----------------------------
+def obtain_token(host, port):
+    email = f"bench-{uuid.uuid4().hex[:8]}@example.com"
+    body = {"name": "Benchmark", "email": email, "password": "Bench12345"}
+    request = urllib.request.Request(
+        f"http://{host}:{port}/auth/register",
+        data=json.dumps(body).encode(),
+        headers={"Content-Type": "application/json"},
+        method="POST",
+    )
+    with urllib.request.urlopen(request, timeout=30) as response:
+        return json.loads(response.read())["token"]
+
+
+def get_json(host, port, path, token):
+    request = urllib.request.Request(
+        f"http://{host}:{port}{path}",
+        headers={"Authorization": f"Bearer {token}", "Accept": "application/json"},
+    )
+    with urllib.request.urlopen(request, timeout=60) as response:
+        return json.loads(response.read())
+
+
+# -----------------------------
+# Cliente HTTP mínimo sobre asyncio
+# -----------------------------
+def build_request(path, host, token, accept="application/json"):
+    return (
+        f"GET {path} HTTP/1.1\r\n"
+        f"Host: {host}\r\n"
+        f"Authorization: Bearer {token}\r\n"
+        f"Accept: {accept}\r\n"
+        "Connection: close\r\n\r\n"
+    ).encode()
+
+
+async def client(host, port, token, path, stop, latencies, errors):
+    while not stop.is_set():
+        started = time.perf_counter()
+        try:
+            reader, writer = await asyncio.open_connection(host, port)
+            writer.write(build_request(path, host, token))
+            await writer.drain()
+            status_line = await asyncio.wait_for(reader.readline(), timeout=60)
+            await reader.read()
+            writer.close()
+            if b" 200 " in status_line:
+                latencies.append(time.perf_counter() - started)
+            else:
+                errors.append(status_line.decode(errors="replace").strip())
+        except (OSError, asyncio.TimeoutError) as ex:
+            errors.append(type(ex).__name__)
+
+
+async def measure(host, port, token, path, clients, duration):
+    stop = asyncio.Event()
+    latencies, errors = [], []
+    tasks = [asyncio.create_task(client(host, port, token, path, stop, latencies, errors))
+             for _ in range(clients)]
+    started = time.perf_counter()
+    await asyncio.sleep(duration)
+    elapsed = time.perf_counter() - started
+    stop.set()
+    for task in tasks:
+        task.cancel()
+    await asyncio.gather(*tasks, return_exceptions=True)
+    return {
+        "requests_per_s": round(len(latencies) / elapsed, 1),
+        "p50_ms": round(percentile(latencies, 0.50) * 1000, 1) if latencies else None,
+        "p99_ms": round(percentile(latencies, 0.99) * 1000, 1) if latencies else None,
+        "mean_ms": round(statistics.mean(latencies) * 1000, 1) if latencies else None,
+        "errors": len(errors),
+        "first_error": errors[0] if errors else None,
+    }
+
+
+async def timed_download(host, port, token, path, accept):
+    """Tiempo hasta el primer byte del cuerpo y hasta el final de la respuesta"""
+    started = time.perf_counter()
+    reader, writer = await asyncio.open_connection(host, port, limit=1 << 20)
+    writer.write(build_request(path, host, token, accept))
+    await writer.drain()
+    status_line = await reader.readline()
+    while (await reader.readline()) not in (b"\r\n", b""):
+        pass
+    await reader.read(1)
+    first_byte = time.perf_counter() - started
+    size = 1
+    while True:
+        chunk = await reader.read(1 << 16)
+        if not chunk:
+            break
+        size += len(chunk)
+    writer.close()
+    return {
+        "status": status_line.decode(errors="replace").split(" ")[1] if status_line else None,
+        "first_byte_ms": round(first_byte * 1000, 1),
+        "total_ms": round((time.perf_counter() - started) * 1000, 1),
+        "bytes": size,
+    }
+
+
+# -----------------------------
+# Memoria e hilos de cada servidor
+# -----------------------------
+def process_status(pid):
+    if pid is None:
+        return None
+    values = {}
+    try:
+        with open(f"/proc/{pid}/status") as status:
+            for line in status:
+                key, _, value = line.partition(":")
+                if key in ("VmRSS", "Threads"):
+                    values[key] = int(value.split()[0])
+    except OSError:
+        return None
+    return {"rss_mb": round(values.get("VmRSS", 0) / 1024, 1), "threads": values.get("Threads")}
+
+
+async def sample_process(pid, stop, samples):
+    while not stop.is_set():
+        status = process_status(pid)
+        if status:
+            samples.append(status)
+        await asyncio.sleep(1)
+
+
+def percentile(values, p):
+    if not values:
+        return None
+    ordered = sorted(values)
+    return ordered[min(len(ordered) - 1, int(len(ordered) * p))]
+
+
+# -----------------------------
+# Paridad del JSON
+# -----------------------------
+def comparable(body):
+    """Quita lo que puede variar entre dos lecturas iguales: timestamps de error y
+    el orden de las categorías (en MVC salen de un Set)"""
+    if isinstance(body, dict):
+        values = {k: comparable(v) for k, v in body.items() if k != "timestamp"}
+        if isinstance(values.get("categories"), list):
+            values["categories"].sort(key=lambda category: category.get("id") or 0)
+        return values
+    if isinstance(body, list):
+        return [comparable(v) for v in body]
+    return body
+
+
+def check_parity(args, token, paths):
+    mismatches = []
+    for path in paths:
+        try:
+            mvc = get_json(args.host, args.mvc_port, path, token)
+            reactive = get_json(args.host, args.reactive_port, path, token)
+        except urllib.error.HTTPError as ex:
+            mismatches.append(f"{path}: HTTP {ex.code}")
+            continue
+        if comparable(mvc) != comparable(reactive):
+            mismatches.append(path)
+    return mismatches
+
+
+# -----------------------------
+# Ejecución
+# -----------------------------
+async def run(args):
+    token = obtain_token(args.host, args.mvc_port)
+    first = get_json(args.host, args.mvc_port, "/api/products/paginated?page=0&size=1", token)
+    content = first.get("content", [])
+    product_id = content[0]["id"] if content else None
+
+    routes = [
+        "/api/products/paginated?page=0&size=20&sort=createdAt,desc",
+        "/api/products/slice?page=0&size=20&sort=createdAt,desc",
+        "/api/products/search?name=a&minPrice=10&page=0&size=20&sort=price,asc",
+    ]
+    if product_id is not None:
+        routes.append(f"/api/products/{product_id}")
+
+    mismatches = check_parity(args, token, routes)
+    print("Paridad JSON: " + ("OK" if not mismatches else f"difiere en {mismatches}"))
+
+    result = {"clients": args.clients, "duration_s": args.duration, "parity_mismatches": mismatches,
+              "routes": {}, "stream": {}, "server": {}}
+    servers = {"mvc": (args.mvc_port, args.mvc_pid), "reactive": (args.reactive_port, args.reactive_pid)}
+
+    for name, (port, pid) in servers.items():
+        stop = asyncio.Event()
+        samples = []
+        sampler = asyncio.create_task(sample_process(pid, stop, samples))
+        for path in routes:
+            print(f"{name}: {path} ({args.clients} clientes, {args.duration}s)...")
+            result["routes"].setdefault(path, {})[name] = await measure(
+                args.host, port, token, path, args.clients, args.duration)
+        stop.set()
+        await sampler
+        result["server"][name] = {
+            "rss_mb_max": max((s["rss_mb"] for s in samples), default=None),
+            "threads_max": max((s["threads"] for s in samples), default=None),
+        }
+
+    stream_path = f"/api/products/paginated?page=0&size={args.stream_size}&sort=id"
+    print(f"Página de {args.stream_size} filas: JSON (MVC) frente a NDJSON (reactive)...")
+    result["stream"]["mvc_json"] = await timed_download(
+        args.host, args.mvc_port, token, stream_path, "application/json")
+    result["stream"]["reactive_json"] = await timed_download(
+        args.host, args.reactive_port, token, stream_path, "application/json")
+    result["stream"]["reactive_ndjson"] = await timed_download(
+        args.host, args.reactive_port, token, stream_path, "application/x-ndjson")
+    return result
+
+
+def print_result(result):
+    print(f"\n=== MVC frente a reactive ({result['clients']} clientes, {result['duration_s']}s por ruta) ===")
+    for path, by_server in result["routes"].items():
+        print(f"  {path}")
+        for name, route in by_server.items():
+            print(f"    {name:9s} {route['requests_per_s']:>8} req/s  p50={route['p50_ms']} ms  "
+                  f"p99={route['p99_ms']} ms  errores={route['errors']}")
+        mvc, reactive = by_server.get("mvc"), by_server.get("reactive")
+        if mvc and reactive and mvc["requests_per_s"]:
+            print(f"    reactive/mvc: throughput x{reactive['requests_per_s'] / mvc['requests_per_s']:.2f}")
+    print("  Streaming:")
+    for name, stream in result["stream"].items():
+        print(f"    {name:16s} status={stream['status']} primer byte={stream['first_byte_ms']} ms  "
+              f"total={stream['total_ms']} ms  {stream['bytes']} bytes")
+    for name, server in result["server"].items():
+        print(f"  {name}: RSS máx {server['rss_mb_max']} MB, hilos máx {server['threads_max']}")
+    if result["parity_mismatches"]:
+        print(f"  AVISO: el JSON difiere en {result['parity_mismatches']}")
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--host", default=HOST)
+    parser.add_argument("--mvc-port", type=int, default=MVC_PORT)
+    parser.add_argument("--reactive-port", type=int, default=REACTIVE_PORT)
+    parser.add_argument("--mvc-pid", type=int, help="PID del API MVC (RSS e hilos)")
+    parser.add_argument("--reactive-pid", type=int, help="PID de reactive-api (RSS e hilos)")
+    parser.add_argument("--clients", type=int, default=200)
+    parser.add_argument("--duration", type=float, default=20)
+    parser.add_argument("--stream-size", type=int, default=50000)
+    parser.add_argument("--out", help="guarda el resultado en JSON")
+    args = parser.parse_args()
+
+    try:
+        result = asyncio.run(run(args))
+    except urllib.error.URLError as ex:
+        print(f"ERROR: no se pudo conectar con el servidor: {ex}")
+        sys.exit(1)
+    print_result(result)
+    if args.out:
+        with open(args.out, "w") as handle:
+            json.dump(result, handle, indent=2)
+
+
+if __name__ == "__main__":
+    main()
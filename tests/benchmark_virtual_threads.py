@@ -0,0 +1,277 @@
+#!/usr/bin/env python3
+"""
+Benchmark: hilos de plataforma vs hilos virtuales (spring.threads.virtual.enabled)
+
+Escenario: 5000 clientes lentos + clientes rápidos midiendo throughput
+- Clientes lentos: piden /api/products/paginated?size=100 y leen la respuesta
+  muy despacio (buffer de recepción pequeño). Tomcat bloquea el hilo del
+  request mientras el socket no acepta más bytes: con el pool de plataforma
+  (200 hilos) se agotan los hilos; con hilos virtuales solo se estaciona el
+  hilo virtual.
+- Clientes rápidos: piden /api/products/suggest (en memoria, sin JDBC) y
+  /api/products/{id} (JDBC) en bucle; se mide peticiones/s y latencias.
+- Memoria: RSS e hilos del proceso del servidor (/proc/<pid>/status, solo Linux)
+
+Uso (servidor ya levantado, una ejecución por modo):
+    VIRTUAL_THREADS_ENABLED=false ./gradlew bootRun
+    python3 tests/benchmark_virtual_threads.py --pid <pid> --label platform --out platform.json
+    VIRTUAL_THREADS_ENABLED=true ./gradlew bootRun
+    python3 tests/benchmark_virtual_threads.py --pid <pid> --label virtual --out virtual.json
+    python3 tests/benchmark_virtual_threads.py --compare platform.json virtual.json
+
+Solo usa la biblioteca estándar. Subir el límite de descriptores antes:
+    ulimit -n 20000
+"""
+
+import argparse
+import asyncio
+import json
+import socket
+import statistics
+import sys
+import time
+import urllib.error
+import urllib.request
+import uuid
+
+BASE_HOST = "localhost"
+BASE_PORT = 8080
+
+
+# -----------------------------
+# Autenticación (las rutas de productos requieren JWT)
+# -----------------------------
+def obtain_token(host, port):
+    email = f"bench-{uuid.uuid4().hex[:8]}@example.com"
+    body = {"name": "Benchmark", "email": email, "password": "Bench12345"}
+    request = urllib.request.Request(
+        f"http://{host}:{port}/auth/register",
+        data=json.dumps(body).encode(),
+        headers={"Content-Type": "application/json"},
+        method="POST",
+    )
+    with urllib.request.urlopen(request, timeout=30) as response:
+        return json.loads(response.read())["token"]
+
+
+def first_product_id(host, port, token):
+    request = urllib.request.Request(
+        f"http://{host}:{port}/api/products/paginated?page=0&size=1",
+        headers={"Authorization": f"Bearer {token}"},
+    )
+    with urllib.request.urlopen(request, timeout=30) as response:
+        content = json.loads(response.read()).get("content", [])
+        return content[0]["id"] if content else None
+
+
+# -----------------------------
+# Cliente HTTP mínimo sobre asyncio
+# -----------------------------
+def build_request(path, host, token):
+    return (
+        f"GET {path} HTTP/1.1\r\n"
+        f"Host: {host}\r\n"
+        f"Authorization: Bearer {token}\r\n"
+        "Connection: close\r\n\r\n"
+    ).encode()
+
+
+async def open_connection(host, port, recv_buffer=None):
+    if recv_buffer is None:
+        return await asyncio.open_connection(host, port)
+    sock = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
+    # Ventana TCP pequeña: el servidor se bloquea escribiendo la respuesta
+    sock.setsockopt(socket.SOL_SOCKET, socket.SO_RCVBUF, recv_buffer)
+    sock.setblocking(False)
+    await asyncio.get_running_loop().sock_connect(sock, (host, port))
+    return await asyncio.open_connection(sock=sock, limit=recv_buffer)
+
+
+async def slow_client(host, port, token, stop, chunk, pause, stats):
+    path = "/api/products/paginated?page=0&size=100&sort=createdAt,desc"
+    while not stop.is_set():
+        try:
+            reader, writer = await open_connection(host, port, recv_buffer=chunk)
+            writer.write(build_request(path, host, token))
+            await writer.drain()
+            while not stop.is_set():
+                data = await reader.read(chunk)
+                if not data:
+                    break
+                await asyncio.sleep(pause)
+            writer.close()
+            stats["slow_completed"] += 1
+        except (OSError, asyncio.IncompleteReadError):
+            stats["slow_errors"] += 1
+            await asyncio.sleep(0.5)
+
+
+async def fast_client(host, port, token, path, stop, latencies, stats):
+    while not stop.is_set():
+        started = time.perf_counter()
+        try:
+            reader, writer = await open_connection(host, port)
+            writer.write(build_request(path, host, token))
+            await writer.drain()
+            status_line = await asyncio.wait_for(reader.readline(), timeout=60)
+            await reader.read()
+            writer.close()
+            if b" 200 " in status_line:
+                latencies.append(time.perf_counter() - started)
+            else:
+                stats["fast_errors"] += 1
+        except (OSError, asyncio.TimeoutError):
+            stats["fast_errors"] += 1
+
+
+# -----------------------------
+# Memoria e hilos del servidor
+# -----------------------------
+def process_status(pid):
+    if pid is None:
+        return None
+    values = {}
+    try:
+        with open(f"/proc/{pid}/status") as status:
+            for line in status:
+                key, _, value = line.partition(":")
+                if key in ("VmRSS", "Threads"):
+                    values[key] = int(value.split()[0])
+    except OSError:
+        return None
+    return {"rss_mb": round(values.get("VmRSS", 0) / 1024, 1), "threads": values.get("Threads")}
+
+
+async def sample_process(pid, stop, samples):
+    while not stop.is_set():
+        status = process_status(pid)
+        if status:
+            samples.append(status)
+        await asyncio.sleep(1)
+
+
+def percentile(values, p):
+    if not values:
+        return None
+    ordered = sorted(values)
+    return ordered[min(len(ordered) - 1, int(len(ordered) * p))]
+
+
+# -----------------------------
+# Ejecución
+# -----------------------------
+async def run(args):
+    token = obtain_token(args.host, args.port)
+    product_id = first_product_id(args.host, args.port, token)
+    fast_paths = ["/api/products/suggest?prefix=a&limit=5"]
+    if product_id is not None:
+        fast_paths.append(f"/api/products/{product_id}")
+
+    stop = asyncio.Event()
+    stats = {"slow_completed": 0, "slow_errors": 0, "fast_errors": 0}
+    latencies = {path: [] for path in fast_paths}
+    samples = []
+
+    tasks = [asyncio.create_task(sample_process(args.pid, stop, samples))]
+    print(f"Abriendo {args.slow_clients} clientes lentos...")
+    for i in range(args.slow_clients):
+        tasks.append(asyncio.create_task(
+            slow_client(args.host, args.port, token, stop, args.chunk, args.pause, stats)))
+        if i % 500 == 499:
+            await asyncio.sleep(0.2)
+
+    await asyncio.sleep(args.warmup)
+    print(f"Midiendo {args.duration}s con {args.fast_clients} clientes rápidos por ruta...")
+    measured_from = time.perf_counter()
+    for path in fast_paths:
+        for _ in range(args.fast_clients):
+            tasks.append(asyncio.create_task(
+                fast_client(args.host, args.port, token, path, stop, latencies[path], stats)))
+
+    await asyncio.sleep(args.duration)
+    elapsed = time.perf_counter() - measured_from
+    stop.set()
+    for task in tasks:
+        task.cancel()
+    await asyncio.gather(*tasks, return_exceptions=True)
+
+    result = {
+        "label": args.label,
+        "slow_clients": args.slow_clients,
+        "duration_s": round(elapsed, 1),
+        "errors": stats,
+        "routes": {},
+        "server": {
+            "rss_mb_max": max((s["rss_mb"] for s in samples), default=None),
+            "threads_max": max((s["threads"] for s in samples), default=None),
+        },
+    }
+    for path, values in latencies.items():
+        result["routes"][path] = {
+            "requests_per_s": round(len(values) / elapsed, 1),
+            "p50_ms": round(percentile(values, 0.50) * 1000, 1) if values else None,
+            "p99_ms": round(percentile(values, 0.99) * 1000, 1) if values else None,
+            "mean_ms": round(statistics.mean(values) * 1000, 1) if values else None,
+        }
+    return result
+
+
+def print_result(result):
+    print(f"\n=== {result['label']} ({result['slow_clients']} clientes lentos, {result['duration_s']}s) ===")
+    for path, route in result["routes"].items():
+        print(f"  {path}: {route['requests_per_s']} req/s  p50={route['p50_ms']} ms  p99={route['p99_ms']} ms")
+    print(f"  servidor: RSS máx {result['server']['rss_mb_max']} MB, hilos máx {result['server']['threads_max']}")
+    print(f"  errores: {result['errors']}")
+
+
+def compare(files):
+    results = []
+    for name in files:
+        with open(name) as handle:
+            results.append(json.load(handle))
+    for result in results:
+        print_result(result)
+    if len(results) == 2:
+        base, other = results
+        print(f"\n=== {other['label']} frente a {base['label']} ===")
+        for path in base["routes"]:
+            if path in other["routes"] and base["routes"][path]["requests_per_s"]:
+                ratio = other["routes"][path]["requests_per_s"] / base["routes"][path]["requests_per_s"]
+                print(f"  {path}: throughput x{ratio:.2f}")
+        if base["server"]["rss_mb_max"] and other["server"]["rss_mb_max"]:
+            print(f"  RSS: {base['server']['rss_mb_max']} MB → {other['server']['rss_mb_max']} MB")
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--host", default=BASE_HOST)
+    parser.add_argument("--port", type=int, default=BASE_PORT)
+    parser.add_argument("--pid", type=int, help="PID del servidor (RSS e hilos)")
+    parser.add_argument("--label", default="run")
+    parser.add_argument("--slow-clients", type=int, default=5000)
+    parser.add_argument("--fast-clients", type=int, default=20)
+    parser.add_argument("--chunk", type=int, default=1024, help="bytes leídos por cliente lento en cada pausa")
+    parser.add_argument("--pause", type=float, default=1.0, help="segundos entre lecturas del cliente lento")
+    parser.add_argument("--warmup", type=float, default=10)
+    parser.add_argument("--duration", type=float, default=60)
+    parser.add_argument("--out", help="guarda el resultado en JSON")
+    parser.add_argument("--compare", nargs="+", metavar="JSON", help="compara resultados guardados")
+    args = parser.parse_args()
+
+    if args.compare:
+        compare(args.compare)
+        return
+
+    try:
+        result = asyncio.run(run(args))
+    except urllib.error.URLError as ex:
+        print(f"ERROR: no se pudo conectar con el servidor: {ex}")
+        sys.exit(1)
+    print_result(result)
+    if args.out:
+        with open(args.out, "w") as handle:
+            json.dump(result, handle, indent=2)
+
+
+if __name__ == "__main__":
+    main()